@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+
+/**
+ * Micro benchmarks for the unary aggregate kernels of LibMatrixAgg, 
+ * i.e., full (sum), row (rowSums), and column (colSums) aggregates.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AggregateBenchmark 
+{
+	@Param({"DENSE", "MCSR", "CSR", "COO"})
+	public String format;
+	
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+	
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X = null;
+	private AggregateUnaryOperator _sum = null;
+	private AggregateUnaryOperator _rowSums = null;
+	private AggregateUnaryOperator _colSums = null;
+	
+	@Setup
+	public void setup() 
+		throws DMLRuntimeException 
+	{
+		_X = BenchmarkUtils.createInput(rows, cols, sparsity, format, BenchmarkUtils.SEED);
+		_sum = createOperator("uak+", threads);
+		_rowSums = createOperator("uark+", threads);
+		_colSums = createOperator("uack+", threads);
+	}
+	
+	@Benchmark
+	public Object sum() 
+		throws DMLRuntimeException 
+	{
+		return aggregate(_sum);
+	}
+	
+	@Benchmark
+	public Object rowSums() 
+		throws DMLRuntimeException 
+	{
+		return aggregate(_rowSums);
+	}
+	
+	@Benchmark
+	public Object colSums() 
+		throws DMLRuntimeException 
+	{
+		return aggregate(_colSums);
+	}
+	
+	private Object aggregate(AggregateUnaryOperator op) 
+		throws DMLRuntimeException
+	{
+		return _X.aggregateUnaryOperations(op, new MatrixBlock(), 
+				rows, cols, new MatrixIndexes(1, 1), true);
+	}
+	
+	private static AggregateUnaryOperator createOperator(String opcode, int k) {
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+		return new AggregateUnaryOperator(op.aggOp, op.indexFn, k);
+	}
+}
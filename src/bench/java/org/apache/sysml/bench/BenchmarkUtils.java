@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.bench;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDatagen;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Utilities for creating benchmark inputs of a specific block format.
+ * 
+ */
+public class BenchmarkUtils 
+{
+	//supported input formats (dense or one of the sparse block types)
+	public static final String FORMAT_DENSE = "DENSE";
+	public static final String FORMAT_MCSR  = "MCSR";
+	public static final String FORMAT_CSR   = "CSR";
+	public static final String FORMAT_COO   = "COO";
+	
+	public static final long SEED = 7;
+	
+	private BenchmarkUtils() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Creates a uniform random matrix block [-1,1] of the given dimensions and sparsity,
+	 * and converts it into the requested format independent of its sparsity.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @param format one of DENSE, MCSR, CSR, COO
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createInput(int rows, int cols, double sparsity, String format, long seed) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock tmp = MatrixBlock.randOperations(rows, cols, sparsity, 
+				-1, 1, LibMatrixDatagen.RAND_PDF_UNIFORM, seed);
+		
+		//enforce dense format
+		if( FORMAT_DENSE.equals(format) ) {
+			MatrixBlock ret = new MatrixBlock(rows, cols, false);
+			ret.copy(tmp, false);
+			return ret;
+		}
+		
+		//enforce sparse format (mcsr by default, converted to csr/coo)
+		MatrixBlock ret = new MatrixBlock(rows, cols, true);
+		ret.copy(tmp, true);
+		SparseBlock.Type type = SparseBlock.Type.valueOf(format);
+		if( type != MatrixBlock.DEFAULT_SPARSEBLOCK && !ret.isEmptyBlock(false) )
+			ret = new MatrixBlock(ret, type, true);
+		return ret;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+
+/**
+ * Micro benchmarks for the binary cell-wise kernels of LibMatrixBincell,
+ * i.e., matrix-matrix and matrix-vector addition and multiplication.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BinaryBenchmark 
+{
+	@Param({"DENSE", "MCSR", "CSR", "COO"})
+	public String format;
+	
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+	
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	private MatrixBlock _X = null; //rows x cols
+	private MatrixBlock _Y = null; //rows x cols
+	private MatrixBlock _v = null; //rows x 1 (dense)
+	private BinaryOperator _plus = null;
+	private BinaryOperator _mult = null;
+	
+	@Setup
+	public void setup() 
+		throws DMLRuntimeException 
+	{
+		_X = BenchmarkUtils.createInput(rows, cols, sparsity, format, BenchmarkUtils.SEED);
+		_Y = BenchmarkUtils.createInput(rows, cols, sparsity, format, BenchmarkUtils.SEED+1);
+		_v = BenchmarkUtils.createInput(rows, 1, 1.0, BenchmarkUtils.FORMAT_DENSE, BenchmarkUtils.SEED+2);
+		_plus = new BinaryOperator(Plus.getPlusFnObject());
+		_mult = new BinaryOperator(Multiply.getMultiplyFnObject());
+	}
+	
+	@Benchmark
+	public Object plusMatrixMatrix() 
+		throws DMLRuntimeException 
+	{
+		return _X.binaryOperations(_plus, _Y, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public Object multMatrixMatrix() 
+		throws DMLRuntimeException 
+	{
+		return _X.binaryOperations(_mult, _Y, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public Object multMatrixVector() 
+		throws DMLRuntimeException 
+	{
+		return _X.binaryOperations(_mult, _v, new MatrixBlock());
+	}
+}
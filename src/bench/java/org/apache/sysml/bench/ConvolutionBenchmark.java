@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDNN;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDNN.ConvolutionParameters;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+
+/**
+ * Micro benchmarks for the convolution kernels of LibMatrixDNN over dense 
+ * NCHW inputs, i.e., conv2d (lowered to im2col and filter matrix multiplication),
+ * the im2col transformation itself, and max pooling.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConvolutionBenchmark 
+{
+	@Param({"64"})
+	public int N; //number of images
+	
+	@Param({"3"})
+	public int C; //number of channels
+	
+	@Param({"32"})
+	public int HW; //image height and width
+	
+	@Param({"32"})
+	public int K; //number of filters
+	
+	@Param({"3"})
+	public int RS; //filter height and width
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X = null; //N x CHW
+	private MatrixBlock _F = null; //K x CRS
+	private ConvolutionParameters _params = null;
+	private AggregateBinaryOperator _op = null;
+	
+	@Setup
+	public void setup() 
+		throws DMLRuntimeException 
+	{
+		_X = BenchmarkUtils.createInput(N, C*HW*HW, 1.0, BenchmarkUtils.FORMAT_DENSE, BenchmarkUtils.SEED);
+		_F = BenchmarkUtils.createInput(K, C*RS*RS, 1.0, BenchmarkUtils.FORMAT_DENSE, BenchmarkUtils.SEED+1);
+		
+		//stride 1 and padding to preserve the image size
+		int pad = RS / 2;
+		_params = new ConvolutionParameters(N, C, HW, HW, K, RS, RS, 1, 1, pad, pad, threads);
+		
+		AggregateOperator agg = new AggregateOperator(0, Plus.getPlusFnObject());
+		_op = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), agg, threads);
+	}
+	
+	@Benchmark
+	public Object im2col() 
+		throws DMLRuntimeException 
+	{
+		return im2col(_params);
+	}
+	
+	@Benchmark
+	public Object conv2d() 
+		throws DMLRuntimeException 
+	{
+		MatrixBlock cols = im2col(_params);
+		return _F.aggregateBinaryOperations(_F, cols, new MatrixBlock(), _op);
+	}
+	
+	@Benchmark
+	public Object maxpooling() 
+		throws DMLRuntimeException 
+	{
+		MatrixBlock out = createDenseOutput(N, C*_params.P*_params.Q);
+		LibMatrixDNN.maxpooling(_X, out, _params);
+		return out;
+	}
+	
+	private MatrixBlock im2col(ConvolutionParameters params) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock out = createDenseOutput(C*RS*RS, N*params.P*params.Q);
+		LibMatrixDNN.im2col(_X, out, params);
+		out.recomputeNonZeros();
+		return out;
+	}
+	
+	private static MatrixBlock createDenseOutput(int rows, int cols) {
+		MatrixBlock out = new MatrixBlock(rows, cols, false);
+		out.allocateDenseBlock();
+		return out;
+	}
+}
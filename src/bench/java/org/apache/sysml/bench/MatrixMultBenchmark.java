@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+
+/**
+ * Micro benchmarks for the matrix multiplication kernels of LibMatrixMult, 
+ * i.e., matrix-matrix (matmult), transpose-self (tsmm), and chain (mmchain)
+ * matrix multiplication over the rows x cols input X.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MatrixMultBenchmark 
+{
+	@Param({"DENSE", "MCSR", "CSR", "COO"})
+	public String format;
+	
+	@Param({"1.0", "0.1", "0.01"})
+	public double sparsity;
+	
+	@Param({"1000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X = null; //rows x cols
+	private MatrixBlock _Y = null; //cols x cols (dense)
+	private MatrixBlock _v = null; //cols x 1 (dense)
+	private AggregateBinaryOperator _op = null;
+	
+	@Setup
+	public void setup() 
+		throws DMLRuntimeException 
+	{
+		_X = BenchmarkUtils.createInput(rows, cols, sparsity, format, BenchmarkUtils.SEED);
+		_Y = BenchmarkUtils.createInput(cols, cols, 1.0, BenchmarkUtils.FORMAT_DENSE, BenchmarkUtils.SEED+1);
+		_v = BenchmarkUtils.createInput(cols, 1, 1.0, BenchmarkUtils.FORMAT_DENSE, BenchmarkUtils.SEED+2);
+		
+		AggregateOperator agg = new AggregateOperator(0, Plus.getPlusFnObject());
+		_op = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), agg, threads);
+	}
+	
+	@Benchmark
+	public Object matmult() 
+		throws DMLRuntimeException 
+	{
+		return _X.aggregateBinaryOperations(_X, _Y, new MatrixBlock(), _op);
+	}
+	
+	@Benchmark
+	public Object tsmm() 
+		throws DMLRuntimeException 
+	{
+		return _X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, threads);
+	}
+	
+	@Benchmark
+	public Object mmchain() 
+		throws DMLRuntimeException 
+	{
+		return _X.chainMatrixMultOperations(_v, null, new MatrixBlock(), ChainType.XtXv, threads);
+	}
+}
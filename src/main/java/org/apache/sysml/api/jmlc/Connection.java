@@ -58,6 +58,8 @@ import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.transform.TfUtils;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.transform.encode.EncoderFactory;
 import org.apache.sysml.runtime.transform.meta.TfMetaUtils;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.wink.json4j.JSONObject;
@@ -634,4 +636,39 @@ public class Connection implements Closeable
 	public FrameBlock readTransformMetaDataFromPath(String spec, String metapath, String colDelim) throws IOException {
 		return TfMetaUtils.readTransformMetaDataFromPath(spec, metapath, colDelim);
 	}
+	
+	////////////////////////////////////////////
+	// Prepare transform encoders
+	////////////////////////////////////////////
+	
+	/**
+	 * Prepares a reusable transform encoder for the given transform specification
+	 * and meta data, which encodes individual rows without script execution.
+	 * 
+	 * @param spec  transform specification as json string (with column ids)
+	 * @param meta  transform meta data as FrameBlock object
+	 * @return PreparedTransformEncoder object for row-at-a-time encoding
+	 * @throws DMLException
+	 */
+	public PreparedTransformEncoder prepareTransformEncoder(String spec, FrameBlock meta) 
+		throws DMLException 
+	{
+		Encoder encoder = EncoderFactory.createEncoder(spec, meta.getNumColumns(), meta);
+		return new PreparedTransformEncoder(encoder, meta.getNumColumns());
+	}
+	
+	/**
+	 * Prepares a reusable transform encoder for the given transform specification
+	 * and meta data, which encodes individual rows without script execution.
+	 * 
+	 * @param spec  transform specification as json string (with column ids)
+	 * @param meta  transform meta data as two-dimensional string array
+	 * @return PreparedTransformEncoder object for row-at-a-time encoding
+	 * @throws DMLException
+	 */
+	public PreparedTransformEncoder prepareTransformEncoder(String spec, String[][] meta) 
+		throws DMLException 
+	{
+		return prepareTransformEncoder(spec, DataConverter.convertToFrameBlock(meta));
+	}
 }
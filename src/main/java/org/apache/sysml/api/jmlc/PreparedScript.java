@@ -22,20 +22,32 @@ package org.apache.sysml.api.jmlc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.sysml.api.DMLException;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.recompile.Recompiler;
+import org.apache.sysml.parser.DMLProgram;
 import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.FunctionProgramBlock;
 import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
 import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.controlprogram.ProgramBlock;
 import org.apache.sysml.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
 import org.apache.sysml.runtime.instructions.cp.BooleanObject;
 import org.apache.sysml.runtime.instructions.cp.Data;
 import org.apache.sysml.runtime.instructions.cp.DoubleObject;
@@ -44,6 +56,7 @@ import org.apache.sysml.runtime.instructions.cp.ScalarObject;
 import org.apache.sysml.runtime.instructions.cp.StringObject;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.DenseBlockPool;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
@@ -53,17 +66,34 @@ import org.apache.sysml.utils.Explain;
 
 /**
  * Representation of a prepared (precompiled) DML/PyDML script.
+ * 
+ * <p>
+ * A prepared script can be shared across concurrent scoring threads without 
+ * cloning: the compiled program is read-only, while input bindings and results 
+ * are maintained per thread. Inputs bound with reuse are shared by all threads.
+ * Optionally, a plan cache keeps programs recompiled for the characteristics 
+ * (dimensions and sparsity) of the bound matrix and frame inputs.
  */
 public class PreparedScript 
 {
 	//input/output specification
 	private HashSet<String> _inVarnames = null;
 	private HashSet<String> _outVarnames = null;
-	private HashMap<String,Data> _inVarReuse = null;
+	private ConcurrentHashMap<String,Data> _inVarReuse = null;
 	
-	//internal state (reused)
+	//internal state (reused, symbol tables per thread)
 	private Program _prog = null;
-	private LocalVariableMap _vars = null; 
+	private ThreadLocalVariableMap _vars = null; 
+	
+	//configuration of the preparing connection
+	private DMLConfig _dmlconf = null;
+	private CompilerConfig _cconf = null;
+	
+	//cache of programs specialized to input characteristics
+	private PlanCache _planCache = null;
+	
+	//pool of dense blocks recycled across executions
+	private DenseBlockPool _blockPool = null;
 	
 	/**
 	 * Meant to be invoked only from Connection.
@@ -75,14 +105,57 @@ public class PreparedScript
 	protected PreparedScript( Program prog, String[] inputs, String[] outputs ) 
 	{
 		_prog = prog;
-		_vars = new LocalVariableMap();
+		_vars = new ThreadLocalVariableMap();
 		
 		//populate input/output vars
 		_inVarnames = new HashSet<String>();
 		Collections.addAll(_inVarnames, inputs);
 		_outVarnames = new HashSet<String>();
 		Collections.addAll(_outVarnames, outputs);
-		_inVarReuse = new HashMap<String, Data>();
+		_inVarReuse = new ConcurrentHashMap<String, Data>();
+		
+		//keep configuration of preparing thread for execution in other threads
+		_dmlconf = ConfigurationManager.getDMLConfig();
+		_cconf = ConfigurationManager.getCompilerConfig();
+	}
+	
+	/**
+	 * Enables the plan cache with the given maximum number of entries. On 
+	 * execute, the program is recompiled once for the dimensions and sparsity 
+	 * of the bound matrix and frame inputs, and subsequent executions with the 
+	 * same input characteristics reuse the recompiled program. Scalar inputs 
+	 * are not part of the cache key and hence, not propagated as literals.
+	 * 
+	 * @param size maximum number of cached programs, disables the cache if &lt;= 0
+	 */
+	public void setPlanCacheSize(int size) {
+		_planCache = (size > 0) ? new PlanCache(size) : null;
+	}
+	
+	/**
+	 * Gets the number of programs currently held in the plan cache.
+	 * 
+	 * @return number of cached programs, 0 if the plan cache is disabled
+	 */
+	public int getPlanCacheNumEntries() {
+		PlanCache cache = _planCache;
+		if( cache == null )
+			return 0;
+		synchronized( cache ) {
+			return cache.size();
+		}
+	}
+	
+	/**
+	 * Enables a pool of dense blocks with the given maximum size in bytes.
+	 * Dense blocks of intermediates are recycled between executions of this 
+	 * script (once an execution completed), which reduces allocations and GC 
+	 * overhead for repeated scoring. Results are never recycled.
+	 * 
+	 * @param size maximum size of pooled blocks in bytes, disables the pool if &lt;= 0
+	 */
+	public void setBlockPoolSize(long size) {
+		_blockPool = (size > 0) ? new DenseBlockPool(size) : null;
 	}
 	
 	/**
@@ -192,7 +265,7 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 		
-		_vars.put(varname, scalar);
+		_vars.get().put(varname, scalar);
 	}
 
 	/**
@@ -218,6 +291,26 @@ public class PreparedScript
 		setMatrix(varname, DataConverter.convertToMatrixBlock(matrix), reuse);
 	}
 	
+	/**
+	 * Binds a matrix object to a registered input variable, where the given
+	 * row-major array is used by reference (without copy) and must not be 
+	 * modified during execution. 
+	 * 
+	 * @param varname input variable name
+	 * @param matrix matrix represented as a row-major double array
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param reuse if {@code true}, preserve value over multiple {@code executeScript} calls
+	 * @throws DMLException
+	 */
+	public void setMatrix(String varname, double[] matrix, int rows, int cols, boolean reuse) 
+		throws DMLException 
+	{
+		MatrixBlock mb = new MatrixBlock(rows, cols, false);
+		mb.initByReference(matrix, rows, cols);
+		setMatrix(varname, mb, reuse);
+	}
+	
 	/**
 	 * Binds a matrix object to a registered input variable. 
 	 * If reuse requested, then the input is guaranteed to be 
@@ -234,18 +327,18 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 				
-		String scratch_space = ConfigurationManager.getScratchSpace();
-		int blocksize = ConfigurationManager.getBlocksize();
+		String scratch_space = _dmlconf.getTextValue(DMLConfig.SCRATCH_SPACE);
+		int blocksize = _cconf.getInt(ConfigType.BLOCK_SIZE);
 		
 		//create new matrix object
-		MatrixCharacteristics mc = new MatrixCharacteristics(matrix.getNumRows(), matrix.getNumColumns(), blocksize, blocksize);
+		MatrixCharacteristics mc = new MatrixCharacteristics(matrix.getNumRows(), matrix.getNumColumns(), blocksize, blocksize, matrix.getNonZeros());
 		MatrixFormatMetaData meta = new MatrixFormatMetaData(mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo);
 		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, scratch_space+"/"+varname, meta);
 		mo.acquireModify(matrix); 
 		mo.release();
 		
 		//put create matrix wrapper into symbol table
-		_vars.put(varname, mo);
+		_vars.get().put(varname, mo);
 		if( reuse ) {
 			mo.enableCleanup(false); //prevent cleanup
 			_inVarReuse.put(varname, mo);
@@ -343,7 +436,7 @@ public class PreparedScript
 		if( !_inVarnames.contains(varname) )
 			throw new DMLException("Unspecified input variable: "+varname);
 				
-		String scratch_space = ConfigurationManager.getScratchSpace();
+		String scratch_space = _dmlconf.getTextValue(DMLConfig.SCRATCH_SPACE);
 		
 		//create new frame object
 		MatrixCharacteristics mc = new MatrixCharacteristics(frame.getNumRows(), frame.getNumColumns(), -1, -1);
@@ -353,7 +446,7 @@ public class PreparedScript
 		fo.release();
 		
 		//put create matrix wrapper into symbol table
-		_vars.put(varname, fo);
+		_vars.get().put(varname, fo);
 		if( reuse ) {
 			fo.enableCleanup(false); //prevent cleanup
 			_inVarReuse.put(varname, fo);
@@ -361,11 +454,12 @@ public class PreparedScript
 	}
 	
 	/**
-	 * Remove all current values bound to input or output variables.
+	 * Remove all current values bound to input or output variables
+	 * of the calling thread.
 	 * 
 	 */
 	public void clearParameters() {
-		_vars.removeAll();
+		_vars.get().removeAll();
 	}
 	
 	/**
@@ -377,29 +471,80 @@ public class PreparedScript
 	 */
 	public ResultVariables executeScript() 
 		throws DMLException
+	{
+		//use configuration of preparing connection (for scoring threads),
+		//and restore the configuration of the calling thread afterwards
+		DMLConfig dmlconf = ConfigurationManager.getDMLConfig();
+		CompilerConfig cconf = ConfigurationManager.getCompilerConfig();
+		if( cconf != _cconf ) {
+			ConfigurationManager.setLocalConfig(_dmlconf);
+			ConfigurationManager.setLocalConfig(_cconf);
+		}
+		
+		try {
+			return executeScriptInternal();
+		}
+		finally {
+			if( cconf != _cconf ) {
+				ConfigurationManager.setLocalConfig(dmlconf);
+				ConfigurationManager.setLocalConfig(cconf);
+			}
+		}
+	}
+	
+	/**
+	 * Executes the prepared script with the configuration of the 
+	 * preparing connection.
+	 * 
+	 * @return ResultVariables object encapsulating output results
+	 * @throws DMLException
+	 */
+	private ResultVariables executeScriptInternal() 
+		throws DMLException
 	{
 		//add reused variables
+		LocalVariableMap vars = _vars.get();
 		for( Entry<String,Data> e : _inVarReuse.entrySet() )
-			_vars.put(e.getKey(), e.getValue());
+			vars.put(e.getKey(), e.getValue());
 		
-		//create and populate execution context
-		ExecutionContext ec = ExecutionContextFactory.createContext(_prog);	
-		ec.setVariables(_vars);
+		//obtain program specialized to inputs, if plan cache enabled
+		PlanCache cache = _planCache;
+		Program prog = (cache != null) ? 
+			getSpecializedProgram(cache, vars) : _prog;
 		
-		//core execute runtime program	
-		_prog.execute( ec );  
+		//create and populate execution context
+		ExecutionContext ec = ExecutionContextFactory.createContext(prog);	
+		ec.setVariables(vars);
 		
-		//cleanup unnecessary outputs
-		Collection<String> tmpVars = new ArrayList<String>(_vars.keySet());
-		for( String var :  tmpVars )
-			if( !_outVarnames.contains(var) )
-				_vars.remove(var);
+		//core execute runtime program (w/ optional block pool)
+		DenseBlockPool pool = _blockPool;
+		if( pool != null )
+			DenseBlockPool.activate(pool);
+		ArrayList<MatrixBlock> results = null;
+		try 
+		{
+			prog.execute( ec );  
+			
+			//cleanup unnecessary outputs
+			Collection<String> tmpVars = new ArrayList<String>(vars.keySet());
+			for( String var :  tmpVars )
+				if( !_outVarnames.contains(var) )
+					vars.remove(var);
+			
+			//collect result blocks, excluded from recycling
+			if( pool != null )
+				results = getResultBlocks(vars);
+		}
+		finally {
+			if( pool != null )
+				DenseBlockPool.deactivate(results);
+		}
 		
 		//construct results
 		ResultVariables rvars = new ResultVariables();
 		for( String ovar : _outVarnames )
-			if( _vars.keySet().contains(ovar) )
-				rvars.addResult(ovar, _vars.get(ovar));
+			if( vars.keySet().contains(ovar) )
+				rvars.addResult(ovar, vars.get(ovar));
 			
 		return rvars;
 	}
@@ -413,4 +558,162 @@ public class PreparedScript
 	public String explain() throws DMLException {
 		return Explain.explain(_prog);
 	}
+	
+	/**
+	 * Obtains the matrix blocks of all matrix outputs.
+	 * 
+	 * @param vars symbol table
+	 * @return list of matrix blocks
+	 * @throws DMLException
+	 */
+	private ArrayList<MatrixBlock> getResultBlocks(LocalVariableMap vars) 
+		throws DMLException
+	{
+		ArrayList<MatrixBlock> ret = new ArrayList<MatrixBlock>();
+		for( String ovar : _outVarnames ) {
+			Data dat = vars.get(ovar);
+			if( dat instanceof MatrixObject ) {
+				MatrixObject mo = (MatrixObject) dat;
+				ret.add(mo.acquireRead());
+				mo.release();
+			}
+		}
+		return ret;
+	}
+	
+	/**
+	 * Obtains the program for the characteristics of the given bound inputs
+	 * from the plan cache, or creates and caches a recompiled deep copy of
+	 * the prepared program on a cache miss.
+	 * 
+	 * @param cache plan cache
+	 * @param vars symbol table of bound inputs
+	 * @return specialized program
+	 * @throws DMLException
+	 */
+	private Program getSpecializedProgram(PlanCache cache, LocalVariableMap vars) 
+		throws DMLException
+	{
+		//construct cache key and matrix/frame inputs for recompilation
+		//(scalars are excluded to prevent literal replacement)
+		StringBuilder key = new StringBuilder();
+		LocalVariableMap inputs = new LocalVariableMap();
+		for( String var : new TreeSet<String>(_inVarnames) ) {
+			Data dat = vars.get(var);
+			key.append(var);
+			key.append('=');
+			if( dat instanceof MatrixObject ) {
+				MatrixCharacteristics mc = ((MatrixObject)dat).getMatrixCharacteristics();
+				key.append(mc.getRows());
+				key.append('x');
+				key.append(mc.getCols());
+				//distinguish empty inputs because of empty-block rewrites
+				key.append( (mc.getNonZeros()==0) ? 'e' : MatrixBlock.evalSparseFormatInMemory(
+					mc.getRows(), mc.getCols(), mc.getNonZeros()) ? 's' : 'd' );
+				inputs.put(var, dat);
+			}
+			else if( dat instanceof FrameObject ) {
+				MatrixCharacteristics mc = ((FrameObject)dat).getMatrixCharacteristics();
+				key.append(mc.getRows());
+				key.append('x');
+				key.append(mc.getCols());
+				inputs.put(var, dat);
+			}
+			key.append(';');
+		}
+		
+		//probe plan cache
+		String skey = key.toString();
+		Program prog = null;
+		synchronized( cache ) {
+			prog = cache.get(skey);
+		}
+		
+		//create specialized program if not existing, outside the lock in order 
+		//to not block concurrent cache hits (concurrent misses of the same key 
+		//compile redundantly, but only the first inserted program is used)
+		if( prog == null ) {
+			Program tmp = createSpecializedProgram(inputs);
+			synchronized( cache ) {
+				prog = cache.get(skey);
+				if( prog == null ) {
+					cache.put(skey, tmp);
+					prog = tmp;
+				}
+			}
+		}
+		
+		return prog;
+	}
+	
+	/**
+	 * Creates a deep copy of the prepared program (w/ shared functions)
+	 * and recompiles it for the characteristics of the given inputs.
+	 * 
+	 * @param inputs symbol table of matrix and frame inputs
+	 * @return recompiled program
+	 * @throws DMLException
+	 */
+	private Program createSpecializedProgram(LocalVariableMap inputs) 
+		throws DMLException
+	{
+		try
+		{
+			Program prog = new Program();
+			
+			//shallow copy of functions (not recompiled)
+			for( Entry<String,FunctionProgramBlock> e : _prog.getFunctionProgramBlocks().entrySet() ) {
+				String[] parts = DMLProgram.splitFunctionKey(e.getKey());
+				prog.addFunctionProgramBlock(parts[0], parts[1], e.getValue());
+			}
+			
+			//deep copy of program blocks incl hop dags
+			ArrayList<ProgramBlock> pbs = ProgramConverter.rcreateDeepCopyProgramBlocks(
+				_prog.getProgramBlocks(), 0, -1, new HashSet<String>(), new HashSet<String>(), true, true);
+			for( ProgramBlock pb : pbs )
+				prog.addProgramBlock(pb);
+			
+			//recompile for input characteristics (w/o further dynamic recompilation)
+			Recompiler.recompileProgramBlockHierarchy(prog.getProgramBlocks(), 
+				(LocalVariableMap)inputs.clone(), 0, true);
+			
+			//final cleanup of recompiled instructions
+			JMLCUtils.cleanupRuntimeProgram(prog, _outVarnames.toArray(new String[0]));
+			
+			return prog;
+		}
+		catch(DMLRuntimeException ex) {
+			throw new DMLException("Failed to create specialized program.", ex);
+		}
+	}
+	
+	/**
+	 * Thread-local symbol table of bound inputs and outputs, which 
+	 * allows to share a prepared script across scoring threads.
+	 */
+	private static class ThreadLocalVariableMap extends ThreadLocal<LocalVariableMap> {
+		@Override 
+		protected LocalVariableMap initialValue() { 
+			return new LocalVariableMap();
+		}
+	}
+	
+	/**
+	 * Bounded plan cache with LRU replacement, accessed in synchronized blocks.
+	 */
+	private static class PlanCache extends LinkedHashMap<String, Program> {
+		private static final long serialVersionUID = -8176094582941707423L;
+		
+		private final int _maxSize;
+		
+		public PlanCache(int maxSize) {
+			super(16, 0.75f, true);
+			_maxSize = maxSize;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Program> eldest) {
+			return size() > _maxSize;
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.api.jmlc;
+
+import org.apache.sysml.api.DMLException;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+
+/**
+ * A PreparedTransformEncoder object is a pre-built transform encoder (incl
+ * parsed transform specification and indexed recode maps), created by
+ * {@link Connection#prepareTransformEncoder prepareTransformEncoder}, which
+ * applies the transform meta data to individual rows of string values. This
+ * avoids the frame allocation and encoder construction of transformapply per
+ * script execution for row-at-a-time scoring.
+ * 
+ * Note: The encoder itself is read-only and hence can be shared across threads,
+ * while encode(String[]) reuses an internal output row per object.
+ *
+ */
+public class PreparedTransformEncoder 
+{
+	private final Encoder _encoder;
+	private final int _clen;
+	private final double[] _out;
+	
+	protected PreparedTransformEncoder(Encoder encoder, int clen) {
+		_encoder = encoder;
+		_clen = clen;
+		_out = new double[clen];
+	}
+	
+	/**
+	 * Obtain the number of columns of input and output rows.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getNumColumns() {
+		return _clen;
+	}
+	
+	/**
+	 * Encodes the given row into the reused output row of this object,
+	 * which is overwritten by subsequent calls.
+	 * 
+	 * @param row input row of string values
+	 * @return encoded row as double array (reused)
+	 * @throws DMLException
+	 */
+	public double[] encode(String[] row) 
+		throws DMLException
+	{
+		return encode(row, _out);
+	}
+	
+	/**
+	 * Encodes the given row into the given output row, where recoded
+	 * values without entries in the recode maps are encoded as NaN.
+	 * 
+	 * @param row input row of string values
+	 * @param out output row of length getNumColumns()
+	 * @return encoded row as double array
+	 * @throws DMLException
+	 */
+	public double[] encode(String[] row, double[] out) 
+		throws DMLException
+	{
+		if( row.length != _clen || out.length != _clen )
+			throw new DMLException("Invalid row length: "+row.length+"/"+out.length+" (expected "+_clen+").");
+		
+		try {
+			return _encoder.apply(row, out);
+		}
+		catch(Exception ex) {
+			throw new DMLException(ex);
+		}
+	}
+}
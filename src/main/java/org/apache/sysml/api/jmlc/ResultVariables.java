@@ -96,6 +96,45 @@ public class ResultVariables
 		return ret;
 	}
 	
+	/**
+	 * Obtain the matrix represented by the given output variable
+	 * and copy it into the given (e.g., preallocated) array.
+	 * 
+	 * @param varname output variable name
+	 * @param ret output array of at least rows*cols cells
+	 * @return matrix as a row-major double array
+	 * @throws DMLException
+	 */
+	public double[] getMatrix(String varname, double[] ret) 
+		throws DMLException
+	{
+		//convert output matrix into given double array	
+		MatrixObject mo = getMatrixObject(varname);
+		MatrixBlock mb = mo.acquireRead();
+		DataConverter.convertToDoubleVector(mb, ret);
+		mo.release();
+	
+		return ret;
+	}
+	
+	/**
+	 * Obtain the matrix block represented by the given output variable,
+	 * without conversion or copy.
+	 * 
+	 * @param varname output variable name
+	 * @return matrix as a matrix block
+	 * @throws DMLException
+	 */
+	public MatrixBlock getMatrixBlock(String varname) 
+		throws DMLException
+	{
+		MatrixObject mo = getMatrixObject(varname);
+		MatrixBlock ret = mo.acquireRead();
+		mo.release();
+		
+		return ret;
+	}
+	
 	/**
 	 * Obtain the frame represented by the given output variable.
 	 * 
@@ -196,6 +235,26 @@ public class ResultVariables
 		return (ScalarObject) dat;
 	}
 	
+	/**
+	 * 
+	 * @param varname
+	 * @return
+	 * @throws DMLException
+	 */
+	private MatrixObject getMatrixObject(String varname) 
+		throws DMLException
+	{
+		if( !_out.containsKey(varname) )
+			throw new DMLException("Non-existent output variable: "+varname);
+		
+		//basic checks for data type
+		Data dat = _out.get(varname);
+		if( !(dat instanceof MatrixObject) )
+			throw new DMLException("Expected matrix result '"+varname+"' not a matrix.");
+		
+		return (MatrixObject) dat;
+	}
+	
 	/**
 	 * Add the output variable name and generated output data to the ResultVariable
 	 * object. Called during the execution of {@link PreparedScript}'s
@@ -45,6 +45,10 @@ public class CompilerConfig
 		//Enables multi-threaded operations for mm, mmchain, and tsmm, rand, wdivmm, 
 		//wsloss, wumm, wcemm, uagg, tak, and groupedaggregate.
 		PARALLEL_CP_MATRIX_OPERATIONS,
+		//Enables out-of-core (CP_FILE) execution of cell-wise, aggregate, and matrix-vector 
+		//operations that stream binary blocks from disk if their inputs exceed the local 
+		//memory budget. Otherwise, such operations are compiled to MR/Spark or forced CP.
+		OUTOFCORE_CP_OPERATIONS,
 		//Enables multi-threaded local or distributed remote parfor operators. Otherwise 
 		//parfor is restricted to parfor local with par=1.
 		PARALLEL_LOCAL_OR_REMOTE_PARFOR,
@@ -76,6 +80,7 @@ public class CompilerConfig
 	//default flags (exposed for testing purposes only)
 	public static boolean FLAG_DYN_RECOMPILE = true;
 	public static boolean FLAG_PARREAD_TEXT = true;
+	public static boolean FLAG_OUTOFCORE_CP = false;
 	
 	private HashMap<ConfigType, Boolean> _bmap = null;
 	private HashMap<ConfigType, Integer> _imap = null;
@@ -87,6 +92,7 @@ public class CompilerConfig
 		_bmap.put(ConfigType.PARALLEL_CP_READ_BINARYFORMATS, true);
 		_bmap.put(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS, true);
 		_bmap.put(ConfigType.PARALLEL_CP_MATRIX_OPERATIONS, true);
+		_bmap.put(ConfigType.OUTOFCORE_CP_OPERATIONS, FLAG_OUTOFCORE_CP);
 		_bmap.put(ConfigType.PARALLEL_LOCAL_OR_REMOTE_PARFOR, true);
 		_bmap.put(ConfigType.ALLOW_DYN_RECOMPILATION,          FLAG_DYN_RECOMPILE);
 		_bmap.put(ConfigType.ALLOW_PARALLEL_DYN_RECOMPILATION, FLAG_DYN_RECOMPILE);
@@ -186,6 +186,10 @@ public class ConfigurationManager
 		return getCompilerConfigFlag(ConfigType.PARALLEL_LOCAL_OR_REMOTE_PARFOR);
 	}
 	
+	public static boolean isOutOfCoreCPOperations() {
+		return getCompilerConfigFlag(ConfigType.OUTOFCORE_CP_OPERATIONS);
+	}
+	
 	
 	///////////////////////////////////////
 	// Thread-local classes
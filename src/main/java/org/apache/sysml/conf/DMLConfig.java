@@ -70,6 +70,10 @@ public class DMLConfig
 	public static final String YARN_APPQUEUE    	= "dml.yarn.app.queue"; 
 	public static final String CP_PARALLEL_MATRIXMULT = "cp.parallel.matrixmult";
 	public static final String CP_PARALLEL_TEXTIO   = "cp.parallel.textio";
+	public static final String CP_CACHING_POLICY    = "cp.caching.policy";
+	public static final String CP_CACHING_COMPRESS  = "cp.caching.compress";
+	public static final String CP_CACHING_PREFETCH  = "cp.caching.prefetch";
+	public static final String CP_OUTOFCORE         = "cp.outofcore";
 
 	// supported prefixes for custom map/reduce configurations
 	public static final String PREFIX_MAPRED = "mapred";
@@ -100,6 +104,10 @@ public class DMLConfig
 		_defaultVals.put(YARN_APPQUEUE,    	     "default" );
 		_defaultVals.put(CP_PARALLEL_MATRIXMULT, "true" );
 		_defaultVals.put(CP_PARALLEL_TEXTIO,     "true" );
+		_defaultVals.put(CP_CACHING_POLICY,      "fifo" );
+		_defaultVals.put(CP_CACHING_COMPRESS,    "false" );
+		_defaultVals.put(CP_CACHING_PREFETCH,    "true" );
+		_defaultVals.put(CP_OUTOFCORE,           "false" );
 	}
 	
 	public DMLConfig()
@@ -440,7 +448,8 @@ public class DMLConfig
 				LOCAL_TMP_DIR,SCRATCH_SPACE,OPTIMIZATION_LEVEL,
 				NUM_REDUCERS, DEFAULT_BLOCK_SIZE,
 				YARN_APPMASTER, YARN_APPMASTERMEM, YARN_MAPREDUCEMEM, 
-				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO
+				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO, CP_CACHING_POLICY, 
+				CP_CACHING_COMPRESS, CP_CACHING_PREFETCH, CP_OUTOFCORE
 		}; 
 		
 		StringBuilder sb = new StringBuilder();
@@ -187,6 +187,12 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 						throw new HopsException(this.printErrorLocation() + "Invalid Matrix Mult Method (" + _method + ") while constructing CP lops.");
 				}
 			}
+			else if( et == ExecType.CP_FILE )
+			{
+				//out-of-core matrix mult w/ streamed large input
+				_method = MMultMethod.MM;
+				constructCPFileLopsMM();
+			}
 			else if( et == ExecType.SPARK ) 
 			{
 				//matrix mult operation selection part 3 (SPARK type)
@@ -401,6 +407,18 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean isOutOfCoreApplicable()
+	{
+		//matrix multiplications (e.g., X%*%v, t(v)%*%X, but also X%*%Y with small Y) 
+		//over a streamed matrix input, where the other input and the output fit in memory
+		Hop input1 = getInput().get(0);
+		Hop input2 = getInput().get(1);
+		return isMatrixMultiply() && input1.dimsKnown() && input2.dimsKnown()
+			&& (fitsIntoLocalMemBudget(input1) || fitsIntoLocalMemBudget(input2))
+			&& fitsIntoLocalMemBudget(this);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 		throws HopsException 
@@ -449,6 +467,9 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 			_etype = ExecType.SPARK;
 		}
 		
+		//out-of-core execution if inputs exceed memory budget on single node
+		checkAndSetOutOfCoreExecType();
+		
 		//mark for recompile (forever)
 		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE ) {
 			setRequiresRecompile();			
@@ -654,6 +675,22 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		setLops(matmultCP);
 	}
 
+	/**
+	 * 
+	 * @throws HopsException
+	 * @throws LopsException
+	 */
+	private void constructCPFileLopsMM() 
+		throws HopsException, LopsException
+	{
+		Lop matmultCPFile = new Binary(getInput().get(0).constructLops(),getInput().get(1).constructLops(), 
+				Binary.OperationTypes.MATMULT, getDataType(), getValueType(), ExecType.CP_FILE, 1);
+		
+		setOutputDimensions(matmultCPFile);
+		setLineNumbers( matmultCPFile );
+		setLops(matmultCPFile);
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -115,13 +115,13 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 			ExecType et = optFindExecType();
 			Hop input = getInput().get(0);
 			
-			if ( et == ExecType.CP ) 
+			if ( et == ExecType.CP || et == ExecType.CP_FILE ) 
 			{
 				Lop agg1 = null;
-				if( isTernaryAggregateRewriteApplicable() ) {
+				if( et == ExecType.CP && isTernaryAggregateRewriteApplicable() ) {
 					agg1 = constructLopsTernaryAggregateRewrite(et);
 				}
-				else if( isUnaryAggregateOuterCPRewriteApplicable() )
+				else if( et == ExecType.CP && isUnaryAggregateOuterCPRewriteApplicable() )
 				{
 					OperationTypes op = HopsAgg2Lops.get(_op);
 					DirectionTypes dir = HopsDirection2Lops.get(_direction);
@@ -398,6 +398,20 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 	}
 	
 
+	@Override
+	protected boolean isOutOfCoreApplicable()
+	{
+		//full, row, and column aggregates over a streamed matrix input, where
+		//the partial aggregates incl corrections (at most 3x output) fit in memory
+		Hop input = getInput().get(0);
+		return input.getDataType().isMatrix() && input.dimsKnown()
+			&& (   _op == AggOp.SUM || _op == AggOp.SUM_SQ || _op == AggOp.MIN 
+				|| _op == AggOp.MAX || _op == AggOp.PROD   || _op == AggOp.MEAN )
+			&& (   _direction == Direction.RowCol || _direction == Direction.Row 
+				|| _direction == Direction.Col )
+			&& 3 * getOutputMemEstimate() < OptimizerUtils.getLocalMemBudget();
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -441,6 +455,9 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 			_etype = ExecType.SPARK;
 		}
 		
+		//out-of-core execution if inputs exceed memory budget on single node
+		checkAndSetOutOfCoreExecType();
+		
 		//mark for recompile (forever)
 		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE ) {
 			setRequiresRecompile();
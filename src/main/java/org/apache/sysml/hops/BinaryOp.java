@@ -599,7 +599,7 @@ public class BinaryOp extends Hop
 		{
 			// Both operands are Matrixes
 			ExecType et = optFindExecType();
-			if ( et == ExecType.CP ) 
+			if ( et == ExecType.CP || et == ExecType.CP_FILE ) 
 			{
 				Binary binary = new Binary(getInput().get(0).constructLops(), getInput().get(1).constructLops(), HopsOpOp2LopsB.get(op),
 						getDataType(), getValueType(), et);
@@ -928,6 +928,27 @@ public class BinaryOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean isOutOfCoreApplicable()
+	{
+		Hop left = getInput().get(0);
+		Hop right = getInput().get(1);
+		if( !getDataType().isMatrix() || !supportsMatrixScalarOperations() )
+			return false;
+		
+		//matrix-scalar operations over a streamed matrix input
+		if( left.getDataType().isMatrix() && right.getDataType().isScalar() )
+			return left.dimsKnown();
+		else if( left.getDataType().isScalar() && right.getDataType().isMatrix() )
+			return right.dimsKnown();
+		
+		//matrix-vector operations over a streamed matrix and in-memory vector
+		return left.dimsKnown() && right.dimsKnown() && !left.isVector()
+			&& (   (right.getDim2()==1 && left.getDim1()==right.getDim1())
+				|| (right.getDim1()==1 && left.getDim2()==right.getDim2()) )
+			&& fitsIntoLocalMemBudget(right);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -998,6 +1019,9 @@ public class BinaryOp extends Hop
 			_etype = ExecType.SPARK;
 		}
 
+		//out-of-core execution if inputs exceed memory budget on single node
+		checkAndSetOutOfCoreExecType();
+		
 		//mark for recompile (forever)
 		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE ) {
 			setRequiresRecompile();
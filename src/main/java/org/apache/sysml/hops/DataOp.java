@@ -28,8 +28,10 @@ import org.apache.sysml.lops.Data;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.lops.LopProperties.ExecType;
 import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.parser.DataExpression;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.io.CSVMetaDataEstimator;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
@@ -47,6 +49,10 @@ public class DataOp extends Hop
 	
 	private boolean _recompileRead = true;
 	
+	//sample-based estimates for csv reads with unknown size (lazily computed)
+	private MatrixCharacteristics _sampleStats = null;
+	private boolean _sampled = false;
+	
 	/**
 	 * List of "named" input parameters. They are maintained as a hashmap:
 	 * parameter names (String) are mapped as indices (Integer) into getInput()
@@ -394,6 +400,79 @@ public class DataOp extends Hop
 		return LocalFileUtils.BUFFER_SIZE;
 	}
 	
+	@Override
+	public void computeMemEstimate( MemoTable memo )
+	{
+		super.computeMemEstimate(memo);
+		
+		//use sample-based estimates for csv reads with unknown size; these estimates
+		//only affect the read itself (and are not propagated as worst-case stats), 
+		//while consumers are recompiled after the read w/ exact characteristics
+		if( OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING && isCSVReadUnknownSize() ) 
+		{
+			MatrixCharacteristics mc = getSampledCharacteristics();
+			if( mc != null ) {
+				_outputMemEstimate = computeOutputMemEstimate(mc.getRows(), mc.getCols(), mc.getNonZeros());
+				_memEstimate = getInputOutputSize();
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private boolean isCSVReadUnknownSize()
+	{
+		return _dataop == DataOpTypes.PERSISTENTREAD 
+			&& _inFormat == FileFormatTypes.CSV
+			&& getDataType() == DataType.MATRIX
+			&& _fileName != null && !dimsKnown();
+	}
+	
+	/**
+	 * Obtains the sample-based estimates of rows, cols, and nnz of a csv read
+	 * with unknown size, which is sampled once per hop. 
+	 * 
+	 * @return matrix characteristics or null if not available
+	 */
+	public MatrixCharacteristics getSampledCharacteristics()
+	{
+		if( !_sampled ) {
+			_sampled = true;
+			try {
+				//obtain csv properties (literals or defaults)
+				boolean header = DataExpression.DEFAULT_DELIM_HAS_HEADER_ROW;
+				String delim = DataExpression.DEFAULT_DELIM_DELIMITER;
+				Hop hheader = getInputParameter(DataExpression.DELIM_HAS_HEADER_ROW);
+				Hop hdelim = getInputParameter(DataExpression.DELIM_DELIMITER);
+				if( hheader instanceof LiteralOp )
+					header = ((LiteralOp)hheader).getBooleanValue();
+				if( hdelim instanceof LiteralOp )
+					delim = ((LiteralOp)hdelim).getStringValue();
+				
+				_sampleStats = CSVMetaDataEstimator
+					.estimateMatrixCharacteristics(_fileName, header, delim);
+			}
+			catch(Exception ex) {
+				LOG.warn("Failed to estimate csv characteristics of '"+_fileName+"'.", ex);
+			}
+		}
+		
+		return _sampleStats;
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @return
+	 */
+	private Hop getInputParameter(String name)
+	{
+		Integer ix = _paramIndexMap.get(name);
+		return (ix != null) ? getInput().get(ix) : null;
+	}
+	
 	@Override
 	protected long[] inferOutputCharacteristics( MemoTable memo )
 	{
@@ -439,6 +518,10 @@ public class DataOp extends Hop
 			if( getDataType()==DataType.SCALAR || getDataType()==DataType.FRAME )
 				_etypeForced = ExecType.CP;
 			
+			//columnar files are only written by local writers
+			if( _dataop == DataOpTypes.PERSISTENTWRITE && _inFormat == FileFormatTypes.COLUMNAR )
+				_etypeForced = ExecType.CP;
+			
 			if( _etypeForced != null ) 			
 			{
 				_etype = _etypeForced;
@@ -469,8 +552,9 @@ public class DataOp extends Hop
 		}
 	    else //READ
 		{
-	    	//mark for recompile (forever)
-			if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && letype==REMOTE 
+	    	//mark for recompile (forever), incl reads w/ sample-based size estimates
+			if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) 
+				&& (letype==REMOTE || _sampleStats != null)
 				&& (_recompileRead || _requiresCheckpoint) ) 
 			{
 				setRequiresRecompile();
@@ -526,6 +610,8 @@ public class DataOp extends Hop
 		ret._inRowsInBlock = _inRowsInBlock;
 		ret._inColsInBlock = _inColsInBlock;
 		ret._recompileRead = _recompileRead;
+		ret._sampleStats = _sampleStats;
+		ret._sampled = _sampled;
 		ret._paramIndexMap = (HashMap<String, Integer>) _paramIndexMap.clone();
 		//note: no deep cp of params since read-only 
 		
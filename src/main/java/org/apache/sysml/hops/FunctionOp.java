@@ -21,6 +21,7 @@ package org.apache.sysml.hops;
 
 import java.util.ArrayList;
 
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
 import org.apache.sysml.lops.FunctionCallCP;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.lops.LopsException;
@@ -36,7 +37,7 @@ import org.apache.sysml.runtime.controlprogram.parfor.opt.CostEstimatorHops;
  * Note: Currently, we support expressions in function arguments but no function calls
  * in expressions.
  */
-public class FunctionOp extends Hop
+public class FunctionOp extends Hop implements MultiThreadedHop
 {
 	
 	public static String OPSTRING = "extfunct";
@@ -55,6 +56,8 @@ public class FunctionOp extends Hop
 	private String[] _outputs = null; 
 	private ArrayList<Hop> _outputHops = null;
 	
+	private int _maxNumThreads = -1; //-1 for unlimited
+	
 	private FunctionOp() {
 		//default constructor for clone
 	}
@@ -99,6 +102,16 @@ public class FunctionOp extends Hop
 		return _outputHops;
 	}
 	
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+	
+	@Override
+	public int getMaxNumThreads() {
+		return _maxNumThreads;
+	}
+	
 	public String[] getOutputVariableNames()
 	{
 		return _outputs;
@@ -222,8 +235,10 @@ public class FunctionOp extends Hop
 		for( Hop in : getInput() )
 			tmp.add( in.constructLops() );
 		
-		//construct function call
-		FunctionCallCP fcall = new FunctionCallCP( tmp, _fnamespace, _fname, _outputs, _outputHops );
+		//construct function call (multi-threaded transformencode)
+		int k = ( _type == FunctionType.MULTIRETURN_BUILTIN && _fname.equalsIgnoreCase("transformencode") ) ?
+				OptimizerUtils.getConstrainedNumThreads( _maxNumThreads ) : -1;
+		FunctionCallCP fcall = new FunctionCallCP( tmp, _fnamespace, _fname, _outputs, _outputHops, k );
 		setLineNumbers( fcall );
 		setLops( fcall );
 	
@@ -281,6 +296,7 @@ public class FunctionOp extends Hop
 		ret._fnamespace = _fnamespace;
 		ret._fname = _fname;
 		ret._outputs = _outputs.clone();
+		ret._maxNumThreads = _maxNumThreads;
 		if( _outputHops != null )
 			ret._outputHops = (ArrayList<Hop>) _outputHops.clone();
 		
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.hops;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.lops.FusedCell;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.operators.CellFuseOperator;
+
+/**
+ * Hop for a fused chain of cell-wise unary and binary operations, which is 
+ * created by RewriteFuseCellwiseOperations. The inputs are the leafs of the 
+ * fused operator chain (matrices of equal dimensions and scalars), while the 
+ * chain itself is represented as cell program over these inputs (see 
+ * CellFuseOperator for the program format).
+ * 
+ */
+public class FusedCellOp extends Hop implements MultiThreadedHop
+{
+	private String _program = null;
+	
+	private int _maxNumThreads = -1; //-1 for unlimited
+	
+	private FusedCellOp() {
+		//default constructor for clone
+	}
+	
+	public FusedCellOp(String l, DataType dt, ValueType vt, ArrayList<Hop> inputs, String program) 
+	{
+		super(l, dt, vt);
+		_program = program;
+		
+		for( int i=0; i<inputs.size(); i++ ) {
+			Hop in = inputs.get(i);
+			getInput().add(i, in);
+			in.getParent().add(this);
+		}
+		
+		//compute unknown dims and nnz
+		refreshSizeInformation();
+	}
+	
+	public String getProgram() {
+		return _program;
+	}
+	
+	@Override
+	public String getOpString() {
+		return "cellfuse("+_program+")";
+	}
+
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+	
+	@Override
+	public int getMaxNumThreads() {
+		return _maxNumThreads;
+	}
+	
+	@Override
+	public Lop constructLops()
+		throws HopsException, LopsException 
+	{
+		//return already created lops
+		if( getLops() != null )
+			return getLops();
+		
+		ExecType et = optFindExecType();
+		
+		//no mr instruction, fallback to unfused operations
+		if( et == ExecType.MR ) {
+			setLops(constructUnfusedLops());
+			return getLops();
+		}
+		
+		ArrayList<Lop> inputs = new ArrayList<Lop>();
+		for( Hop in : getInput() )
+			inputs.add(in.constructLops());
+		int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+		
+		FusedCell fused = new FusedCell(inputs, _program, getDataType(), getValueType(), et, k);
+		setOutputDimensions(fused);
+		setLineNumbers(fused);
+		setLops(fused);
+		
+		//add reblock/checkpoint lops if necessary
+		constructAndSetLopsDataFlowProperties();
+		
+		return getLops();
+	}
+	
+	@Override
+	public boolean allowsAllExecTypes() {
+		return true;
+	}
+	
+	@Override
+	protected double computeOutputMemEstimate( long dim1, long dim2, long nnz )
+	{
+		//worst-case dense output because nnz are data-dependent
+		return OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, 1.0);
+	}
+	
+	@Override
+	protected double computeIntermediateMemEstimate( long dim1, long dim2, long nnz )
+	{
+		//no intermediates except for small chunk buffers
+		return 0;
+	}
+	
+	@Override
+	protected long[] inferOutputCharacteristics( MemoTable memo )
+	{
+		long[] ret = null;
+		
+		Hop input = getFirstMatrixInput();
+		MatrixCharacteristics mc = memo.getAllInputStats(input);
+		if( mc.dimsKnown() )
+			ret = new long[]{mc.getRows(), mc.getCols(), -1};
+		
+		return ret;
+	}
+	
+	@Override
+	protected ExecType optFindExecType() 
+		throws HopsException 
+	{	
+		checkAndSetForcedPlatform();
+		
+		ExecType REMOTE = OptimizerUtils.isSparkExecutionMode() ? ExecType.SPARK : ExecType.MR;
+		
+		if( _etypeForced != null ) 			
+		{
+			_etype = _etypeForced;
+		}
+		else
+		{	
+			if ( OptimizerUtils.isMemoryBasedOptLevel() ) {
+				_etype = findExecTypeByMemEstimate();
+			}
+			else if ( getFirstMatrixInput().areDimsBelowThreshold() )
+				_etype = ExecType.CP;
+			else
+				_etype = REMOTE;
+			
+			//check for valid CP dimensions and matrix size
+			checkAndSetInvalidCPDimsAndSize();
+		}
+		
+		//mark for recompile (forever)
+		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE )
+			setRequiresRecompile();
+		
+		return _etype;
+	}
+	
+	/**
+	 * Expands the cell program into the original chain of unary and binary
+	 * operations over the inputs of this hop, and constructs their lops. This
+	 * is used as fallback for mr, where no fused operator exists and forcing
+	 * cp could exceed the memory budget. The expanded operations are only 
+	 * used for lop construction and hence, removed as parents of the inputs.
+	 * 
+	 * @return
+	 * @throws HopsException
+	 * @throws LopsException
+	 */
+	private Lop constructUnfusedLops() 
+		throws HopsException, LopsException
+	{
+		ArrayList<Hop> ops = new ArrayList<Hop>();
+		LinkedList<Hop> stack = new LinkedList<Hop>();
+		MemoTable memo = new MemoTable();
+		
+		//evaluate cell program in reverse polish notation
+		for( String token : _program.split(CellFuseOperator.TOKEN_DELIM) ) 
+		{
+			String op = token.substring(1);
+			Hop hop = null;
+			switch( token.charAt(0) ) {
+				case CellFuseOperator.TOKEN_INPUT:
+					stack.push(getInput().get(Integer.parseInt(op)));
+					continue;
+				case CellFuseOperator.TOKEN_UNARY:
+					hop = new UnaryOp(getName(), DataType.MATRIX, ValueType.DOUBLE, 
+						OpOp1.valueOf(op.toUpperCase()), stack.pop());
+					break;
+				case CellFuseOperator.TOKEN_BINARY:
+					Hop in2 = stack.pop();
+					hop = new BinaryOp(getName(), DataType.MATRIX, ValueType.DOUBLE, 
+						getOpOp2ForOuterVectorOperation(op), stack.pop(), in2);
+					break;
+				default:
+					throw new HopsException("Invalid cell program token: "+token);
+			}
+			HopRewriteUtils.setOutputBlocksizes(hop, getRowsInBlock(), getColsInBlock());
+			HopRewriteUtils.copyLineNumbers(this, hop);
+			hop.refreshSizeInformation();
+			hop.computeMemEstimate(memo);
+			ops.add(hop);
+			stack.push(hop);
+		}
+		
+		Lop ret = stack.pop().constructLops();
+		
+		//remove parent references to the expanded operations
+		for( Hop in : getInput() )
+			in.getParent().removeAll(ops);
+		
+		return ret;
+	}
+	
+	@Override
+	public void refreshSizeInformation()
+	{
+		Hop input = getFirstMatrixInput();
+		setDim1( input.getDim1() );
+		setDim2( input.getDim2() );
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private Hop getFirstMatrixInput() {
+		for( Hop in : getInput() )
+			if( in.getDataType() == DataType.MATRIX )
+				return in;
+		throw new RuntimeException("Fused cell-wise operation without matrix input.");
+	}
+	
+	@Override
+	public Object clone() throws CloneNotSupportedException 
+	{
+		FusedCellOp ret = new FusedCellOp();	
+		
+		//copy generic attributes
+		ret.clone(this, false);
+		
+		//copy specific attributes
+		ret._program = _program;
+		ret._maxNumThreads = _maxNumThreads;
+		
+		return ret;
+	}
+	
+	@Override
+	public boolean compare( Hop that )
+	{
+		if( !(that instanceof FusedCellOp) )
+			return false;
+		
+		FusedCellOp that2 = (FusedCellOp)that;
+		boolean ret = _program.equals(that2._program)
+				&& getInput().size() == that2.getInput().size()
+				&& _maxNumThreads == that2._maxNumThreads;
+		
+		//compare all childs
+		if( ret ) //sizes matched
+			for( int i=0; i<_input.size(); i++ )
+				ret &= getInput().get(i) == that2.getInput().get(i);
+		
+		return ret;
+	}
+	
+	@Override
+	public void printMe() throws HopsException 
+	{
+		if (LOG.isDebugEnabled()){
+			if (getVisited() != VisitStatus.DONE) {
+				super.printMe();
+				LOG.debug("  Program: " + _program);
+				for (Hop h : getInput()) {
+					h.printMe();
+				}
+			}
+			setVisited(VisitStatus.DONE);
+		}
+	}
+}
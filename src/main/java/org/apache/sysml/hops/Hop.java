@@ -40,6 +40,7 @@ import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
@@ -352,9 +353,11 @@ public abstract class Hop
 			//conditional checkpoint based on memory estimate in order to 
 			//(1) avoid unnecessary persist and unpersist calls, and 
 			//(2) avoid unnecessary creation of spark context (incl executors)
+			//(for unknown dims, e.g., sample-based estimates of csv reads, we 
+			//conservatively use the memory budget of vectors)
 			if(    OptimizerUtils.isHybridExecutionMode() 
 				&& (getDim2() > 1 && _outputMemEstimate < OptimizerUtils.getLocalMemBudget()
-				|| getDim2() == 1 && _outputMemEstimate < OptimizerUtils.getLocalMemBudget()/3 )
+				|| getDim2() <= 1 && _outputMemEstimate < OptimizerUtils.getLocalMemBudget()/3 )
 				|| _etypeForced == ExecType.CP )
 			{
 				et = ExecType.CP;
@@ -798,6 +801,48 @@ public abstract class Hop
 		return et;
 	}
 
+	/**
+	 * Switches the execution type to out-of-core CP (CP_FILE) if enabled, supported 
+	 * by the specific operation, and the operation executes on a single node but 
+	 * exceeds the local memory budget. Out-of-core operations stream the binary 
+	 * blocks of their main input from disk instead of falling back to MR/Spark 
+	 * or running into out-of-memory errors with forced singlenode execution.
+	 */
+	protected void checkAndSetOutOfCoreExecType()
+	{
+		boolean singleNode = DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE
+			|| (DMLScript.rtplatform == RUNTIME_PLATFORM.HYBRID && InfrastructureAnalyzer.isLocalMode());
+		
+		if(    ConfigurationManager.isOutOfCoreCPOperations() && singleNode
+			&& (_etypeForced == null || _etypeForced == ExecType.CP)
+			&& getMemEstimate() >= OptimizerUtils.getLocalMemBudget()
+			&& isOutOfCoreApplicable() )
+		{
+			_etype = ExecType.CP_FILE;
+		}
+	}
+	
+	/**
+	 * Indicates if this operation can be computed out-of-core, i.e., by streaming 
+	 * the binary blocks of one input with known dimensions, while all other inputs
+	 * and the output fit into the local memory budget.
+	 * 
+	 * @return
+	 */
+	protected boolean isOutOfCoreApplicable() {
+		//by default: not supported
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	protected static boolean fitsIntoLocalMemBudget( Hop hop ) {
+		return hop.getOutputMemEstimate() < OptimizerUtils.getLocalMemBudget();
+	}
+
 	public ArrayList<Hop> getParent() {
 		return _parent;
 	}
@@ -1108,7 +1153,7 @@ public abstract class Hop
 	};
 
 	public enum FileFormatTypes {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, MM, CSV, COLUMNAR
 	};
 
 	public enum DataOpTypes {
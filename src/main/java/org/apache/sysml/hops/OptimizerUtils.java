@@ -164,12 +164,27 @@ public class OptimizerUtils
 	 */
 	public static boolean ALLOW_SUM_PRODUCT_REWRITES = true;
 	
+	/**
+	 * Enables the fusion of chains of cell-wise unary and binary operations into a
+	 * single-pass fused operator without materialized intermediates.
+	 */
+	public static boolean ALLOW_CELLWISE_OPERATOR_FUSION = false;
+	
 	/**
 	 * Enables a specific hop dag rewrite that splits hop dags after csv persistent reads with 
 	 * unknown size in order to allow for recompile.
 	 */
 	public static boolean ALLOW_SPLIT_HOP_DAGS = true;
 	
+	/**
+	 * Enables the sample-based estimation of the size and sparsity of csv persistent
+	 * reads with unknown size, which are used as estimates (not exact or worst-case
+	 * statistics) for the memory estimate and execution type of the read itself, and
+	 * for in-memory reblocks. Plans based on these estimates are marked for recompile,
+	 * i.e., corrected by dynamic recompilation with the exact characteristics.
+	 */
+	public static boolean ALLOW_CSV_METADATA_SAMPLING = true;
+	
 	
 	
 	/**
@@ -291,6 +306,7 @@ public class OptimizerUtils
 				ALLOW_INTER_PROCEDURAL_ANALYSIS = false;
 				ALLOW_BRANCH_REMOVAL = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_OPERATOR_FUSION = false;
 				break;
 			// opt level 1: memory-based (no advanced rewrites)	
 			case 1:
@@ -302,6 +318,7 @@ public class OptimizerUtils
 				ALLOW_INTER_PROCEDURAL_ANALYSIS = false;
 				ALLOW_BRANCH_REMOVAL = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_OPERATOR_FUSION = false;
 				break;
 			// opt level 2: memory-based (all advanced rewrites)
 			case 2:
@@ -328,7 +345,9 @@ public class OptimizerUtils
 				ALLOW_WORSTCASE_SIZE_EXPRESSION_EVALUATION = false;
 				ALLOW_RAND_JOB_RECOMPILE = false;
 				ALLOW_SUM_PRODUCT_REWRITES = false;
+				ALLOW_CELLWISE_OPERATOR_FUSION = false;
 				ALLOW_SPLIT_HOP_DAGS = false;
+				ALLOW_CSV_METADATA_SAMPLING = false;
 				cconf.set(ConfigType.ALLOW_DYN_RECOMPILATION, false);
 				cconf.set(ConfigType.ALLOW_INDIVIDUAL_SB_SPECIFIC_OPS, false);
 				break;
@@ -354,6 +373,11 @@ public class OptimizerUtils
 			cconf.set(ConfigType.PARALLEL_CP_MATRIX_OPERATIONS, false);
 		}	
 		
+		//handle out-of-core cp operations
+		if (dmlconf.getBooleanValue(DMLConfig.CP_OUTOFCORE)) {
+			cconf.set(ConfigType.OUTOFCORE_CP_OPERATIONS, true);
+		}
+		
 		return cconf;
 	}
 	
@@ -640,6 +640,19 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 				|| _op == OpOp1.CAST_AS_INT    );
 	}
 	
+	@Override
+	protected boolean isOutOfCoreApplicable()
+	{
+		//cell-wise unary operations over a streamed matrix input
+		Hop input = getInput().get(0);
+		return getDataType().isMatrix() && input.getDataType().isMatrix() && input.dimsKnown()
+			&& (   _op == OpOp1.ABS  || _op == OpOp1.SIN  || _op == OpOp1.COS   || _op == OpOp1.TAN 
+				|| _op == OpOp1.ASIN || _op == OpOp1.ACOS || _op == OpOp1.ATAN  || _op == OpOp1.SIGN 
+				|| _op == OpOp1.SQRT || _op == OpOp1.LOG  || _op == OpOp1.EXP   || _op == OpOp1.ROUND 
+				|| _op == OpOp1.CEIL || _op == OpOp1.FLOOR|| _op == OpOp1.SPROP || _op == OpOp1.SIGMOID 
+				|| _op == OpOp1.SELP || _op == OpOp1.LOG_NZ );
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 		throws HopsException 
@@ -687,6 +700,9 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 			_etype = ExecType.SPARK;
 		}
 		
+		//out-of-core execution if inputs exceed memory budget on single node
+		checkAndSetOutOfCoreExecType();
+		
 		//mark for recompile (forever)
 		if( ConfigurationManager.isDynamicRecompilation() && !dimsKnown(true) && _etype==REMOTE )
 			setRequiresRecompile();
@@ -92,8 +92,10 @@ import org.apache.sysml.runtime.instructions.cp.IntObject;
 import org.apache.sysml.runtime.instructions.cp.ScalarObject;
 import org.apache.sysml.runtime.instructions.mr.RandInstruction;
 import org.apache.sysml.runtime.instructions.mr.SeqInstruction;
+import org.apache.sysml.runtime.io.CSVMetaDataEstimator;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.util.MapReduceTool;
@@ -1838,7 +1840,9 @@ public class Recompiler
 				
 				// If the dimensions are unknown then reblock can not be recompiled into CP
 				// Note: unknown dimensions at this point can only happen for CSV files.
-				// however, we do a conservative check with the CSV filesize
+				// however, we do a conservative check with the CSV filesize, and further
+				// use sample-based estimates of the CSV characteristics (if available) 
+				// to prevent in-memory reblocks of files below this size threshold
 				if ( rows == -1 || cols == -1 ) 
 				{
 					Path path = new Path(mo.getFileName());
@@ -1847,7 +1851,18 @@ public class Recompiler
 					{
 						ret = false;
 						break;
-					}			
+					}
+					MatrixCharacteristics mcEst = estimateCSVCharacteristics(mo);
+					if( mcEst != null ) {
+						double sp = OptimizerUtils.getSparsity(mcEst.getRows(), mcEst.getCols(), mcEst.getNonZeros());
+						double mem = MatrixBlock.estimateSizeInMemory(mcEst.getRows(), mcEst.getCols(), sp);
+						if(    !OptimizerUtils.isValidCPDimensions(mcEst.getRows(), mcEst.getCols())
+							|| mem >= OptimizerUtils.getLocalMemBudget() ) 
+						{
+							ret = false;
+							break;
+						}
+					}
 				}
 				//default case (known dimensions)
 				else
@@ -1931,6 +1946,17 @@ public class Recompiler
 			return false;
 		}		
 		
+		//use sample-based estimates for csv inputs with unknown size, 
+		//but only below the conservative csv filesize threshold
+		if( !mc.dimsKnown() ) {
+			MatrixCharacteristics mcEst = estimateCSVCharacteristics(in);
+			if( mcEst == null || getFilesizeOnHDFS(in) > CP_CSV_REBLOCK_UNKNOWN_THRESHOLD_SIZE )
+				return false;
+			rows = mcEst.getRows();
+			cols = mcEst.getCols();
+			nnz = mcEst.getNonZeros();
+		}
+		
 		//check valid dimensions and memory requirements
 		double sp = OptimizerUtils.getSparsity(rows, cols, nnz);
 		double mem = MatrixBlock.estimateSizeInMemory(rows, cols, sp);			
@@ -1948,6 +1974,58 @@ public class Recompiler
 		return (estFilesize < cpThreshold);
 	}
 	
+	/**
+	 * 
+	 * @param mo
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long getFilesizeOnHDFS(MatrixObject mo) 
+		throws DMLRuntimeException
+	{
+		try {
+			return MapReduceTool.getFilesizeOnHDFS(new Path(mo.getFileName()));
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Obtains sample-based estimates of the matrix characteristics of csv
+	 * inputs with unknown size, if enabled and the input is an unmodified file.
+	 * The estimates are kept at the matrix object in order to sample only once.
+	 * 
+	 * @param mo
+	 * @return matrix characteristics or null if not available
+	 */
+	private static MatrixCharacteristics estimateCSVCharacteristics(MatrixObject mo)
+	{
+		MatrixFormatMetaData iimd = (MatrixFormatMetaData) mo.getMetaData();
+		if(    !OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING 
+			|| iimd.getInputInfo() != InputInfo.CSVInputInfo || mo.isDirty() )
+		{
+			return null;
+		}
+		
+		//reuse estimates of previous recompilations
+		if( mo.getSampledCharacteristics() != null )
+			return mo.getSampledCharacteristics();
+		
+		CSVFileFormatProperties props = (mo.getFileFormatProperties() instanceof CSVFileFormatProperties) ?
+			(CSVFileFormatProperties) mo.getFileFormatProperties() : new CSVFileFormatProperties();
+		try {
+			MatrixCharacteristics mc = CSVMetaDataEstimator.estimateMatrixCharacteristics(
+				mo.getFileName(), props.hasHeader(), props.getDelim());
+			mo.setSampledCharacteristics(mc);
+			return mc;
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to estimate csv characteristics of '"+mo.getFileName()+"'.", ex);
+			return null;
+		}
+	}
+	
 	/**
 	 * 
 	 * @param inst
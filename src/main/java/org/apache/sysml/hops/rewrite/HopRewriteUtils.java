@@ -1022,7 +1022,8 @@ public class HopRewriteUtils
 	{
 		return (    hop instanceof DataOp 
 				 && ((DataOp)hop).getDataOpType()==DataOpTypes.PERSISTENTREAD
-				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.BINARY);
+				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.BINARY
+				 && ((DataOp)hop).getInputFormatType()!=FileFormatTypes.COLUMNAR);
 	}
 	
 	/**
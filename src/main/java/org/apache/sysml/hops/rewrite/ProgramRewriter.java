@@ -132,6 +132,8 @@ public class ProgramRewriter
 			//(2) newly introduced operators potentially created redundancy (incl leaf merge to allow for cse)
 			if( OptimizerUtils.ALLOW_COMMON_SUBEXPRESSION_ELIMINATION )             
 				_dagRuleSet.add( new RewriteCommonSubexpressionElimination(true) ); //dependency: simplifications 			
+			if( OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION )
+				_dagRuleSet.add( new RewriteFuseCellwiseOperations()             ); //dependency: simplifications, cse
 		}
 	}
 	
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.hops.rewrite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.FusedCellOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.OpOp1;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.UnaryOp;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.matrix.operators.CellFuseOperator;
+
+/**
+ * Rule: Fuse chains of cell-wise operations. Replaces DAGs of at least two 
+ * cell-wise unary and binary operations over matrices of equal dimensions and 
+ * scalars (e.g., 1/(1+exp(-X)) or (X*2+Y)/3) by a single fused operator, which 
+ * computes the result in one pass without materialized intermediates. Only 
+ * intermediates with a single consumer are fused in order to avoid redundant
+ * computation. Matrix-vector (broadcasting) operations are not fused.
+ * 
+ */
+public class RewriteFuseCellwiseOperations extends HopRewriteRule
+{
+	//valid cell-wise unary and binary operations (w/ runtime opcodes)
+	private static OpOp1[] LOOKUP_VALID_UNARY = new OpOp1[]{OpOp1.ABS, OpOp1.EXP, OpOp1.LOG, OpOp1.SQRT, OpOp1.ROUND, 
+		OpOp1.CEIL, OpOp1.FLOOR, OpOp1.SIN, OpOp1.COS, OpOp1.TAN, OpOp1.ASIN, OpOp1.ACOS, OpOp1.ATAN, OpOp1.SIGN, 
+		OpOp1.SIGMOID, OpOp1.SPROP};
+	private static HashMap<OpOp2, String> LOOKUP_VALID_BINARY = new HashMap<OpOp2, String>();
+	static {
+		LOOKUP_VALID_BINARY.put(OpOp2.PLUS, "+");
+		LOOKUP_VALID_BINARY.put(OpOp2.MINUS, "-");
+		LOOKUP_VALID_BINARY.put(OpOp2.MULT, "*");
+		LOOKUP_VALID_BINARY.put(OpOp2.DIV, "/");
+		LOOKUP_VALID_BINARY.put(OpOp2.MODULUS, "%%");
+		LOOKUP_VALID_BINARY.put(OpOp2.INTDIV, "%/%");
+		LOOKUP_VALID_BINARY.put(OpOp2.POW, "^");
+		LOOKUP_VALID_BINARY.put(OpOp2.MIN, "min");
+		LOOKUP_VALID_BINARY.put(OpOp2.MAX, "max");
+		LOOKUP_VALID_BINARY.put(OpOp2.LESS, "<");
+		LOOKUP_VALID_BINARY.put(OpOp2.LESSEQUAL, "<=");
+		LOOKUP_VALID_BINARY.put(OpOp2.GREATER, ">");
+		LOOKUP_VALID_BINARY.put(OpOp2.GREATEREQUAL, ">=");
+		LOOKUP_VALID_BINARY.put(OpOp2.EQUAL, "==");
+		LOOKUP_VALID_BINARY.put(OpOp2.NOTEQUAL, "!=");
+		LOOKUP_VALID_BINARY.put(OpOp2.LOG, "log");
+	}
+	
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state) 
+		throws HopsException
+	{
+		if( roots == null || !OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION 
+			|| DMLScript.rtplatform == RUNTIME_PLATFORM.HADOOP )
+			return roots;
+		
+		//collect live operations (to ignore dangling parent references)
+		HashSet<Long> live = new HashSet<Long>();
+		for( Hop h : roots ) 
+			rCollectLiveOperations( h, live );
+		
+		for( Hop h : roots ) 
+			rule_FuseCellwiseOperations( h, live );
+		
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) 
+		throws HopsException
+	{
+		if( root == null || !OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION 
+			|| DMLScript.rtplatform == RUNTIME_PLATFORM.HADOOP )
+			return root;
+		
+		HashSet<Long> live = new HashSet<Long>();
+		rCollectLiveOperations( root, live );
+		rule_FuseCellwiseOperations( root, live );
+		
+		return root;
+	}
+
+	/**
+	 * Top-down traversal in order to fuse maximal chains starting at 
+	 * the outermost cell-wise operation.
+	 * 
+	 * @param hop
+	 * @param live
+	 * @throws HopsException
+	 */
+	private void rule_FuseCellwiseOperations(Hop hop, HashSet<Long> live) 
+		throws HopsException 
+	{
+		if( hop.getVisited() == Hop.VisitStatus.DONE )
+			return;
+		
+		//recursively process children
+		for( int i=0; i<hop.getInput().size(); i++ ) {
+			Hop hi = hop.getInput().get(i);
+			hi = fuseCellwiseChain(hi, live); //e.g., (X*2+Y)/3 -> cellfuse(X,Y)
+			rule_FuseCellwiseOperations(hi, live);
+		}
+		
+		hop.setVisited(Hop.VisitStatus.DONE);
+	}
+	
+	/**
+	 * 
+	 * @param hi
+	 * @param live
+	 * @return
+	 * @throws HopsException
+	 */
+	private Hop fuseCellwiseChain(Hop hi, HashSet<Long> live) 
+		throws HopsException
+	{
+		if( !isFusableOperation(hi) )
+			return hi;
+		
+		//collect fused operations, leaf inputs and cell program
+		ArrayList<Hop> ops = new ArrayList<Hop>();
+		ArrayList<Hop> leafs = new ArrayList<Hop>();
+		ArrayList<String> tokens = new ArrayList<String>();
+		rCollectFusedOperations(hi, hi, live, ops, leafs, tokens);
+		if( ops.size() < 2 || !isValidExecutionContext(hi, leafs) )
+			return hi;
+		
+		//create fused operator 
+		String program = CellFuseOperator.createProgram(tokens);
+		FusedCellOp fop = new FusedCellOp(hi.getName(), DataType.MATRIX, ValueType.DOUBLE, leafs, program);
+		HopRewriteUtils.setOutputBlocksizes(fop, hi.getRowsInBlock(), hi.getColsInBlock());
+		HopRewriteUtils.copyLineNumbers(hi, fop);
+		
+		//rewire all consumers of the outermost operation
+		ArrayList<Hop> parents = new ArrayList<Hop>(hi.getParent());
+		for( Hop p : parents ) 
+			for( int j=0; j<p.getInput().size(); j++ )
+				if( p.getInput().get(j) == hi ) {
+					HopRewriteUtils.removeChildReferenceByPos(p, hi, j);
+					HopRewriteUtils.addChildReference(p, fop, j);
+				}
+		
+		//remove fused operations (dangling intermediates)
+		for( Hop op : ops )
+			HopRewriteUtils.removeAllChildReferences(op);
+		
+		LOG.debug("Applied fuseCellwiseChain (line "+hi.getBeginLine()+"): "+ops.size()+" ops, "+program);
+		
+		return fop;
+	}
+	
+	/**
+	 * Collects the fused operations in post-order, which directly gives
+	 * the cell program in reverse polish notation.
+	 * 
+	 * @param hop
+	 * @param root
+	 * @param live
+	 * @param ops
+	 * @param leafs
+	 * @param tokens
+	 */
+	private void rCollectFusedOperations(Hop hop, Hop root, HashSet<Long> live, ArrayList<Hop> ops, ArrayList<Hop> leafs, ArrayList<String> tokens)
+	{
+		boolean fuse = (hop == root) || (isFusableOperation(hop) 
+			&& getNumLiveParents(hop, live) == 1 && HopRewriteUtils.isEqualSize(hop, root));
+		
+		if( fuse ) {
+			for( Hop in : hop.getInput() )
+				rCollectFusedOperations(in, root, live, ops, leafs, tokens);
+			ops.add(hop);
+			if( hop instanceof UnaryOp )
+				tokens.add(CellFuseOperator.TOKEN_UNARY + ((UnaryOp)hop).getOp().name().toLowerCase());
+			else
+				tokens.add(CellFuseOperator.TOKEN_BINARY + LOOKUP_VALID_BINARY.get(((BinaryOp)hop).getOp()));
+		}
+		else {
+			//leaf input (matrix of equal size or scalar), reused if referenced multiple times
+			int pos = leafs.indexOf(hop);
+			if( pos < 0 ) {
+				pos = leafs.size();
+				leafs.add(hop);
+			}
+			tokens.add(String.valueOf(CellFuseOperator.TOKEN_INPUT) + pos);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param live
+	 */
+	private void rCollectLiveOperations(Hop hop, HashSet<Long> live)
+	{
+		if( !live.add(hop.getHopID()) )
+			return;
+		for( Hop in : hop.getInput() )
+			rCollectLiveOperations(in, live);
+	}
+	
+	/**
+	 * Number of consumers (incl duplicates), excluding dangling parent 
+	 * references of intermediates removed by previous rewrites.
+	 * 
+	 * @param hop
+	 * @param live
+	 * @return
+	 */
+	private static int getNumLiveParents(Hop hop, HashSet<Long> live)
+	{
+		int ret = 0;
+		for( Hop p : hop.getParent() )
+			ret += live.contains(p.getHopID()) ? 1 : 0;
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isFusableOperation(Hop hop)
+	{
+		if( hop.getDataType() != DataType.MATRIX || !HopRewriteUtils.isDimsKnown(hop) )
+			return false;
+		
+		boolean ret = (hop instanceof UnaryOp && HopRewriteUtils.isValidOp(((UnaryOp)hop).getOp(), LOOKUP_VALID_UNARY))
+			|| (hop instanceof BinaryOp && LOOKUP_VALID_BINARY.containsKey(((BinaryOp)hop).getOp())
+				&& !((BinaryOp)hop).isOuterVectorOperator());
+		
+		//check for matrices of equal size and numeric scalars
+		for( Hop in : hop.getInput() ) {
+			ret &= (in.getDataType() == DataType.MATRIX && HopRewriteUtils.isEqualSize(in, hop))
+				|| (in.getDataType() == DataType.SCALAR && in.getValueType() != ValueType.STRING);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param root
+	 * @param leafs
+	 * @return
+	 */
+	private static boolean isValidExecutionContext(Hop root, ArrayList<Hop> leafs)
+	{
+		if( OptimizerUtils.isSparkExecutionMode() 
+			|| DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE )
+			return true;
+		
+		//hybrid mr: fuse only operations that fit into the cp memory budget
+		//because there is no mr instruction for fused cell-wise operations
+		double mem = OptimizerUtils.estimateSizeExactSparsity(root.getDim1(), root.getDim2(), 1.0);
+		for( Hop in : leafs )
+			if( in.getDataType() == DataType.MATRIX )
+				mem += OptimizerUtils.estimateSizeExactSparsity(in.getDim1(), in.getDim2(), in.getNnz());
+		
+		return mem < OptimizerUtils.getLocalMemBudget();
+	}
+}
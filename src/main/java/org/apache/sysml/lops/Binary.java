@@ -76,7 +76,7 @@ public class Binary extends Lop
 			lps.addCompatibility(JobType.REBLOCK);
 			this.lps.setProperties( inputs, et, ExecLocation.Reduce, breaksAlignment, aligner, definesMRJob );
 		}
-		else if ( et == ExecType.CP || et == ExecType.SPARK ){
+		else if ( et == ExecType.CP || et == ExecType.CP_FILE || et == ExecType.SPARK ){
 			lps.addCompatibility(JobType.INVALID);
 			this.lps.setProperties( inputs, et, ExecLocation.ControlProgram, breaksAlignment, aligner, definesMRJob );
 		}
@@ -180,7 +180,7 @@ public class Binary extends Lop
 		sb.append( this.prepOutputOperand(output));
 		
 		//append degree of parallelism for matrix multiplications
-		if( operation == OperationTypes.MATMULT && getExecType()==ExecType.CP ) {
+		if( operation == OperationTypes.MATMULT && (getExecType()==ExecType.CP || getExecType()==ExecType.CP_FILE) ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( numThreads );
 		}	
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.lops;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.lops.LopProperties.ExecLocation;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.parser.Expression.*;
+
+
+/**
+ * Lop for a fused chain of cell-wise operations over an arbitrary 
+ * number of matrix and scalar inputs, described by a cell program.
+ * 
+ */
+public class FusedCell extends Lop 
+{
+	public static final String OPCODE = "cellfuse";
+	
+	private String _program = null;
+	
+	//optional attribute for cp
+	private int _numThreads = -1;
+	
+	/**
+	 * 
+	 * @param inputs
+	 * @param program
+	 * @param dt
+	 * @param vt
+	 * @param et
+	 * @param k
+	 */
+	public FusedCell(ArrayList<Lop> inputs, String program, DataType dt, ValueType vt, ExecType et, int k ) 
+	{
+		super(Lop.Type.FusedCell, dt, vt);
+		
+		for( Lop in : inputs ) {
+			addInput(in);
+			in.addOutput(this);
+		}
+		_program = program;
+		_numThreads = k;
+		
+		boolean breaksAlignment = false;
+		boolean aligner = false;
+		boolean definesMRJob = false;
+		lps.addCompatibility(JobType.INVALID);
+		lps.setProperties( this.inputs, et, ExecLocation.ControlProgram, breaksAlignment, aligner, definesMRJob );
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "Operation: "+OPCODE+"("+_program+")";		
+	}
+	
+	@Override
+	public String getInstructions(String output) 
+		throws LopsException 
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append( getExecType() );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( OPCODE );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _program );
+		
+		for( Lop in : getInputs() ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( in.prepInputOperand(in.getOutputParameters().getLabel()) );
+		}
+		
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( prepOutputOperand(output));
+		
+		if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );	
+		}
+		
+		return sb.toString();
+	}
+}
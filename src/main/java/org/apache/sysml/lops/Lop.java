@@ -47,6 +47,7 @@ public abstract class Lop
 		Aggregate, PartialAggregate,   	   				    //CP/MR aggregation
 		BinUaggChain, UaggOuterChain,  	                    //CP/MR aggregation
 		TernaryAggregate,                                   //CP ternary-binary aggregates
+		FusedCell,                                          //CP/Spark fused cell-wise operations
 		Grouping, 											//MR grouping
 		Append,                                             //CP/MR append (column append)
 		CombineUnary, CombineBinary, CombineTernary,        //MR combine (stitch together)
@@ -668,7 +669,7 @@ public abstract class Lop
 		boolean isLiteral = (isData && ((Data)this).isLiteral());
 		
 		StringBuilder sb = new StringBuilder("");
-		if ( et == ExecType.CP || et == ExecType.SPARK || (isData && isLiteral)) {
+		if ( et == ExecType.CP || et == ExecType.CP_FILE || et == ExecType.SPARK || (isData && isLiteral)) {
 			sb.append(label);
 		}
 		else {
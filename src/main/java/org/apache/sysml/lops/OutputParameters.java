@@ -30,7 +30,7 @@ public class OutputParameters
 {
 	
 	public enum Format {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, MM, CSV, COLUMNAR
 	};
 
 	private boolean _blocked = true;
@@ -309,7 +309,7 @@ public class PartialAggregate extends Lop
 		}
 		
 		//in case of cp, we also compile the number of threads into the instruction
-		if( getExecType() == ExecType.CP ){
+		if( getExecType() == ExecType.CP || getExecType() == ExecType.CP_FILE ){
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( _numThreads );	
 		}
@@ -1382,11 +1382,12 @@ public class Dag<N extends Lop>
 
 				String inst_string = "";
 
-				// Lops with arbitrary number of inputs (ParameterizedBuiltin, GroupedAggregate, DataGen)
+				// Lops with arbitrary number of inputs (ParameterizedBuiltin, GroupedAggregate, DataGen, FusedCell)
 				// are handled separately, by simply passing ONLY the output variable to getInstructions()
 				if (node.getType() == Lop.Type.ParameterizedBuiltin
 						|| node.getType() == Lop.Type.GroupedAgg 
-						|| node.getType() == Lop.Type.DataGen ){ 
+						|| node.getType() == Lop.Type.DataGen
+						|| node.getType() == Lop.Type.FusedCell ){ 
 					inst_string = node.getInstructions(node.getOutputParameters().getLabel());
 				} 
 				
@@ -2264,7 +2265,7 @@ public class Dag<N extends Lop>
 	private static OutputInfo getOutputInfo(Lop node, boolean cellModeOverride) 
 		throws LopsException 
 	{
-		if ( (node.getDataType() == DataType.SCALAR && node.getExecType() == ExecType.CP) 
+		if ( (node.getDataType() == DataType.SCALAR && (node.getExecType() == ExecType.CP || node.getExecType() == ExecType.CP_FILE)) 
 				|| node instanceof FunctionCallCP )
 			return null;
 	
@@ -49,6 +49,7 @@ import org.apache.sysml.runtime.instructions.mr.ReblockInstruction;
 import org.apache.sysml.runtime.instructions.mr.SeqInstruction;
 import org.apache.sysml.runtime.io.MatrixWriter;
 import org.apache.sysml.runtime.io.MatrixWriterFactory;
+import org.apache.sysml.runtime.io.ReaderMatrixMarketParallel;
 import org.apache.sysml.runtime.matrix.CMCOVMR;
 import org.apache.sysml.runtime.matrix.CSVReblockMR;
 import org.apache.sysml.runtime.matrix.CombineMR;
@@ -65,10 +66,12 @@ import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.ReblockMR;
 import org.apache.sysml.runtime.matrix.SortMR;
 import org.apache.sysml.runtime.matrix.WriteCSVMR;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.LibMatrixDatagen;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
 import org.apache.sysml.runtime.matrix.data.RandomMatrixGenerator;
+import org.apache.sysml.runtime.matrix.mapred.MRJobConfiguration;
 import org.apache.sysml.runtime.transform.DataTransform;
 import org.apache.sysml.runtime.util.MapReduceTool;
 import org.apache.sysml.utils.Statistics;
@@ -94,6 +97,9 @@ public class RunMRJobs
 	public static JobReturn prepareAndSubmitJob( MRJobInstruction inst, ExecutionContext ec )
 		throws DMLRuntimeException 
 	{
+		// convert columnar inputs, which are only accessible via local readers
+		convertColumnarInputs( inst, ec );
+		
 		// Obtain references to all input matrices 
 		MatrixObject[] inputMatrices = inst.extractInputMatrices(ec);
 		
@@ -245,6 +251,11 @@ public class RunMRJobs
 					}
 					checkEmptyInputs( inst, inputMatrices );
 					
+					//check matrix market inputs (symmetric/pattern only supported in-memory)
+					for( int i=0; i<inst.getInputs().length; i++ )
+						if( inst.getInputInfos()[i] == InputInfo.MatrixMarketInputInfo )
+							ReaderMatrixMarketParallel.checkValidDistributedRead(inst.getInputs()[i]);
+					
 					if ( inst.getJobType() == JobType.REBLOCK ) {
 						ret = ReblockMR.runJob(inst, inst.getInputs(),  inst.getInputInfos(), 
 								inst.getRlens(), inst.getClens(), inst.getBrlens(), inst.getBclens(), getNNZ(inputMatrices),
@@ -379,6 +390,37 @@ public class RunMRJobs
 		throw new DMLRuntimeException("Unexpected Job Type: " + inst.getJobType());
 	}
 
+	/**
+	 * Redirects all matrix inputs in columnar format to temporary binary block 
+	 * files, which are exported along with all other dirty input matrices.
+	 * 
+	 * @param inst
+	 * @param ec
+	 * @throws DMLRuntimeException
+	 */
+	private static void convertColumnarInputs( MRJobInstruction inst, ExecutionContext ec ) 
+		throws DMLRuntimeException
+	{
+		for( String varname : inst.getInputVars() ) {
+			Data dat = ec.getVariable(varname);
+			if( !(dat instanceof MatrixObject) )
+				continue;
+			MatrixObject mo = (MatrixObject) dat;
+			MatrixFormatMetaData meta = (MatrixFormatMetaData) mo.getMetaData();
+			if( meta.getInputInfo() != InputInfo.ColumnarInputInfo || mo.isDirty() )
+				continue;
+			
+			//pin matrix in memory and redirect to binary block temporary file
+			mo.acquireRead();
+			mo.setMetaData(new MatrixFormatMetaData(mo.getMatrixCharacteristics(), 
+					OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+			mo.setFileName(MRJobConfiguration.constructTempOutputFilename());
+			mo.setDirty(true);
+			mo.setHDFSFileExists(false);
+			mo.release();
+		}
+	}
+	
 	/**
 	 * 
 	 * @param inst
@@ -1009,7 +1009,8 @@ public class DMLTranslator
 						break;
 						
 					case BINARY:
-						// write output in binary block format
+					case COLUMNAR:
+						// write output in binary block format (columnar: row groups of block size)
 					    ae.setOutputParams(ae.getDim1(), ae.getDim2(), ae.getNnz(), ae.getUpdateInPlace(), ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize());
 					    break;
 						
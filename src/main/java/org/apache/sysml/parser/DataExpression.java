@@ -36,6 +36,7 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.DataGenOp;
 import org.apache.sysml.parser.LanguageException.LanguageErrorCodes;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.io.ReaderMatrixMarketParallel.MatrixMarketHeader;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 import org.apache.sysml.runtime.util.MapReduceTool;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -69,6 +70,7 @@ public class DataExpression extends DataIdentifier
 	public static final String FORMAT_TYPE_VALUE_BINARY 		= "binary";
 	public static final String FORMAT_TYPE_VALUE_CSV			= "csv";
 	public static final String FORMAT_TYPE_VALUE_MATRIXMARKET	= "mm";
+	public static final String FORMAT_TYPE_VALUE_COLUMNAR		= "columnar";
 	
 	public static final String ROWBLOCKCOUNTPARAM = "rows_in_block";
 	public static final String COLUMNBLOCKCOUNTPARAM = "cols_in_block";
@@ -692,16 +694,19 @@ public class DataExpression extends DataIdentifier
 				// get metadata from MatrixMarket format file
 				String[] headerLines = readMatrixMarketFile(inputFileName, conditional);
 				
-				// process 1st line of MatrixMarket format -- must be identical to legal header
-				String legalHeaderMM = "%%MatrixMarket matrix coordinate real general";
+				// process 1st line of MatrixMarket format -- must be a supported coordinate header
+				String legalHeaderMM = "%%MatrixMarket matrix coordinate [real|integer|pattern] [general|symmetric|skew-symmetric]";
 				
 				if (headerLines != null && headerLines.length >= 2){
 					String firstLine = headerLines[0].trim();
-					if (!firstLine.equals(legalHeaderMM)){
+					if (!MatrixMarketHeader.isSupportedBanner(firstLine)){
 						raiseValidateError("Unsupported format in MatrixMarket file: " +
 								headerLines[0] + ". Only supported format in MatrixMarket file has header line " + legalHeaderMM, 
 								conditional, LanguageErrorCodes.INVALID_PARAMETERS);
 						}
+					
+					// number of entries equals nnz only for general matrices (symmetric are expanded on read)
+					boolean generalMM = firstLine.toLowerCase().endsWith("general");
 				
 					// process 2nd line of MatrixMarket format -- must have size information
 				
@@ -744,7 +749,8 @@ public class DataExpression extends DataIdentifier
 						nnzCount = Long.parseLong(sizeInfo[2]);
 						if (nnzCount < 1)
 							throw new Exception("invalid nnz count");
-						addVarParam("nnz", new IntIdentifier(nnzCount, 
+						if (generalMM)
+							addVarParam("nnz", new IntIdentifier(nnzCount, 
 								this.getFilename(), this.getBeginLine(), this.getBeginColumn(),
 								this.getBeginLine(), this.getBeginColumn()));
 					}
@@ -939,6 +945,11 @@ public class DataExpression extends DataIdentifier
 				{
 					getOutput().setFormatType(FormatType.MM);
 					format = 1;
+				} 
+				else if ( fmt.equalsIgnoreCase(FORMAT_TYPE_VALUE_COLUMNAR) )
+				{
+					getOutput().setFormatType(FormatType.COLUMNAR);
+					format = 2;
 				} else {
 					raiseValidateError("Invalid format '" + fmt+ "' in statement: " + this.toString(), conditional);
 				}
@@ -1058,7 +1069,8 @@ public class DataExpression extends DataIdentifier
 			
 			if (getVarParam(FORMAT_TYPE) == null || getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("text"))
 				getOutput().setBlockDimensions(-1, -1);
-			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("binary"))
+			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase("binary")
+				|| getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_COLUMNAR))
 				getOutput().setBlockDimensions(ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize());
 			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_MATRIXMARKET) || (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV)))
 				getOutput().setBlockDimensions(-1, -1);
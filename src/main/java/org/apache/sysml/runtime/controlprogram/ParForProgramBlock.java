@@ -58,6 +58,7 @@ import org.apache.sysml.runtime.controlprogram.parfor.DataPartitionerRemoteMR;
 import org.apache.sysml.runtime.controlprogram.parfor.DataPartitionerRemoteSpark;
 import org.apache.sysml.runtime.controlprogram.parfor.LocalParWorker;
 import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueue;
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueueStealing;
 import org.apache.sysml.runtime.controlprogram.parfor.ParForBody;
 import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
 import org.apache.sysml.runtime.controlprogram.parfor.RemoteDPParForMR;
@@ -209,10 +210,12 @@ public class ParForProgramBlock extends ForProgramBlock
 	public static final boolean USE_PB_CACHE                = false; // reuse copied program blocks whenever possible, not there can be issues related to recompile
 	public static       boolean USE_RANGE_TASKS_IF_USEFUL   = true;   	// use range tasks whenever size>3, false, otherwise wrong split order in remote 
 	public static final boolean USE_STREAMING_TASK_CREATION = true;  	// start working while still creating tasks, prevents blocking due to too small task queue
+	public static final boolean USE_STEALING_TASK_QUEUE     = true;  	// use lock-free task queue w/ work stealing for local parfor w/ many workers
+	public static final int     STEALING_TASK_QUEUE_MIN_PAR = 8;     	// min number of local workers to use the lock-free task queue
 	public static final boolean ALLOW_NESTED_PARALLELISM	= true;    // if not, transparently change parfor to for on program conversions (local,remote)
 	public static       boolean ALLOW_REUSE_MR_JVMS         = true;    // potential benefits: less setup costs per task, NOTE> cannot be used MR4490 in Hadoop 1.0.3, still not fixed in 1.1.1
 	public static       boolean ALLOW_REUSE_MR_PAR_WORKER   = ALLOW_REUSE_MR_JVMS; //potential benefits: less initialization, reuse in-memory objects and result consolidation!
-	public static final boolean USE_PARALLEL_RESULT_MERGE   = false;    // if result merge is run in parallel or serial 
+	public static final boolean USE_PARALLEL_RESULT_MERGE   = false;    // force parallel local result merge, otherwise decided by the optimizer 
 	public static final boolean USE_PARALLEL_RESULT_MERGE_REMOTE = true; // if remote result merge should be run in parallel for multiple result vars
 	public static final boolean ALLOW_DATA_COLOCATION       = true;
 	public static final boolean CREATE_UNSCOPED_RESULTVARS  = true;
@@ -262,6 +265,8 @@ public class ParForProgramBlock extends ForProgramBlock
 	protected int              _replicationExport   = -1;
 	//specifics used for result partitioning
 	protected boolean          _jvmReuse            = true;
+	//specifics used for result merge
+	protected boolean          _parallelResultMerge = false;
 	//specifics used for recompilation 
 	protected double           _oldMemoryBudget = -1;
 	protected double           _recompileMemoryBudget = -1;
@@ -485,6 +490,12 @@ public class ParForProgramBlock extends ForProgramBlock
 		_params.put(ParForStatementBlock.RESULT_MERGE, String.valueOf(_resultMerge)); //kept up-to-date for copies
 	}
 	
+	public void setParallelResultMerge( boolean flag )
+	{
+		//only called from optimizer
+		_parallelResultMerge = flag;
+	}
+	
 	public void setRecompileMemoryBudget( double localMem )
 	{
 		_recompileMemoryBudget = localMem;
@@ -713,7 +724,7 @@ public class ParForProgramBlock extends ForProgramBlock
 		try
 		{
 			// Step 1) init parallel workers, task queue and threads
-			LocalTaskQueue<Task> queue = new LocalTaskQueue<Task>();
+			LocalTaskQueue<Task> queue = createLocalTaskQueue();
 			Thread[] threads         = new Thread[_numThreads];
 			LocalParWorker[] workers = new LocalParWorker[_numThreads];
 			for( int i=0; i<_numThreads; i++ )
@@ -765,6 +776,11 @@ public class ParForProgramBlock extends ForProgramBlock
 			
 			if( _monitor ) 
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_WAIT_EXEC_T, time.stop());
+			if( DMLScript.STATISTICS && queue instanceof LocalTaskQueueStealing ) {
+				LocalTaskQueueStealing<Task> squeue = (LocalTaskQueueStealing<Task>) queue;
+				Statistics.incrementParForTaskSteals(squeue.getNumSteals());
+				Statistics.incrementParForTaskWaitTime(squeue.getWaitTime());
+			}
 				
 				
 			// Step 4) collecting results from each parallel worker
@@ -1374,6 +1390,21 @@ public class ParForProgramBlock extends ForProgramBlock
 		*/
 	}
 	
+	/**
+	 * Creates the task queue shared by all local parallel workers. For many workers, 
+	 * we use a lock-free queue with work stealing in order to avoid contention on the 
+	 * queue monitor with fine-grained tasks (e.g., naive or factoring w/ small tasks). 
+	 * 
+	 * @return
+	 */
+	private LocalTaskQueue<Task> createLocalTaskQueue()
+	{
+		if( USE_STEALING_TASK_QUEUE && _numThreads >= STEALING_TASK_QUEUE_MIN_PAR )
+			return new LocalTaskQueueStealing<Task>(_numThreads);
+		else
+			return new LocalTaskQueue<Task>();
+	}
+	
 	/**
 	 * Creates a new or partially recycled instance of a parallel worker. Therefore the symbol table, and child
 	 * program blocks are deep copied. Note that entries of the symbol table are not deep copied because they are replaced 
@@ -1779,7 +1810,7 @@ public class ParForProgramBlock extends ForProgramBlock
 					String fname = constructResultMergeFileName();
 					ResultMerge rm = createResultMerge(_resultMerge, out, in, fname, ec);
 					MatrixObject outNew = null;
-					if( USE_PARALLEL_RESULT_MERGE )
+					if( USE_PARALLEL_RESULT_MERGE || _parallelResultMerge )
 						outNew = rm.executeParallelMerge( _numThreads );
 					else
 						outNew = rm.executeSerialMerge(); 		
@@ -2103,7 +2134,7 @@ public class ParForProgramBlock extends ForProgramBlock
 				
 					ResultMerge rm = createResultMerge(_resultMerge, out, in, fname, _ec);
 					MatrixObject outNew = null;
-					if( USE_PARALLEL_RESULT_MERGE )
+					if( USE_PARALLEL_RESULT_MERGE || _parallelResultMerge )
 						outNew = rm.executeParallelMerge( _numThreads );
 					else
 						outNew = rm.executeSerialMerge(); 	
@@ -32,6 +32,7 @@ import org.apache.sysml.parser.StatementBlock;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.CachePrefetcher;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.instructions.Instruction;
@@ -217,6 +218,9 @@ public class ProgramBlock
 			//indexed access required due to dynamic add
 			Instruction currInst = inst.get(i);
 			
+			//prefetch evicted inputs of upcoming instructions
+			CachePrefetcher.prefetchInputs(inst, i, ec);
+			
 			//execute instruction
 			ec.updateDebugState(i);
 			executeSingleInstruction(currInst, ec);
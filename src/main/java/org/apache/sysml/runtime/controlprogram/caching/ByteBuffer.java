@@ -21,7 +21,9 @@ package org.apache.sysml.runtime.controlprogram.caching;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
+import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
@@ -32,16 +34,28 @@ import org.apache.sysml.runtime.util.LocalFileUtils;
  */
 public class ByteBuffer
 {
-	private boolean _serialized;	
+	//max compressed fraction of the serialized size, otherwise kept uncompressed
+	public static final double COMPRESSION_MAX_FRACTION = 0.9;
+	public static final int COMPRESSION_PROBE_SIZE = 64*1024;
+	
+	private volatile boolean _serialized;	
 	private boolean _shallow;
+	private boolean _compress;
 	private long _size;
+	private int _rawSize = -1; //uncompressed size if compressed
 	
 	protected byte[]     _bdata = null; //sparse matrix
 	protected CacheBlock _cdata = null; //dense matrix/frame
 	
 	public ByteBuffer( long size )
+	{
+		this(size, false);
+	}
+	
+	public ByteBuffer( long size, boolean compress )
 	{
 		_size = size;
+		_compress = compress;
 		_serialized = false;
 	}
 	
@@ -66,6 +80,10 @@ public class ByteBuffer
 					_bdata = new byte[(int)_size];
 				DataOutput dout = new CacheDataOutput(_bdata);
 				cb.write(dout);
+				
+				//compress byte array (if beneficial)
+				if( _compress )
+					compressBuffer();
 			}
 			else //SPARSE/DENSE -> DENSE
 			{
@@ -96,7 +114,10 @@ public class ByteBuffer
 	{
 		CacheBlock ret = null;
 		
-		if( !_shallow ) { //sparse matrix 
+		if( !_shallow && isCompressed() ) { //compressed sparse matrix
+			ret = deserializeCompressedBlock(_bdata, _rawSize);
+		}
+		else if( !_shallow ) { //sparse matrix 
 			CacheDataInput din = new CacheDataInput(_bdata);
 			ret = new MatrixBlock();
 			ret.readFields(din);
@@ -143,6 +164,23 @@ public class ByteBuffer
 		return _shallow;
 	}
 	
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isCompressed() {
+		return (_rawSize >= 0);
+	}
+	
+	/**
+	 * Returns the uncompressed size in bytes if compressed, otherwise -1.
+	 * 
+	 * @return
+	 */
+	public int getRawSize() {
+		return _rawSize;
+	}
+	
 	public void freeMemory()
 	{
 		//clear strong references to buffer/matrix
@@ -171,6 +209,71 @@ public class ByteBuffer
 		}
 	}
 	
+	/**
+	 * Compresses the serialized byte array, where the compressed representation
+	 * is only kept if it is smaller than the max compressed fraction. Note that 
+	 * the buffer size is updated before the buffer is marked as serialized.
+	 */
+	private void compressBuffer()
+	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		//probe compression on a prefix to avoid full scans of incompressible data
+		int len = (int)_size;
+		int plen = Math.min(len, COMPRESSION_PROBE_SIZE);
+		byte[] tmp = new byte[(int)(COMPRESSION_MAX_FRACTION * plen)];
+		int clen = LZBlockCodec.compress(_bdata, plen, tmp);
+		
+		//compress entire byte array
+		if( clen >= 0 && plen < len ) {
+			tmp = new byte[(int)(COMPRESSION_MAX_FRACTION * len)];
+			clen = LZBlockCodec.compress(_bdata, len, tmp);
+		}
+		if( clen >= 0 ) {
+			if( CacheableData.CACHING_BUFFER_PAGECACHE )
+				PageCache.putPage(_bdata);
+			_bdata = Arrays.copyOf(tmp, clen);
+			_rawSize = len;
+			_size = clen;
+		}
+		
+		if( DMLScript.STATISTICS ) {
+			CacheStatistics.incrementCompressTime(System.nanoTime()-t0);
+			if( clen >= 0 )
+				CacheStatistics.incrementCompressedBlocks(len, clen);
+		}
+	}
+	
+	/**
+	 * Deserializes a matrix block from a compressed byte array, e.g.,
+	 * of a compressed buffer or spilled compressed buffer.
+	 * 
+	 * @param cdata compressed byte array
+	 * @param rawSize uncompressed size in bytes
+	 * @return
+	 * @throws IOException
+	 */
+	public static CacheBlock deserializeCompressedBlock( byte[] cdata, int rawSize ) 
+		throws IOException
+	{
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		//decompress into temporary byte array
+		byte[] data = new byte[rawSize];
+		if( LZBlockCodec.decompress(cdata, cdata.length, data) != rawSize )
+			throw new IOException("Failed to decompress cache block: "
+					+ "unexpected uncompressed size.");
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementDecompressTime(System.nanoTime()-t0);
+		
+		//deserialize matrix block
+		CacheDataInput din = new CacheDataInput(data);
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(din);
+		return ret;
+	}
+	
 	/**
 	 * Determines if byte buffer can hold the given size given this specific cache block.
 	 * This call is consistent with 'serializeBlock' and allows for internal optimization
@@ -24,6 +24,7 @@ import java.io.IOException;
 
 import org.apache.sysml.runtime.matrix.data.MatrixBlockDataInput;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.BulkSerializationUtils;
 
 public class CacheDataInput implements DataInput, MatrixBlockDataInput
 {
@@ -41,12 +42,13 @@ public class CacheDataInput implements DataInput, MatrixBlockDataInput
 
 	@Override
 	public void readFully(byte[] b) throws IOException {
-		throw new IOException("Not supported.");
+		readFully(b, 0, b.length);
 	}
 
 	@Override
 	public void readFully(byte[] b, int off, int len) throws IOException {
-		throw new IOException("Not supported.");
+		System.arraycopy(_buff, _count, b, off, len);
+		_count += len;
 	}
 
 	@Override
@@ -147,16 +149,9 @@ public class CacheDataInput implements DataInput, MatrixBlockDataInput
 		//counter for non-zero elements
 		long nnz = 0;
 		
+		//bulk deserialization and nnz maintenance
 		int off = _count;
-		for( int i=0; i<len; i++ ) 
-		{
-			//core deserialization
-			long tmp = baToLong(_buff, off+i*8);
-			varr[i] = Double.longBitsToDouble( tmp );
-			
-			//nnz maintenance
-			nnz += (varr[i]!=0) ? 1 : 0; 
-		}
+		nnz += BulkSerializationUtils.bytesToDoubles(_buff, off, varr, 0, len);
 		_count = off + len*8;
 		
 		return nnz;
@@ -24,6 +24,7 @@ import java.io.IOException;
 
 import org.apache.sysml.runtime.matrix.data.MatrixBlockDataOutput;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.BulkSerializationUtils;
 
 /**
  * Customer DataOutput to serialize directly into the given byte array.
@@ -145,12 +146,8 @@ public class CacheDataOutput implements DataOutput, MatrixBlockDataOutput
 		//original buffer offset
 		int off = _count;
 		
-		//serialize entire array into buffer
-		for( int i=0; i<len; i++ )
-		{
-		    long tmp = Double.doubleToRawLongBits(varr[i]);
-		    longToBa(tmp, _buff, off+i*8);
-		}
+		//serialize entire array into buffer (bulk conversion)
+		BulkSerializationUtils.doublesToBytes(varr, 0, _buff, off, len);
 		
 		//update buffer offset
 		_count = off + len*8;
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+
+/**
+ * Asynchronous prefetch of evicted cacheable data. Given the upcoming 
+ * instructions of the current program block, all evicted inputs are restored
+ * by a background thread into the soft reference cache of the respective 
+ * cache envelope, which allows the subsequent acquire to proceed without
+ * synchronous restore from the write buffer or local file system.
+ * 
+ * Prefetched blobs are only softly referenced and hence, do not affect 
+ * the memory budget; prefetches that are never acquired (e.g., due to GC,
+ * or removed variables) are reported as wasted prefetches.
+ */
+public class CachePrefetcher 
+{
+	private static final Log LOG = LogFactory.getLog(CachePrefetcher.class.getName());
+	
+	//number of upcoming instructions whose inputs are prefetched
+	public static final int PREFETCH_LOOKAHEAD = 8;
+	
+	//single background thread for prefetches (serialized reads from local fs)
+	private static ExecutorService _pool = null;
+	
+	/**
+	 * 
+	 */
+	public synchronized static void init() {
+		boolean prefetch = ConfigurationManager.getDMLConfig()
+				.getBooleanValue(DMLConfig.CP_CACHING_PREFETCH);
+		if( prefetch && _pool == null )
+			_pool = Executors.newSingleThreadExecutor(new PrefetchThreadFactory());
+	}
+	
+	/**
+	 * 
+	 */
+	public synchronized static void cleanup() {
+		//discard pending prefetches and shutdown pool
+		if( _pool != null ) {
+			_pool.shutdownNow();
+			_pool = null;
+		}
+	}
+	
+	/**
+	 * Issues asynchronous prefetches for all evicted inputs of the instructions
+	 * following the given position, up to the prefetch lookahead, in order to
+	 * overlap the restore with the execution of the preceding instructions. 
+	 * This call is non-blocking except for the status check of the individual 
+	 * inputs; inputs with pending or completed prefetches are skipped.
+	 * 
+	 * @param inst
+	 * @param pos
+	 * @param ec
+	 */
+	public static void prefetchInputs( ArrayList<Instruction> inst, int pos, ExecutionContext ec ) 
+	{
+		ExecutorService pool = _pool;
+		if( pool == null )
+			return;
+		
+		int end = Math.min(pos + PREFETCH_LOOKAHEAD, inst.size()-1);
+		for( int i=pos+1; i<=end; i++ )
+			prefetchInputs(pool, inst.get(i), ec);
+	}
+	
+	/**
+	 * 
+	 * @param pool
+	 * @param inst
+	 * @param ec
+	 */
+	private static void prefetchInputs( ExecutorService pool, Instruction inst, ExecutionContext ec ) 
+	{
+		if( inst instanceof ComputationCPInstruction ) {
+			ComputationCPInstruction cpinst = (ComputationCPInstruction) inst;
+			prefetchInput(pool, cpinst.input1, ec);
+			prefetchInput(pool, cpinst.input2, ec);
+			prefetchInput(pool, cpinst.input3, ec);
+		}
+		else if( inst instanceof VariableCPInstruction && "write".equals(inst.getOpcode()) ) {
+			prefetchInput(pool, ((VariableCPInstruction) inst).getInput1(), ec);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param pool
+	 * @param in
+	 * @param ec
+	 */
+	private static void prefetchInput( ExecutorService pool, CPOperand in, ExecutionContext ec )
+	{
+		if( in == null || in.isLiteral() )
+			return;
+		
+		Data dat = ec.getVariables().get(in.getName());
+		if( dat instanceof CacheableData && ((CacheableData<?>)dat).requestPrefetch() ) {
+			try {
+				pool.submit(new PrefetchTask((CacheableData<?>)dat));
+			}
+			catch(Exception ex) {
+				//pool shutdown in the meantime (reset for subsequent requests)
+				((CacheableData<?>)dat).cancelPrefetch();
+				LOG.trace("Failed to submit prefetch task.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Prefetch task of an individual cacheable data object.
+	 */
+	private static class PrefetchTask implements Runnable 
+	{
+		private CacheableData<?> _cd = null;
+		
+		public PrefetchTask( CacheableData<?> cd ) {
+			_cd = cd;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				_cd.prefetchBlobIntoCache();
+			}
+			catch(Exception ex) {
+				//prefetch is best effort, fallback to synchronous restore
+				LOG.warn("Failed to prefetch "+_cd.getVarName()+".", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Thread factory for daemon threads in order to never block JVM shutdown.
+	 */
+	private static class PrefetchThreadFactory implements ThreadFactory 
+	{
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "SystemML-Prefetch");
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -57,6 +57,20 @@ public class CacheStatistics
 	private static AtomicLong _numHitsFS     = null;
 	private static AtomicLong _numHitsHDFS   = null;
 	
+	//hit statistics per write buffer segment (for SLRU)
+	private static AtomicLong _numHitsFSBuffProb = null;
+	private static AtomicLong _numHitsFSBuffProt = null;
+	
+	//prefetch statistics (issued, hits, wasted)
+	private static AtomicLong _numPrefetches      = null;
+	private static AtomicLong _numPrefetchHits    = null;
+	private static AtomicLong _numPrefetchesWasted = null;
+	
+	//compression statistics (blocks, bytes in/out)
+	private static AtomicLong _numCompressedBlocks = null;
+	private static AtomicLong _numBytesCompressIn  = null;
+	private static AtomicLong _numBytesCompressOut = null;
+	
 	//write statistics caching
 	private static AtomicLong _numWritesFSBuff = null;
 	private static AtomicLong _numWritesFS     = null;
@@ -67,6 +81,8 @@ public class CacheStatistics
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
 	private static AtomicLong _ctimeRelease    = null; //in nano sec
 	private static AtomicLong _ctimeExport     = null; //in nano sec
+	private static AtomicLong _ctimeCompress   = null; //in nano sec
+	private static AtomicLong _ctimeDecompress = null; //in nano sec
 
 	static
 	{
@@ -80,6 +96,16 @@ public class CacheStatistics
 		_numHitsFSBuff = new AtomicLong(0);
 		_numHitsFS = new AtomicLong(0);
 		_numHitsHDFS = new AtomicLong(0);
+		_numHitsFSBuffProb = new AtomicLong(0);
+		_numHitsFSBuffProt = new AtomicLong(0);
+		
+		_numPrefetches = new AtomicLong(0);
+		_numPrefetchHits = new AtomicLong(0);
+		_numPrefetchesWasted = new AtomicLong(0);
+		
+		_numCompressedBlocks = new AtomicLong(0);
+		_numBytesCompressIn = new AtomicLong(0);
+		_numBytesCompressOut = new AtomicLong(0);
 		
 		_numWritesFSBuff = new AtomicLong(0);
 		_numWritesFS = new AtomicLong(0);
@@ -89,6 +115,8 @@ public class CacheStatistics
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
 		_ctimeExport = new AtomicLong(0);
+		_ctimeCompress = new AtomicLong(0);
+		_ctimeDecompress = new AtomicLong(0);
 	}
 	
 	public static void incrementTotalHits()
@@ -136,6 +164,26 @@ public class CacheStatistics
 		return _numHitsFSBuff.get();
 	}
 	
+	public static void incrementFSBuffProbationHits()
+	{
+		_numHitsFSBuffProb.incrementAndGet();
+	}
+	
+	public static long getFSBuffProbationHits()
+	{
+		return _numHitsFSBuffProb.get();
+	}
+	
+	public static void incrementFSBuffProtectedHits()
+	{
+		_numHitsFSBuffProt.incrementAndGet();
+	}
+	
+	public static long getFSBuffProtectedHits()
+	{
+		return _numHitsFSBuffProt.get();
+	}
+	
 	public static void incrementFSHits()
 	{
 		_numHitsFS.incrementAndGet();
@@ -166,6 +214,54 @@ public class CacheStatistics
 		return _numHitsHDFS.get();
 	}
 
+	public static void incrementPrefetches()
+	{
+		_numPrefetches.incrementAndGet();
+	}
+	
+	public static long getPrefetches()
+	{
+		return _numPrefetches.get();
+	}
+	
+	public static void incrementPrefetchHits()
+	{
+		_numPrefetchHits.incrementAndGet();
+	}
+	
+	public static long getPrefetchHits()
+	{
+		return _numPrefetchHits.get();
+	}
+	
+	public static void incrementPrefetchesWasted()
+	{
+		_numPrefetchesWasted.incrementAndGet();
+	}
+	
+	public static long getPrefetchesWasted()
+	{
+		return _numPrefetchesWasted.get();
+	}
+	
+	public static void incrementCompressedBlocks(long rawSize, long compressedSize)
+	{
+		_numCompressedBlocks.incrementAndGet();
+		_numBytesCompressIn.addAndGet(rawSize);
+		_numBytesCompressOut.addAndGet(compressedSize);
+	}
+	
+	public static long getCompressedBlocks()
+	{
+		return _numCompressedBlocks.get();
+	}
+	
+	public static double getCompressionRatio()
+	{
+		long out = _numBytesCompressOut.get();
+		return (out > 0) ? (double)_numBytesCompressIn.get() / out : 1;
+	}
+	
 	public static void incrementFSBuffWrites()
 	{
 		_numWritesFSBuff.incrementAndGet();
@@ -252,6 +348,26 @@ public class CacheStatistics
 		return _ctimeExport.get();
 	}
 	
+	public static void incrementCompressTime(long delta)
+	{
+		_ctimeCompress.addAndGet(delta);
+	}
+	
+	public static long getCompressTime()
+	{
+		return _ctimeCompress.get();
+	}
+	
+	public static void incrementDecompressTime(long delta)
+	{
+		_ctimeDecompress.addAndGet(delta);
+	}
+	
+	public static long getDecompressTime()
+	{
+		return _ctimeDecompress.get();
+	}
+	
 
 	public static String displayHits()
 	{	
@@ -268,6 +384,42 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displaySegmentHits()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsFSBuffProb.get());
+		sb.append("/");
+		sb.append(_numHitsFSBuffProt.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayPrefetches()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numPrefetches.get());
+		sb.append("/");
+		sb.append(_numPrefetchHits.get());
+		sb.append("/");
+		sb.append(_numPrefetchesWasted.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayCompression()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numCompressedBlocks.get());
+		sb.append("/");
+		sb.append(String.format("%.2f", getCompressionRatio()));
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeCompress.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeDecompress.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
 	public static String displayWrites()
 	{	
 		StringBuilder sb = new StringBuilder();
@@ -32,7 +32,6 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
-import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
 import org.apache.sysml.runtime.instructions.cp.Data;
 import org.apache.sysml.runtime.instructions.spark.data.BroadcastObject;
@@ -44,6 +43,7 @@ import org.apache.sysml.runtime.matrix.MetaData;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.IndexRange;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 import org.apache.sysml.runtime.util.MapReduceTool;
 
@@ -67,7 +67,6 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	// global constant configuration parameters
 	public static final long 	CACHING_THRESHOLD = 4*1024; //obj not s.t. caching if below threshold [in bytes]
 	public static final double 	CACHING_BUFFER_SIZE = 0.15; 
-	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
 	public static final boolean CACHING_BUFFER_PAGECACHE = false; 
 	public static final boolean CACHING_WRITE_CACHE_ON_READ = false;	
 	public static final String  CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
@@ -132,6 +131,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	
 	/** Container object that holds the actual data. */
 	protected T _data = null;
+	
+	/** Prefetch status (requested async restore, restored blob in cache). */
+	private boolean _prefetchPending = false;
+	private boolean _prefetched = false;
 
 	/**
 	 * Object that holds the metadata associated with the matrix, which
@@ -146,6 +149,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	
 	/** The name of HDFS file in which the data is backed up. */
 	protected String _hdfsFileName = null; // file name and path
+	private long _columnarReadCells = 0;   // accessed cells by columnar index range reads
 	
 	/** 
 	 * Flag that indicates whether or not hdfs file exists.It is used 
@@ -674,6 +678,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		// clear the in-memory data
 		clearReusableData();
 		_data = null;	
+		updatePrefetchStatus(false);
 		clearCache();
 		
 		// clear rdd/broadcast back refs
@@ -915,6 +920,14 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	protected abstract T readBlobFromCache(String fname)
 		throws IOException;
 	
+	/**
+	 * Low-level cache I/O method that reads an evicted data blob for an
+	 * asynchronous prefetch, without affecting the buffer pool eviction 
+	 * order or statistics. Must be defined by a subclass.
+	 */
+	protected abstract T prefetchBlobFromCache(String fname)
+		throws IOException;
+	
 	/**
 	 * Low-level cache I/O method that deletes the file containing the
 	 * evicted data blob, without reading it.
@@ -1046,6 +1059,50 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		}
 	}
 	
+	/**
+	 * Indicates if the given index range (0-based, inclusive) can be read directly
+	 * from the columnar input file, i.e., if the data was never read into memory, 
+	 * is not dirty, and is not backed by a pending rdd. Since repeated index range 
+	 * reads (e.g., in loops) would eventually exceed the costs of a single full read,
+	 * we fall back to regular reads once the accumulated number of accessed cells 
+	 * (at granularity of row groups) exceeds the total number of cells.
+	 * 
+	 * @param ixrange
+	 * @return
+	 */
+	public synchronized boolean isColumnarIndexedReadable( IndexRange ixrange )
+	{
+		MatrixFormatMetaData iimd = (MatrixFormatMetaData) _metaData;
+		if( iimd == null || iimd.getInputInfo() != InputInfo.ColumnarInputInfo
+			|| _hdfsFileName == null || !isEmpty(false) || isDirty() || getRDDHandle() != null )
+			return false;
+		
+		//check accumulated accessed cells against total cells
+		MatrixCharacteristics mc = iimd.getMatrixCharacteristics();
+		return mc.dimsKnown() && mc.getRowsPerBlock() > 0 
+			&& _columnarReadCells + getColumnarReadCells(ixrange) <= mc.getRows() * mc.getCols();
+	}
+	
+	/**
+	 * 
+	 * @param ixrange
+	 */
+	protected void addColumnarReadCells( IndexRange ixrange ) {
+		_columnarReadCells += getColumnarReadCells(ixrange);
+	}
+	
+	/**
+	 * 
+	 * @param ixrange
+	 * @return
+	 */
+	private long getColumnarReadCells( IndexRange ixrange ) {
+		MatrixCharacteristics mc = getMatrixCharacteristics();
+		long brlen = mc.getRowsPerBlock();
+		long rows = Math.min((ixrange.rowEnd/brlen - ixrange.rowStart/brlen + 1) * brlen, mc.getRows());
+		return rows * (ixrange.colEnd - ixrange.colStart + 1);
+	}
+	
 	/**
 	 * 
 	 * @param outputFormat
@@ -1279,6 +1336,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	protected void getCache() {
 		if( _cache !=null ) {
 			_data = _cache.get();
+			updatePrefetchStatus(_data != null);
 			clearCache();
 		}
 	}
@@ -1311,6 +1369,88 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		return sizePinned.get();
 	}
 	
+	// *******************************************
+	// ***                                     ***
+	// ***     LOW-LEVEL METHODS FOR ASYNC     ***
+	// ***        PREFETCH OF EVICTED DATA     ***
+	// ***                                     ***
+	// *******************************************
+	
+	/**
+	 * Registers a pending prefetch if the data blob is evicted, i.e., neither
+	 * in memory nor in the soft reference cache, and no prefetch is pending.
+	 * 
+	 * @return true if a prefetch should be issued
+	 */
+	public synchronized boolean requestPrefetch() {
+		if( _prefetchPending || _prefetched || !isPrefetchable() )
+			return false;
+		_prefetchPending = true;
+		return true;
+	}
+	
+	/**
+	 * Resets a pending prefetch that could not be issued, which allows
+	 * subsequent prefetch requests for this data object.
+	 */
+	public synchronized void cancelPrefetch() {
+		_prefetchPending = false;
+	}
+	
+	/**
+	 * Restores the evicted data blob into the soft reference cache, from 
+	 * where it is obtained by the next acquire without synchronous restore.
+	 * This is a no-op if the blob was restored or cleared in the meantime.
+	 * 
+	 * @throws CacheException
+	 */
+	public synchronized void prefetchBlobIntoCache() 
+		throws CacheException
+	{
+		_prefetchPending = false;
+		if( !isPrefetchable() )
+			return;
+		
+		String cacheFilePathAndName = getCacheFilePathAndName();
+		try {
+			T data = prefetchBlobFromCache(cacheFilePathAndName);
+			_cache = new SoftReference<T>( data );
+			_prefetched = true;
+		}
+		catch (IOException e) {
+			throw new CacheException (cacheFilePathAndName + " : Prefetch failed.", e);	
+		}
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetches();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	protected boolean isPrefetchable() {
+		return isCachingActive() 
+			&& _cacheStatus == CacheStatus.CACHED && _data == null
+			&& (_cache == null || _cache.get() == null);
+	}
+	
+	/**
+	 * Maintains the prefetch status and statistics when the soft reference 
+	 * cache is consumed (hit) or the prefetched data is dropped (wasted).
+	 * 
+	 * @param hit
+	 */
+	private void updatePrefetchStatus(boolean hit) {
+		if( _prefetched && DMLScript.STATISTICS ) {
+			if( hit )
+				CacheStatistics.incrementPrefetchHits();
+			else
+				CacheStatistics.incrementPrefetchesWasted();
+		}
+		_prefetched = false;
+	}
+	
 	// --------- STATIC CACHE INIT/CLEANUP OPERATIONS ----------
 	
 	/**
@@ -1320,6 +1460,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		//cleanup remaining cached writes
 		LazyWriteBuffer.cleanup();
 		
+		//stop pending prefetches
+		CachePrefetcher.cleanup();
+		
 		//delete cache dir and files
 		cleanupCacheDir(true);
 	}
@@ -1385,6 +1528,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		//init write-ahead buffer
 		LazyWriteBuffer.init();
 		
+		//init async prefetcher
+		CachePrefetcher.init();
+		
 		_activeFlag = true; //turn on caching
 	}
 	
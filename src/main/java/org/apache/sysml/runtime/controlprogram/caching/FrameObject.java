@@ -32,6 +32,7 @@ import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.instructions.spark.data.RDDObject;
 import org.apache.sysml.runtime.io.FrameReader;
+import org.apache.sysml.runtime.io.FrameReaderColumnar;
 import org.apache.sysml.runtime.io.FrameReaderFactory;
 import org.apache.sysml.runtime.io.FrameWriter;
 import org.apache.sysml.runtime.io.FrameWriterFactory;
@@ -42,6 +43,7 @@ import org.apache.sysml.runtime.matrix.MetaData;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.IndexRange;
 
 public class FrameObject extends CacheableData<FrameBlock>
 {
@@ -138,6 +140,11 @@ public class FrameObject extends CacheableData<FrameBlock>
 	protected FrameBlock readBlobFromCache(String fname) throws IOException {
 		return (FrameBlock)LazyWriteBuffer.readBlock(fname, false);
 	}
+	
+	@Override
+	protected FrameBlock prefetchBlobFromCache(String fname) throws IOException {
+		return (FrameBlock)LazyWriteBuffer.prefetchBlock(fname, false);
+	}
 
 	@Override
 	protected FrameBlock readBlobFromHDFS(String fname, long rlen, long clen)
@@ -163,6 +170,35 @@ public class FrameObject extends CacheableData<FrameBlock>
 		return data;
 	}
 
+	/**
+	 * Reads the given index range (0-based, inclusive) directly from the columnar 
+	 * input file, which only reads the column chunks of the requested range.
+	 * 
+	 * @param ixrange
+	 * @return
+	 * @throws CacheException
+	 */
+	public synchronized FrameBlock readFrameIndexRange( IndexRange ixrange ) 
+		throws CacheException
+	{
+		if( !isColumnarIndexedReadable(ixrange) )
+			throw new CacheException ("FrameObject not available to indexed read.");
+		
+		FrameBlock fb = null;
+		try {
+			FrameReaderColumnar reader = new FrameReaderColumnar();
+			List<ValueType> schema = (_schema != null) ? 
+				_schema.subList((int)ixrange.colStart, (int)ixrange.colEnd+1) : null;
+			fb = reader.readFrameFromHDFS(_hdfsFileName, schema, null, ixrange);
+			addColumnarReadCells(ixrange);
+		}
+		catch(Exception ex) {
+			throw new CacheException(ex);
+		}
+		
+		return fb;
+	}
+
 	@Override
 	protected FrameBlock readBlobFromRDD(RDDObject rdd, MutableBoolean status)
 			throws IOException 
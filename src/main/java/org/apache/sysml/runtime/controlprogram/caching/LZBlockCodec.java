@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.util.Arrays;
+
+/**
+ * Fast byte-level block codec in the style of LZ4 (greedy hash-based matching,
+ * token-encoded literal and match runs, 2-byte offsets) for compressing 
+ * serialized cache blocks in the write buffer and spilled buffer pages. 
+ * The codec favors speed over compression ratio, which works well for the 
+ * highly redundant column indexes and row pointers of sparse blocks.
+ * 
+ * Compressed layout: a sequence of [token, (literal length ext), literals, 
+ * offset, (match length ext)], where the last sequence has only literals. 
+ * The uncompressed length is not encoded and must be kept by the caller.
+ */
+public class LZBlockCodec 
+{
+	private static final int MIN_MATCH = 4;
+	private static final int HASH_LOG = 14;
+	private static final int MAX_OFFSET = 65535;
+	private static final int LAST_LITERALS = 5;  //trailing bytes always literals
+	private static final int MF_LIMIT = 12;      //min distance of last match to end
+	private static final int SKIP_TRIGGER = 6;   //skip acceleration for incompressible data
+	private static final int RUN_MASK = 15;
+	
+	/**
+	 * Compresses the first srcLen bytes of src into dst. 
+	 * 
+	 * @param src source byte array
+	 * @param srcLen number of bytes to compress
+	 * @param dst destination byte array
+	 * @return compressed length, or -1 if the compressed output does not fit into dst
+	 */
+	public static int compress( byte[] src, int srcLen, byte[] dst )
+	{
+		int[] htab = new int[1 << HASH_LOG];
+		Arrays.fill(htab, -1);
+		
+		int sp = 0, anchor = 0, dp = 0;
+		int limit = srcLen - MF_LIMIT;
+		int mlimit = srcLen - LAST_LITERALS;
+		
+		while( sp < limit )
+		{
+			//probe hash table for match candidate
+			int seq = readInt(src, sp);
+			int h = hash(seq);
+			int ref = htab[h];
+			htab[h] = sp;
+			if( ref < 0 || sp-ref > MAX_OFFSET || readInt(src, ref) != seq ) {
+				sp += 1 + ((sp-anchor) >>> SKIP_TRIGGER);
+				continue;
+			}
+			
+			//extend match forward and backward
+			int mlen = MIN_MATCH;
+			while( sp+mlen < mlimit && src[ref+mlen] == src[sp+mlen] )
+				mlen++;
+			while( sp > anchor && ref > 0 && src[sp-1] == src[ref-1] ) {
+				sp--; ref--; mlen++;
+			}
+			
+			//emit sequence of literals and match
+			dp = writeSequence(src, anchor, sp-anchor, sp-ref, mlen, dst, dp);
+			if( dp < 0 )
+				return -1;
+			sp += mlen;
+			anchor = sp;
+			
+			//index position within match for better subsequent matches
+			if( sp-2 < limit )
+				htab[hash(readInt(src, sp-2))] = sp-2;
+		}
+		
+		//emit last literals
+		return writeSequence(src, anchor, srcLen-anchor, 0, 0, dst, dp);
+	}
+	
+	/**
+	 * Decompresses the srcLen bytes of src into dst.
+	 * 
+	 * @param src compressed byte array
+	 * @param srcLen compressed length
+	 * @param dst destination byte array of at least the uncompressed length
+	 * @return uncompressed length
+	 */
+	public static int decompress( byte[] src, int srcLen, byte[] dst )
+	{
+		int sp = 0, dp = 0;
+		
+		while( sp < srcLen )
+		{
+			int token = src[sp++] & 0xFF;
+			
+			//copy literals
+			int lit = token >>> 4;
+			if( lit == RUN_MASK ) {
+				int b;
+				do { b = src[sp++] & 0xFF; lit += b; } while( b == 255 );
+			}
+			copy(src, sp, dst, dp, lit);
+			sp += lit;
+			dp += lit;
+			if( sp >= srcLen )
+				break; //last sequence
+			
+			//copy match (potentially overlapping)
+			int off = (src[sp] & 0xFF) | ((src[sp+1] & 0xFF) << 8);
+			sp += 2;
+			int mlen = token & RUN_MASK;
+			if( mlen == RUN_MASK ) {
+				int b;
+				do { b = src[sp++] & 0xFF; mlen += b; } while( b == 255 );
+			}
+			mlen += MIN_MATCH;
+			int ref = dp - off;
+			if( off >= mlen )
+				copy(dst, ref, dst, dp, mlen);
+			else
+				for( int i=0; i<mlen; i++ )
+					dst[dp+i] = dst[ref+i];
+			dp += mlen;
+		}
+		
+		return dp;
+	}
+	
+	private static int writeSequence( byte[] src, int lpos, int lit, int off, int mlen, byte[] dst, int dp )
+	{
+		//check for sufficient space (conservative)
+		if( dp + 1 + lit + lit/255 + 1 + 2 + mlen/255 + 1 > dst.length )
+			return -1;
+		
+		//write token
+		int ml = (mlen > 0) ? mlen - MIN_MATCH : 0;
+		dst[dp++] = (byte)((Math.min(lit, RUN_MASK) << 4) | Math.min(ml, RUN_MASK));
+		
+		//write literals
+		if( lit >= RUN_MASK )
+			dp = writeLength(lit - RUN_MASK, dst, dp);
+		copy(src, lpos, dst, dp, lit);
+		dp += lit;
+		
+		//write match
+		if( mlen > 0 ) {
+			dst[dp++] = (byte) off;
+			dst[dp++] = (byte)(off >>> 8);
+			if( ml >= RUN_MASK )
+				dp = writeLength(ml - RUN_MASK, dst, dp);
+		}
+		
+		return dp;
+	}
+	
+	private static void copy( byte[] src, int spos, byte[] dst, int dpos, int len ) {
+		//avoid arraycopy overhead for the common case of short runs
+		if( len < 32 )
+			for( int i=0; i<len; i++ )
+				dst[dpos+i] = src[spos+i];
+		else
+			System.arraycopy(src, spos, dst, dpos, len);
+	}
+	
+	private static int writeLength( int len, byte[] dst, int dp ) {
+		while( len >= 255 ) {
+			dst[dp++] = (byte) 255;
+			len -= 255;
+		}
+		dst[dp++] = (byte) len;
+		return dp;
+	}
+	
+	private static int readInt( byte[] b, int pos ) {
+		return (b[pos] & 0xFF) | ((b[pos+1] & 0xFF) << 8) 
+			| ((b[pos+2] & 0xFF) << 16) | ((b[pos+3] & 0xFF) << 24);
+	}
+	
+	private static int hash( int seq ) {
+		return (seq * -1640531535) >>> (32 - HASH_LOG);
+	}
+}
@@ -20,13 +20,18 @@
 package org.apache.sysml.runtime.controlprogram.caching;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
@@ -36,21 +41,45 @@ import org.apache.sysml.runtime.util.LocalFileUtils;
  */
 public class LazyWriteBuffer 
 {
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
 	public enum RPolicy {
 		FIFO, //first-in, first-out eviction
-		LRU   //least recently used eviction
+		LRU,  //least recently used eviction
+		SLRU  //segmented least recently used eviction (scan-resistant)
 	}
 	
+	//max fraction of the buffer limit for the protected segment (SLRU)
+	public static final double SLRU_PROTECTED_RATIO = 0.8;
+	
+	//replacement policy (configured via dml config)
+	private static RPolicy _policy = RPolicy.FIFO;
+	
 	//global size limit in bytes
 	private static long _limit; 
 	
 	//current size in bytes
 	private static long _size;  
 	
+	//current size of protected segment in bytes (SLRU)
+	private static long _pSize;
+	
 	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
+	//for (1) queue semantics and (2) constant time get/insert/delete operations),
+	//which is the probationary segment of new entries in case of SLRU
 	private static EvictionQueue _mQueue;
 	
+	//protected segment of entries with repeated reads (SLRU), which are
+	//only evicted if the probationary segment is empty; this prevents large
+	//scans from flushing small, frequently read intermediates 
+	private static EvictionQueue _pQueue;
+	
+	//compressed spilled buffers of <filename,uncompressed size> pairs
+	private static HashMap<String, Integer> _cFiles;
+	
+	//compression of serialized buffers (configured via dml config)
+	private static boolean _compress = false;
+	
 	//file cleaner for synchronous or asynchronous delete of evicted files
 	private static FileCleaner _fClean;
 	
@@ -85,8 +114,15 @@ public class LazyWriteBuffer
 				//evict matrices to make room (by default FIFO)
 				while( _size+lSize >= _limit )
 				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+					//remove first entry from eviction queue (for SLRU, 
+					//from the probationary segment if non-empty)
+					Entry<String, ByteBuffer> entry = null;
+					if( !_mQueue.isEmpty() )
+						entry = _mQueue.removeFirst();
+					else {
+						entry = _pQueue.removeFirst();
+						_pSize -= entry.getValue().getSize();
+					}
 					String ftmp = entry.getKey();
 					ByteBuffer tmp = entry.getValue();
 					
@@ -95,8 +131,12 @@ public class LazyWriteBuffer
 						//wait for pending serialization
 						tmp.checkSerialized();
 						
-						//evict matrix
+						//evict matrix (compressed buffers written as is)
 						tmp.evictBuffer(ftmp);
+						if( tmp.isCompressed() )
+							_cFiles.put(ftmp, tmp.getRawSize());
+						else
+							_cFiles.remove(ftmp);
 						tmp.freeMemory();
 						_size-=tmp.getSize();
 						
@@ -106,7 +146,7 @@ public class LazyWriteBuffer
 				}
 				
 				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
+				bbuff = new ByteBuffer( lSize, _compress );
 				
 				//put placeholder into buffer pool 
 				_mQueue.addLast(fname, bbuff);
@@ -116,12 +156,22 @@ public class LazyWriteBuffer
 			//serialize matrix (outside synchronized critical path)
 			bbuff.serializeBlock(cb); 
 			
+			//release reserved but unused buffer size (compression)
+			if( bbuff.getSize() < lSize ) {
+				synchronized( _mQueue ) {
+					_size -= lSize - bbuff.getSize();
+				}
+			}
+			
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffWrites();
 		}	
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
+			synchronized( _mQueue ) {
+				_cFiles.remove(fname);
+			}
 			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSWrites();
@@ -140,11 +190,15 @@ public class LazyWriteBuffer
 		{
 			//remove queue entry 
 			ByteBuffer ldata = _mQueue.remove(fname);
+			if( ldata == null && (ldata = _pQueue.remove(fname)) != null )
+				_pSize -= ldata.getSize();
 			if( ldata != null ) {
 				_size -= ldata.getSize(); 
 				requiresDelete = false;
 				ldata.freeMemory(); //cleanup
 			}
+			else
+				_cFiles.remove(fname);
 		}
 		
 		//delete from FS if required
@@ -163,6 +217,8 @@ public class LazyWriteBuffer
 	{
 		CacheBlock cb = null;
 		ByteBuffer ldata = null;
+		Integer rawSize = null;
+		boolean protectedHit = false;
 		
 		//probe write buffer
 		synchronized( _mQueue )
@@ -170,21 +226,57 @@ public class LazyWriteBuffer
 			ldata = _mQueue.get(fname);
 			
 			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
-				&& ldata != null )
+			if( _policy == RPolicy.LRU && ldata != null )
 			{
 				//reinsert entry at end of eviction queue
 				_mQueue.remove( fname );
 				_mQueue.addLast( fname, ldata );
 			}
+			else if( _policy == RPolicy.SLRU ) 
+			{
+				if( ldata != null ) {
+					//promote entry from probationary to protected segment
+					_mQueue.remove( fname );
+					_pQueue.addLast( fname, ldata );
+					_pSize += ldata.getSize();
+					
+					//demote least recently used protected entries
+					while( _pSize > SLRU_PROTECTED_RATIO * _limit && _pQueue.size() > 1 ) {
+						Entry<String, ByteBuffer> entry = _pQueue.removeFirst();
+						_mQueue.addLast( entry.getKey(), entry.getValue() );
+						_pSize -= entry.getValue().getSize();
+					}
+				}
+				else if( (ldata = _pQueue.remove(fname)) != null ) {
+					//reinsert entry at end of protected segment
+					_pQueue.addLast( fname, ldata );
+					protectedHit = true;
+				}
+			}
+			
+			//probe compressed spilled buffers
+			if( ldata == null )
+				rawSize = _cFiles.get(fname);
 		}
 		
 		//deserialize or read from FS if required
 		if( ldata != null )
 		{
 			cb = ldata.deserializeBlock();
-			if( DMLScript.STATISTICS )
+			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSBuffHits();
+				if( _policy == RPolicy.SLRU && protectedHit )
+					CacheStatistics.incrementFSBuffProtectedHits();
+				else if( _policy == RPolicy.SLRU )
+					CacheStatistics.incrementFSBuffProbationHits();
+			}
+		}
+		else if( rawSize != null )
+		{
+			byte[] cdata = LocalFileUtils.readByteArrayFromLocal(fname);
+			cb = ByteBuffer.deserializeCompressedBlock(cdata, rawSize);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementFSHits();
 		}
 		else
 		{
@@ -196,13 +288,68 @@ public class LazyWriteBuffer
 		return cb;
 	}
 		
+	/**
+	 * Reads the given block for an asynchronous prefetch. In contrast to
+	 * readBlock, this neither modifies the eviction order (e.g., promotion
+	 * into the protected segment) nor the hit statistics, because a prefetch
+	 * is not an actual access and might never be consumed.
+	 * 
+	 * @param fname
+	 * @param matrix
+	 * @return
+	 * @throws IOException
+	 */
+	public static CacheBlock prefetchBlock( String fname, boolean matrix ) 
+		throws IOException
+	{
+		ByteBuffer ldata = null;
+		Integer rawSize = null;
+		
+		//probe write buffer (both segments) w/o reordering
+		synchronized( _mQueue )
+		{
+			ldata = _mQueue.get(fname);
+			if( ldata == null )
+				ldata = _pQueue.get(fname);
+			if( ldata == null )
+				rawSize = _cFiles.get(fname);
+		}
+		
+		//deserialize or read from FS if required
+		if( ldata != null )
+			return ldata.deserializeBlock();
+		else if( rawSize != null )
+			return ByteBuffer.deserializeCompressedBlock(
+				LocalFileUtils.readByteArrayFromLocal(fname), rawSize);
+		else
+			return LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
+	}
+	
 	/**
 	 * 
 	 */
 	public static void init() {
+		init(getConfiguredPolicy(), getWriteBufferSize());
+	}
+	
+	/**
+	 * Initializes the buffer pool with the given replacement policy and 
+	 * size limit in bytes (exposed for testing purposes only).
+	 * 
+	 * @param policy
+	 * @param limit
+	 */
+	public static void init( RPolicy policy, long limit ) {
+		_policy = policy;
+		_limit = limit;
 		_mQueue = new EvictionQueue();
+		_pQueue = new EvictionQueue();
+		_cFiles = new HashMap<String, Integer>();
+		_compress = ConfigurationManager.getDMLConfig()
+				.getBooleanValue(DMLConfig.CP_CACHING_COMPRESS);
 		_fClean = new FileCleaner();
 		_size = 0;
+		_pSize = 0;
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -213,6 +360,10 @@ public class LazyWriteBuffer
 	public static void cleanup() {
 		if( _mQueue != null )
 			_mQueue.clear();
+		if( _pQueue != null )
+			_pQueue.clear();
+		if( _cFiles != null )
+			_cFiles.clear();
 		if( _fClean != null )
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -228,6 +379,14 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * 
+	 * @return
+	 */
+	public static RPolicy getPolicy() {
+		return _policy;
+	}
+	
 	/**
 	 * 
 	 */
@@ -237,19 +396,40 @@ public class LazyWriteBuffer
 		
 		//print buffer meta data
 		System.out.println("\tWB: Buffer Meta Data: " +
+				     "policy="+_policy+", " +
 				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+				     "size[bytes]="+_size+"/"+_pSize+", " +
+				     "size[elements]="+_mQueue.size()+"/"+_pQueue.size());
 		
 		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
-		{
-			String fname = entry.getKey();
-			ByteBuffer bbuff = entry.getValue();
-			
-			System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
-			count--;
+		int count = _mQueue.size() + _pQueue.size();
+		for( EvictionQueue queue : new EvictionQueue[]{_mQueue, _pQueue} )
+			for( Entry<String, ByteBuffer> entry : queue.entrySet() )
+			{
+				String fname = entry.getKey();
+				ByteBuffer bbuff = entry.getValue();
+				
+				System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
+				count--;
+			}
+	}
+	
+	/**
+	 * Obtains the replacement policy from the dml config, with fallback
+	 * to FIFO for unknown policies.
+	 * 
+	 * @return
+	 */
+	private static RPolicy getConfiguredPolicy()
+	{
+		String policy = ConfigurationManager.getDMLConfig()
+				.getTextValue(DMLConfig.CP_CACHING_POLICY);
+		try {
+			return RPolicy.valueOf(policy.trim().toUpperCase());
+		}
+		catch(Exception ex) {
+			LOG.warn("Unsupported caching policy '"+policy+"', fallback to FIFO.");
+			return RPolicy.FIFO;
 		}
 	}
 	
@@ -34,10 +34,12 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.instructions.spark.data.RDDObject;
+import org.apache.sysml.runtime.io.ReaderColumnar;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.MatrixDimensionsMetaData;
 import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.MetaData;
+import org.apache.sysml.runtime.matrix.data.DenseBlockPool;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.LibMatrixDNN;
@@ -72,6 +74,9 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	private int _partitionSize = -1; //indicates n for BLOCKWISE_N
 	private String _partitionCacheName = null; //name of cache block
 	private MatrixBlock _partitionInMemory = null;
+	
+	//sample-based estimate of csv inputs with unknown size (reused by recompiles)
+	private MatrixCharacteristics _sampleMC = null;
 
 	/**
 	 * Constructor that takes only the HDFS filename.
@@ -110,6 +115,7 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		_partitionFormat = mo._partitionFormat;
 		_partitionSize = mo._partitionSize;
 		_partitionCacheName = mo._partitionCacheName;
+		_sampleMC = mo._sampleMC;
 	}
 	
 
@@ -129,6 +135,22 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		return _updateInPlaceFlag;
 	}
 	
+	/**
+	 * 
+	 * @param mc
+	 */
+	public void setSampledCharacteristics(MatrixCharacteristics mc) {
+		_sampleMC = mc;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public MatrixCharacteristics getSampledCharacteristics() {
+		return _sampleMC;
+	}
+	
 	@Override
 	public void updateMatrixCharacteristics (MatrixCharacteristics mc) {
 		((MatrixDimensionsMetaData)_metaData).setMatrixCharacteristics( mc );
@@ -216,7 +238,9 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 					// Not a column vector
 					_data.getNumRows() != 1 && _data.getNumColumns() != 1) {
 				double[] arr = ((MatrixBlock)_data).getDenseBlock();
-				LibMatrixDNN.cacheReuseableData(arr);
+				//arrays of an active block pool are owned by the pool
+				if( !DenseBlockPool.isPoolAllocated(arr) )
+					LibMatrixDNN.cacheReuseableData(arr);
 			}
 		}
 	}
@@ -478,6 +502,42 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	}
 	
 	
+	/**
+	 * Reads the given index range (0-based, inclusive) directly from the columnar 
+	 * input file, which only reads the column chunks of the requested range.
+	 * 
+	 * @param ixrange
+	 * @return
+	 * @throws CacheException
+	 */
+	public synchronized MatrixBlock readMatrixIndexRange( IndexRange ixrange ) 
+		throws CacheException
+	{
+		if( LOG.isTraceEnabled() )
+			LOG.trace("Acquire index range "+getVarName()+" "+ixrange);
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		
+		if( !isColumnarIndexedReadable(ixrange) )
+			throw new CacheException ("MatrixObject not available to indexed read.");
+		
+		MatrixBlock mb = null;
+		try {
+			ReaderColumnar reader = new ReaderColumnar();
+			mb = reader.readMatrixFromHDFS(_hdfsFileName, ixrange);
+			addColumnarReadCells(ixrange);
+		}
+		catch(Exception ex) {
+			throw new CacheException(ex);
+		}
+		
+		if( DMLScript.STATISTICS ){
+			long t1 = System.nanoTime();
+			CacheStatistics.incrementAcquireRTime(t1-t0);
+		}
+		
+		return mb;
+	}
+	
 	/**
 	 * 
 	 * @param pred
@@ -534,11 +594,22 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			|| isUpdateInPlaceEnabled(); //pinned result variable
 	}
 	
+	@Override
+	protected boolean isPrefetchable() {
+		return super.isPrefetchable()
+			&& !isPartitioned(); //cache used for partitions
+	}
+	
 	@Override
 	protected MatrixBlock readBlobFromCache(String fname) throws IOException {
 		return (MatrixBlock)LazyWriteBuffer.readBlock(fname, true);
 	}
 	
+	@Override
+	protected MatrixBlock prefetchBlobFromCache(String fname) throws IOException {
+		return (MatrixBlock)LazyWriteBuffer.prefetchBlock(fname, true);
+	}
+	
 
 	@Override
 	protected MatrixBlock readBlobFromHDFS(String fname, long rlen, long clen)
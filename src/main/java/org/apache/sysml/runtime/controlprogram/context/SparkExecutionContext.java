@@ -328,6 +328,13 @@ public class SparkExecutionContext extends ExecutionContext
 				rdd = getSparkContext().hadoopFile( mo.getFileName(), inputInfo.inputFormatClass, inputInfo.inputKeyClass, inputInfo.inputValueClass);
 				rdd = ((JavaPairRDD<MatrixIndexes, MatrixCell>)rdd).mapToPair( new CopyBinaryCellFunction() ); //cp is workaround for read bug
 			}
+			else if(inputInfo == InputInfo.ColumnarInputInfo) {
+				//columnar files are only accessible via local readers, hence we
+				//read the matrix into memory and parallelize the matrix block
+				MatrixBlock mb = mo.acquireRead(); //pin matrix in memory
+				rdd = toJavaPairRDD(getSparkContext(), mb, (int)mo.getNumRowsPerBlock(), (int)mo.getNumColumnsPerBlock());
+				mo.release(); //unpin matrix
+			}
 			else {
 				throw new DMLRuntimeException("Incorrect input format in getRDDHandleForVariable");
 			}
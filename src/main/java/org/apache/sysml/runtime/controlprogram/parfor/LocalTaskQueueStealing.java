@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.parfor;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free alternative to the monitor-based LocalTaskQueue for local parfor
+ * execution with many workers and fine-grained tasks. Tasks are distributed 
+ * round-robin over a number of stripes (lock-free MPMC queues), where each 
+ * reader thread is bound to a home stripe on its first dequeue. Readers 
+ * consume from their home stripe and steal from the other stripes if empty.
+ * Waiting readers (empty queue, open input) and writers (full queue) use a
+ * bounded exponential backoff via parking instead of wait/notify, which 
+ * removes the single monitor as the point of contention.
+ * 
+ * The queue maintains the number of steals and the accumulated wait time of
+ * readers, which are reported as parfor statistics.
+ * 
+ */
+public class LocalTaskQueueStealing<T> extends LocalTaskQueue<T>
+{
+	private static final long MIN_BACKOFF = 1000;    //1us
+	private static final long MAX_BACKOFF = 1000000; //1ms
+	
+	private final ConcurrentLinkedQueue<T>[] _stripes;
+	private final AtomicInteger _size = new AtomicInteger(0);
+	private final AtomicLong _enqueuePos = new AtomicLong(0);
+	private final AtomicInteger _readerPos = new AtomicInteger(0);
+	private final ThreadLocal<Integer> _homeStripe = new ThreadLocal<Integer>();
+	private volatile boolean _closed = false;
+	
+	//queue statistics
+	private final AtomicLong _numSteals = new AtomicLong(0);
+	private final AtomicLong _waitTime = new AtomicLong(0); //in nano sec
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public LocalTaskQueueStealing( int numStripes )
+	{
+		super();
+		_stripes = new ConcurrentLinkedQueue[ Math.max(numStripes, 1) ];
+		for( int i=0; i<_stripes.length; i++ )
+			_stripes[i] = new ConcurrentLinkedQueue<T>();
+	}
+	
+	/**
+	 * Lock-free insert of a new task into the next stripe (round-robin).
+	 * 
+	 * @param t
+	 * @throws InterruptedException
+	 */
+	@Override
+	public void enqueueTask( T t ) 
+		throws InterruptedException
+	{
+		//max constraint reached, wait for reads (w/ backoff)
+		long backoff = MIN_BACKOFF;
+		while( _size.get() + 1 > MAX_SIZE ) {
+			backoff = park(backoff);
+		}
+		
+		int pos = (int)(_enqueuePos.getAndIncrement() % _stripes.length);
+		_size.incrementAndGet();
+		_stripes[pos].offer( t );
+	}
+	
+	/**
+	 * Lock-free read and delete of a task from the home stripe of the
+	 * current thread, or from any other stripe if the home stripe is empty.
+	 * 
+	 * @return
+	 * @throws InterruptedException
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T dequeueTask() 
+		throws InterruptedException
+	{
+		int home = getHomeStripe();
+		long backoff = MIN_BACKOFF;
+		long t0 = -1;
+		
+		while( true ) 
+		{
+			//read close flag before scan, because all tasks enqueued
+			//before close are guaranteed to be visible afterwards
+			boolean closed = _closed;
+			T t = poll(home);
+			if( t != null ) {
+				if( t0 > 0 )
+					_waitTime.addAndGet(System.nanoTime()-t0);
+				return t;
+			}
+			if( closed ) {
+				if( t0 > 0 )
+					_waitTime.addAndGet(System.nanoTime()-t0);
+				return (T)NO_MORE_TASKS;
+			}
+			
+			//wait for writers (w/ backoff)
+			if( t0 < 0 )
+				t0 = System.nanoTime();
+			backoff = park(backoff);
+		}
+	}
+	
+	/**
+	 * Logical insert of a NO_MORE_TASKS symbol, i.e., readers return
+	 * NO_MORE_TASKS once all stripes have been drained.
+	 */
+	@Override
+	public void closeInput()
+	{
+		_closed = true;
+	}
+	
+	@Override
+	public int size()
+		throws InterruptedException
+	{
+		return _size.get();
+	}
+	
+	public long getNumSteals() {
+		return _numSteals.get();
+	}
+	
+	/**
+	 * Gets the total time readers waited for tasks.
+	 * 
+	 * @return wait time in nano seconds
+	 */
+	public long getWaitTime() {
+		return _waitTime.get();
+	}
+	
+	@Override
+	public String toString() 
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("TASK QUEUE STEALING (size=");
+		sb.append(_size.get());
+		sb.append(",stripes=");
+		sb.append(_stripes.length);
+		sb.append(",close=");
+		sb.append(_closed);
+		sb.append(",steals=");
+		sb.append(_numSteals.get());
+		sb.append(")\n");
+		
+		int count = 1;
+		for( ConcurrentLinkedQueue<T> stripe : _stripes )
+			for( T t : stripe ) {
+				sb.append("  TASK #");
+				sb.append(count++);
+				sb.append(": ");
+				sb.append(t.toString());
+				sb.append("\n");
+			}
+		
+		return sb.toString();
+	}
+	
+	private T poll( int home )
+	{
+		//probe home stripe
+		T t = _stripes[home].poll();
+		
+		//probe other stripes (steal)
+		for( int i=1; i<_stripes.length && t==null; i++ ) {
+			t = _stripes[(home+i) % _stripes.length].poll();
+			if( t != null )
+				_numSteals.incrementAndGet();
+		}
+		
+		if( t != null )
+			_size.decrementAndGet();
+		return t;
+	}
+	
+	private int getHomeStripe()
+	{
+		Integer home = _homeStripe.get();
+		if( home == null ) {
+			home = _readerPos.getAndIncrement() % _stripes.length;
+			_homeStripe.set(home);
+		}
+		return home;
+	}
+	
+	private static long park( long backoff ) 
+		throws InterruptedException
+	{
+		LockSupport.parkNanos(backoff);
+		if( Thread.interrupted() )
+			throw new InterruptedException();
+		return Math.min(2*backoff, MAX_BACKOFF);
+	}
+}
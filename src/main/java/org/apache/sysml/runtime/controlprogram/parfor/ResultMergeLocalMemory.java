@@ -20,7 +20,14 @@
 package org.apache.sysml.runtime.controlprogram.parfor;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -31,6 +38,7 @@ import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.util.DataConverter;
 
 /**
@@ -145,11 +153,7 @@ public class ResultMergeLocalMemory extends ResultMerge
 	{		
 		MatrixObject moNew = null; //always create new matrix object (required for nested parallelism)
 	
-		//Timing time = null;
 		LOG.trace("ResultMerge (local, in-memory): Execute parallel (par="+par+") merge for output "+_output.getVarName()+" (fname="+_output.getFileName()+")");
-		//	time = new Timing();
-		//	time.start();
-		
 
 		try
 		{
@@ -165,39 +169,58 @@ public class ResultMergeLocalMemory extends ResultMerge
 			
 			if( !inMO.isEmpty() ) //if there exist something to merge
 			{
-				//get old output matrix from cache for compare
-				//NOTE: always in dense representation in order to allow for parallel unsynchronized access 
-				long rows = outMB.getNumRows();
-				long cols = outMB.getNumColumns();
-				MatrixBlock outMBNew = new MatrixBlock((int)rows, (int)cols, false);
-				outMBNew.allocateDenseBlockUnsafe((int)rows, (int)cols);
+				//allocate new output matrix in dense representation in order to allow 
+				//for parallel unsynchronized access of disjoint output partitions
+				int rows = outMB.getNumRows();
+				int cols = outMB.getNumColumns();
+				MatrixBlock outMBNew = new MatrixBlock(rows, cols, false);
+				outMBNew.allocateDenseBlockUnsafe(rows, cols);
 				
 				//create compare matrix if required (existing data in result)
 				_compare = createCompareMatrix(outMB);
-				if( _compare != null )
-					outMBNew.copy(outMB);
 				
-				//parallel merge of all inputs
-
-				int numThreads = Math.min(par, inMO.size()); //number of inputs can be lower than par
-				numThreads = Math.min(numThreads, InfrastructureAnalyzer.getLocalParallelism()); //ensure robustness for remote exec
-				Thread[] threads = new Thread[ numThreads ];
-				for( int k=0; k<inMO.size(); k+=numThreads ) //multiple waves if necessary
+				//partition output into disjoint row (or column) ranges, where each task 
+				//merges all inputs for its range, w/o synchronization or races on the output
+				List<MergeRange> ranges = createMergeRanges(rows, cols, par);
+				int numThreads = Math.min(ranges.size(), InfrastructureAnalyzer.getLocalParallelism()); //ensure robustness for remote exec
+				int numPinned = getMaxPinnedInputs(rows, cols, Math.min(par, inMO.size()));
+				ExecutorService pool = Executors.newFixedThreadPool( numThreads );
+				
+				//parallel merge of all inputs (multiple waves of pinned inputs if necessary)
+				long nnz = 0;
+				try
 				{
-					//create and start threads
-					for( int i=0; i<threads.length; i++ )
+					for( int k=0; k<inMO.size(); k+=numPinned )
 					{
-						ResultMergeWorker rmw = new ResultMergeWorker(inMO.get(k+i), outMBNew);
-						threads[i] = new Thread(rmw);
-						threads[i].setPriority(Thread.MAX_PRIORITY);
-						threads[i].start(); // start execution
-					}	
-					//wait for all workers to finish
-					for( int i=0; i<threads.length; i++ )
-					{
-						threads[i].join();
+						//read/pin inputs of current wave (incl. implicit read from HDFS)
+						List<MatrixObject> lmo = inMO.subList(k, Math.min(k+numPinned, inMO.size()));
+						MatrixBlock[] inMB = new MatrixBlock[lmo.size()];
+						for( int i=0; i<inMB.length; i++ ) {
+							LOG.trace("ResultMerge (local, in-memory): Merge input "+lmo.get(i).getVarName()+" (fname="+lmo.get(i).getFileName()+")");
+							inMB[i] = lmo.get(i).acquireRead();
+						}
+						
+						//core merge of disjoint output ranges (nnz of last wave)
+						boolean first = (k == 0);
+						boolean last = (k+numPinned >= inMO.size());
+						ArrayList<ResultMergeTask> tasks = new ArrayList<ResultMergeTask>();
+						for( MergeRange range : ranges )
+							tasks.add(new ResultMergeTask(outMBNew, inMB, range, first, last));
+						List<Future<Long>> taskret = pool.invokeAll(tasks);
+						for( Future<Long> task : taskret )
+							nnz += task.get();
+						
+						//unpin and clear in-memory inputs
+						for( MatrixObject in : lmo ) {
+							in.release();
+							in.clearData();
+						}
 					}
 				}
+				finally {
+					pool.shutdown();
+				}
+				outMBNew.setNonZeros(nnz);
 				
 				//create new output matrix 
 				//(e.g., to prevent potential export<->read file access conflict in specific cases of 
@@ -217,12 +240,61 @@ public class ResultMergeLocalMemory extends ResultMerge
 		{
 			throw new DMLRuntimeException(ex);
 		}
-		
-		//LOG.trace("ResultMerge (local, in-memory): Executed parallel (par="+par+") merge for output "+_output.getVarName()+" (fname="+_output.getFileName()+") in "+time.stop()+"ms");
 
 		return moNew;		
 	}
 
+	/**
+	 * Creates disjoint output ranges for parallel merge, where we partition the
+	 * rows (aligned to blocks of the default blocksize if possible), and fall back 
+	 * to partitioning the columns for outputs with fewer rows than ranges.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param par
+	 * @return
+	 */
+	private static List<MergeRange> createMergeRanges( int rows, int cols, int par )
+	{
+		ArrayList<MergeRange> ret = new ArrayList<MergeRange>();
+		int blen = ConfigurationManager.getBlocksize();
+		
+		if( rows >= par || rows >= cols ) //ROW PARTITIONS
+		{
+			int len = (int)Math.ceil((double)rows/par);
+			if( rows >= par*blen )
+				len = (int)Math.ceil((double)len/blen) * blen;
+			for( int i=0; i<rows; i+=len )
+				ret.add(new MergeRange(i, Math.min(i+len, rows), 0, cols));
+		}
+		else //COLUMN PARTITIONS
+		{
+			int len = (int)Math.ceil((double)cols/par);
+			for( int j=0; j<cols; j+=len )
+				ret.add(new MergeRange(0, rows, j, Math.min(j+len, cols)));
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Determines the maximum number of concurrently pinned inputs, such that
+	 * the dense output, the compare matrix and all pinned inputs (with the size
+	 * of the dense output as upper bound) fit into the local memory budget.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param par
+	 * @return
+	 */
+	private static int getMaxPinnedInputs( int rows, int cols, int par )
+	{
+		double outSize = MatrixBlock.estimateSizeInMemory(rows, cols, 1.0);
+		double memBudget = OptimizerUtils.getLocalMemBudget();
+		int maxPinned = (int)Math.max((memBudget - 2*outSize) / outSize, 1);
+		return Math.max(Math.min(par, maxPinned), 1);
+	}
+	
 	/**
 	 * 
 	 * @param output
@@ -304,37 +376,176 @@ public class ResultMergeLocalMemory extends ResultMerge
 	
 	
 	/**
-	 * NOTE: only used if matrix in dense
+	 * Output range [rl,ru) x [cl,cu) of the parallel merge.
+	 */
+	private static class MergeRange
+	{
+		private int rl = -1;
+		private int ru = -1;
+		private int cl = -1;
+		private int cu = -1;
+		
+		public MergeRange(int rl, int ru, int cl, int cu) {
+			this.rl = rl;
+			this.ru = ru;
+			this.cl = cl;
+			this.cu = cu;
+		}
+	}
+	
+	/**
+	 * Merges all given inputs for a disjoint range of the dense output, and
+	 * returns the number of non-zeros of this range if it is the last wave of
+	 * inputs. The output range is initialized with the compare matrix for the
+	 * first wave of inputs.
 	 */
-	private class ResultMergeWorker implements Runnable
+	private class ResultMergeTask implements Callable<Long>
 	{
-		private MatrixObject _inMO  = null;
-		private MatrixBlock  _outMB = null;
+		private MatrixBlock   _outMB = null;
+		private MatrixBlock[] _inMB  = null;
+		private MergeRange    _range = null;
+		private boolean       _first = false;
+		private boolean       _last  = false;
 		
-		public ResultMergeWorker(MatrixObject inMO, MatrixBlock outMB)
+		public ResultMergeTask(MatrixBlock outMB, MatrixBlock[] inMB, MergeRange range, boolean first, boolean last)
 		{
-			_inMO  = inMO;
 			_outMB = outMB;
+			_inMB  = inMB;
+			_range = range;
+			_first = first;
+			_last  = last;
 		}
 
 		@Override
-		public void run() 
+		public Long call() 
+			throws DMLRuntimeException
 		{
-			//read each input if required
-			try
-			{
-				LOG.trace("ResultMerge (local, in-memory): Merge input "+_inMO.getVarName()+" (fname="+_inMO.getFileName()+")");
-				
-				MatrixBlock inMB = _inMO.acquireRead(); //incl. implicit read from HDFS
-				merge( _outMB, inMB, false );
-				_inMO.release();
-				_inMO.clearData();
-			}
-			catch(Exception ex)
-			{
-				throw new RuntimeException("Failed to parallel merge result.", ex);
+			double[] a = _outMB.getDenseBlock();
+			int n = _outMB.getNumColumns();
+			int rl = _range.rl, ru = _range.ru;
+			int cl = _range.cl, cu = _range.cu;
+			
+			//initialize output range with existing data
+			if( _first && _compare != null )
+				for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+					System.arraycopy(_compare[i], cl, a, aix+cl, cu-cl);
+			
+			//merge all inputs into output range
+			for( MatrixBlock in : _inMB ) {
+				if( in.getNumRows() != _outMB.getNumRows() || in.getNumColumns() != n )
+					throw new DMLRuntimeException("Dimension mismatch on result merge (target="+_outMB.getNumRows()+"x"+n
+						+", source="+in.getNumRows()+"x"+in.getNumColumns()+")");
+				if( _compare == null )
+					mergeRangeWithoutComp(a, in, n, rl, ru, cl, cu);
+				else
+					mergeRangeWithComp(a, in, _compare, n, rl, ru, cl, cu);
 			}
+			
+			//compute nnz of output range
+			long lnnz = 0;
+			if( _last )
+				for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+					for( int j=cl; j<cu; j++ )
+						lnnz += (a[aix+j]!=0) ? 1 : 0;
+			return lnnz;
 		}
+	}
+	
+	/**
+	 * Merges all non-zeros of the given input in the output range [rl,ru) x [cl,cu)
+	 * into the dense output. Empty inputs and empty sparse rows are skipped, which 
+	 * makes the merge of inputs that touch disjoint regions proportional to their 
+	 * number of non-zeros.
+	 * 
+	 * @param a
+	 * @param in
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void mergeRangeWithoutComp( double[] a, MatrixBlock in, int n, int rl, int ru, int cl, int cu )
+	{
+		if( in.isEmptyBlock(false) )
+			return;
 		
+		if( in.isInSparseFormat() ) //sparse input format
+		{
+			SparseBlock b = in.getSparseBlock();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
+				if( b.isEmpty(i) )
+					continue;
+				int bpos = b.pos(i);
+				int blen = b.size(i);
+				int[] bix = b.indexes(i);
+				double[] bval = b.values(i);
+				int bstart = (cl>0) ? b.posFIndexGTE(i, cl) : bpos;
+				if( bstart < 0 )
+					continue;
+				for( int j=bstart; j<bpos+blen && bix[j]<cu; j++ )
+					if( bval[j] != 0 )
+						a[aix+bix[j]] = bval[j];
+			}
+		}
+		else //dense input format
+		{
+			double[] b = in.getDenseBlock();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				for( int j=aix+cl; j<aix+cu; j++ )
+					a[j] = (b[j] != 0) ? b[j] : a[j];
+		}
+	}
+	
+	/**
+	 * Merges all values of the given input in the output range [rl,ru) x [cl,cu)
+	 * that differ from the compare matrix (incl. NaN awareness) into the dense 
+	 * output; see ResultMerge.mergeWithComp for the semantics. Sparse inputs are
+	 * scanned with a cursor per row instead of individual value lookups.
+	 * 
+	 * @param a
+	 * @param in
+	 * @param compare
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void mergeRangeWithComp( double[] a, MatrixBlock in, double[][] compare, int n, int rl, int ru, int cl, int cu )
+	{
+		if( in.isInSparseFormat() || in.isEmptyBlock(false) ) //sparse/empty input format
+		{
+			SparseBlock b = in.getSparseBlock();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
+				double[] c = compare[i];
+				boolean empty = (b == null || b.isEmpty(i));
+				int bpos = empty ? 0 : b.pos(i);
+				int bend = empty ? 0 : bpos + b.size(i);
+				int[] bix = empty ? null : b.indexes(i);
+				double[] bval = empty ? null : b.values(i);
+				int k = empty ? 0 : (cl>0) ? b.posFIndexGTE(i, cl) : bpos;
+				k = (k < 0) ? bend : k;
+				for( int j=cl; j<cu; j++ ) {
+					double value = (k<bend && bix[k]==j) ? bval[k++] : 0;
+					if( (value != c[j] && !Double.isNaN(value))       //for new values only (div)
+						|| Double.isNaN(value) != Double.isNaN(c[j]) ) //NaN awareness 
+						a[aix+j] = value;
+				}
+			}
+		}
+		else //dense input format
+		{
+			double[] b = in.getDenseBlock();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
+				double[] c = compare[i];
+				for( int j=cl; j<cu; j++ ) {
+					double value = b[aix+j];
+					if( (value != c[j] && !Double.isNaN(value))       //for new values only (div)
+						|| Double.isNaN(value) != Double.isNaN(c[j]) ) //NaN awareness 
+						a[aix+j] = value;
+				}
+			}
+		}
 	}
 }
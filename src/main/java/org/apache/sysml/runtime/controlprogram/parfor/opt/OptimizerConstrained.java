@@ -365,7 +365,9 @@ public class OptimizerConstrained extends OptimizerRuleBased
 		{
 			ParForProgramBlock pfpb = (ParForProgramBlock) OptTreeConverter
 				    .getAbstractPlanMapping().getMappedProg(n.getID())[1];
-			pfpb.setResultMerge(PResultMerge.valueOf(n.getParam(ParamType.RESULT_MERGE)));
+			PResultMerge rm = PResultMerge.valueOf(n.getParam(ParamType.RESULT_MERGE));
+			pfpb.setResultMerge(rm);
+			super.rewriteSetParallelResultMerge(n, pfpb, rm, vars, inLocal);
 			LOG.debug(getOptMode()+" OPT: force 'set result merge' - result="+n.getParam(ParamType.RESULT_MERGE) );
 		}
 		else
@@ -3266,6 +3266,7 @@ public class OptimizerRuleBased extends Optimizer
 		
 		// modify rtprog	
 		pfpb.setResultMerge(ret);
+		rewriteSetParallelResultMerge(n, pfpb, ret, vars, inLocal);
 			
 		// modify plan
 		n.addParam(ParamType.RESULT_MERGE, ret.toString());			
@@ -3278,6 +3279,32 @@ public class OptimizerRuleBased extends Optimizer
 		LOG.debug(getOptMode()+" OPT: rewrite 'set result merge' - result="+ret );
 	}
 	
+	/**
+	 * Enables the parallel in-memory result merge for local parfor loops with
+	 * multiple workers, where all results fit in memory. The parallel merge
+	 * partitions the dense output into disjoint ranges, each merged by a separate
+	 * thread over all worker results, which is beneficial for large results.
+	 * 
+	 * @param n
+	 * @param pfpb
+	 * @param rm
+	 * @param vars
+	 * @param inLocal
+	 * @throws DMLRuntimeException
+	 */
+	protected void rewriteSetParallelResultMerge( OptNode n, ParForProgramBlock pfpb, PResultMerge rm, LocalVariableMap vars, boolean inLocal ) 
+		throws DMLRuntimeException
+	{
+		boolean flagParallel = rm == PResultMerge.LOCAL_MEM && inLocal
+			&& n.getExecType() == ExecType.CP && n.getK() > 1
+			&& hasOnlyInMemoryResults(n, pfpb.getResultVariables(), vars, inLocal);
+		
+		// modify rtprog
+		pfpb.setParallelResultMerge(flagParallel);
+		
+		LOG.debug(getOptMode()+" OPT: rewrite 'set parallel result merge' - result="+flagParallel );
+	}
+	
 	/**
 	 * 
 	 * @param resultVars
@@ -43,6 +43,7 @@ import org.apache.sysml.runtime.instructions.cp.DataGenCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.DataPartitionCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.FileCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.FusedCellCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.IndexingCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.MMChainCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.MMTSJCPInstruction;
@@ -63,6 +64,7 @@ import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction.CPINSTRUCTION_TYPE;
 import org.apache.sysml.runtime.instructions.cpfile.MatrixIndexingCPFileInstruction;
 import org.apache.sysml.runtime.instructions.cpfile.ParameterizedBuiltinCPFileInstruction;
+import org.apache.sysml.runtime.instructions.cpfile.StreamingCPFileInstruction;
 
 public class CPInstructionParser extends InstructionParser 
 {
@@ -75,6 +77,7 @@ public class CPInstructionParser extends InstructionParser
 
 		String2CPInstructionType.put( "ba+*"   	, CPINSTRUCTION_TYPE.AggregateBinary);
 		String2CPInstructionType.put( "tak+*"   	, CPINSTRUCTION_TYPE.AggregateTernary);
+		String2CPInstructionType.put( "cellfuse"	, CPINSTRUCTION_TYPE.FusedCell);
 		
 		String2CPInstructionType.put( "uak+"   	, CPINSTRUCTION_TYPE.AggregateUnary);
 		String2CPInstructionType.put( "uark+"   , CPINSTRUCTION_TYPE.AggregateUnary);
@@ -292,6 +295,11 @@ public class CPInstructionParser extends InstructionParser
 		if ( str == null || str.isEmpty() ) 
 			return null;
 		
+		//out-of-core streaming of cell-wise, aggregate, and matrix-vector operations
+		if( StreamingCPFileInstruction.isStreamingInstructionType(cptype)
+			&& str.startsWith(ExecType.CP_FILE.toString()+Instruction.OPERAND_DELIM) )
+			return StreamingCPFileInstruction.parseInstruction(str);
+		
 		switch(cptype) 
 		{
 			case AggregateUnary:
@@ -302,6 +310,9 @@ public class CPInstructionParser extends InstructionParser
 	
 			case AggregateTernary:
 				return AggregateTernaryCPInstruction.parseInstruction(str);
+			
+			case FusedCell:
+				return FusedCellCPInstruction.parseInstruction(str);
 				
 			case ArithmeticBinary:
 				return ArithmeticBinaryCPInstruction.parseInstruction(str);
@@ -49,6 +49,7 @@ public abstract class Instruction
 	public static final String INSTRUCTION_DELIM = Lop.INSTRUCTION_DELIMITOR;
 	public static final String NAME_VALUE_SEPARATOR = Lop.NAME_VALUE_SEPARATOR;
 	public static final String SP_INST_PREFIX = "sp_";
+	public static final String CP_FILE_INST_PREFIX = "cpf_";
 	
 	//basic instruction meta data
 	protected INSTRUCTION_TYPE type = null;
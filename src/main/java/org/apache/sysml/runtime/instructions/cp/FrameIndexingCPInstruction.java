@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.instructions.cp;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.operators.Operator;
@@ -47,12 +48,20 @@ public final class FrameIndexingCPInstruction extends IndexingCPInstruction
 		//right indexing
 		if( opcode.equalsIgnoreCase("rangeReIndex") )
 		{
-			//execute right indexing operation
-			FrameBlock in = ec.getFrameInput(input1.getName());
-			FrameBlock out = in.sliceOperations(ixrange, new FrameBlock());	
+			FrameObject fo = (FrameObject)ec.getVariable(input1.getName());
+			FrameBlock out = null;
+			
+			if( fo.isColumnarIndexedReadable(ixrange) ) //via columnar index range read
+				out = fo.readFrameIndexRange(ixrange);
+			else //via slicing the in-memory frame
+			{
+				//execute right indexing operation
+				FrameBlock in = ec.getFrameInput(input1.getName());
+				out = in.sliceOperations(ixrange, new FrameBlock());	
 				
-			//unpin rhs input
-			ec.releaseFrameInput(input1.getName());
+				//unpin rhs input
+				ec.releaseFrameInput(input1.getName());
+			}
 			
 			//unpin output
 			ec.setFrameOutput(output.getName(), out);
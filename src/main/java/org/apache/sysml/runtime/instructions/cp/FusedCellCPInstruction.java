@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.instructions.cp;
+
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCellFuse;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.CellFuseOperator;
+
+/**
+ * CP instruction for fused chains of cell-wise operations with an
+ * arbitrary number of matrix and scalar inputs.
+ * 
+ */
+public class FusedCellCPInstruction extends ComputationCPInstruction
+{
+	public static final String OPCODE = "cellfuse";
+	
+	private CPOperand[] _inputs = null;
+	private int _numThreads = -1;
+	
+	public FusedCellCPInstruction(CellFuseOperator op, CPOperand[] in, CPOperand out, int k, String opcode, String istr )
+	{
+		super(op, in[0], (in.length>1) ? in[1] : null, (in.length>2) ? in[2] : null, out, opcode, istr);
+		_cptype = CPINSTRUCTION_TYPE.FusedCell;
+		_inputs = in;
+		_numThreads = k;
+	}
+	
+	public CPOperand[] getInputs() {
+		return _inputs;
+	}
+
+	/**
+	 * 
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static FusedCellCPInstruction parseInstruction( String str ) 
+		throws DMLRuntimeException 
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		String opcode = parts[0];
+		
+		if( !opcode.equalsIgnoreCase(OPCODE) || parts.length < 5 )
+			throw new DMLRuntimeException("FusedCellCPInstruction.parseInstruction():: Unknown opcode or invalid instruction " + str);
+		
+		//parse cell program, inputs, output and degree of parallelism
+		CellFuseOperator op = new CellFuseOperator(parts[1]);
+		CPOperand[] in = new CPOperand[parts.length-4];
+		for( int i=0; i<in.length; i++ )
+			in[i] = new CPOperand(parts[2+i]);
+		CPOperand out = new CPOperand(parts[parts.length-2]);
+		int k = Integer.parseInt(parts[parts.length-1]);
+		
+		if( in.length < op.getNumInputs() )
+			throw new DMLRuntimeException("FusedCellCPInstruction.parseInstruction():: Invalid number of inputs " + str);
+		
+		return new FusedCellCPInstruction(op, in, out, k, opcode, str);
+	}
+	
+	@Override
+	public void processInstruction(ExecutionContext ec) 
+		throws DMLRuntimeException
+	{
+		//get matrix and scalar inputs
+		MatrixBlock[] inputs = new MatrixBlock[_inputs.length];
+		double[] scalars = new double[_inputs.length];
+		for( int i=0; i<_inputs.length; i++ ) {
+			if( _inputs[i].getDataType() == DataType.MATRIX )
+				inputs[i] = ec.getMatrixInput(_inputs[i].getName());
+			else
+				scalars[i] = ec.getScalarInput(_inputs[i].getName(), 
+					_inputs[i].getValueType(), _inputs[i].isLiteral()).getDoubleValue();
+		}
+		
+		//execute fused cell-wise operation
+		CellFuseOperator op = (CellFuseOperator) _optr;
+		MatrixBlock ret = LibMatrixCellFuse.execute(op, inputs, scalars, new MatrixBlock(), _numThreads);
+		
+		//release inputs/outputs
+		for( int i=0; i<_inputs.length; i++ )
+			if( inputs[i] != null )
+				ec.releaseMatrixInput(_inputs[i].getName());
+		ec.setMatrixOutput(output.getName(), ret);
+	}
+}
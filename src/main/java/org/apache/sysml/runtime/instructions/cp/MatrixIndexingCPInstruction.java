@@ -57,6 +57,8 @@ public final class MatrixIndexingCPInstruction extends IndexingCPInstruction
 			
 			if( mo.isPartitioned() ) //via data partitioning
 				resultBlock = mo.readMatrixPartition(ixrange.add(1));
+			else if( mo.isColumnarIndexedReadable(ixrange) ) //via columnar index range read
+				resultBlock = mo.readMatrixIndexRange(ixrange);
 			else //via slicing the in-memory matrix
 			{
 				//execute right indexing operation
@@ -0,0 +1,687 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.cpfile;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction.CPINSTRUCTION_TYPE;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.runtime.io.MappedSequenceFileReader;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.io.ReaderBinaryBlock;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.OperationsOnMatrixValues;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.runtime.util.UtilFunctions;
+
+/**
+ * File-based (out-of-core) realization of cell-wise (incl matrix-vector), unary aggregate,
+ * and matrix multiplication operations, which streams the binary blocks of the large input
+ * from disk, block by block, while all other inputs and the output (for aggregates and
+ * matrix multiplications) are kept in memory. Cell-wise outputs are directly written as
+ * binary block files. This instruction wraps the equivalent CP instruction, which is used
+ * as fallback if the large input is already cached in memory or not available in binary
+ * block format.
+ *
+ */
+public class StreamingCPFileInstruction extends ComputationCPInstruction
+{
+	private static final Log LOG = LogFactory.getLog(StreamingCPFileInstruction.class.getName());
+
+	private ComputationCPInstruction _inst = null;
+
+	public StreamingCPFileInstruction(ComputationCPInstruction inst, String istr)
+	{
+		super(inst.getOperator(), inst.input1, inst.input2, inst.output, inst.getOpcode(), istr);
+		_cptype = inst.getCPInstructionType();
+		_inst = inst;
+	}
+
+	/**
+	 *
+	 * @param cptype
+	 * @return
+	 */
+	public static boolean isStreamingInstructionType( CPINSTRUCTION_TYPE cptype )
+	{
+		return (   cptype == CPINSTRUCTION_TYPE.ArithmeticBinary || cptype == CPINSTRUCTION_TYPE.RelationalBinary
+				|| cptype == CPINSTRUCTION_TYPE.BooleanBinary    || cptype == CPINSTRUCTION_TYPE.BuiltinBinary
+				|| cptype == CPINSTRUCTION_TYPE.BuiltinUnary     || cptype == CPINSTRUCTION_TYPE.Builtin
+				|| cptype == CPINSTRUCTION_TYPE.AggregateUnary   || cptype == CPINSTRUCTION_TYPE.AggregateBinary );
+	}
+
+	/**
+	 * Parses the given CP_FILE instruction via its CP equivalent. If the resulting
+	 * CP instruction is not supported for streaming, the CP instruction is returned.
+	 *
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static CPInstruction parseInstruction( String str )
+		throws DMLRuntimeException
+	{
+		//parse equivalent CP instruction
+		String cpstr = ExecType.CP.toString() + str.substring(ExecType.CP_FILE.toString().length());
+		CPInstruction inst = CPInstructionParser.parseSingleInstruction(cpstr);
+
+		//wrap supported matrix operations (no cumulative aggregates)
+		if( inst instanceof ComputationCPInstruction && isStreamingOperator(inst.getOperator())
+			&& !inst.getOpcode().startsWith("ucum") ) {
+			return new StreamingCPFileInstruction((ComputationCPInstruction)inst, str);
+		}
+
+		return inst;
+	}
+
+	@Override
+	public void processInstruction(ExecutionContext ec)
+		throws DMLRuntimeException
+	{
+		//determine the streamed matrix input (the larger input for matrix mult)
+		CPOperand in = getStreamedInput(ec);
+		MatrixObject mo = ec.getMatrixObject(in.getName());
+
+		//fallback to in-memory operation if cached, no matrix-vector, or no binary block input
+		if( mo.isCached(true) || (_optr instanceof BinaryOperator 
+			&& !isAlignedVector(mo.getMatrixCharacteristics(), ec.getMatrixCharacteristics(input2.getName()))) ) {
+			_inst.processInstruction(ec);
+			return;
+		}
+		mo.exportData();
+		InputInfo ii = ((MatrixFormatMetaData)mo.getMetaData()).getInputInfo();
+		if( ii != InputInfo.BinaryBlockInputInfo ) {
+			LOG.warn("Out-of-core "+getOpcode()+" not applicable for input format "
+				+ InputInfo.inputInfoToString(ii)+", fallback to in-memory operation.");
+			_inst.processInstruction(ec);
+			return;
+		}
+
+		//core out-of-core execution
+		BlockStreamer streamer = null;
+		try
+		{
+			MatrixCharacteristics mc = mo.getMatrixCharacteristics();
+			streamer = createBlockStreamer(ec, in, mc);
+			streamBinaryBlocks(mo.getFileName(), mc, streamer);
+			streamer.finish(ec);
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			//release open resources, also on failures
+			if( streamer != null )
+				streamer.close();
+		}
+	}
+
+	@Override
+	public String getExtendedOpcode() {
+		return CP_FILE_INST_PREFIX + getOpcode();
+	}
+
+	/**
+	 *
+	 * @param op
+	 * @return
+	 */
+	private static boolean isStreamingOperator( Operator op )
+	{
+		if( op instanceof AggregateUnaryOperator ) {
+			//full, row, and column aggregates
+			AggregateUnaryOperator auop = (AggregateUnaryOperator)op;
+			return auop.indexFn instanceof ReduceAll
+				|| auop.indexFn instanceof ReduceRow
+				|| auop.indexFn instanceof ReduceCol;
+		}
+
+		return op instanceof ScalarOperator || op instanceof UnaryOperator
+			|| op instanceof BinaryOperator || op instanceof AggregateBinaryOperator;
+	}
+
+	/**
+	 *
+	 * @param ec
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private CPOperand getStreamedInput(ExecutionContext ec)
+		throws DMLRuntimeException
+	{
+		if( _optr instanceof ScalarOperator )
+			return (input1.getDataType() == DataType.MATRIX) ? input1 : input2;
+		else if( _optr instanceof AggregateBinaryOperator ) {
+			MatrixCharacteristics mc1 = ec.getMatrixCharacteristics(input1.getName());
+			MatrixCharacteristics mc2 = ec.getMatrixCharacteristics(input2.getName());
+			return (estimateSize(mc1) >= estimateSize(mc2)) ? input1 : input2;
+		}
+
+		//unary, aggregate unary, and matrix-vector operations
+		return input1;
+	}
+
+	/**
+	 *
+	 * @param mc1
+	 * @param mc2
+	 * @return
+	 */
+	private static boolean isAlignedVector(MatrixCharacteristics mc1, MatrixCharacteristics mc2) {
+		return (mc2.getCols()==1 && mc1.getRows()==mc2.getRows())
+			|| (mc2.getRows()==1 && mc1.getCols()==mc2.getCols());
+	}
+
+	/**
+	 *
+	 * @param mc
+	 * @return
+	 */
+	private static double estimateSize(MatrixCharacteristics mc) {
+		double sp = mc.nnzKnown() ? OptimizerUtils.getSparsity(mc.getRows(), mc.getCols(), mc.getNonZeros()) : 1.0;
+		return OptimizerUtils.estimateSizeExactSparsity(mc.getRows(), mc.getCols(), sp);
+	}
+
+	/**
+	 *
+	 * @param ec
+	 * @param in
+	 * @param mc
+	 * @return
+	 * @throws DMLRuntimeException
+	 * @throws IOException
+	 */
+	private BlockStreamer createBlockStreamer(ExecutionContext ec, CPOperand in, MatrixCharacteristics mc)
+		throws DMLRuntimeException, IOException
+	{
+		if( _optr instanceof ScalarOperator ) {
+			CPOperand scalar = (in == input1) ? input2 : input1;
+			ScalarObject constant = ec.getScalarInput(scalar.getName(), scalar.getValueType(), scalar.isLiteral());
+			ScalarOperator sop = (ScalarOperator) _optr;
+			sop.setConstant(constant.getDoubleValue());
+			return new CellwiseBlockStreamer(ec, sop, null, output, mc);
+		}
+		else if( _optr instanceof UnaryOperator )
+			return new CellwiseBlockStreamer(ec, _optr, null, output, mc);
+		else if( _optr instanceof BinaryOperator )
+			return new CellwiseBlockStreamer(ec, _optr, input2, output, mc);
+		else if( _optr instanceof AggregateUnaryOperator )
+			return new AggUnaryBlockStreamer((AggregateUnaryOperator)_optr, getOpcode(), output, mc);
+		else //AggregateBinaryOperator
+			return new MatMultBlockStreamer(ec, (AggregateBinaryOperator)_optr,
+				(in == input1) ? input2 : input1, in == input1, output, mc);
+	}
+
+	/**
+	 * Streams all binary blocks of the given file (incl empty blocks not contained in
+	 * the file) through the given block streamer. Local files are read via memory-mapping.
+	 *
+	 * @param fname
+	 * @param mc
+	 * @param streamer
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	private static void streamBinaryBlocks(String fname, MatrixCharacteristics mc, BlockStreamer streamer)
+		throws IOException, DMLRuntimeException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = FileSystem.get(job);
+
+		int nrblks = (int)mc.getNumRowBlocks();
+		int ncblks = (int)mc.getNumColBlocks();
+		boolean[] processed = new boolean[nrblks * ncblks];
+
+		MatrixIndexes key = new MatrixIndexes();
+		for( Path lpath : MatrixReader.getSequenceFilePaths(fs, path) ) //1..N files
+		{
+			if( ReaderBinaryBlock.MMAP_LOCAL_READ && MappedSequenceFileReader.isMappable(fs, lpath) ) {
+				//memory-mapped read of local sequence files
+				MappedSequenceFileReader reader = new MappedSequenceFileReader(fs, lpath);
+				try {
+					while( reader.next(key) ) {
+						MatrixBlock value = new MatrixBlock();
+						reader.readValue(value);
+						processBlock(key, value, ncblks, processed, streamer);
+					}
+				}
+				finally {
+					reader.close();
+				}
+			}
+			else {
+				//read from sequence files (individual partfiles)
+				SequenceFile.Reader reader = new SequenceFile.Reader(fs, lpath, job);
+				try {
+					MatrixBlock value = new MatrixBlock();
+					while( reader.next(key, value) ) {
+						processBlock(key, value, ncblks, processed, streamer);
+						value = new MatrixBlock();
+					}
+				}
+				finally {
+					IOUtilFunctions.closeSilently(reader);
+				}
+			}
+		}
+
+		//process empty blocks that are not materialized in the file
+		for( int i=0; i<nrblks; i++ )
+			for( int j=0; j<ncblks; j++ )
+				if( !processed[i*ncblks+j] ) {
+					key.setIndexes(i+1, j+1);
+					MatrixBlock value = new MatrixBlock(
+						UtilFunctions.computeBlockSize(mc.getRows(), i+1, mc.getRowsPerBlock()),
+						UtilFunctions.computeBlockSize(mc.getCols(), j+1, mc.getColsPerBlock()), true);
+					streamer.processBlock(key, value);
+				}
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @param value
+	 * @param ncblks
+	 * @param processed
+	 * @param streamer
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	private static void processBlock(MatrixIndexes key, MatrixBlock value, int ncblks, boolean[] processed, BlockStreamer streamer)
+		throws IOException, DMLRuntimeException
+	{
+		processed[(int)(key.getRowIndex()-1)*ncblks + (int)(key.getColumnIndex()-1)] = true;
+		streamer.processBlock(key, value);
+	}
+
+	/**
+	 * Adds the given partial block into the dense output array at the given offsets.
+	 *
+	 * @param c
+	 * @param clen
+	 * @param part
+	 * @param rl
+	 * @param cl
+	 */
+	private static void addToDenseOutput(double[] c, int clen, MatrixBlock part, int rl, int cl)
+	{
+		if( part.isEmptyBlock(false) )
+			return;
+
+		int m = part.getNumRows();
+		int n = part.getNumColumns();
+		if( part.isInSparseFormat() ) {
+			SparseBlock a = part.getSparseBlock();
+			for( int i=0; i<m; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				int cix = (rl+i)*clen + cl;
+				for( int k=apos; k<apos+alen; k++ )
+					c[cix+aix[k]] += avals[k];
+			}
+		}
+		else {
+			double[] a = part.getDenseBlock();
+			for( int i=0, aix=0; i<m; i++, aix+=n ) {
+				int cix = (rl+i)*clen + cl;
+				for( int j=0; j<n; j++ )
+					c[cix+j] += a[aix+j];
+			}
+		}
+	}
+
+	/**
+	 * Consumer of streamed input blocks.
+	 */
+	private static abstract class BlockStreamer
+	{
+		public abstract void processBlock(MatrixIndexes ix, MatrixBlock blk)
+			throws IOException, DMLRuntimeException;
+
+		public abstract void finish(ExecutionContext ec)
+			throws IOException, DMLRuntimeException;
+
+		public void close() {
+			//by default: no open resources
+		}
+	}
+
+	/**
+	 * Cell-wise unary, matrix-scalar, and matrix-vector operations, where
+	 * the output blocks are directly written to the output binary block file.
+	 */
+	private static class CellwiseBlockStreamer extends BlockStreamer
+	{
+		private Operator _op = null;
+		private CPOperand _vector = null;
+		private MatrixBlock _mbVector = null;
+		private MatrixBlock[] _slices = null;
+		private boolean _colVector = false;
+		private CPOperand _output = null;
+		private MatrixCharacteristics _mc = null;
+
+		private SequenceFile.Writer _writer = null;
+		private MatrixObject _moOut = null;
+		private long _nnz = 0;
+
+		@SuppressWarnings("deprecation")
+		public CellwiseBlockStreamer(ExecutionContext ec, Operator op, CPOperand vector, CPOperand output, MatrixCharacteristics mc)
+			throws IOException, DMLRuntimeException
+		{
+			_op = op;
+			_output = output;
+			_mc = mc;
+
+			//pin in-memory vector and prepare block-aligned slices
+			if( vector != null ) {
+				_vector = vector;
+				_mbVector = ec.getMatrixInput(vector.getName());
+				_colVector = (_mbVector.getNumColumns()==1 && _mbVector.getNumRows()==mc.getRows());
+				_slices = new MatrixBlock[(int)(_colVector ? mc.getNumRowBlocks() : mc.getNumColBlocks())];
+			}
+
+			//prepare output binary block file
+			_moOut = ec.getMatrixObject(output.getName());
+			JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+			Path path = new Path(_moOut.getFileName());
+			FileSystem fs = FileSystem.get(job);
+			MapReduceTool.deleteFileIfExistOnHDFS(path, job);
+			_writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
+		}
+
+		@Override
+		public void processBlock(MatrixIndexes ix, MatrixBlock blk)
+			throws IOException, DMLRuntimeException
+		{
+			MatrixBlock out = null;
+			if( _op instanceof ScalarOperator )
+				out = (MatrixBlock) blk.scalarOperations((ScalarOperator)_op, new MatrixBlock());
+			else if( _op instanceof UnaryOperator )
+				out = (MatrixBlock) blk.unaryOperations((UnaryOperator)_op, new MatrixBlock());
+			else //BinaryOperator
+				out = (MatrixBlock) blk.binaryOperations((BinaryOperator)_op, getVectorSlice(ix), new MatrixBlock());
+
+			_nnz += out.getNonZeros();
+			_writer.append(ix, out);
+		}
+
+		@Override
+		public void close() {
+			IOUtilFunctions.closeSilently(_writer);
+		}
+
+		/**
+		 *
+		 * @param ix
+		 * @return
+		 * @throws DMLRuntimeException
+		 */
+		private MatrixBlock getVectorSlice(MatrixIndexes ix)
+			throws DMLRuntimeException
+		{
+			int bix = (int)(_colVector ? ix.getRowIndex() : ix.getColumnIndex()) - 1;
+			if( _slices[bix] == null ) {
+				int blen = _colVector ? _mc.getRowsPerBlock() : _mc.getColsPerBlock();
+				int len = (int)(_colVector ? _mc.getRows() : _mc.getCols());
+				int l = bix * blen;
+				int u = Math.min(l + blen, len) - 1;
+				_slices[bix] = _colVector ? _mbVector.sliceOperations(l, u, 0, 0, new MatrixBlock()) :
+					_mbVector.sliceOperations(0, 0, l, u, new MatrixBlock());
+			}
+			return _slices[bix];
+		}
+
+		@Override
+		public void finish(ExecutionContext ec)
+			throws IOException, DMLRuntimeException
+		{
+			_writer.close();
+			if( _vector != null )
+				ec.releaseMatrixInput(_vector.getName());
+
+			//create new output matrix object for the written binary block file
+			MatrixObject moNew = new MatrixObject(_moOut.getValueType(), _moOut.getFileName());
+			moNew.setVarName(_output.getName());
+			moNew.setDataType(DataType.MATRIX);
+			MatrixCharacteristics mcOut = new MatrixCharacteristics(_mc.getRows(), _mc.getCols(),
+				_mc.getRowsPerBlock(), _mc.getColsPerBlock(), _nnz);
+			moNew.setMetaData(new MatrixFormatMetaData(mcOut,
+				OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+			moNew.setHDFSFileExists(true);
+			ec.setVariable(_output.getName(), moNew);
+		}
+	}
+
+	/**
+	 * Full, row, and column aggregates, where the partial aggregates (incl
+	 * corrections) of all output blocks are maintained in memory.
+	 */
+	private static class AggUnaryBlockStreamer extends BlockStreamer
+	{
+		private AggregateUnaryOperator _auop = null;
+		private AggregateOperator _aop = null;
+		private CPOperand _output = null;
+		private MatrixCharacteristics _mc = null;
+
+		private HashMap<MatrixIndexes, MatrixBlock[]> _partials = null;
+
+		public AggUnaryBlockStreamer(AggregateUnaryOperator auop, String opcode, CPOperand output, MatrixCharacteristics mc)
+			throws DMLRuntimeException
+		{
+			_auop = auop;
+			_output = output;
+			_mc = mc;
+			_partials = new HashMap<MatrixIndexes, MatrixBlock[]>();
+
+			//aggregate operator for partial aggregates incl corrections
+			String aopcode = InstructionUtils.deriveAggregateOperatorOpcode(opcode);
+			CorrectionLocationType corrLoc = InstructionUtils.deriveAggregateOperatorCorrectionLocation(opcode);
+			String corrExists = (corrLoc != CorrectionLocationType.NONE) ? "true" : "false";
+			_aop = InstructionUtils.parseAggregateOperator(aopcode, corrExists, corrLoc.toString());
+		}
+
+		@Override
+		public void processBlock(MatrixIndexes ix, MatrixBlock blk)
+			throws DMLRuntimeException
+		{
+			//unary aggregate operation (always keep the correction)
+			MatrixIndexes ixOut = new MatrixIndexes();
+			MatrixBlock blkOut = new MatrixBlock();
+			OperationsOnMatrixValues.performAggregateUnary(ix, blk, ixOut, blkOut,
+				_auop, _mc.getRowsPerBlock(), _mc.getColsPerBlock());
+
+			//incremental aggregation of partial aggregates
+			MatrixBlock[] agg = _partials.get(ixOut);
+			if( agg == null ) {
+				_partials.put(ixOut, new MatrixBlock[]{blkOut, null});
+			}
+			else {
+				//correction block allocation on demand
+				if( agg[1] == null && _aop.correctionExists )
+					agg[1] = new MatrixBlock(agg[0].getNumRows(), agg[0].getNumColumns(), false);
+				OperationsOnMatrixValues.incrementalAggregation(agg[0],
+					_aop.correctionExists ? agg[1] : null, blkOut, _aop, true);
+			}
+		}
+
+		@Override
+		public void finish(ExecutionContext ec)
+			throws DMLRuntimeException
+		{
+			//assemble output from partial aggregates
+			boolean rowAgg = _auop.indexFn instanceof ReduceCol;
+			boolean colAgg = _auop.indexFn instanceof ReduceRow;
+			int rlen = rowAgg ? (int)_mc.getRows() : 1;
+			int clen = colAgg ? (int)_mc.getCols() : 1;
+			MatrixBlock out = new MatrixBlock(rlen, clen, false);
+			out.allocateDenseBlock();
+
+			for( Entry<MatrixIndexes, MatrixBlock[]> e : _partials.entrySet() ) {
+				MatrixBlock blk = e.getValue()[0];
+				blk.dropLastRowsOrColums(_aop.correctionLocation);
+				int rl = (int)(e.getKey().getRowIndex()-1) * _mc.getRowsPerBlock();
+				int cl = (int)(e.getKey().getColumnIndex()-1) * _mc.getColsPerBlock();
+				if( !rowAgg ) rl = 0;
+				if( !colAgg ) cl = 0;
+				out.copy(rl, rl+blk.getNumRows()-1, cl, cl+blk.getNumColumns()-1, blk, false);
+			}
+			out.recomputeNonZeros();
+			out.examSparsity();
+
+			//set scalar or matrix output
+			if( _output.getDataType() == DataType.SCALAR )
+				ec.setScalarOutput(_output.getName(), new DoubleObject(_output.getName(), out.getValue(0, 0)));
+			else
+				ec.setMatrixOutput(_output.getName(), out);
+		}
+	}
+
+	/**
+	 * Matrix multiplications with streamed left or right input, where the other
+	 * input and the output are maintained in memory.
+	 */
+	private static class MatMultBlockStreamer extends BlockStreamer
+	{
+		private AggregateBinaryOperator _op = null;
+		private CPOperand _mem = null;
+		private MatrixBlock _mbMem = null;
+		private MatrixBlock[] _slices = null;
+		private boolean _streamLeft = false;
+		private CPOperand _output = null;
+		private MatrixCharacteristics _mc = null;
+		private MatrixBlock _out = null;
+
+		public MatMultBlockStreamer(ExecutionContext ec, AggregateBinaryOperator op, CPOperand mem, boolean streamLeft, CPOperand output, MatrixCharacteristics mc)
+			throws DMLRuntimeException
+		{
+			_op = op;
+			_mem = mem;
+			_streamLeft = streamLeft;
+			_output = output;
+			_mc = mc;
+
+			//pin in-memory input and allocate dense output
+			_mbMem = ec.getMatrixInput(mem.getName());
+			_slices = new MatrixBlock[(int)(streamLeft ? mc.getNumColBlocks() : mc.getNumRowBlocks())];
+			int rlen = streamLeft ? (int)mc.getRows() : _mbMem.getNumRows();
+			int clen = streamLeft ? _mbMem.getNumColumns() : (int)mc.getCols();
+			_out = new MatrixBlock(rlen, clen, false);
+			_out.allocateDenseBlock();
+		}
+
+		@Override
+		public void processBlock(MatrixIndexes ix, MatrixBlock blk)
+			throws DMLRuntimeException
+		{
+			int rl = (int)(ix.getRowIndex()-1) * _mc.getRowsPerBlock();
+			int cl = (int)(ix.getColumnIndex()-1) * _mc.getColsPerBlock();
+
+			//block matrix multiplication with aligned slice of the in-memory input,
+			//and aggregation into the corresponding rows/columns of the output
+			MatrixBlock part = new MatrixBlock();
+			if( _streamLeft ) {
+				blk.aggregateBinaryOperations(blk, getSlice(ix), part, _op);
+				addToDenseOutput(_out.getDenseBlock(), _out.getNumColumns(), part, rl, 0);
+			}
+			else {
+				blk.aggregateBinaryOperations(getSlice(ix), blk, part, _op);
+				addToDenseOutput(_out.getDenseBlock(), _out.getNumColumns(), part, 0, cl);
+			}
+		}
+
+		/**
+		 *
+		 * @param ix
+		 * @return
+		 * @throws DMLRuntimeException
+		 */
+		private MatrixBlock getSlice(MatrixIndexes ix)
+			throws DMLRuntimeException
+		{
+			//left: rows of in-memory input aligned with streamed columns
+			//right: columns of in-memory input aligned with streamed rows
+			int bix = (int)(_streamLeft ? ix.getColumnIndex() : ix.getRowIndex()) - 1;
+			if( _slices[bix] == null ) {
+				int blen = _streamLeft ? _mc.getColsPerBlock() : _mc.getRowsPerBlock();
+				int len = (int)(_streamLeft ? _mc.getCols() : _mc.getRows());
+				int l = bix * blen;
+				int u = Math.min(l + blen, len) - 1;
+				_slices[bix] = _streamLeft ?
+					_mbMem.sliceOperations(l, u, 0, _mbMem.getNumColumns()-1, new MatrixBlock()) :
+					_mbMem.sliceOperations(0, _mbMem.getNumRows()-1, l, u, new MatrixBlock());
+			}
+			return _slices[bix];
+		}
+
+		@Override
+		public void finish(ExecutionContext ec)
+			throws DMLRuntimeException
+		{
+			ec.releaseMatrixInput(_mem.getName());
+
+			_out.recomputeNonZeros();
+			_out.examSparsity();
+			ec.setMatrixOutput(_output.getName(), _out);
+		}
+	}
+}
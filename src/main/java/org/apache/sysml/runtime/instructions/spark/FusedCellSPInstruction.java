@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.instructions.spark;
+
+import java.util.ArrayList;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.function.Function;
+
+import scala.Tuple2;
+
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCellFuse;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.CellFuseOperator;
+
+/**
+ * Spark instruction for fused chains of cell-wise operations. All matrix
+ * inputs have equal dimensions and hence are simply joined by block index,
+ * while scalar inputs are resolved once and shipped with the function.
+ * 
+ */
+public class FusedCellSPInstruction extends ComputationSPInstruction
+{
+	private CPOperand[] _inputs = null;
+	
+	public FusedCellSPInstruction(CellFuseOperator op, CPOperand[] in, CPOperand out, String opcode, String istr )
+	{
+		super(op, in[0], (in.length>1) ? in[1] : null, (in.length>2) ? in[2] : null, out, opcode, istr);
+		_sptype = SPINSTRUCTION_TYPE.FusedCell;
+		_inputs = in;
+	}
+
+	/**
+	 * 
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static FusedCellSPInstruction parseInstruction( String str ) 
+		throws DMLRuntimeException 
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		String opcode = parts[0];
+		
+		if( !opcode.equalsIgnoreCase("cellfuse") || parts.length < 4 )
+			throw new DMLRuntimeException("FusedCellSPInstruction.parseInstruction():: Unknown opcode or invalid instruction " + str);
+		
+		//parse cell program, inputs and output
+		CellFuseOperator op = new CellFuseOperator(parts[1]);
+		CPOperand[] in = new CPOperand[parts.length-3];
+		for( int i=0; i<in.length; i++ )
+			in[i] = new CPOperand(parts[2+i]);
+		CPOperand out = new CPOperand(parts[parts.length-1]);
+		
+		if( in.length < op.getNumInputs() )
+			throw new DMLRuntimeException("FusedCellSPInstruction.parseInstruction():: Invalid number of inputs " + str);
+		
+		return new FusedCellSPInstruction(op, in, out, opcode, str);
+	}
+	
+	@Override
+	public void processInstruction(ExecutionContext ec) 
+		throws DMLRuntimeException
+	{	
+		SparkExecutionContext sec = (SparkExecutionContext)ec;
+		
+		//get scalar inputs and positions of matrix inputs
+		double[] scalars = new double[_inputs.length];
+		ArrayList<Integer> mpos = new ArrayList<Integer>();
+		for( int i=0; i<_inputs.length; i++ ) {
+			if( _inputs[i].getDataType() == DataType.MATRIX )
+				mpos.add(i);
+			else
+				scalars[i] = ec.getScalarInput(_inputs[i].getName(), 
+					_inputs[i].getValueType(), _inputs[i].isLiteral()).getDoubleValue();
+		}
+		if( mpos.isEmpty() )
+			throw new DMLRuntimeException("Missing matrix input for fused cell-wise operation.");
+		
+		//sanity check equal dimensions of all matrix inputs
+		MatrixCharacteristics mc1 = sec.getMatrixCharacteristics(_inputs[mpos.get(0)].getName());
+		for( Integer pos : mpos ) {
+			MatrixCharacteristics mc2 = sec.getMatrixCharacteristics(_inputs[pos].getName());
+			if( mc1.getRows() != mc2.getRows() || mc1.getCols() != mc2.getCols() )
+				throw new DMLRuntimeException("Dimension mismatch of fused cell-wise operation inputs: "
+						+ mc1.toString() + " vs " + mc2.toString());
+		}
+		
+		//join all matrix inputs by block index 
+		JavaPairRDD<MatrixIndexes,MatrixBlock[]> in = sec
+			.getBinaryBlockRDDHandleForVariable(_inputs[mpos.get(0)].getName())
+			.mapValues(new CreateBlockArrayFunction(_inputs.length, mpos.get(0)));
+		for( int i=1; i<mpos.size(); i++ ) {
+			JavaPairRDD<MatrixIndexes,MatrixBlock> tmp = 
+				sec.getBinaryBlockRDDHandleForVariable(_inputs[mpos.get(i)].getName());
+			in = in.join(tmp).mapValues(new AddBlockFunction(mpos.get(i)));
+		}
+		
+		//execute fused cell-wise operation per block
+		CellFuseOperator op = (CellFuseOperator) _optr;
+		JavaPairRDD<MatrixIndexes,MatrixBlock> out = in.mapValues(new RDDCellFuseFunction(op, scalars));
+		
+		//set output RDD and maintain lineage
+		updateUnaryOutputMatrixCharacteristics(sec, _inputs[mpos.get(0)].getName(), output.getName());
+		sec.setRDDHandleForVariable(output.getName(), out);
+		for( Integer pos : mpos )
+			sec.addLineageRDD(output.getName(), _inputs[pos].getName());
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CreateBlockArrayFunction implements Function<MatrixBlock, MatrixBlock[]> 
+	{
+		private static final long serialVersionUID = -1460127963284474913L;
+		
+		private int _len = -1;
+		private int _pos = -1;
+		
+		public CreateBlockArrayFunction(int len, int pos) {
+			_len = len;
+			_pos = pos;
+		}
+
+		@Override
+		public MatrixBlock[] call(MatrixBlock arg0) throws Exception {
+			MatrixBlock[] ret = new MatrixBlock[_len];
+			ret[_pos] = arg0;
+			return ret;
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class AddBlockFunction implements Function<Tuple2<MatrixBlock[],MatrixBlock>, MatrixBlock[]> 
+	{
+		private static final long serialVersionUID = 5946218337467474563L;
+		
+		private int _pos = -1;
+		
+		public AddBlockFunction(int pos) {
+			_pos = pos;
+		}
+
+		@Override
+		public MatrixBlock[] call(Tuple2<MatrixBlock[], MatrixBlock> arg0) throws Exception {
+			MatrixBlock[] ret = arg0._1().clone(); //shallow copy
+			ret[_pos] = arg0._2();
+			return ret;
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class RDDCellFuseFunction implements Function<MatrixBlock[], MatrixBlock> 
+	{
+		private static final long serialVersionUID = -3519204937530342087L;
+		
+		private CellFuseOperator _op = null;
+		private double[] _scalars = null;
+		
+		public RDDCellFuseFunction(CellFuseOperator op, double[] scalars) {
+			_op = op;
+			_scalars = scalars;
+		}
+
+		@Override
+		public MatrixBlock call(MatrixBlock[] arg0) throws Exception {
+			return LibMatrixCellFuse.execute(_op, arg0, _scalars, new MatrixBlock(), 1);
+		}
+	}
+}
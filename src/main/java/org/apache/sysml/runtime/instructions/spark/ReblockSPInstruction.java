@@ -32,6 +32,7 @@ import org.apache.sysml.runtime.instructions.cp.CPOperand;
 import org.apache.sysml.runtime.instructions.spark.functions.ExtractBlockForBinaryReblock;
 import org.apache.sysml.runtime.instructions.spark.utils.RDDAggregateUtils;
 import org.apache.sysml.runtime.instructions.spark.utils.RDDConverterUtils;
+import org.apache.sysml.runtime.io.ReaderMatrixMarketParallel;
 import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
@@ -106,6 +107,10 @@ public class ReblockSPInstruction extends UnarySPInstruction
 			//check jdk version (prevent double.parseDouble contention on <jdk8)
 			sec.checkAndRaiseValidationWarningJDKVersion();
 			
+			//check matrix market input (symmetric/pattern only supported in-memory)
+			if( iimd.getInputInfo() == InputInfo.MatrixMarketInputInfo )
+				ReaderMatrixMarketParallel.checkValidDistributedRead(mo.getFileName());
+			
 			//get the input textcell rdd
 			JavaPairRDD<LongWritable, Text> lines = (JavaPairRDD<LongWritable, Text>) 
 					sec.getRDDHandleForVariable(input1.getName(), iimd.getInputInfo());
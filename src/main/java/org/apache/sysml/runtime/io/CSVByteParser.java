@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Byte-level parser for lines of delimited text files, which scans the raw 
+ * line bytes (e.g., of a reused hadoop Text), recognizes delimiters, and 
+ * parses numeric cells directly from bytes into a dense or sparse matrix 
+ * block, without creating intermediate strings. 
+ * 
+ * The semantics are equivalent to trimming the line, splitting it by the 
+ * whole delimiter (preserving empty tokens), trimming each token, and 
+ * parsing non-empty tokens via Double.parseDouble. Plain decimals with up to
+ * 15 significant digits and small exponents are parsed via an exact fast 
+ * path (exact mantissa and power of ten, combined with a single rounding); 
+ * all other tokens (e.g., NaN, Infinity, long mantissas) fall back to 
+ * Double.parseDouble.
+ * 
+ * NOTE: Multi-byte UTF-8 characters never contain ASCII bytes; hence, 
+ * byte-wise matching of ASCII delimiters is safe. Instances are not 
+ * thread-safe but cheap, i.e., each read task should use its own parser.
+ */
+public class CSVByteParser 
+{
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	//max mantissa and exponent of the exact fast path
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final int MAX_SIGNIFICANT_DIGITS = 15;
+	private static final double[] POW10 = new double[23];
+	
+	static {
+		POW10[0] = 1;
+		for( int i=1; i<POW10.length; i++ )
+			POW10[i] = POW10[i-1] * 10;
+	}
+	
+	private final String _fname;
+	private final byte[] _delim;
+	private final boolean _fill;
+	private final double _fillValue;
+	private final long _clen;
+	
+	/**
+	 * 
+	 * @param fname file name (for error messages)
+	 * @param delim delimiter
+	 * @param fill true if empty cells are filled with fill value
+	 * @param fillValue fill value for empty cells
+	 * @param clen expected number of columns
+	 */
+	public CSVByteParser(String fname, String delim, boolean fill, double fillValue, long clen) {
+		_fname = fname;
+		_delim = delim.getBytes(UTF8);
+		_fill = fill;
+		_fillValue = fillValue;
+		_clen = clen;
+	}
+	
+	/**
+	 * Parses the given line into the given row of the output matrix block, 
+	 * where dense blocks are written via unsafe sets and sparse blocks via 
+	 * appends. Zero values are not written.
+	 * 
+	 * @param buf line buffer
+	 * @param off offset of the line in the buffer
+	 * @param len length of the line in bytes
+	 * @param dest output matrix block (preallocated)
+	 * @param row row index in the output
+	 * @return number of non-zeros of the line
+	 * @throws IOException if number of columns mismatch or empty cells without fill
+	 */
+	public long parseLine(byte[] buf, int off, int len, MatrixBlock dest, int row) 
+		throws IOException
+	{
+		boolean sparse = dest.isInSparseFormat();
+		long lnnz = 0;
+		
+		//trim line (equivalent to String.trim)
+		int pos = off;
+		int end = off + len;
+		while( pos < end && (buf[pos] & 0xFF) <= ' ' )
+			pos++;
+		while( end > pos && (buf[end-1] & 0xFF) <= ' ' )
+			end--;
+		
+		//empty lines have no tokens 
+		if( pos == end )
+			raiseErrorNumColumns(buf, off, len, 0);
+		
+		//scan and parse tokens
+		int col = 0;
+		boolean emptyFound = false;
+		while( pos <= end ) 
+		{
+			int next = indexOfDelim(buf, pos, end);
+			if( col >= _clen )
+				raiseErrorNumColumns(buf, off, len, countTokens(buf, off, off+len));
+			
+			//trim token and parse value
+			int tpos = pos, tend = next;
+			while( tpos < tend && (buf[tpos] & 0xFF) <= ' ' )
+				tpos++;
+			while( tend > tpos && (buf[tend-1] & 0xFF) <= ' ' )
+				tend--;
+			double val = 0;
+			if( tpos == tend ) {
+				emptyFound = true;
+				val = _fillValue;
+			}
+			else
+				val = parseDouble(buf, tpos, tend-tpos);
+			
+			//write non-zero value to output
+			if( val != 0 ) {
+				if( sparse )
+					dest.appendValue(row, col, val);
+				else
+					dest.setValueDenseUnsafe(row, col, val);
+				lnnz++;
+			}
+			
+			col++;
+			pos = next + _delim.length;
+		}
+		
+		//sanity checks (fill values, number of columns)
+		if( !_fill && emptyFound )
+			IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(
+				new String(buf, off, len, UTF8), _fill, emptyFound);
+		if( col != _clen )
+			raiseErrorNumColumns(buf, off, len, col);
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Parses a double from the given bytes, which are expected to be trimmed.
+	 * 
+	 * @param buf buffer
+	 * @param off offset of the token
+	 * @param len length of the token in bytes
+	 * @return parsed double value
+	 * @throws NumberFormatException if the token is not a valid double
+	 */
+	public static double parseDouble(byte[] buf, int off, int len) 
+	{
+		int pos = off;
+		int end = off + len;
+		
+		//optional sign
+		boolean neg = false;
+		if( buf[pos]=='-' || buf[pos]=='+' ) {
+			neg = (buf[pos]=='-');
+			pos++;
+		}
+		
+		//mantissa with optional fraction
+		long mant = 0;
+		int ndigits = 0, nfrac = 0, nsig = 0;
+		boolean frac = false;
+		for( ; pos < end; pos++ ) {
+			int c = buf[pos];
+			if( c >= '0' && c <= '9' ) {
+				if( mant > 0 || c != '0' )
+					nsig++;
+				if( nsig > MAX_SIGNIFICANT_DIGITS )
+					return parseDoubleFallback(buf, off, len);
+				mant = mant * 10 + (c - '0');
+				ndigits++;
+				if( frac )
+					nfrac++;
+			}
+			else if( c == '.' && !frac )
+				frac = true;
+			else
+				break;
+		}
+		if( ndigits == 0 )
+			return parseDoubleFallback(buf, off, len);
+		
+		//optional exponent
+		int exp = 0;
+		if( pos < end && (buf[pos]=='e' || buf[pos]=='E') ) {
+			pos++;
+			boolean eneg = false;
+			if( pos < end && (buf[pos]=='-' || buf[pos]=='+') ) {
+				eneg = (buf[pos]=='-');
+				pos++;
+			}
+			int edigits = 0;
+			for( ; pos < end && buf[pos]>='0' && buf[pos]<='9' && edigits<4; pos++, edigits++ )
+				exp = exp * 10 + (buf[pos] - '0');
+			if( edigits == 0 )
+				return parseDoubleFallback(buf, off, len);
+			exp = eneg ? -exp : exp;
+		}
+		
+		//fallback for unconsumed bytes (e.g., suffixes, invalid tokens)
+		if( pos != end )
+			return parseDoubleFallback(buf, off, len);
+		
+		//exact fast path (mantissa and power of ten exactly representable)
+		exp -= nfrac;
+		double ret = 0;
+		if( mant == 0 )
+			ret = 0;
+		else if( mant > MAX_EXACT_MANTISSA )
+			return parseDoubleFallback(buf, off, len);
+		else if( exp == 0 )
+			ret = mant;
+		else if( exp > 0 && exp < POW10.length )
+			ret = mant * POW10[exp];
+		else if( exp < 0 && -exp < POW10.length )
+			ret = mant / POW10[-exp];
+		else
+			return parseDoubleFallback(buf, off, len);
+		
+		return neg ? -ret : ret;
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @return
+	 */
+	private static double parseDoubleFallback(byte[] buf, int off, int len) {
+		return Double.parseDouble(new String(buf, off, len, UTF8));
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param pos
+	 * @param end
+	 * @return index of next delimiter, or end if not existing
+	 */
+	private int indexOfDelim(byte[] buf, int pos, int end) 
+	{
+		byte first = _delim[0];
+		int dlen = _delim.length;
+		
+		if( dlen == 1 ) { //common case
+			for( int i=pos; i<end; i++ )
+				if( buf[i] == first )
+					return i;
+		}
+		else {
+			for( int i=pos; i<=end-dlen; i++ ) 
+				if( buf[i] == first ) {
+					int j = 1;
+					while( j<dlen && buf[i+j]==_delim[j] )
+						j++;
+					if( j == dlen )
+						return i;
+				}
+		}
+		
+		return end;
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param pos
+	 * @param end
+	 * @return
+	 */
+	private int countTokens(byte[] buf, int pos, int end) {
+		int count = 1;
+		for( int i=indexOfDelim(buf, pos, end); i<end; i=indexOfDelim(buf, i+_delim.length, end) )
+			count++;
+		return count;
+	}
+	
+	/**
+	 * 
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @param ncol
+	 * @throws IOException
+	 */
+	private void raiseErrorNumColumns(byte[] buf, int off, int len, int ncol) 
+		throws IOException
+	{
+		IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_fname, 
+			new String(buf, off, len, UTF8), ncol, _clen);
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+
+/**
+ * Sample-based estimator of the matrix characteristics (rows, cols, nnz) of csv
+ * files without meta data. We read a limited number of lines from a few splits
+ * distributed over the input, and estimate the number of rows from the total
+ * file size and the average line length, the number of columns from the number
+ * of fields, and the number of non-zeros from the sample sparsity.
+ *
+ * Note: the returned characteristics are estimates only, and hence should only
+ * be used for memory estimates but never as exact or worst-case statistics.
+ *
+ */
+public class CSVMetaDataEstimator
+{
+	private static final Log LOG = LogFactory.getLog(CSVMetaDataEstimator.class.getName());
+
+	//number of sampled splits and lines per split
+	public static final int SAMPLE_SPLITS = 3;
+	public static final int SAMPLE_LINES = 1000;
+
+	/**
+	 * Estimates the matrix characteristics of the given csv file or directory
+	 * and returns null if the file does not exist or no lines could be sampled.
+	 *
+	 * @param fname
+	 * @param hasHeader
+	 * @param delim
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixCharacteristics estimateMatrixCharacteristics(String fname, boolean hasHeader, String delim)
+		throws IOException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path(fname);
+		if( !fs.exists(path) )
+			return null;
+		long fsize = fs.isDirectory(path) ?
+			fs.getContentSummary(path).getLength() : fs.getFileStatus(path).getLen();
+		if( fsize <= 0 )
+			return null;
+
+		FileInputFormat.addInputPath(job, path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, SAMPLE_SPLITS);
+		splits = IOUtilFunctions.sortInputSplits(splits);
+
+		//sample lines from first, and evenly distributed remaining splits
+		SampleStats stats = new SampleStats();
+		int numSamples = Math.min(splits.length, SAMPLE_SPLITS);
+		for( int i=0; i<numSamples; i++ ) {
+			int pos = (numSamples > 1) ? (int)((long)i*(splits.length-1)/(numSamples-1)) : 0;
+			sampleSplit(splits[pos], informat, job, hasHeader && pos==0, delim, stats);
+		}
+		if( stats.lines == 0 || stats.ncol <= 0 )
+			return null;
+
+		//estimate rows, cols, and nnz
+		double avgLineLen = (double)stats.bytes / stats.lines;
+		long rows = Math.max((long)Math.ceil((fsize - stats.headerBytes) / avgLineLen), 1);
+		long cols = stats.ncol;
+		double sparsity = (double)stats.nnz / Math.max(stats.cells, 1);
+		long nnz = (long)Math.ceil(sparsity * rows * cols);
+
+		if( LOG.isDebugEnabled() )
+			LOG.debug("Estimated csv characteristics of '"+fname+"' from "+stats.lines
+				+" sample lines: rows="+rows+", cols="+cols+", nnz="+nnz);
+
+		return new MatrixCharacteristics(rows, cols, -1, -1, nnz);
+	}
+
+	/**
+	 *
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param hasHeader
+	 * @param delim
+	 * @param stats
+	 * @throws IOException
+	 */
+	private static void sampleSplit(InputSplit split, TextInputFormat informat, JobConf job,
+			boolean hasHeader, String delim, SampleStats stats)
+		throws IOException
+	{
+		RecordReader<LongWritable, Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
+		LongWritable key = new LongWritable();
+		Text value = new Text();
+
+		try
+		{
+			//skip header (only first split)
+			if( hasHeader && reader.next(key, value) )
+				stats.headerBytes = value.getLength() + 1;
+
+			//sample lines incl line delimiter
+			for( int i=0; i<SAMPLE_LINES && reader.next(key, value); i++ ) {
+				String line = value.toString();
+				String[] parts = IOUtilFunctions.split(line, delim);
+				stats.bytes += value.getLength() + 1;
+				stats.lines++;
+				stats.ncol = Math.max(stats.ncol, parts.length);
+				stats.cells += parts.length;
+				for( String part : parts )
+					stats.nnz += isNonZero(part) ? 1 : 0;
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
+	}
+
+	/**
+	 *
+	 * @param part
+	 * @return
+	 */
+	private static boolean isNonZero(String part) {
+		String tmp = part.trim();
+		if( tmp.isEmpty() )
+			return false;
+		try {
+			return IOUtilFunctions.parseDoubleParallel(tmp) != 0;
+		}
+		catch(NumberFormatException ex) {
+			return true; //e.g., na strings
+		}
+	}
+
+	/**
+	 * Aggregated statistics of all sampled lines.
+	 */
+	private static class SampleStats
+	{
+		private long headerBytes = 0;
+		private long bytes = 0;
+		private long lines = 0;
+		private long cells = 0;
+		private long nnz = 0;
+		private int ncol = -1;
+	}
+}
@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.sysml.runtime.io.ColumnarFileMetadata.ChunkMeta;
+
+/**
+ * Encoding and decoding of column chunks of the columnar binary format. A column
+ * chunk holds the values of a single column for one row group and is encoded with
+ * the most compact applicable encoding, which is determined by a single scan over
+ * the chunk values. Along with the encoding, every chunk maintains min/max statistics
+ * and its number of non-zeros (non-null values for strings), which allows readers to
+ * skip empty and constant chunks without touching their bytes and to size the output.
+ *
+ */
+public class ColumnarChunkCodec
+{
+	//encodings of numeric column chunks
+	public static final byte ENC_CONST   = 0; //single value
+	public static final byte ENC_PLAIN   = 1; //raw doubles
+	public static final byte ENC_RLE     = 2; //runs of (value, run length)
+	public static final byte ENC_DICT    = 3; //distinct values and 0/1/2-byte codes
+	public static final byte ENC_DELTA   = 4; //first value and vlong deltas of integers
+	public static final byte ENC_SPARSE  = 5; //vint row deltas and values of non-zeros
+
+	//encodings of string column chunks
+	public static final byte ENC_STR_PLAIN = 6; //null flag and utf per value
+	public static final byte ENC_STR_DICT  = 7; //distinct values and 0/1/2-byte codes
+
+	//max number of distinct values for dictionary encoding
+	private static final int MAX_DICT_SIZE = 65535;
+
+	//max absolute value for delta encoding of integers (2^53, exact in double)
+	private static final double MAX_DELTA_VALUE = 9007199254740992d;
+
+	/**
+	 * Encodes the first n values of a numeric column chunk into the given output
+	 * and fills the encoding and statistics of the chunk meta data.
+	 *
+	 * @param vals
+	 * @param n
+	 * @param out
+	 * @param meta
+	 * @throws IOException
+	 */
+	public static void encode( double[] vals, int n, DataOutput out, ChunkMeta meta )
+		throws IOException
+	{
+		//single scan for statistics and encoding sizes
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		int nnz = 0, nsparse = 0, runs = 0;
+		long sparseSize = 4, deltaSize = 8;
+		boolean integer = true;
+		HashMap<Long,Integer> dict = new HashMap<Long,Integer>();
+		long lastBits = 0, lastLong = 0;
+		int lastNz = -1;
+
+		for( int i=0; i<n; i++ ) {
+			double v = vals[i];
+			long bits = Double.doubleToLongBits(v);
+			min = Math.min(min, v); //NaN-propagating, -0 < 0
+			max = Math.max(max, v);
+			if( v != 0 )
+				nnz++;
+			if( bits != 0 ) { //incl -0
+				sparseSize += WritableUtils.getVIntSize(i-lastNz) + 8;
+				lastNz = i;
+				nsparse++;
+			}
+			if( i==0 || bits != lastBits )
+				runs++;
+			if( dict != null && !dict.containsKey(bits) ) {
+				if( dict.size() < MAX_DICT_SIZE )
+					dict.put(bits, dict.size());
+				else
+					dict = null;
+			}
+			if( integer ) {
+				long lv = (long) v;
+				integer = Math.abs(v) <= MAX_DELTA_VALUE
+					&& Double.doubleToLongBits((double)lv) == bits;
+				if( integer && i > 0 )
+					deltaSize += WritableUtils.getVIntSize(lv - lastLong);
+				lastLong = lv;
+			}
+			lastBits = bits;
+		}
+
+		//pick most compact encoding (if applicable)
+		byte enc = ENC_PLAIN;
+		long size = 8L * n;
+		if( runs <= 1 ) {
+			enc = ENC_CONST;
+			size = 8;
+		}
+		if( sparseSize < size ) {
+			enc = ENC_SPARSE;
+			size = sparseSize;
+		}
+		if( 4 + 12L * runs < size ) {
+			enc = ENC_RLE;
+			size = 4 + 12L * runs;
+		}
+		if( dict != null && 5 + 8L * dict.size() + (long)getCodeWidth(dict.size()) * n < size ) {
+			enc = ENC_DICT;
+			size = 5 + 8L * dict.size() + (long)getCodeWidth(dict.size()) * n;
+		}
+		if( integer && n > 0 && deltaSize < size ) {
+			enc = ENC_DELTA;
+			size = deltaSize;
+		}
+
+		//encode values
+		switch( enc ) {
+			case ENC_CONST:
+				out.writeDouble((n>0) ? vals[0] : 0);
+				break;
+			case ENC_PLAIN:
+				for( int i=0; i<n; i++ )
+					out.writeDouble(vals[i]);
+				break;
+			case ENC_SPARSE:
+				out.writeInt(nsparse);
+				for( int i=0, last=-1; i<n; i++ )
+					if( Double.doubleToLongBits(vals[i]) != 0 ) {
+						WritableUtils.writeVInt(out, i-last);
+						out.writeDouble(vals[i]);
+						last = i;
+					}
+				break;
+			case ENC_RLE:
+				out.writeInt(runs);
+				for( int i=0; i<n; ) {
+					long bits = Double.doubleToLongBits(vals[i]);
+					int j = i+1;
+					while( j<n && Double.doubleToLongBits(vals[j])==bits )
+						j++;
+					out.writeDouble(vals[i]);
+					out.writeInt(j-i);
+					i = j;
+				}
+				break;
+			case ENC_DICT:
+				double[] dvals = new double[dict.size()];
+				for( Long bits : dict.keySet() )
+					dvals[dict.get(bits)] = Double.longBitsToDouble(bits);
+				out.writeInt(dvals.length);
+				for( double dv : dvals )
+					out.writeDouble(dv);
+				int width = getCodeWidth(dvals.length);
+				out.writeByte(width);
+				for( int i=0; i<n; i++ )
+					writeCode(out, dict.get(Double.doubleToLongBits(vals[i])), width);
+				break;
+			case ENC_DELTA:
+				out.writeLong((long)vals[0]);
+				for( int i=1; i<n; i++ )
+					WritableUtils.writeVLong(out, (long)vals[i]-(long)vals[i-1]);
+				break;
+		}
+
+		//maintain chunk meta data
+		meta.encoding = enc;
+		meta.nnz = nnz;
+		meta.min = (n>0) ? min : Double.NaN;
+		meta.max = (n>0) ? max : Double.NaN;
+	}
+
+	/**
+	 * Encodes the first n values of a string column chunk (potentially with null
+	 * values) into the given output and fills the encoding and statistics of the
+	 * chunk meta data. Min/max statistics are not maintained for strings.
+	 *
+	 * @param vals
+	 * @param n
+	 * @param out
+	 * @param meta
+	 * @throws IOException
+	 */
+	public static void encode( String[] vals, int n, DataOutput out, ChunkMeta meta )
+		throws IOException
+	{
+		//single scan for statistics and encoding sizes
+		HashMap<String,Integer> dict = new HashMap<String,Integer>();
+		long plainSize = 0, dictSize = 0;
+		int nnz = 0;
+		boolean hasNull = false;
+		for( int i=0; i<n; i++ ) {
+			String v = vals[i];
+			plainSize += 1 + ((v!=null) ? 2+v.length() : 0);
+			if( v != null )
+				nnz++;
+			if( dict != null ) {
+				if( v == null ) {
+					dictSize += hasNull ? 0 : 1;
+					hasNull = true;
+				}
+				else if( !dict.containsKey(v) ) {
+					if( dict.size() < MAX_DICT_SIZE ) {
+						dict.put(v, dict.size());
+						dictSize += 3 + v.length();
+					}
+					else
+						dict = null;
+				}
+			}
+		}
+
+		//pick most compact encoding (null represented as last dictionary entry)
+		int dsize = (dict!=null) ? dict.size() + (hasNull?1:0) : -1;
+		boolean useDict = (dict != null && 5 + dictSize + (long)getCodeWidth(dsize) * n < plainSize);
+
+		//encode values
+		if( useDict ) {
+			String[] dvals = new String[dsize];
+			for( String key : dict.keySet() )
+				dvals[dict.get(key)] = key;
+			out.writeInt(dsize);
+			for( String dv : dvals )
+				writeString(out, dv);
+			int width = getCodeWidth(dsize);
+			out.writeByte(width);
+			for( int i=0; i<n; i++ )
+				writeCode(out, (vals[i]!=null) ? dict.get(vals[i]) : dsize-1, width);
+		}
+		else {
+			for( int i=0; i<n; i++ )
+				writeString(out, vals[i]);
+		}
+
+		//maintain chunk meta data
+		meta.encoding = useDict ? ENC_STR_DICT : ENC_STR_PLAIN;
+		meta.nnz = nnz;
+		meta.min = Double.NaN;
+		meta.max = Double.NaN;
+	}
+
+	/**
+	 * Decodes a numeric column chunk of n rows into the first n cells of the
+	 * given value array.
+	 *
+	 * @param buf
+	 * @param meta
+	 * @param vals
+	 * @param n
+	 * @throws IOException
+	 */
+	public static void decode( byte[] buf, ChunkMeta meta, double[] vals, int n )
+		throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buf, 0, meta.length));
+
+		switch( meta.encoding ) {
+			case ENC_CONST:
+				Arrays.fill(vals, 0, n, in.readDouble());
+				break;
+			case ENC_PLAIN:
+				for( int i=0; i<n; i++ )
+					vals[i] = in.readDouble();
+				break;
+			case ENC_SPARSE: {
+				Arrays.fill(vals, 0, n, 0);
+				int nnz = in.readInt();
+				for( int k=0, pos=-1; k<nnz; k++ ) {
+					pos += WritableUtils.readVInt(in);
+					vals[pos] = in.readDouble();
+				}
+				break;
+			}
+			case ENC_RLE: {
+				int runs = in.readInt();
+				for( int k=0, pos=0; k<runs; k++ ) {
+					double v = in.readDouble();
+					int len = in.readInt();
+					Arrays.fill(vals, pos, pos+len, v);
+					pos += len;
+				}
+				break;
+			}
+			case ENC_DICT: {
+				double[] dvals = new double[in.readInt()];
+				for( int k=0; k<dvals.length; k++ )
+					dvals[k] = in.readDouble();
+				int width = in.readByte();
+				for( int i=0; i<n; i++ )
+					vals[i] = dvals[readCode(in, width)];
+				break;
+			}
+			case ENC_DELTA: {
+				long lv = in.readLong();
+				vals[0] = lv;
+				for( int i=1; i<n; i++ ) {
+					lv += WritableUtils.readVLong(in);
+					vals[i] = lv;
+				}
+				break;
+			}
+			default:
+				throw new IOException("Invalid encoding of numeric column chunk: "+meta.encoding);
+		}
+	}
+
+	/**
+	 * Decodes a string column chunk of n rows into the first n cells of the
+	 * given value array.
+	 *
+	 * @param buf
+	 * @param meta
+	 * @param vals
+	 * @param n
+	 * @throws IOException
+	 */
+	public static void decode( byte[] buf, ChunkMeta meta, String[] vals, int n )
+		throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buf, 0, meta.length));
+
+		switch( meta.encoding ) {
+			case ENC_STR_PLAIN:
+				for( int i=0; i<n; i++ )
+					vals[i] = readString(in);
+				break;
+			case ENC_STR_DICT: {
+				String[] dvals = new String[in.readInt()];
+				for( int k=0; k<dvals.length; k++ )
+					dvals[k] = readString(in);
+				int width = in.readByte();
+				for( int i=0; i<n; i++ )
+					vals[i] = dvals[readCode(in, width)];
+				break;
+			}
+			default:
+				throw new IOException("Invalid encoding of string column chunk: "+meta.encoding);
+		}
+	}
+
+	/**
+	 *
+	 * @param dsize
+	 * @return
+	 */
+	private static int getCodeWidth( int dsize ) {
+		return (dsize <= 1) ? 0 : (dsize <= 256) ? 1 : 2;
+	}
+
+	/**
+	 *
+	 * @param out
+	 * @param code
+	 * @param width
+	 * @throws IOException
+	 */
+	private static void writeCode( DataOutput out, int code, int width )
+		throws IOException
+	{
+		if( width == 1 )
+			out.writeByte(code);
+		else if( width == 2 )
+			out.writeShort(code);
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param width
+	 * @return
+	 * @throws IOException
+	 */
+	private static int readCode( DataInputStream in, int width )
+		throws IOException
+	{
+		if( width == 1 )
+			return in.readUnsignedByte();
+		else if( width == 2 )
+			return in.readUnsignedShort();
+		return 0;
+	}
+
+	/**
+	 *
+	 * @param out
+	 * @param val
+	 * @throws IOException
+	 */
+	private static void writeString( DataOutput out, String val )
+		throws IOException
+	{
+		out.writeBoolean(val != null);
+		if( val != null )
+			out.writeUTF(val);
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private static String readString( DataInputStream in )
+		throws IOException
+	{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
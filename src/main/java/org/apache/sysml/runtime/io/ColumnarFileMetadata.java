@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysml.parser.Expression.ValueType;
+
+/**
+ * Meta data of the columnar binary format for matrices and frames. A columnar file
+ * consists of a header (magic number and version), the encoded column chunks, a footer
+ * with the meta data of all chunks, and a trailer with the footer offset. The rows are
+ * partitioned into row groups of fixed size and each row group is stored as one column
+ * chunk per column. The footer keeps the file offset, length, encoding, and statistics
+ * of every column chunk, which allows readers to seek directly to the chunks of the
+ * requested rows and columns.
+ *
+ * <pre>
+ * MAGIC VERSION | chunk(g0,c0) .. chunk(g0,cn) .. chunk(gm,cn) | footer | footer offset MAGIC
+ * </pre>
+ *
+ */
+public class ColumnarFileMetadata
+{
+	public static final byte[] MAGIC = new byte[]{'S','Y','S','M','L','C','O','L'};
+	public static final int VERSION = 1;
+
+	//physical column types
+	public static final byte COL_NUMERIC = 0;
+	public static final byte COL_STRING = 1;
+
+	private boolean _frame = false;
+	private long _rlen = -1;
+	private int _clen = -1;
+	private int _grpRows = -1;
+	private long _nnz = -1;
+	private List<ValueType> _schema = null;
+	private List<String> _names = null;
+	private byte[] _ctypes = null;
+	private ChunkMeta[][] _chunks = null;
+
+	/**
+	 *
+	 */
+	private ColumnarFileMetadata() {
+		//for read only
+	}
+
+	/**
+	 *
+	 * @param frame
+	 * @param rlen
+	 * @param clen
+	 * @param grpRows
+	 * @param schema
+	 * @param names
+	 * @param ctypes
+	 */
+	public ColumnarFileMetadata(boolean frame, long rlen, int clen, int grpRows,
+		List<ValueType> schema, List<String> names, byte[] ctypes)
+	{
+		_frame = frame;
+		_rlen = rlen;
+		_clen = clen;
+		_grpRows = grpRows;
+		_schema = schema;
+		_names = names;
+		_ctypes = ctypes;
+		_chunks = new ChunkMeta[getNumRowGroups()][clen];
+		for( int g=0; g<_chunks.length; g++ )
+			for( int j=0; j<clen; j++ )
+				_chunks[g][j] = new ChunkMeta();
+	}
+
+	public boolean isFrame() {
+		return _frame;
+	}
+
+	public long getNumRows() {
+		return _rlen;
+	}
+
+	public int getNumColumns() {
+		return _clen;
+	}
+
+	public int getRowGroupSize() {
+		return _grpRows;
+	}
+
+	public int getNumRowGroups() {
+		return (int)((_rlen + _grpRows - 1) / _grpRows);
+	}
+
+	public int getNumRowGroupRows(int g) {
+		return (int)Math.min(_grpRows, _rlen - (long)g*_grpRows);
+	}
+
+	public long getNonZeros() {
+		return _nnz;
+	}
+
+	public void setNonZeros(long nnz) {
+		_nnz = nnz;
+	}
+
+	public List<ValueType> getSchema() {
+		return _schema;
+	}
+
+	public List<String> getColumnNames() {
+		return _names;
+	}
+
+	public byte getColumnType(int j) {
+		return _ctypes[j];
+	}
+
+	public ChunkMeta getChunkMeta(int g, int j) {
+		return _chunks[g][j];
+	}
+
+	/**
+	 * Estimates the number of non-zeros in the given row and column range
+	 * (0-based, inclusive) as the sum of non-zeros of all overlapping chunks.
+	 *
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @return
+	 */
+	public long estimateNonZeros(int rl, int ru, int cl, int cu) {
+		long ret = 0;
+		for( int g=rl/_grpRows; g<=ru/_grpRows; g++ )
+			for( int j=cl; j<=cu; j++ )
+				ret += _chunks[g][j].nnz;
+		return ret;
+	}
+
+	/**
+	 * Writes the header of a columnar file.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void writeHeader(DataOutput out)
+		throws IOException
+	{
+		out.write(MAGIC);
+		out.writeInt(VERSION);
+	}
+
+	/**
+	 * Writes the footer with the meta data of all chunks and the trailer
+	 * to the end of the given output stream.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeFooter(FSDataOutputStream out)
+		throws IOException
+	{
+		long offset = out.getPos();
+
+		//write basic meta data
+		out.writeBoolean(_frame);
+		out.writeLong(_rlen);
+		out.writeInt(_clen);
+		out.writeInt(_grpRows);
+		out.writeLong(_nnz);
+		if( _frame ) {
+			for( int j=0; j<_clen; j++ ) {
+				out.writeByte(_schema.get(j).ordinal());
+				out.writeUTF(_names.get(j));
+			}
+		}
+		out.write(_ctypes);
+
+		//write chunk meta data
+		for( int g=0; g<_chunks.length; g++ )
+			for( int j=0; j<_clen; j++ )
+				_chunks[g][j].write(out);
+
+		//write trailer
+		out.writeLong(offset);
+		out.write(MAGIC);
+	}
+
+	/**
+	 * Reads the meta data from the footer of the given columnar file.
+	 *
+	 * @param fs
+	 * @param path
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static ColumnarFileMetadata readFooter(FileSystem fs, Path path, FSDataInputStream in)
+		throws IOException
+	{
+		//check header and trailer
+		long len = fs.getFileStatus(path).getLen();
+		byte[] magic = new byte[MAGIC.length];
+		in.readFully(0, magic);
+		if( len < 2*MAGIC.length+12 || !Arrays.equals(magic, MAGIC) )
+			throw new IOException("File "+path.toString()+" is not a columnar file.");
+		in.seek(len-8-MAGIC.length);
+		long offset = in.readLong();
+		in.readFully(magic);
+		if( !Arrays.equals(magic, MAGIC) )
+			throw new IOException("Invalid trailer of columnar file "+path.toString()+".");
+
+		//read basic meta data
+		in.seek(offset);
+		ColumnarFileMetadata ret = new ColumnarFileMetadata();
+		ret._frame = in.readBoolean();
+		ret._rlen = in.readLong();
+		ret._clen = in.readInt();
+		ret._grpRows = in.readInt();
+		ret._nnz = in.readLong();
+		if( ret._frame ) {
+			ret._schema = new ArrayList<ValueType>();
+			ret._names = new ArrayList<String>();
+			for( int j=0; j<ret._clen; j++ ) {
+				ret._schema.add(ValueType.values()[in.readByte()]);
+				ret._names.add(in.readUTF());
+			}
+		}
+		ret._ctypes = new byte[ret._clen];
+		in.readFully(ret._ctypes);
+
+		//read chunk meta data
+		ret._chunks = new ChunkMeta[ret.getNumRowGroups()][ret._clen];
+		for( int g=0; g<ret._chunks.length; g++ )
+			for( int j=0; j<ret._clen; j++ ) {
+				ret._chunks[g][j] = new ChunkMeta();
+				ret._chunks[g][j].read(in);
+			}
+
+		return ret;
+	}
+
+	/**
+	 * Meta data of a single column chunk.
+	 */
+	public static class ChunkMeta
+	{
+		public long offset = -1;
+		public int length = -1;
+		public byte encoding = -1;
+		public int nnz = -1;
+		public double min = Double.NaN; //NaN if empty, string, or contains NaN
+		public double max = Double.NaN;
+
+		/**
+		 * Indicates if all values of the chunk are equal (incl sign of zero),
+		 * in which case the chunk can be reconstructed from its statistics.
+		 *
+		 * @return
+		 */
+		public boolean isConstant() {
+			return !Double.isNaN(min) && Double.doubleToLongBits(min) == Double.doubleToLongBits(max);
+		}
+
+		public void write(DataOutput out) throws IOException {
+			out.writeLong(offset);
+			out.writeInt(length);
+			out.writeByte(encoding);
+			out.writeInt(nnz);
+			out.writeDouble(min);
+			out.writeDouble(max);
+		}
+
+		public void read(DataInput in) throws IOException {
+			offset = in.readLong();
+			length = in.readInt();
+			encoding = in.readByte();
+			nnz = in.readInt();
+			min = in.readDouble();
+			max = in.readDouble();
+		}
+	}
+}
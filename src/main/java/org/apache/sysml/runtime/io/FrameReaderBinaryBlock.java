@@ -63,9 +63,13 @@ public class FrameReaderBinaryBlock extends FrameReader
 		//check existence and non-empty file
 		checkValidInputFile(fs, path); 
 	
-		//core read 
+		//core read (sequential/parallel) 
 		readBinaryBlockFrameFromHDFS(path, job, fs, ret, rlen, clen);
 		
+		//finally check if dictionary-encoded string columns required
+		//(after read to keep parallel reads into disjoint rows thread-safe)
+		ret.examDictionaryEncoding();
+		
 		return ret;
 	}
 	
@@ -89,43 +93,59 @@ public class FrameReaderBinaryBlock extends FrameReader
 	 * @throws IOException
 	 * @throws DMLRuntimeException 
 	 */
+	protected void readBinaryBlockFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, long rlen, long clen )
+		throws IOException, DMLRuntimeException
+	{
+		//sequential read of all files
+		for( Path lpath : getSequenceFilePaths(fs, path) ) //1..N files 
+			readBinaryBlockFrameFromSequenceFile(lpath, job, fs, dest, rlen, clen);
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
 	@SuppressWarnings("deprecation")
-	private static void readBinaryBlockFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, long rlen, long clen )
+	protected static void readBinaryBlockFrameFromSequenceFile( Path path, JobConf job, FileSystem fs, FrameBlock dest, long rlen, long clen )
 		throws IOException, DMLRuntimeException
 	{
 		LongWritable key = new LongWritable(-1L);
 		FrameBlock value = new FrameBlock();
 		
-		for( Path lpath : getSequenceFilePaths(fs, path) ) //1..N files 
+		//directly read from sequence files (individual partfiles)
+		SequenceFile.Reader reader = new SequenceFile.Reader(fs,path,job);
+		
+		try
 		{
-			//directly read from sequence files (individual partfiles)
-			SequenceFile.Reader reader = new SequenceFile.Reader(fs,lpath,job);
-			
-			try
-			{
-				//note: next(key, value) does not yet exploit the given serialization classes, record reader does but is generally slower.
-				while( reader.next(key, value) ) {	
-					int row_offset = (int)(key.get()-1);
-					
-					int rows = value.getNumRows();
-					int cols = value.getNumColumns();
+			//note: next(key, value) does not yet exploit the given serialization classes, record reader does but is generally slower.
+			while( reader.next(key, value) ) {	
+				int row_offset = (int)(key.get()-1);
+				
+				int rows = value.getNumRows();
+				int cols = value.getNumColumns();
 
-					if(rows == 0 || cols == 0)	//Empty block, ignore it.
-						continue;
-					
-					//bound check per block
-					if( row_offset + rows < 0 || row_offset + rows > rlen ) {
-						throw new IOException("Frame block ["+(row_offset+1)+":"+(row_offset+rows)+","+":"+"] " +
-								              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
-					}
-			
-					dest.copy( row_offset, row_offset+rows-1, 
-							0, cols-1, value);
+				if(rows == 0 || cols == 0)	//Empty block, ignore it.
+					continue;
+				
+				//bound check per block
+				if( row_offset + rows < 0 || row_offset + rows > rlen ) {
+					throw new IOException("Frame block ["+(row_offset+1)+":"+(row_offset+rows)+","+":"+"] " +
+							              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
 				}
+		
+				dest.copy( row_offset, row_offset+rows-1, 
+						0, cols-1, value);
 			}
-			finally {
-				IOUtilFunctions.closeSilently(reader);
-			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
 		}
 	}
 
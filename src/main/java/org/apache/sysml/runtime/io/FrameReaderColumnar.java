@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.ColumnarFileMetadata.ChunkMeta;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.runtime.util.UtilFunctions;
+
+/**
+ * Single-threaded frame reader for the columnar binary format, including index
+ * range reads that only access the column chunks of the requested rows and columns.
+ *
+ */
+public class FrameReaderColumnar extends FrameReader
+{
+	@Override
+	public FrameBlock readFrameFromHDFS(String fname, List<ValueType> schema, List<String> names,
+			long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		return readFrameFromHDFS(fname, schema, names, null);
+	}
+
+	@Override
+	public FrameBlock readFrameFromHDFS(String fname, List<ValueType> schema, long rlen, long clen)
+		throws IOException, DMLRuntimeException
+	{
+		//use column names of the file
+		return readFrameFromHDFS(fname, schema, null, null);
+	}
+
+	/**
+	 * Reads the given index range (0-based, inclusive) of a columnar frame file,
+	 * where a null index range refers to the entire frame. The schema and names
+	 * refer to the requested columns; if null, the schema and column names of
+	 * the file are used.
+	 *
+	 * @param fname
+	 * @param schema
+	 * @param names
+	 * @param ix
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	public FrameBlock readFrameFromHDFS(String fname, List<ValueType> schema, List<String> names, IndexRange ix)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = FileSystem.get(job);
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		FSDataInputStream in = fs.open(path);
+		try
+		{
+			ColumnarFileMetadata meta = ColumnarFileMetadata.readFooter(fs, path, in);
+			if( !meta.isFrame() )
+				throw new IOException("Columnar file "+fname+" contains a matrix instead of a frame.");
+
+			//determine row and column range
+			int rl = (ix!=null) ? (int)ix.rowStart : 0;
+			int ru = (ix!=null) ? (int)ix.rowEnd : (int)meta.getNumRows()-1;
+			int cl = (ix!=null) ? (int)ix.colStart : 0;
+			int cu = (ix!=null) ? (int)ix.colEnd : meta.getNumColumns()-1;
+			if( rl < 0 || ru >= meta.getNumRows() || rl > ru || cl < 0 || cu >= meta.getNumColumns() || cl > cu )
+				throw new IOException("Invalid index range ["+rl+":"+ru+","+cl+":"+cu+"] for columnar file "
+						+ fname+" of size "+meta.getNumRows()+"x"+meta.getNumColumns()+".");
+
+			//default schema and names from file meta data
+			if( schema == null || schema.size() != cu-cl+1 )
+				schema = meta.getSchema().subList(cl, cu+1);
+			if( names == null || names.size() != cu-cl+1 )
+				names = meta.getColumnNames().subList(cl, cu+1);
+
+			//core read
+			FrameBlock ret = createOutputFrameBlock(schema, names, ru-rl+1);
+			readColumnarFrame(in, meta, ret, rl, ru, cl, cu);
+			
+			//finally check if dictionary-encoded string columns required
+			//(after read to keep parallel reads into disjoint rows thread-safe)
+			ret.examDictionaryEncoding();
+			return ret;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param meta
+	 * @param dest
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @throws IOException
+	 */
+	private static void readColumnarFrame( FSDataInputStream in, ColumnarFileMetadata meta, FrameBlock dest, int rl, int ru, int cl, int cu )
+		throws IOException
+	{
+		int grpRows = meta.getRowGroupSize();
+		List<ValueType> schema = dest.getSchema();
+
+		byte[] buf = new byte[0];
+		double[] col = new double[grpRows];
+		String[] scol = new String[grpRows];
+		for( int g=rl/grpRows; g<=ru/grpRows; g++ )
+		{
+			int grl = g*grpRows;
+			int n = meta.getNumRowGroupRows(g);
+			int rs = Math.max(rl, grl) - grl;
+			int re = Math.min(ru, grl+n-1) - grl;
+
+			for( int j=cl; j<=cu; j++ )
+			{
+				ChunkMeta cmeta = meta.getChunkMeta(g, j);
+				ValueType fvt = meta.getSchema().get(j);
+				ValueType vt = schema.get(j-cl);
+				if( meta.getColumnType(j) == ColumnarFileMetadata.COL_STRING ) {
+					buf = ReaderColumnar.readChunk(in, cmeta, buf);
+					ColumnarChunkCodec.decode(buf, cmeta, scol, n);
+					for( int i=rs; i<=re; i++ )
+						dest.set(grl+i-rl, j-cl, UtilFunctions.stringToObject(vt, scol[i]));
+				}
+				else {
+					if( cmeta.isConstant() ) //skip constant chunks
+						Arrays.fill(col, 0, n, cmeta.min);
+					else {
+						buf = ReaderColumnar.readChunk(in, cmeta, buf);
+						ColumnarChunkCodec.decode(buf, cmeta, col, n);
+					}
+					for( int i=rs; i<=re; i++ ) {
+						//strings via string representation of file value type
+						Object obj = (vt == ValueType.STRING) ?
+							UtilFunctions.doubleToObject(fvt, col[i], false).toString() :
+							UtilFunctions.doubleToObject(vt, col[i], false);
+						dest.set(grl+i-rl, j-cl, obj);
+					}
+				}
+			}
+		}
+	}
+}
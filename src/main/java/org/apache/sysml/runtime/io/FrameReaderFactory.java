@@ -19,6 +19,8 @@
 
 package org.apache.sysml.runtime.io;
 
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
@@ -43,14 +45,26 @@ public class FrameReaderFactory
 		
 		if( iinfo == InputInfo.TextCellInputInfo )
 		{
-			reader = new FrameReaderTextCell();	
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCellParallel();
+			else
+				reader = new FrameReaderTextCell();	
 		}
 		else if( iinfo == InputInfo.CSVInputInfo )
 		{
-			reader = new FrameReaderTextCSV(new CSVFileFormatProperties());
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCSVParallel(new CSVFileFormatProperties());
+			else
+				reader = new FrameReaderTextCSV(new CSVFileFormatProperties());
 		}
 		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
-			reader = new FrameReaderBinaryBlock();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) )
+				reader = new FrameReaderBinaryBlockParallel();
+			else
+				reader = new FrameReaderBinaryBlock();
+		}
+		else if( iinfo == InputInfo.ColumnarInputInfo ) {
+			reader = new FrameReaderColumnar();
 		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame reader for unknown input info: "
@@ -77,13 +91,27 @@ public class FrameReaderFactory
 		InputInfo iinfo = props.inputInfo;
 
 		if( iinfo == InputInfo.TextCellInputInfo ) {
-			reader = new FrameReaderTextCell();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCellParallel();
+			else
+				reader = new FrameReaderTextCell();
 		}
 		else if( iinfo == InputInfo.CSVInputInfo ) {
-			reader = new FrameReaderTextCSV( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties());
+			CSVFileFormatProperties fprops = props.formatProperties!=null ? 
+				(CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCSVParallel( fprops );
+			else
+				reader = new FrameReaderTextCSV( fprops );
 		}
 		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
-			reader = new FrameReaderBinaryBlock();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) )
+				reader = new FrameReaderBinaryBlockParallel();
+			else
+				reader = new FrameReaderBinaryBlock();
+		}
+		else if( iinfo == InputInfo.ColumnarInputInfo ) {
+			reader = new FrameReaderColumnar();
 		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame reader for unknown input info: "
@@ -106,15 +134,27 @@ public class FrameReaderFactory
 		FrameReader reader = null;
 
 		if( iinfo == InputInfo.TextCellInputInfo ) {
-			reader = new FrameReaderTextCell();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCellParallel();
+			else
+				reader = new FrameReaderTextCell();
 		}
 		else if( iinfo == InputInfo.CSVInputInfo ) {
 			if( props!=null && !(props instanceof CSVFileFormatProperties) )
 				throw new DMLRuntimeException("Wrong type of file format properties for CSV writer.");
-			reader = new FrameReaderTextCSV( (CSVFileFormatProperties)props);
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new FrameReaderTextCSVParallel( (CSVFileFormatProperties)props );
+			else
+				reader = new FrameReaderTextCSV( (CSVFileFormatProperties)props );
 		}
 		else if( iinfo == InputInfo.BinaryBlockInputInfo ) {
-			reader = new FrameReaderBinaryBlock();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) )
+				reader = new FrameReaderBinaryBlockParallel();
+			else
+				reader = new FrameReaderBinaryBlock();
+		}
+		else if( iinfo == InputInfo.ColumnarInputInfo ) {
+			reader = new FrameReaderColumnar();
 		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame reader for unknown input info: "
@@ -19,21 +19,22 @@
 
 package org.apache.sysml.runtime.io;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.TextInputFormat;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
-import org.apache.sysml.runtime.matrix.CSVReblockMR;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -41,7 +42,7 @@ import org.apache.sysml.runtime.util.UtilFunctions;
 public class FrameReaderTextCSV extends FrameReader
 {
 
-	private CSVFileFormatProperties _props = null;
+	protected CSVFileFormatProperties _props = null;
 	
 	public FrameReaderTextCSV(CSVFileFormatProperties props)
 	{
@@ -65,22 +66,30 @@ public class FrameReaderTextCSV extends FrameReader
 			long rlen, long clen)
 		throws IOException, DMLRuntimeException 
 	{
-		//allocate output frame block
-		FrameBlock ret = null;
-		if( rlen>0 && clen>0 ) //otherwise CSV reblock based on file size for frame w/ unknown dimensions
-			ret = createOutputFrameBlock(schema, names, rlen);
-		
 		//prepare file access
 		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());	
 		FileSystem fs = FileSystem.get(job);
 		Path path = new Path( fname );
+		FileInputFormat.addInputPath(job, path);
 		
 		//check existence and non-empty file
 		checkValidInputFile(fs, path); 
-	
-		//core read 
-		ret = readCSVFrameFromHDFS(path, job, fs, ret, schema, names, rlen, clen,  
-				   _props.hasHeader(), _props.getDelim(), _props.isFill() );
+		
+		//compute size if necessary (CSV reblock based on file size for frame w/ unknown dimensions)
+		if( rlen <= 0 || clen <= 0 ) {
+			rlen = computeCSVSize(path, job, fs);
+			clen = schema.size();
+		}
+		
+		//allocate output frame block
+		FrameBlock ret = createOutputFrameBlock(schema, names, rlen);
+		
+		//core read (sequential/parallel) 
+		readCSVFrameFromHDFS(path, job, fs, ret, schema, names, rlen, clen);
+		
+		//finally check if dictionary-encoded string columns required
+		//(after read to keep parallel reads into disjoint rows thread-safe)
+		ret.examDictionaryEncoding();
 		
 		return ret;
 	}
@@ -91,122 +100,149 @@ public class FrameReaderTextCSV extends FrameReader
 	 * @param job
 	 * @param fs
 	 * @param dest
+	 * @param schema
+	 * @param names
 	 * @param rlen
 	 * @param clen
-	 * @param hasHeader
-	 * @param delim
-	 * @param fill
-	 * @return
 	 * @throws IOException
 	 */
-	@SuppressWarnings("unchecked")
-	private FrameBlock readCSVFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, 
-			List<ValueType> schema, List<String> names, long rlen, long clen, boolean hasHeader, String delim, boolean fill)
+	protected void readCSVFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, 
+			List<ValueType> schema, List<String> names, long rlen, long clen) 
 		throws IOException
 	{
-		ArrayList<Path> files=new ArrayList<Path>();
-		if(fs.isDirectory(path)) {
-			for(FileStatus stat: fs.listStatus(path, CSVReblockMR.hiddenFileFilter))
-				files.add(stat.getPath());
-			Collections.sort(files);
-		}
-		else
-			files.add(path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, 1);
+		splits = IOUtilFunctions.sortInputSplits(splits);
 		
-		if ( dest == null ) {
-			dest = computeCSVSize(files, fs, schema, names, hasHeader, delim);
-			clen = dest.getNumColumns();
-		}
+		//read splits in order (header only in first split)
+		for( int i=0, rpos=0; i<splits.length; i++ )
+			rpos = readCSVFrameFromInputSplit(splits[i], informat, job, dest, schema, names, rlen, clen, rpos, i==0);
+	}
+	
+	/**
+	 * 
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param dest
+	 * @param schema
+	 * @param names
+	 * @param rlen
+	 * @param clen
+	 * @param rl row offset of the split, 0-based
+	 * @param first true if first split (which might contain the header)
+	 * @return row offset of the next split, 0-based
+	 * @throws IOException
+	 */
+	protected final int readCSVFrameFromInputSplit( InputSplit split, TextInputFormat informat, JobConf job, 
+			FrameBlock dest, List<ValueType> schema, List<String> names, long rlen, long clen, int rl, boolean first)
+		throws IOException
+	{
+		boolean hasHeader = _props.hasHeader();
+		boolean isFill = _props.isFill();
+		String delim = _props.getDelim();
 		
-		/////////////////////////////////////////
-		String value = null;
-		int row = 0;
+		//create record reader
+		RecordReader<LongWritable, Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
+		LongWritable key = new LongWritable();
+		Text value = new Text();
+		int row = rl;
 		int col = -1;
 		
-		for(int fileNo=0; fileNo<files.size(); fileNo++)
+		//handle header if existing
+		if(first && hasHeader ) 
+			reader.next(key, value); //ignore header
+		
+		// Read the data
+		boolean emptyValuesFound = false;
+		try
 		{
-			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(files.get(fileNo))));
-			if(fileNo==0 && hasHeader ) 
-				br.readLine(); //ignore header
-			
-			// Read the data
-			boolean emptyValuesFound = false;
-			try
+			while( reader.next(key, value) ) //foreach line
 			{
-				while( (value=br.readLine())!=null ) //foreach line
+				String cellStr = value.toString().trim();
+				emptyValuesFound = false;
+				String[] parts = IOUtilFunctions.split(cellStr, delim);
+				col = 0;
+				
+				for( String part : parts ) //foreach cell
 				{
-					String cellStr = value.toString().trim();
-					emptyValuesFound = false;
-					String[] parts = IOUtilFunctions.split(cellStr, delim);
-					col = 0;
-					
-					for( String part : parts ) //foreach cell
-					{
-						part = part.trim();
-						if ( part.isEmpty() ) {
-							//TODO: Do we need to handle empty cell condition?
-							emptyValuesFound = true;
-						}
-						else {
-							dest.set(row, col, UtilFunctions.stringToObject(schema.get(col), part));
-						}
-						col++;
+					part = part.trim();
+					if ( part.isEmpty() ) {
+						//TODO: Do we need to handle empty cell condition?
+						emptyValuesFound = true;
+					}
+					else {
+						dest.set(row, col, UtilFunctions.stringToObject(schema.get(col), part));
 					}
-					
-					//sanity checks for empty values and number of columns
-					IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, fill, emptyValuesFound);
-					IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(path.toString(), cellStr, parts, clen);
-					row++;
+					col++;
 				}
-			}
-			finally {
-				IOUtilFunctions.closeSilently(br);
+				
+				//sanity checks for empty values and number of columns
+				IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, isFill, emptyValuesFound);
+				IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(split.toString(), cellStr, parts, clen);
+				row++;
 			}
 		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
 		
-		return dest;
+		return row;
 	}
 	
 	/**
 	 * 
-	 * @param files
+	 * @param path
+	 * @param job
 	 * @param fs
-	 * @param schema
-	 * @param names
-	 * @param hasHeader
-	 * @param delim
 	 * @return
 	 * @throws IOException
 	 */
-	private FrameBlock computeCSVSize ( List<Path> files, FileSystem fs, List<ValueType> schema, List<String> names, boolean hasHeader, String delim) 
+	protected long computeCSVSize( Path path, JobConf job, FileSystem fs) 
 		throws IOException 
-	{		
+	{	
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, 1);
+		splits = IOUtilFunctions.sortInputSplits(splits);
+		
+		//compute number of rows
+		long nrow = 0;
+		for( int i=0; i<splits.length; i++ )
+			nrow += countLinesInInputSplit(splits[i], informat, job, i==0 && _props.hasHeader());
+		
+		return nrow;
+	}
+	
+	/**
+	 * 
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param header
+	 * @return
+	 * @throws IOException
+	 */
+	protected static int countLinesInInputSplit( InputSplit split, TextInputFormat informat, JobConf job, boolean header ) 
+		throws IOException
+	{
+		RecordReader<LongWritable, Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
+		LongWritable key = new LongWritable();
+		Text value = new Text();
 		int nrow = 0;
-		for(int fileNo=0; fileNo<files.size(); fileNo++)
-		{
-			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(files.get(fileNo))));	
-			try
-			{
-				// Read the header line, if there is one.
-				if(fileNo==0)
-				{
-					if ( hasHeader ) 
-						br.readLine(); //ignore header
-				}
-				
-				while ( br.readLine() != null ) {
-					nrow++;
-				}
-			}
-			finally {
-				IOUtilFunctions.closeSilently(br);
-			}
+		
+		try {
+			// count rows from the first non-header row
+			if ( header ) 
+				reader.next(key, value);
+			while ( reader.next(key, value) )
+				nrow++;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
 		}
 		
-		//create new frame block
-		FrameBlock frameBlock = new FrameBlock(schema, names);
-		frameBlock.ensureAllocatedColumns(nrow);
-		return frameBlock;
+		return nrow;
 	}
-
 }
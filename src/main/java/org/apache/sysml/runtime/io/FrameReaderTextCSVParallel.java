@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+
+/**
+ * Multi-threaded frame text csv reader. Similar to the parallel matrix csv
+ * reader, we first count the rows per split in order to determine the row
+ * offsets, and subsequently read the splits in parallel, where each task
+ * writes into a disjoint row range of the preallocated output frame block.
+ * 
+ */
+public class FrameReaderTextCSVParallel extends FrameReaderTextCSV
+{
+	public FrameReaderTextCSVParallel(CSVFileFormatProperties props) {
+		super(props);
+	}
+
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param dest
+	 * @param schema
+	 * @param names
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	@Override
+	protected void readCSVFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, 
+			List<ValueType> schema, List<String> names, long rlen, long clen) 
+		throws IOException
+	{
+		int numThreads = OptimizerUtils.getParallelTextReadParallelism();
+		
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, numThreads); 
+		splits = IOUtilFunctions.sortInputSplits(splits);
+
+		try 
+		{
+			ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+			
+			//compute num rows per split
+			ArrayList<CountRowsTask> tasks = new ArrayList<CountRowsTask>();
+			for( int i=0; i<splits.length; i++ )
+				tasks.add(new CountRowsTask(splits[i], informat, job, _props.hasHeader() && i==0));
+			List<Future<Long>> cret = pool.invokeAll(tasks);
+
+			//compute row offset per split via cumsum on row counts
+			long offset = 0;
+			List<Long> offsets = new ArrayList<Long>();
+			for( Future<Long> count : cret ) {
+				offsets.add(offset);
+				offset += count.get();
+			}
+			
+			//read individual splits
+			ArrayList<ReadRowsTask> tasks2 = new ArrayList<ReadRowsTask>();
+			for( int i=0; i<splits.length; i++ )
+				tasks2.add( new ReadRowsTask(splits[i], informat, job, dest, schema, names, 
+					rlen, clen, offsets.get(i).intValue(), i==0));
+			List<Future<Object>> rret = pool.invokeAll(tasks2);
+			pool.shutdown();
+			
+			//error handling
+			for( Future<Object> read : rret )
+				read.get();
+		} 
+		catch (Exception e) {
+			throw new IOException("Failed parallel read of text csv input.", e);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @return
+	 * @throws IOException
+	 */
+	@Override
+	protected long computeCSVSize( Path path, JobConf job, FileSystem fs) 
+		throws IOException 
+	{
+		int numThreads = OptimizerUtils.getParallelTextReadParallelism();
+		
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+		InputSplit[] splits = informat.getSplits(job, numThreads);
+		splits = IOUtilFunctions.sortInputSplits(splits);
+		
+		//compute number of rows
+		long nrow = 0;
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		try {
+			ArrayList<CountRowsTask> tasks = new ArrayList<CountRowsTask>();
+			for( int i=0; i<splits.length; i++ )
+				tasks.add(new CountRowsTask(splits[i], informat, job, _props.hasHeader() && i==0));
+			List<Future<Long>> cret = pool.invokeAll(tasks);
+			for( Future<Long> count : cret ) 
+				nrow += count.get();
+		}
+		catch (Exception e) {
+			throw new IOException("Failed parallel read of text csv input.", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		return nrow;
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CountRowsTask implements Callable<Long> 
+	{
+		private InputSplit _split = null;
+		private TextInputFormat _informat = null;
+		private JobConf _job = null;
+		private boolean _hasHeader = false;
+
+		public CountRowsTask(InputSplit split, TextInputFormat informat, JobConf job, boolean hasHeader) {
+			_split = split;
+			_informat = informat;
+			_job = job;
+			_hasHeader = hasHeader;
+		}
+
+		@Override
+		public Long call() 
+			throws Exception 
+		{
+			return (long) countLinesInInputSplit(_split, _informat, _job, _hasHeader);
+		}
+	}
+
+	/**
+	 * 
+	 */
+	private class ReadRowsTask implements Callable<Object> 
+	{
+		private InputSplit _split = null;
+		private TextInputFormat _informat = null;
+		private JobConf _job = null;
+		private FrameBlock _dest = null;
+		private List<ValueType> _schema = null;
+		private List<String> _names = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private int _offset = -1;
+		private boolean _isFirstSplit = false;
+		
+		public ReadRowsTask(InputSplit split, TextInputFormat informat, JobConf job, FrameBlock dest, 
+			List<ValueType> schema, List<String> names, long rlen, long clen, int offset, boolean first) 
+		{
+			_split = split;
+			_informat = informat;
+			_job = job;
+			_dest = dest;
+			_schema = schema;
+			_names = names;
+			_rlen = rlen;
+			_clen = clen;
+			_offset = offset;
+			_isFirstSplit = first;
+		}
+
+		@Override
+		public Object call() 
+			throws Exception 
+		{
+			readCSVFrameFromInputSplit(_split, _informat, _job, _dest, _schema, 
+				_names, _rlen, _clen, _offset, _isFirstSplit);
+			return null;
+		}
+	}
+}
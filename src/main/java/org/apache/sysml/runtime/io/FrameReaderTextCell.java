@@ -72,11 +72,12 @@ public class FrameReaderTextCell extends FrameReader
 		//check existence and non-empty file
 		checkValidInputFile(fs, path); 
 	
-		//core read 
-		if( fs.isDirectory(path) )
-			readTextCellFrameFromHDFS(path, job, ret, schema, names, rlen, clen);
-		else
-			readRawTextCellFrameFromHDFS(path, job, fs, ret, schema, names, rlen, clen);
+		//core read (sequential/parallel)
+		readTextCellFrameFromHDFS(path, job, fs, ret, schema, names, rlen, clen);
+		
+		//finally check if dictionary-encoded string columns required
+		//(after read to keep parallel reads into disjoint rows thread-safe)
+		ret.examDictionaryEncoding();
 		
 		return ret;
 	}
@@ -115,6 +116,10 @@ public class FrameReaderTextCell extends FrameReader
 		//core read 
 		readRawTextCellFrameFromInputStream(is, ret, schema, names, rlen, clen);
 		
+		//finally check if dictionary-encoded string columns required
+		//(after read to keep parallel reads into disjoint rows thread-safe)
+		ret.examDictionaryEncoding();
+		
 		return ret;
 	}
 	
@@ -123,52 +128,69 @@ public class FrameReaderTextCell extends FrameReader
 	 * 
 	 * @param path
 	 * @param job
+	 * @param fs
 	 * @param dest
 	 * @param schema
 	 * @param names
 	 * @param rlen
 	 * @param clen
-	 * @return
 	 * @throws IOException
 	 */
-	private void readTextCellFrameFromHDFS( Path path, JobConf job, FrameBlock dest, 
+	protected void readTextCellFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, 
 			List<ValueType> schema, List<String> names, long rlen, long clen)
 		throws IOException
 	{
-		FileInputFormat.addInputPath(job, path);
-		TextInputFormat informat = new TextInputFormat();
-		informat.configure(job);
-		InputSplit[] splits = informat.getSplits(job, 1);
-		
+		if( fs.isDirectory(path) ) {
+			FileInputFormat.addInputPath(job, path);
+			TextInputFormat informat = new TextInputFormat();
+			informat.configure(job);
+			InputSplit[] splits = informat.getSplits(job, 1);
+			for(InputSplit split: splits)
+				readTextCellFrameFromInputSplit(split, informat, job, dest, rlen, clen);
+		}
+		else {
+			readRawTextCellFrameFromHDFS(path, job, fs, dest, schema, names, rlen, clen);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	protected static void readTextCellFrameFromInputSplit( InputSplit split, TextInputFormat informat, JobConf job, 
+			FrameBlock dest, long rlen, long clen)
+		throws IOException
+	{
 		LongWritable key = new LongWritable();
 		Text value = new Text();
+		List<ValueType> schema = dest.getSchema();
 		int row = -1;
 		int col = -1;
 		
 		try
 		{
 			FastStringTokenizer st = new FastStringTokenizer(' ');
+			RecordReader<LongWritable,Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
 			
-			for(InputSplit split: splits)
+			try
 			{
-				RecordReader<LongWritable,Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
-			
-				try
-				{
-					while( reader.next(key, value) )
-					{
-						st.reset( value.toString() ); //reinit tokenizer
-						row = st.nextInt()-1;
-						col = st.nextInt()-1;
-						dest.set(row, col, UtilFunctions.stringToObject(schema.get(col), st.nextToken()));
-					}
-				}
-				finally
+				while( reader.next(key, value) )
 				{
-					if( reader != null )
-						reader.close();
+					st.reset( value.toString() ); //reinit tokenizer
+					row = st.nextInt()-1;
+					col = st.nextInt()-1;
+					dest.set(row, col, UtilFunctions.stringToObject(schema.get(col), st.nextToken()));
 				}
 			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
 		}
 		catch(Exception ex)
 		{
@@ -184,7 +206,6 @@ public class FrameReaderTextCell extends FrameReader
 			}
 		}
 	}
-
 	
 	/**
 	 * 
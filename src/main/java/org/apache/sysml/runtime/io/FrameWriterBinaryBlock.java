@@ -75,31 +75,53 @@ public class FrameWriterBinaryBlock extends FrameWriter
 	 * @throws IOException
 	 * @throws DMLRuntimeException 
 	 */
-	@SuppressWarnings("deprecation")
 	protected void writeBinaryBlockFrameToHDFS( Path path, JobConf job, FrameBlock src, long rlen, long clen )
 		throws IOException, DMLRuntimeException
 	{
 		FileSystem fs = FileSystem.get(job);
 		int brlen = ConfigurationManager.getBlocksize();
 		int bclen = ConfigurationManager.getBlocksize();
-
-		// 1) create sequence file writer 
+		
+		// bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen ) {
+			throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//sequential write to single file
+		writeBinaryBlockFrameToSequenceFile(path, job, fs, src, brlen, bclen, 0, src.getNumRows());
+	}
+	
+	/**
+	 * Writes the given row range of the frame as row blocks into a single 
+	 * sequence file. The row range is expected to be aligned with the 
+	 * row block size (except for the last row block).
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param src
+	 * @param brlen
+	 * @param bclen
+	 * @param rl lower row index, inclusive, 0-based
+	 * @param ru upper row index, exclusive, 0-based
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	@SuppressWarnings("deprecation")
+	protected static void writeBinaryBlockFrameToSequenceFile( Path path, JobConf job, FileSystem fs, FrameBlock src, int brlen, int bclen, int rl, int ru ) 
+		throws IOException, DMLRuntimeException
+	{
+		//1) create sequence file writer 
 		SequenceFile.Writer writer = null;
 		writer = new SequenceFile.Writer(fs, job, path, LongWritable.class, FrameBlock.class);
 		
 		try
 		{
-			// 2) bound check for src block
-			if( src.getNumRows() > rlen || src.getNumColumns() > clen )
-			{
-				throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
-						              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
-			}
-		
-			//3) reblock and write
+			//2) reblock and write
 			LongWritable indexes = new LongWritable();
 
-			if( rlen <= brlen && clen <= bclen ) //opt for single block
+			if( src.getNumRows() <= brlen && src.getNumColumns() <= bclen ) //opt for single block
 			{
 				//directly write single block
 				indexes.set(1);
@@ -108,31 +130,27 @@ public class FrameWriterBinaryBlock extends FrameWriter
 			else //general case
 			{
 				//initialize blocks for reuse (at most 4 different blocks required)
-				FrameBlock[] blocks = createFrameBlocksForReuse(src.getSchema(), src.getColumnNames(), rlen);  
+				FrameBlock[] blocks = createFrameBlocksForReuse(src.getSchema(), src.getColumnNames(), src.getNumRows());  
 				
 				//create and write subblocks of frame
-				for(int blockRow = 0; blockRow < (int)Math.ceil(src.getNumRows()/(double)brlen); blockRow++)
+				for(int bi = rl; bi < ru; bi += brlen) 
 				{
-					int maxRow = (blockRow*brlen + brlen < src.getNumRows()) ? brlen : src.getNumRows() - blockRow*brlen;
-			
-					int row_offset = blockRow*brlen;
+					int maxRow = Math.min(brlen, ru - bi);
 					
 					//get reuse frame block
 					FrameBlock block = getFrameBlockForReuse(blocks);
 
 					//copy subpart to block
-					src.sliceOperations( row_offset, row_offset+maxRow-1, 
+					src.sliceOperations( bi, bi+maxRow-1, 
 							             0, src.getNumColumns()-1, block );
 					
 					//append block to sequence file
-					indexes.set(row_offset+1);
+					indexes.set(bi+1);
 					writer.append(indexes, block);
 				}
 			}
-		
 		}
-		finally
-		{
+		finally {
 			IOUtilFunctions.closeSilently(writer);
 		}
 	}
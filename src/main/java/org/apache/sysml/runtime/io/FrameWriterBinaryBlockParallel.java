@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.util.MapReduceTool;
+
+/**
+ * Multi-threaded frame binary block writer.
+ * 
+ */
+public class FrameWriterBinaryBlockParallel extends FrameWriterBinaryBlock
+{
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 * @throws DMLRuntimeException 
+	 */
+	@Override
+	protected void writeBinaryBlockFrameToHDFS( Path path, JobConf job, FrameBlock src, long rlen, long clen )
+		throws IOException, DMLRuntimeException
+	{
+		int brlen = ConfigurationManager.getBlocksize();
+		int bclen = ConfigurationManager.getBlocksize();
+		
+		//estimate output size and number of output blocks (min 1)
+		int numPartFiles = (int)(OptimizerUtils.estimatePartitionedSizeExactSparsity(src.getNumRows(), 
+				src.getNumColumns(), brlen, bclen, 1.0) / InfrastructureAnalyzer.getHDFSBlockSize());
+		numPartFiles = Math.max(numPartFiles, 1);
+		
+		//determine degree of parallelism
+		int numThreads = OptimizerUtils.getParallelBinaryWriteParallelism();
+		numThreads = Math.min(numThreads, numPartFiles);
+		
+		//fall back to sequential write if dop is 1 (e.g., <128MB) in order to create single file
+		if( numThreads <= 1 || src.getNumRows() <= brlen ) {
+			super.writeBinaryBlockFrameToHDFS(path, job, src, rlen, clen);
+			return;
+		}
+		
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen ) {
+			throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
+		}
+		
+		//create directory for concurrent tasks
+		MapReduceTool.createDirIfNotExistOnHDFS(path.toString(), DMLConfig.DEFAULT_SHARED_DIR_PERMISSION);
+		FileSystem fs = FileSystem.get(job);
+		
+		//create and execute write tasks (row ranges aligned with row blocks)
+		try 
+		{
+			ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+			ArrayList<WriteFileTask> tasks = new ArrayList<WriteFileTask>();
+			int rows = src.getNumRows();
+			int blklen = (int)Math.ceil((double)rows / brlen / numThreads) * brlen;
+			for(int i=0; i<numThreads & i*blklen<rows; i++) {
+				Path newPath = new Path(path, String.format("0-m-%05d",i));
+				tasks.add(new WriteFileTask(newPath, job, fs, src, brlen, bclen, i*blklen, Math.min((i+1)*blklen, rows)));
+			}
+
+			//wait until all tasks have been executed
+			List<Future<Object>> rt = pool.invokeAll(tasks);	
+			pool.shutdown();
+			
+			//check for exceptions 
+			for( Future<Object> task : rt )
+				task.get();
+		} 
+		catch (Exception e) {
+			throw new IOException("Failed parallel write of binary block input.", e);
+		}
+	}
+
+	/**
+	 * 
+	 */
+	private static class WriteFileTask implements Callable<Object> 
+	{
+		private Path _path = null;
+		private JobConf _job = null;
+		private FileSystem _fs = null;
+		private FrameBlock _src = null;
+		private int _brlen = -1;
+		private int _bclen = -1;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		public WriteFileTask(Path path, JobConf job, FileSystem fs, FrameBlock src, int brlen, int bclen, int rl, int ru) {
+			_path = path;
+			_job = job;
+			_fs = fs;
+			_src = src;
+			_brlen = brlen;
+			_bclen = bclen;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			writeBinaryBlockFrameToSequenceFile(_path, _job, _fs, _src, _brlen, _bclen, _rl, _ru);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.runtime.util.UtilFunctions;
+
+/**
+ * Single-threaded frame writer for the columnar binary format. Boolean, double,
+ * and integer columns are stored as numeric column chunks, string columns (and
+ * integer columns with values beyond the exact double range) as string chunks.
+ *
+ */
+public class FrameWriterColumnar extends FrameWriter
+{
+	private static final long MAX_EXACT_LONG = 1L << 53;
+
+	@Override
+	public void writeFrameToHDFS( FrameBlock src, String fname, long rlen, long clen )
+		throws IOException, DMLRuntimeException
+	{
+		//bound check for src block
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen ) {
+			throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+					              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
+		}
+
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = FileSystem.get(job);
+
+		//if the file already exists on HDFS, remove it.
+		MapReduceTool.deleteFileIfExistOnHDFS( fname );
+
+		//core write
+		writeColumnarFrameToHDFS(path, fs, src, ConfigurationManager.getBlocksize());
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @param fs
+	 * @param src
+	 * @param grpRows
+	 * @throws IOException
+	 */
+	protected void writeColumnarFrameToHDFS( Path path, FileSystem fs, FrameBlock src, int grpRows )
+		throws IOException
+	{
+		int rlen = src.getNumRows();
+		int clen = src.getNumColumns();
+		List<ValueType> schema = src.getSchema();
+
+		//determine physical column types
+		byte[] ctypes = new byte[clen];
+		for( int j=0; j<clen; j++ )
+			ctypes[j] = getColumnType(src, j);
+
+		ColumnarFileMetadata meta = new ColumnarFileMetadata(
+				true, rlen, clen, grpRows, schema, src.getColumnNames(), ctypes);
+
+		FSDataOutputStream out = fs.create(path, true);
+		try
+		{
+			ColumnarFileMetadata.writeHeader(out);
+
+			//reuse buffers across chunks
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(bos);
+			double[] col = new double[grpRows];
+			String[] scol = new String[grpRows];
+
+			long nnz = 0;
+			for( int g=0, rl=0; rl<rlen; g++, rl+=grpRows )
+			{
+				int n = Math.min(grpRows, rlen-rl);
+				for( int j=0; j<clen; j++ ) {
+					if( ctypes[j] == ColumnarFileMetadata.COL_STRING ) {
+						for( int i=0; i<n; i++ )
+							scol[i] = UtilFunctions.objectToString(src.get(rl+i, j));
+						WriterColumnar.writeChunk(out, bos, dos, scol, n, meta.getChunkMeta(g, j));
+					}
+					else {
+						ValueType vt = schema.get(j);
+						for( int i=0; i<n; i++ )
+							col[i] = UtilFunctions.objectToDouble(vt, src.get(rl+i, j));
+						WriterColumnar.writeChunk(out, bos, dos, col, n, meta.getChunkMeta(g, j));
+					}
+					nnz += meta.getChunkMeta(g, j).nnz;
+				}
+			}
+
+			meta.setNonZeros(nnz);
+			meta.writeFooter(out);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(out);
+		}
+	}
+
+	/**
+	 *
+	 * @param src
+	 * @param j
+	 * @return
+	 */
+	private static byte getColumnType( FrameBlock src, int j )
+	{
+		switch( src.getSchema().get(j) ) {
+			case STRING:
+				return ColumnarFileMetadata.COL_STRING;
+			case INT:
+				//fallback to strings if not exactly representable as double
+				for( int i=0; i<src.getNumRows(); i++ ) {
+					long val = (Long)src.get(i, j);
+					if( val > MAX_EXACT_LONG || val < -MAX_EXACT_LONG )
+						return ColumnarFileMetadata.COL_STRING;
+				}
+				return ColumnarFileMetadata.COL_NUMERIC;
+			default:
+				return ColumnarFileMetadata.COL_NUMERIC;
+		}
+	}
+}
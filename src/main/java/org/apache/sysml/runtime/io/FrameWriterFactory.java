@@ -19,6 +19,8 @@
 
 package org.apache.sysml.runtime.io;
 
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
@@ -57,15 +59,27 @@ public class FrameWriterFactory
 		FrameWriter writer = null;
 		
 		if( oinfo == OutputInfo.TextCellOutputInfo ) {
-			writer = new FrameWriterTextCell();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_TEXTFORMATS) )
+				writer = new FrameWriterTextCellParallel();
+			else
+				writer = new FrameWriterTextCell();
 		}
 		else if( oinfo == OutputInfo.CSVOutputInfo ) {
 			if( props!=null && !(props instanceof CSVFileFormatProperties) )
 				throw new DMLRuntimeException("Wrong type of file format properties for CSV writer.");
-			writer = new FrameWriterTextCSV((CSVFileFormatProperties)props);
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_TEXTFORMATS) )
+				writer = new FrameWriterTextCSVParallel((CSVFileFormatProperties)props);
+			else
+				writer = new FrameWriterTextCSV((CSVFileFormatProperties)props);
 		}
 		else if( oinfo == OutputInfo.BinaryBlockOutputInfo ) {
-			writer = new FrameWriterBinaryBlock();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS) )
+				writer = new FrameWriterBinaryBlockParallel();
+			else
+				writer = new FrameWriterBinaryBlock();
+		}
+		else if( oinfo == OutputInfo.ColumnarOutputInfo ) {
+			writer = new FrameWriterColumnar();
 		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame writer for unknown output info: "
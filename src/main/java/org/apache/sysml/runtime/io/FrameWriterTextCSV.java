@@ -92,7 +92,29 @@ public class FrameWriterTextCSV extends FrameWriter
 		throws IOException
 	{
 		FileSystem fs = FileSystem.get(job);
-        BufferedWriter br=new BufferedWriter(new OutputStreamWriter(fs.create(path,true)));		
+		
+		//sequential write to single file
+		writeCSVFrameToFile(path, job, fs, src, 0, (int)rlen, props);
+	}
+	
+	/**
+	 * Writes the given row range of the frame into a single csv file, where 
+	 * the header (if required) is only written for the first row range.
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param src
+	 * @param rl lower row index, inclusive, 0-based
+	 * @param ru upper row index, exclusive, 0-based
+	 * @param props
+	 * @throws IOException
+	 */
+	protected static void writeCSVFrameToFile( Path path, JobConf job, FileSystem fs, FrameBlock src, int rl, int ru, CSVFileFormatProperties props )
+		throws IOException
+	{
+		BufferedWriter br=new BufferedWriter(new OutputStreamWriter(fs.create(path,true)));		
+		int clen = src.getNumColumns();
 		
 		try
 		{
@@ -103,7 +125,7 @@ public class FrameWriterTextCSV extends FrameWriter
 			String delim = props.getDelim();
 			
 			// Write header line, if needed
-			if( props.hasHeader() ) 
+			if( props.hasHeader() && rl == 0 ) 
 			{
 				//write row chunk-wise to prevent OOM on large number of columns
 				for( int bj=0; bj<clen; bj+=BLOCKSIZE_J ) {
@@ -121,7 +143,7 @@ public class FrameWriterTextCSV extends FrameWriter
 			}
 			
 			// Write data lines
-			Iterator<String[]> iter = src.getStringRowIterator();
+			Iterator<String[]> iter = src.getStringRowIterator(rl, ru);
 			while( iter.hasNext() ) {
 				//write row chunk-wise to prevent OOM on large number of columns
 				String[] row = iter.next();
@@ -75,26 +75,45 @@ public class FrameWriterTextCell extends FrameWriter
 	protected void writeTextCellFrameToHDFS( Path path, JobConf job, FrameBlock src, long rlen, long clen )
 		throws IOException
 	{
-		boolean entriesWritten = false;
 		FileSystem fs = FileSystem.get(job);
-        BufferedWriter br = new BufferedWriter(new OutputStreamWriter(fs.create(path,true)));		
 		
-    	int rows = src.getNumRows();
-		int cols = src.getNumColumns();
-
 		//bound check per block
-		if( rows > rlen || cols > clen ) {
-			throw new IOException("Frame block [1:"+rows+",1:"+cols+"] " +
+		if( src.getNumRows() > rlen || src.getNumColumns() > clen ) {
+			throw new IOException("Frame block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
 					              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
 		}
 		
+		//sequential write to single file
+		writeTextCellFrameToFile(path, job, fs, src, 0, src.getNumRows());
+	}
+	
+	/**
+	 * Writes the given row range of the frame into a single text cell file. If
+	 * the entire frame is written and contains no entries, we write a single
+	 * dummy cell in order to create a non-empty file.
+	 * 
+	 * @param path
+	 * @param job
+	 * @param fs
+	 * @param src
+	 * @param rl lower row index, inclusive, 0-based
+	 * @param ru upper row index, exclusive, 0-based
+	 * @throws IOException
+	 */
+	protected static void writeTextCellFrameToFile( Path path, JobConf job, FileSystem fs, FrameBlock src, int rl, int ru )
+		throws IOException
+	{
+		boolean entriesWritten = false;
+        BufferedWriter br = new BufferedWriter(new OutputStreamWriter(fs.create(path,true)));		
+		int cols = src.getNumColumns();
+		
 		try
 		{
 			//for obj reuse and preventing repeated buffer re-allocations
 			StringBuilder sb = new StringBuilder();
 			
-			Iterator<String[]> iter = src.getStringRowIterator();
-			for( int i=0; iter.hasNext(); i++ ) { //for all rows
+			Iterator<String[]> iter = src.getStringRowIterator(rl, ru);
+			for( int i=rl; iter.hasNext(); i++ ) { //for all rows
 				String rowIndex = Integer.toString(i+1);
 				String[] row = iter.next();
 				for( int j=0; j<cols; j++ ) {
@@ -113,7 +132,7 @@ public class FrameWriterTextCell extends FrameWriter
 			}
 	
 			//handle empty result
-			if ( !entriesWritten ) {
+			if ( !entriesWritten && rl == 0 && ru == src.getNumRows() ) {
 				br.write("1 1 0\n");
 			}
 		}
@@ -24,10 +24,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -102,8 +106,20 @@ public class IOUtilFunctions
 	public static void checkAndRaiseErrorCSVNumColumns(String fname, String line, String[] parts, long ncol) 
 		throws IOException
 	{
-		int realncol = parts.length;
-		
+		checkAndRaiseErrorCSVNumColumns(fname, line, parts.length, ncol);
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @param line
+	 * @param realncol
+	 * @param ncol
+	 * @throws IOException
+	 */
+	public static void checkAndRaiseErrorCSVNumColumns(String fname, String line, int realncol, long ncol) 
+		throws IOException
+	{
 		if( realncol != ncol ) {
 			throw new IOException("Invalid number of columns (" + realncol + ", expected=" + ncol + ") "
 					+ "found in delimited file (" + fname + ") for line: " + line);
@@ -128,6 +144,31 @@ public class IOUtilFunctions
 		return StringUtils.splitByWholeSeparatorPreserveAllTokens(str, delim);
 	}
 	
+	/**
+	 * Sorts the given input splits lexicographically by path and start 
+	 * offset, which ensures that the header of a delimited file (if any) 
+	 * is contained in the first split and that the splits are in row order. 
+	 * 
+	 * @param splits
+	 * @return
+	 */
+	public static InputSplit[] sortInputSplits(InputSplit[] splits) 
+	{
+		if (splits[0] instanceof FileSplit) {
+			// The splits do not always arrive in order by file name.
+			Arrays.sort(splits, new Comparator<InputSplit>() {
+				@Override
+				public int compare(InputSplit o1, InputSplit o2) {
+					FileSplit fs1 = (FileSplit) o1;
+					FileSplit fs2 = (FileSplit) o2;
+					int cmp = fs1.getPath().toString().compareTo(fs2.getPath().toString());
+					return (cmp != 0) ? cmp : Long.compare(fs1.getStart(), fs2.getStart());
+				}
+			});
+		}
+		return splits;
+	}
+	
 	/**
 	 * 
 	 * @param input
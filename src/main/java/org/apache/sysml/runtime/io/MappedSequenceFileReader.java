@@ -0,0 +1,465 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock.BlockType;
+import org.apache.sysml.runtime.matrix.data.MatrixBlockDataInput;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Reader for uncompressed binary block sequence files on the local file system,
+ * which memory-maps the file (in windows of up to 1GB) and parses the sequence
+ * file records directly from the mapped buffer. Compared to SequenceFile.Reader,
+ * this avoids the copies into intermediate record and stream buffers, and allows
+ * to deserialize dense blocks via bulk copies either into a matrix block or directly
+ * into the dense block of the overall output matrix.
+ *
+ * Note: only version 6 sequence files without compression and with key/value
+ * classes MatrixIndexes/MatrixBlock are supported (see isMappable).
+ *
+ */
+public class MappedSequenceFileReader implements DataInput, MatrixBlockDataInput
+{
+	//sequence file format constants (see SequenceFile, version 6)
+	private static final byte[] SEQ_MAGIC = new byte[]{(byte)'S', (byte)'E', (byte)'Q'};
+	private static final byte SEQ_VERSION = 6;
+	private static final int SYNC_ESCAPE = -1;
+	private static final int SYNC_HASH_SIZE = 16;
+
+	//max size of mapped windows
+	private static final long WINDOW_SIZE = 1L << 30;
+
+	private RandomAccessFile _file = null;
+	private FileChannel _channel = null;
+	private long _fsize = -1;
+
+	//current mapped window and its file offset
+	private ByteBuffer _buff = null;
+	private long _boff = 0;
+
+	//position of the current record value
+	private long _vpos = -1;
+	private int _vlen = -1;
+
+	public MappedSequenceFileReader(FileSystem fs, Path path)
+		throws IOException
+	{
+		File f = ((LocalFileSystem)fs).pathToFile(path);
+		_file = new RandomAccessFile(f, "r");
+		_channel = _file.getChannel();
+		_fsize = _channel.size();
+
+		//map first window and skip sequence file header
+		map(0, Math.min(WINDOW_SIZE, _fsize));
+		if( !readHeader(this) ) {
+			close();
+			throw new IOException("Unsupported sequence file for memory-mapped read: "+path);
+		}
+	}
+
+	/**
+	 * Indicates if the given file can be read via memory-mapping, i.e., it
+	 * resides on the local file system and is an uncompressed version 6
+	 * sequence file of MatrixIndexes/MatrixBlock pairs.
+	 *
+	 * @param fs
+	 * @param path
+	 * @return
+	 */
+	public static boolean isMappable(FileSystem fs, Path path)
+	{
+		if( !(fs instanceof LocalFileSystem) )
+			return false;
+
+		FSDataInputStream in = null;
+		try {
+			in = fs.open(path);
+			return readHeader(in);
+		}
+		catch(IOException ex) {
+			return false;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+
+	/**
+	 * Reads the next key and positions the reader at the value of this record.
+	 * The value needs to be consumed via readValue or readDenseValue before
+	 * the next call, otherwise it is skipped.
+	 *
+	 * @param key
+	 * @return false if end of file reached
+	 * @throws IOException
+	 */
+	public boolean next(MatrixIndexes key)
+		throws IOException
+	{
+		//skip unconsumed value
+		if( _vpos >= 0 )
+			seek(_vpos + _vlen);
+
+		while( getPos() < _fsize ) {
+			ensure(4);
+			int rlen = _buff.getInt();
+
+			//skip sync markers
+			if( rlen == SYNC_ESCAPE ) {
+				ensure(SYNC_HASH_SIZE);
+				_buff.position(_buff.position() + SYNC_HASH_SIZE);
+				continue;
+			}
+
+			//read key and remember value position
+			ensure(4 + rlen);
+			int klen = _buff.getInt();
+			key.readFields(this);
+			_vpos = getPos();
+			_vlen = rlen - klen;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Deserializes the current value into the given matrix block.
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	public void readValue(MatrixBlock value)
+		throws IOException
+	{
+		value.readFields(this);
+		_vpos = -1;
+	}
+
+	/**
+	 * Indicates if the current value is serialized as a dense block.
+	 *
+	 * @return
+	 */
+	public boolean isDenseValue() {
+		return _buff.get(_buff.position() + 8) == BlockType.DENSE_BLOCK.ordinal();
+	}
+
+	/**
+	 * Gets the number of rows of the current value.
+	 *
+	 * @return
+	 */
+	public int getValueNumRows() {
+		return _buff.getInt(_buff.position());
+	}
+
+	/**
+	 * Gets the number of columns of the current value.
+	 *
+	 * @return
+	 */
+	public int getValueNumColumns() {
+		return _buff.getInt(_buff.position() + 4);
+	}
+
+	/**
+	 * Copies the current value, which is required to be serialized as a dense
+	 * block, via bulk copies directly into the given row-major dense array at
+	 * the given row and column offsets, and returns the number of non-zeros.
+	 *
+	 * @param c
+	 * @param clen
+	 * @param rl
+	 * @param cl
+	 * @return
+	 * @throws IOException
+	 */
+	public long readDenseValue(double[] c, int clen, int rl, int cl)
+		throws IOException
+	{
+		int rows = _buff.getInt();
+		int cols = _buff.getInt();
+		if( _buff.get() != BlockType.DENSE_BLOCK.ordinal() )
+			throw new IOException("Non-dense block cannot be read as dense.");
+
+		long nnz = 0;
+		for( int i=0, cix=rl*clen+cl; i<rows; i++, cix+=clen ) {
+			_buff.asDoubleBuffer().get(c, cix, cols);
+			_buff.position(_buff.position() + cols*8);
+			for( int j=cix; j<cix+cols; j++ )
+				nnz += (c[j]!=0) ? 1 : 0;
+		}
+		_vpos = -1;
+
+		return nnz;
+	}
+
+	/**
+	 *
+	 */
+	public void close() {
+		//note: the mapped buffer is released on garbage collection
+		_buff = null;
+		IOUtilFunctions.closeSilently(_channel);
+		IOUtilFunctions.closeSilently(_file);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private long getPos() {
+		return _boff + _buff.position();
+	}
+
+	/**
+	 *
+	 * @param pos
+	 * @throws IOException
+	 */
+	private void seek(long pos)
+		throws IOException
+	{
+		if( pos >= _boff && pos <= _boff + _buff.limit() )
+			_buff.position((int)(pos - _boff));
+		else
+			map(pos, Math.min(WINDOW_SIZE, _fsize-pos));
+	}
+
+	/**
+	 * Ensures that the next len bytes are available in the current
+	 * window, otherwise remaps a window starting at the current position.
+	 *
+	 * @param len
+	 * @throws IOException
+	 */
+	private void ensure(int len)
+		throws IOException
+	{
+		if( _buff.remaining() >= len )
+			return;
+		long pos = getPos();
+		if( pos + len > _fsize )
+			throw new IOException("Unexpected end of sequence file at position "+pos+".");
+		map(pos, Math.min(Math.max(WINDOW_SIZE, len), _fsize-pos));
+	}
+
+	/**
+	 *
+	 * @param pos
+	 * @param len
+	 * @throws IOException
+	 */
+	private void map(long pos, long len)
+		throws IOException
+	{
+		if( len > Integer.MAX_VALUE )
+			throw new IOException("Sequence file record of size "+len+" exceeds the maximum mappable size.");
+		_buff = _channel.map(MapMode.READ_ONLY, pos, len);
+		_boff = pos;
+	}
+
+	/**
+	 * Reads the sequence file header and returns true if the file
+	 * is supported by this reader.
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean readHeader(DataInput in)
+		throws IOException
+	{
+		byte[] magic = new byte[SEQ_MAGIC.length];
+		in.readFully(magic);
+		for( int i=0; i<magic.length; i++ )
+			if( magic[i] != SEQ_MAGIC[i] )
+				return false;
+		if( in.readByte() != SEQ_VERSION )
+			return false;
+
+		//check key/value classes and compression
+		if( !MatrixIndexes.class.getName().equals(Text.readString(in))
+			|| !MatrixBlock.class.getName().equals(Text.readString(in)) )
+			return false;
+		if( in.readBoolean() | in.readBoolean() ) //compressed, block-compressed
+			return false;
+
+		//skip meta data and sync hash
+		int nmeta = in.readInt();
+		for( int i=0; i<2*nmeta; i++ )
+			Text.readString(in);
+		in.skipBytes(SYNC_HASH_SIZE);
+
+		return true;
+	}
+
+	//////////////////////////////////////////////
+	// Implementation of DataInput
+	//////////////////////////////////////////////
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		ensure(len);
+		_buff.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		ensure(n);
+		_buff.position(_buff.position() + n);
+		return n;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		ensure(1);
+		return _buff.get();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return readByte() & 0xFF;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		ensure(2);
+		return _buff.getShort();
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return readShort() & 0xFFFF;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		ensure(2);
+		return _buff.getChar();
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		ensure(4);
+		return _buff.getInt();
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		ensure(8);
+		return _buff.getLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		ensure(4);
+		return _buff.getFloat();
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		ensure(8);
+		return _buff.getDouble();
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+
+	//////////////////////////////////////////////
+	// Implementation of MatrixBlockDataInput
+	//////////////////////////////////////////////
+
+	@Override
+	public long readDoubleArray(int len, double[] varr)
+		throws IOException
+	{
+		//bulk copy from mapped buffer
+		ensure(len*8);
+		_buff.asDoubleBuffer().get(varr, 0, len);
+		_buff.position(_buff.position() + len*8);
+
+		//nnz maintenance
+		long nnz = 0;
+		for( int i=0; i<len; i++ )
+			nnz += (varr[i]!=0) ? 1 : 0;
+
+		return nnz;
+	}
+
+	@Override
+	public long readSparseRows(int rlen, SparseBlock rows)
+		throws IOException
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+
+		//read all individual sparse rows from input
+		for( int i=0; i<rlen; i++ ) {
+			int lnnz = readInt();
+			if( lnnz > 0 ) { //non-zero row
+				rows.allocate(i, lnnz);
+				ensure(lnnz*12);
+				for( int j=0; j<lnnz; j++ ) {
+					int aix = _buff.getInt();
+					double aval = _buff.getDouble();
+					rows.append(i, aix, aval);
+				}
+				nnz += lnnz;
+			}
+		}
+
+		return nnz;
+	}
+}
@@ -42,13 +42,20 @@ public class MatrixReaderFactory
 	{
 		MatrixReader reader = null;
 		
-		if( iinfo == InputInfo.TextCellInputInfo || iinfo == InputInfo.MatrixMarketInputInfo )
+		if( iinfo == InputInfo.TextCellInputInfo )
 		{
 			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
 				reader = new ReaderTextCellParallel( iinfo );
 			else
 				reader = new ReaderTextCell( iinfo );	
 		}
+		else if( iinfo == InputInfo.MatrixMarketInputInfo )
+		{
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new ReaderMatrixMarketParallel();
+			else
+				reader = new ReaderTextCell( iinfo );
+		}
 		else if( iinfo == InputInfo.CSVInputInfo )
 		{
 			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
@@ -64,6 +71,8 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderBinaryBlock( false );
 		}
+		else if( iinfo == InputInfo.ColumnarInputInfo )
+			reader = new ReaderColumnar();
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -88,12 +97,18 @@ public class MatrixReaderFactory
 		MatrixReader reader = null;
 		InputInfo iinfo = props.inputInfo;
 
-		if( iinfo == InputInfo.TextCellInputInfo || iinfo == InputInfo.MatrixMarketInputInfo ) {
+		if( iinfo == InputInfo.TextCellInputInfo ) {
 			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
 				reader = new ReaderTextCellParallel( iinfo );
 			else
 				reader = new ReaderTextCell( iinfo );
 		}
+		else if( iinfo == InputInfo.MatrixMarketInputInfo ) {
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
+				reader = new ReaderMatrixMarketParallel();
+			else
+				reader = new ReaderTextCell( iinfo );
+		}
 		else if( iinfo == InputInfo.CSVInputInfo ) {
 			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_TEXTFORMATS) )
 				reader = new ReaderTextCSVParallel( props.formatProperties!=null ? (CSVFileFormatProperties)props.formatProperties : new CSVFileFormatProperties());
@@ -108,6 +123,8 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderBinaryBlock( props.localFS );
 		}
+		else if( iinfo == InputInfo.ColumnarInputInfo )
+			reader = new ReaderColumnar();
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -32,11 +32,16 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.matrix.mapred.IndexedMatrixValue;
 import org.apache.sysml.runtime.matrix.mapred.MRJobConfiguration;
 
 public class ReaderBinaryBlock extends MatrixReader
 {
+	//use memory-mapped reads for uncompressed sequence files on the local file system
+	public static boolean MMAP_LOCAL_READ = true;
+	
 	protected boolean _localFS = false;
 	
 	public ReaderBinaryBlock( boolean localFS )
@@ -146,6 +151,12 @@ public class ReaderBinaryBlock extends MatrixReader
 		
 		for( Path lpath : getSequenceFilePaths(fs, path) ) //1..N files 
 		{
+			//memory-mapped read of local sequence files
+			if( MMAP_LOCAL_READ && MappedSequenceFileReader.isMappable(fs, lpath) ) {
+				lnnz += readMappedBinaryBlockMatrixFile(lpath, fs, dest, rlen, clen, brlen, bclen, false);
+				continue;
+			}
+			
 			//directly read from sequence files (individual partfiles)
 			SequenceFile.Reader reader = new SequenceFile.Reader(fs,lpath,job);
 			
@@ -202,6 +213,97 @@ public class ReaderBinaryBlock extends MatrixReader
 		}
 	}
 	
+	/**
+	 * Reads a single local sequence file via memory-mapping and returns the number of
+	 * non-zeros. Dense blocks are copied directly from the mapped file into a dense output, 
+	 * all other blocks are deserialized via bulk reads and appended/copied as usual. If 
+	 * called from multiple threads, appends to a sparse output are synchronized.
+	 * 
+	 * @param path
+	 * @param fs
+	 * @param dest
+	 * @param rlen
+	 * @param clen
+	 * @param brlen
+	 * @param bclen
+	 * @param parallel
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	protected static long readMappedBinaryBlockMatrixFile( Path path, FileSystem fs, MatrixBlock dest, long rlen, long clen, int brlen, int bclen, boolean parallel )
+		throws IOException, DMLRuntimeException
+	{
+		boolean sparse = dest.isInSparseFormat();
+		MatrixIndexes key = new MatrixIndexes(); 
+		MatrixBlock value = new MatrixBlock();
+		long lnnz = 0; //aggregate block nnz
+		
+		//allocate dense output for direct copy (if not yet allocated)
+		if( !sparse && dest.getDenseBlock() == null )
+			dest.allocateDenseBlock();
+		
+		MappedSequenceFileReader reader = new MappedSequenceFileReader(fs, path);
+		
+		try
+		{
+			while( reader.next(key) )
+			{
+				int row_offset = (int)(key.getRowIndex()-1)*brlen;
+				int col_offset = (int)(key.getColumnIndex()-1)*bclen;
+				
+				int rows = reader.getValueNumRows();
+				int cols = reader.getValueNumColumns();
+				
+				//bound check per block
+				if( row_offset + rows < 0 || row_offset + rows > rlen || col_offset + cols<0 || col_offset + cols > clen )
+				{
+					throw new IOException("Matrix block ["+(row_offset+1)+":"+(row_offset+rows)+","+(col_offset+1)+":"+(col_offset+cols)+"] " +
+							              "out of overall matrix range [1:"+rlen+",1:"+clen+"].");
+				}
+				
+				//copy dense block directly from mapped file to result
+				if( !sparse && reader.isDenseValue() ) {
+					lnnz += reader.readDenseValue(dest.getDenseBlock(), (int)clen, row_offset, col_offset);
+					continue;
+				}
+				
+				//deserialize block and copy to result
+				reader.readValue(value);
+				if( value.isEmptyBlock(false) )
+					continue;
+				if( sparse ) {
+					//note: append requires final sort
+					if( parallel && cols < clen ) {
+						//fine-grained locking of block rows (see ReaderBinaryBlockParallel)
+						SparseBlock sblock = dest.getSparseBlock();
+						Object lock = (sblock instanceof SparseBlockMCSR && sblock.get(row_offset) != null) ?
+								sblock.get(row_offset) : dest;
+						synchronized( lock ) {
+							dest.appendToSparse(value, row_offset, col_offset);
+						}
+					}
+					else {
+						dest.appendToSparse(value, row_offset, col_offset);
+					}
+				}
+				else {
+					dest.copy( row_offset, row_offset+rows-1, 
+							   col_offset, col_offset+cols-1, value, false );
+				}
+				
+				//maintain nnz as aggregate of block nnz
+				lnnz += value.getNonZeros();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		
+		return lnnz;
+	}
+	
 	/**
 	 * 
 	 * @param path
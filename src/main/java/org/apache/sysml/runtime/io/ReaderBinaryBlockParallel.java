@@ -161,6 +161,10 @@ public class ReaderBinaryBlockParallel extends ReaderBinaryBlock
 		@SuppressWarnings({ "deprecation", "resource" })
 		public Object call() throws Exception 
 		{
+			//memory-mapped read of local sequence files
+			if( MMAP_LOCAL_READ && MappedSequenceFileReader.isMappable(_fs, _path) )
+				return readMappedBinaryBlockMatrixFile(_path, _fs, _dest, _rlen, _clen, _brlen, _bclen, true);
+			
 			boolean sparse = _dest.isInSparseFormat();
 			MatrixIndexes key = new MatrixIndexes(); 
 			MatrixBlock value = new MatrixBlock();
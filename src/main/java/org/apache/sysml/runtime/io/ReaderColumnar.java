@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.ColumnarFileMetadata.ChunkMeta;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.IndexRange;
+
+/**
+ * Single-threaded reader for the columnar binary format. Besides full reads, this
+ * reader supports index range reads, which only access the column chunks of the
+ * requested rows and columns via positional reads and skip all-zero chunks based
+ * on the per-chunk statistics in the file footer.
+ *
+ */
+public class ReaderColumnar extends MatrixReader
+{
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz)
+		throws IOException, DMLRuntimeException
+	{
+		return readMatrixFromHDFS(fname, null);
+	}
+
+	/**
+	 * Reads the given index range (0-based, inclusive) of a columnar matrix file,
+	 * where a null index range refers to the entire matrix.
+	 *
+	 * @param fname
+	 * @param ix
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock readMatrixFromHDFS(String fname, IndexRange ix)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = FileSystem.get(job);
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+
+		FSDataInputStream in = fs.open(path);
+		try
+		{
+			ColumnarFileMetadata meta = ColumnarFileMetadata.readFooter(fs, path, in);
+			if( meta.isFrame() )
+				throw new IOException("Columnar file "+fname+" contains a frame instead of a matrix.");
+
+			//determine row and column range
+			int rl = (ix!=null) ? (int)ix.rowStart : 0;
+			int ru = (ix!=null) ? (int)ix.rowEnd : (int)meta.getNumRows()-1;
+			int cl = (ix!=null) ? (int)ix.colStart : 0;
+			int cu = (ix!=null) ? (int)ix.colEnd : meta.getNumColumns()-1;
+			if( rl < 0 || ru >= meta.getNumRows() || rl > ru || cl < 0 || cu >= meta.getNumColumns() || cl > cu )
+				throw new IOException("Invalid index range ["+rl+":"+ru+","+cl+":"+cu+"] for columnar file "
+						+ fname+" of size "+meta.getNumRows()+"x"+meta.getNumColumns()+".");
+
+			//core read
+			return readColumnarMatrix(in, meta, rl, ru, cl, cu);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+
+	/**
+	 *
+	 * @param in
+	 * @param meta
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock readColumnarMatrix( FSDataInputStream in, ColumnarFileMetadata meta, int rl, int ru, int cl, int cu )
+		throws IOException, DMLRuntimeException
+	{
+		int grpRows = meta.getRowGroupSize();
+		int rlen = ru-rl+1;
+		int clen = cu-cl+1;
+
+		//allocate output based on chunk statistics (upper bound for partial groups)
+		long estnnz = Math.min(meta.estimateNonZeros(rl, ru, cl, cu), (long)rlen*clen);
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, clen, grpRows, estnnz, true, false);
+		boolean sparse = ret.isInSparseFormat();
+		double[] c = ret.getDenseBlock();
+
+		//read chunks of all row groups in range
+		byte[] buf = new byte[0];
+		double[] col = new double[grpRows];
+		double[][] cols = sparse ? new double[clen][] : null;
+		long lnnz = 0;
+		for( int g=rl/grpRows; g<=ru/grpRows; g++ )
+		{
+			int grl = g*grpRows;
+			int n = meta.getNumRowGroupRows(g);
+			int rs = Math.max(rl, grl) - grl;
+			int re = Math.min(ru, grl+n-1) - grl;
+
+			for( int j=cl; j<=cu; j++ )
+			{
+				ChunkMeta cmeta = meta.getChunkMeta(g, j);
+				if( cmeta.nnz == 0 ) { //skip empty chunks
+					if( sparse ) cols[j-cl] = null;
+					continue;
+				}
+				double[] tmp = sparse ? (cols[j-cl] = allocColumn(cols[j-cl], grpRows)) : col;
+				if( cmeta.isConstant() ) //skip constant chunks
+					Arrays.fill(tmp, 0, n, cmeta.min);
+				else {
+					buf = readChunk(in, cmeta, buf);
+					ColumnarChunkCodec.decode(buf, cmeta, tmp, n);
+				}
+				if( !sparse ) {
+					for( int i=rs, cix=(grl+rs-rl)*clen+j-cl; i<=re; i++, cix+=clen ) {
+						c[cix] = tmp[i];
+						lnnz += (tmp[i]!=0) ? 1 : 0;
+					}
+				}
+			}
+
+			//append row-wise to sparse output (ascending column indexes)
+			if( sparse ) {
+				for( int i=rs; i<=re; i++ )
+					for( int j=0; j<clen; j++ )
+						if( cols[j] != null && cols[j][i] != 0 )
+							ret.appendValue(grl+i-rl, j, cols[j][i]);
+			}
+		}
+
+		//finalize matrix block (nnz maintained by sparse append)
+		if( !sparse )
+			ret.setNonZeros(lnnz);
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	/**
+	 * Reads the given column chunk via a positional read into the provided
+	 * buffer, which is reallocated if too small.
+	 *
+	 * @param in
+	 * @param cmeta
+	 * @param buf
+	 * @return
+	 * @throws IOException
+	 */
+	protected static byte[] readChunk( FSDataInputStream in, ChunkMeta cmeta, byte[] buf )
+		throws IOException
+	{
+		if( buf.length < cmeta.length )
+			buf = new byte[Math.max(cmeta.length, 2*buf.length)];
+		in.readFully(cmeta.offset, buf, 0, cmeta.length);
+		return buf;
+	}
+
+	/**
+	 *
+	 * @param col
+	 * @param len
+	 * @return
+	 */
+	private static double[] allocColumn( double[] col, int len ) {
+		return (col != null) ? col : new double[len];
+	}
+}
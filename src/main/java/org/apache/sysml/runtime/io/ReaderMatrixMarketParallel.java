@@ -0,0 +1,526 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.util.FastStringTokenizer;
+
+/**
+ * Dedicated parallel reader for MatrixMarket files in coordinate format. In contrast
+ * to the generic text cell readers, this reader (1) parses the header in order to
+ * determine the exact byte offset of the first data line, which allows arbitrary
+ * splits, (2) supports the fields real, integer, and pattern as well as symmetric
+ * and skew-symmetric matrices, which are expanded during read, and (3) directly
+ * constructs a sparse block in CSR: read tasks per split collect their cells in
+ * local buffers and count the non-zeros per row, which allows a parallel scatter
+ * into the final CSR arrays and a parallel sort of column indexes per row without
+ * any intermediate MCSR appends.
+ *
+ */
+public class ReaderMatrixMarketParallel extends MatrixReader
+{
+	private int _numThreads = 1;
+
+	public ReaderMatrixMarketParallel() {
+		this(OptimizerUtils.getParallelTextReadParallelism());
+	}
+
+	public ReaderMatrixMarketParallel(int numThreads) {
+		_numThreads = Math.max(numThreads, 1);
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz)
+		throws IOException, DMLRuntimeException
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		FileSystem fs = FileSystem.get(job);
+		Path path = new Path( fname );
+
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		if( fs.isDirectory(path) )
+			throw new IOException("MatrixMarket reader expects a single file but got directory "+fname+".");
+
+		//read and validate header
+		MatrixMarketHeader header = MatrixMarketHeader.readHeader(fs, path);
+		if( (rlen > 0 && rlen != header.getNumRows()) || (clen > 0 && clen != header.getNumColumns()) ) {
+			throw new IOException("Unexpected matrix dimensions while reading file in MatrixMarket format. Expecting dimensions ["
+				+ rlen + " rows, " + clen + " cols] but encountered [" + header.getNumRows() + " rows, " + header.getNumColumns() + " cols].");
+		}
+		rlen = header.getNumRows();
+		clen = header.getNumColumns();
+
+		//allocate output matrix block (sparse blocks are created during read)
+		long lestnnz = Math.max(estnnz, header.getEstimatedNonZeros());
+		MatrixBlock ret = createOutputMatrixBlock(rlen, clen, (int)rlen, (int)clen, lestnnz, true, false);
+
+		//core read
+		ret = readMatrixMarketFromHDFS(path, job, ret, header);
+
+		//finally check if change of sparse/dense block representation required
+		if( !ret.isInSparseFormat() )
+			ret.recomputeNonZeros();
+		ret.examSparsity();
+
+		return ret;
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @param job
+	 * @param dest
+	 * @param header
+	 * @return
+	 * @throws IOException
+	 */
+	private MatrixBlock readMatrixMarketFromHDFS( Path path, JobConf job, MatrixBlock dest, MatrixMarketHeader header )
+		throws IOException
+	{
+		int rlen = (int) header.getNumRows();
+		int clen = (int) header.getNumColumns();
+		boolean sparse = dest.isInSparseFormat();
+
+		FileInputFormat.addInputPath(job, path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+
+		try
+		{
+			//create read tasks for all splits
+			ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+			InputSplit[] splits = informat.getSplits(job, _numThreads);
+			AtomicIntegerArray rnnz = sparse ? new AtomicIntegerArray(rlen) : null;
+			ArrayList<ReadTask> tasks = new ArrayList<ReadTask>();
+			for( InputSplit split : splits )
+				tasks.add(new ReadTask(split, informat, job, dest, header, rnnz));
+
+			//wait until all tasks have been executed
+			List<Future<Long>> rt = pool.invokeAll(tasks);
+
+			//check for exceptions and aggregate nnz
+			long lnnz = 0;
+			for( Future<Long> task : rt )
+				lnnz += task.get();
+
+			//construct csr sparse block from buffered cells
+			if( sparse ) {
+				if( lnnz > Integer.MAX_VALUE )
+					throw new IOException("MatrixMarket file with "+lnnz+" non-zeros exceeds the CSR capacity.");
+
+				//compute row pointers and reuse row counts as scatter positions
+				int[] ptr = new int[rlen+1];
+				for( int i=0; i<rlen; i++ ) {
+					ptr[i+1] = ptr[i] + rnnz.get(i);
+					rnnz.set(i, ptr[i]);
+				}
+
+				//parallel scatter of buffered cells
+				int[] indexes = new int[(int)lnnz];
+				double[] values = new double[(int)lnnz];
+				ArrayList<ScatterTask> tasks2 = new ArrayList<ScatterTask>();
+				for( ReadTask task : tasks )
+					tasks2.add(new ScatterTask(task.getBuffer(), rnnz, indexes, values));
+				for( Future<Object> task : pool.invokeAll(tasks2) )
+					task.get();
+
+				//parallel sort of column indexes per row
+				dest = new MatrixBlock(rlen, clen, lnnz,
+					new SparseBlockCSR(ptr, indexes, values, (int)lnnz));
+				sortSparseRowsParallel(dest, rlen, _numThreads, pool);
+			}
+
+			pool.shutdown();
+		}
+		catch (Exception e) {
+			throw new IOException("Threadpool issue, while parallel read.", e);
+		}
+
+		return dest;
+	}
+
+	/**
+	 * Checks that the given MatrixMarket file can be read by the distributed
+	 * text cell reblocks, which neither expand symmetric matrices nor support
+	 * pattern entries without values.
+	 *
+	 * @param fname
+	 * @throws DMLRuntimeException
+	 */
+	public static void checkValidDistributedRead( String fname )
+		throws DMLRuntimeException
+	{
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = FileSystem.get(ConfigurationManager.getCachedJobConf());
+			if( fs.isDirectory(path) )
+				return;
+			MatrixMarketHeader header = MatrixMarketHeader.readHeader(fs, path);
+			if( !header.isGeneral() || header.isPattern() )
+				throw new DMLRuntimeException("MatrixMarket file "+fname+" with header '"+header.getBanner()
+					+ "' is only supported for in-memory reads (distributed reads require real general entries).");
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class ReadTask implements Callable<Long>
+	{
+		private InputSplit _split = null;
+		private TextInputFormat _informat = null;
+		private JobConf _job = null;
+		private MatrixBlock _dest = null;
+		private MatrixMarketHeader _header = null;
+		private AtomicIntegerArray _rnnz = null;
+		private CellBuffer _buff = null;
+
+		public ReadTask( InputSplit split, TextInputFormat informat, JobConf job, MatrixBlock dest, MatrixMarketHeader header, AtomicIntegerArray rnnz )
+		{
+			_split = split;
+			_informat = informat;
+			_job = job;
+			_dest = dest;
+			_header = header;
+			_rnnz = rnnz;
+		}
+
+		public CellBuffer getBuffer() {
+			return _buff;
+		}
+
+		@Override
+		public Long call() throws Exception
+		{
+			long lnnz = 0; //aggregate nnz
+			long rlen = _header.getNumRows();
+			long clen = _header.getNumColumns();
+			long offset = _header.getDataOffset();
+			boolean pattern = _header.isPattern();
+			boolean symmetric = !_header.isGeneral();
+			double sign = _header.isSkewSymmetric() ? -1 : 1;
+			boolean sparse = (_rnnz != null);
+			if( sparse )
+				_buff = new CellBuffer();
+
+			//writables for reuse during read
+			LongWritable key = new LongWritable();
+			Text value = new Text();
+
+			//required for error handling
+			int row = -1;
+			int col = -1;
+
+			FastStringTokenizer st = new FastStringTokenizer(' ');
+			RecordReader<LongWritable,Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
+
+			try
+			{
+				while( reader.next(key, value) ) {
+					//skip header, comments, and empty lines
+					if( key.get() < offset || value.getLength()==0 || value.charAt(0)=='%' )
+						continue;
+
+					st.reset( value.toString() ); //reinit tokenizer
+					row = st.nextInt()-1;
+					col = st.nextInt()-1;
+					double lvalue = pattern ? 1 : st.nextDoubleForParallel();
+					if( lvalue == 0 )
+						continue;
+
+					//append cell and mirrored cell for symmetric matrices
+					lnnz += appendCell(row, col, lvalue, sparse);
+					if( symmetric && row != col )
+						lnnz += appendCell(col, row, sign * lvalue, sparse);
+				}
+			}
+			catch(Exception ex)	{
+				//post-mortem error handling and bounds checking
+				if( row < 0 || row + 1 > rlen || col < 0 || col + 1 > clen )
+					throw new RuntimeException("Matrix cell ["+(row+1)+","+(col+1)+"] " +
+							  "out of overall matrix range [1:"+rlen+",1:"+clen+"]. ", ex);
+				else
+					throw new RuntimeException("Unable to read matrix in MatrixMarket format. ", ex);
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+
+			return lnnz;
+		}
+
+		private int appendCell( int row, int col, double lvalue, boolean sparse ) {
+			if( sparse ) { //SPARSE<-value
+				_buff.addCell(row, col, lvalue);
+				_rnnz.incrementAndGet(row);
+			}
+			else //DENSE<-value
+				_dest.setValueDenseUnsafe(row, col, lvalue);
+			return 1;
+		}
+	}
+
+	/**
+	 *
+	 *
+	 */
+	private static class ScatterTask implements Callable<Object>
+	{
+		private CellBuffer _buff = null;
+		private AtomicIntegerArray _pos = null;
+		private int[] _indexes = null;
+		private double[] _values = null;
+
+		public ScatterTask( CellBuffer buff, AtomicIntegerArray pos, int[] indexes, double[] values ) {
+			_buff = buff;
+			_pos = pos;
+			_indexes = indexes;
+			_values = values;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			int[] rix = _buff._rix;
+			int[] cix = _buff._cix;
+			double[] vals = _buff._vals;
+			for( int i=0; i<_buff._size; i++ ) {
+				int pos = _pos.getAndIncrement(rix[i]);
+				_indexes[pos] = cix[i];
+				_values[pos] = vals[i];
+			}
+			_buff.clear(); //release memory
+			return null;
+		}
+	}
+
+	/**
+	 * Growing buffer of unordered cells, local to a read task.
+	 *
+	 */
+	private static class CellBuffer
+	{
+		private static final int INIT_CAPACITY = 1024;
+
+		private int[] _rix = new int[INIT_CAPACITY];
+		private int[] _cix = new int[INIT_CAPACITY];
+		private double[] _vals = new double[INIT_CAPACITY];
+		private int _size = 0;
+
+		public void addCell(int row, int col, double val) {
+			if( _size == _rix.length ) {
+				int newCap = (int)Math.min(2L*_size, Integer.MAX_VALUE);
+				_rix = Arrays.copyOf(_rix, newCap);
+				_cix = Arrays.copyOf(_cix, newCap);
+				_vals = Arrays.copyOf(_vals, newCap);
+			}
+			_rix[_size] = row;
+			_cix[_size] = col;
+			_vals[_size] = val;
+			_size++;
+		}
+
+		public void clear() {
+			_rix = null;
+			_cix = null;
+			_vals = null;
+			_size = 0;
+		}
+	}
+
+	/**
+	 * Parsed MatrixMarket header of the form
+	 * '%%MatrixMarket matrix coordinate [real|integer|pattern] [general|symmetric|skew-symmetric]',
+	 * followed by optional comments and the size line 'rows cols entries'.
+	 *
+	 */
+	public static class MatrixMarketHeader
+	{
+		private String _banner = null;
+		private boolean _pattern = false;
+		private String _symmetry = null;
+		private long _rlen = -1;
+		private long _clen = -1;
+		private long _entries = -1;
+		private long _offset = -1; //byte offset of first data line
+
+		private MatrixMarketHeader() {
+			//prevent instantiation via private constructor
+		}
+
+		public String getBanner() {
+			return _banner;
+		}
+
+		public boolean isPattern() {
+			return _pattern;
+		}
+
+		public boolean isGeneral() {
+			return _symmetry.equals("general");
+		}
+
+		public boolean isSkewSymmetric() {
+			return _symmetry.equals("skew-symmetric");
+		}
+
+		public long getNumRows() {
+			return _rlen;
+		}
+
+		public long getNumColumns() {
+			return _clen;
+		}
+
+		public long getNumEntries() {
+			return _entries;
+		}
+
+		public long getEstimatedNonZeros() {
+			return isGeneral() ? _entries : 2 * _entries;
+		}
+
+		public long getDataOffset() {
+			return _offset;
+		}
+
+		/**
+		 * Indicates if the given first line of a MatrixMarket file is a
+		 * header supported by this reader.
+		 *
+		 * @param line
+		 * @return
+		 */
+		public static boolean isSupportedBanner( String line ) {
+			if( line == null )
+				return false;
+			String[] parts = line.trim().toLowerCase().split("\\s+");
+			return parts.length == 5
+				&& parts[0].equals("%%matrixmarket") && parts[1].equals("matrix")
+				&& parts[2].equals("coordinate")
+				&& (parts[3].equals("real") || parts[3].equals("integer") || parts[3].equals("pattern"))
+				&& (parts[4].equals("general") || parts[4].equals("symmetric") || parts[4].equals("skew-symmetric"));
+		}
+
+		/**
+		 *
+		 * @param fs
+		 * @param path
+		 * @return
+		 * @throws IOException
+		 */
+		public static MatrixMarketHeader readHeader( FileSystem fs, Path path )
+			throws IOException
+		{
+			MatrixMarketHeader ret = new MatrixMarketHeader();
+			InputStream in = new BufferedInputStream(fs.open(path));
+			long[] offset = new long[]{0};
+
+			try
+			{
+				//read and validate banner line
+				String line = readLine(in, offset);
+				if( !isSupportedBanner(line) ) {
+					throw new IOException("Unsupported MatrixMarket header \"" + line + "\". Expecting "
+						+ "'%%MatrixMarket matrix coordinate [real|integer|pattern] [general|symmetric|skew-symmetric]'.");
+				}
+				String[] parts = line.trim().toLowerCase().split("\\s+");
+				ret._banner = line.trim();
+				ret._pattern = parts[3].equals("pattern");
+				ret._symmetry = parts[4];
+
+				//skip until end-of-comments
+				while( (line = readLine(in, offset)) != null
+					&& (line.trim().isEmpty() || line.charAt(0) == '%') ) {
+					//do nothing just skip comments
+				}
+
+				//parse size line (rows cols entries)
+				String[] fields = (line != null) ? line.trim().split("\\s+") : new String[0];
+				if( fields.length != 3 )
+					throw new IOException("Unsupported size line in MatrixMarket file: \"" + line + "\".");
+				ret._rlen = Long.parseLong(fields[0]);
+				ret._clen = Long.parseLong(fields[1]);
+				ret._entries = Long.parseLong(fields[2]);
+				ret._offset = offset[0];
+			}
+			finally {
+				IOUtilFunctions.closeSilently(in);
+			}
+
+			return ret;
+		}
+
+		/**
+		 * Reads a single line of the ascii header and increments the
+		 * given byte offset by the number of consumed bytes.
+		 *
+		 * @param in
+		 * @param offset
+		 * @return
+		 * @throws IOException
+		 */
+		private static String readLine( InputStream in, long[] offset )
+			throws IOException
+		{
+			StringBuilder sb = new StringBuilder();
+			int b = -1;
+			while( (b = in.read()) != -1 ) {
+				offset[0]++;
+				if( b == '\n' )
+					break;
+				if( b != '\r' )
+					sb.append((char)b);
+			}
+			return (b == -1 && sb.length() == 0) ? null : sb.toString();
+		}
+	}
+}
@@ -30,14 +30,15 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.LineReader;
 
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.CSVReblockMR;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
-import org.apache.sysml.runtime.util.UtilFunctions;
 
 public class ReaderTextCSV extends MatrixReader
 {
@@ -114,92 +115,33 @@ public class ReaderTextCSV extends MatrixReader
 			clen = dest.getNumColumns();
 		}
 		
-		boolean sparse = dest.isInSparseFormat();
-		
 		/////////////////////////////////////////
-		String value = null;
+		Text value = new Text();
 		int row = 0;
-		int col = -1;
-		double cellValue = 0;
 		long lnnz = 0;
 		
 		for(int fileNo=0; fileNo<files.size(); fileNo++)
 		{
-			BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(files.get(fileNo))));
-			if(fileNo==0 && hasHeader ) 
-				br.readLine(); //ignore header
+			LineReader lr = new LineReader(fs.open(files.get(fileNo)));
+			
+			//byte-level parsing w/o intermediate strings
+			CSVByteParser parser = new CSVByteParser(path.toString(), delim, fill, fillValue, clen);
 			
-			// Read the data
-			boolean emptyValuesFound = false;
 			try
 			{
-				if( sparse ) //SPARSE<-value
-				{
-					while( (value=br.readLine())!=null ) //foreach line
-					{
-						String cellStr = value.toString().trim();
-						emptyValuesFound = false;
-						String[] parts = IOUtilFunctions.split(cellStr, delim);
-						col = 0;
-						
-						for(String part : parts) //foreach cell
-						{
-							part = part.trim();
-							if ( part.isEmpty() ) {
-								emptyValuesFound = true;
-								cellValue = fillValue;
-							}
-							else {
-								cellValue = UtilFunctions.parseToDouble(part);
-							}
-							if ( cellValue != 0 ) {
-								dest.appendValue(row, col, cellValue);
-								lnnz++;
-							}
-							col++;
-						}
-						
-						//sanity checks for empty values and number of columns
-						IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, fill, emptyValuesFound);
-						IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(path.toString(), cellStr, parts, clen);
-						row++;
-					}
-				} 
-				else //DENSE<-value
+				if(fileNo==0 && hasHeader ) 
+					lr.readLine(value); //ignore header
+				
+				// Read the data
+				while( lr.readLine(value) > 0 ) //foreach line
 				{
-					while( (value=br.readLine())!=null ) //foreach line
-					{
-						String cellStr = value.toString().trim();
-						emptyValuesFound = false;
-						String[] parts = IOUtilFunctions.split(cellStr, delim);
-						col = 0;
-						
-						for( String part : parts ) //foreach cell
-						{
-							part = part.trim();
-							if ( part.isEmpty() ) {
-								emptyValuesFound = true;
-								cellValue = fillValue;
-							}
-							else {
-								cellValue = UtilFunctions.parseToDouble(part);
-							}
-							if ( cellValue != 0 ) {
-								dest.setValueDenseUnsafe(row, col, cellValue);
-								lnnz++;
-							}
-							col++;
-						}
-						
-						//sanity checks for empty values and number of columns
-						IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, fill, emptyValuesFound);
-						IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(path.toString(), cellStr, parts, clen);
-						row++;
-					}
+					//parse line into dense or sparse output
+					lnnz += parser.parseLine(value.getBytes(), 0, value.getLength(), dest, row);
+					row++;
 				}
 			}
 			finally {
-				IOUtilFunctions.closeSilently(br);
+				IOUtilFunctions.closeSilently(lr);
 			}
 		}
 		
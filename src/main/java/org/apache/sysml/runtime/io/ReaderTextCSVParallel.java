@@ -21,11 +21,11 @@ package org.apache.sysml.runtime.io;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileSystem;
@@ -33,7 +33,6 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.FileInputFormat;
-import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
@@ -45,6 +44,8 @@ import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 
 /**
  * Parallel version of ReaderTextCSV.java. To summarize, we do two passes in
@@ -56,9 +57,20 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
  * danger of lost updates. Note, there is also no sorting of sparse rows
  * required because data comes in sorted order per row.
  * 
+ * If the output (and a temporary copy) fits into the local memory budget, we
+ * use a single pass instead, where each split is parsed into its own sequence 
+ * of row chunks. Once all splits are read, the row offsets are known and the 
+ * chunks are stitched in parallel into the allocated output matrix block, 
+ * which avoids reading the input file twice.
  */
 public class ReaderTextCSVParallel extends MatrixReader 
 {
+	//flag for single-pass read (exposed for testing purposes only)
+	public static boolean SINGLE_PASS_READ = true;
+	
+	//number of cells per temporary row chunk in single-pass read
+	private static final int CHUNK_SIZE = 64 * 1024;
+	
 	private CSVFileFormatProperties _props = null;
 	private int _numThreads = 1;
 
@@ -84,36 +96,33 @@ public class ReaderTextCSVParallel extends MatrixReader
 		informat.configure(job);
 
 		InputSplit[] splits = informat.getSplits(job, _numThreads);
-
-		if (splits[0] instanceof FileSplit) {
-			// The splits do not always arrive in order by file name.
-			// Sort the splits lexicographically by path so that the header will
-			// be in the first split.
-			// Note that we're assuming that the splits come in order by offset
-			Arrays.sort(splits, new Comparator<InputSplit>() {
-				@Override
-				public int compare(InputSplit o1, InputSplit o2) {
-					Path p1 = ((FileSplit) o1).getPath();
-					Path p2 = ((FileSplit) o2).getPath();
-					return p1.toString().compareTo(p2.toString());
-				}
-			});
-		}
+		splits = IOUtilFunctions.sortInputSplits(splits);
 
 		// check existence and non-empty file
 		checkValidInputFile(fs, path);
 
-		// allocate output matrix block
-		// First Read Pass (count rows/cols, determine offsets, allocate matrix block)
-		MatrixBlock ret = computeCSVSizeAndCreateOutputMatrixBlock(splits,
-				path, job, _props.hasHeader(), _props.getDelim(), estnnz);
-		rlen = ret.getNumRows();
-		clen = ret.getNumColumns();
-
-		// Second Read Pass (read, parse strings, append to matrix block)
-		readCSVMatrixFromHDFS(splits, path, job, ret, rlen, clen, brlen, bclen,
-				_props.hasHeader(), _props.getDelim(), _props.isFill(),
-				_props.getFillValue());
+		MatrixBlock ret = null;
+		if( isSinglePassRead(fs, path, rlen, clen, estnnz) ) 
+		{
+			// Single Read Pass (read, parse into row chunks, allocate matrix block, stitch chunks)
+			ret = readCSVMatrixFromHDFSSinglePass(splits, path, job, rlen, clen, 
+					_props.hasHeader(), _props.getDelim(), _props.isFill(),
+					_props.getFillValue(), estnnz);
+		}
+		else 
+		{
+			// allocate output matrix block
+			// First Read Pass (count rows/cols, determine offsets, allocate matrix block)
+			ret = computeCSVSizeAndCreateOutputMatrixBlock(splits,
+					path, job, _props.hasHeader(), _props.getDelim(), estnnz);
+			rlen = ret.getNumRows();
+			clen = ret.getNumColumns();
+	
+			// Second Read Pass (read, parse strings, append to matrix block)
+			readCSVMatrixFromHDFS(splits, path, job, ret, rlen, clen, brlen, bclen,
+					_props.hasHeader(), _props.getDelim(), _props.isFill(),
+					_props.getFillValue());
+		}
 		
 		//post-processing (representation-specific, change of sparse/dense block representation)
 		// - no sorting required for CSV because it is read in sorted order per row
@@ -185,30 +194,136 @@ public class ReaderTextCSVParallel extends MatrixReader
 
 	/**
 	 * 
+	 * @param fs
+	 * @param path
+	 * @param rlen
+	 * @param clen
+	 * @param estnnz
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean isSinglePassRead(FileSystem fs, Path path, long rlen, long clen, long estnnz) 
+		throws IOException
+	{
+		if( !SINGLE_PASS_READ )
+			return false;
+		
+		//estimate output size, for unknown dimensions we use a conservative
+		//upper bound of the dense size (at least two bytes per cell in text)
+		double estSize = -1;
+		if( rlen > 0 && clen > 0 ) {
+			double sp = (estnnz >= 0) ? OptimizerUtils.getSparsity(rlen, clen, estnnz) : 1.0;
+			estSize = MatrixBlock.estimateSizeInMemory(rlen, clen, sp);
+		}
+		else {
+			long fsize = fs.isDirectory(path) ? 
+				fs.getContentSummary(path).getLength() : fs.getFileStatus(path).getLen();
+			estSize = 4d * fsize;
+		}
+		
+		//single-pass read requires memory for both the temporary chunks and the output
+		return 2 * estSize < OptimizerUtils.getLocalMemBudget();
+	}
+	
+	/**
+	 * 
+	 * @param splits
 	 * @param path
 	 * @param job
+	 * @param rlen
+	 * @param clen
 	 * @param hasHeader
 	 * @param delim
+	 * @param fill
+	 * @param fillValue
+	 * @param estnnz
 	 * @return
 	 * @throws IOException
-	 * @throws DMLRuntimeException 
+	 * @throws DMLRuntimeException
 	 */
-	private MatrixBlock computeCSVSizeAndCreateOutputMatrixBlock(
-			InputSplit[] splits, Path path, JobConf job, boolean hasHeader,
-			String delim, long estnnz) throws IOException, DMLRuntimeException 
+	private MatrixBlock readCSVMatrixFromHDFSSinglePass(InputSplit[] splits, Path path, JobConf job, 
+			long rlen, long clen, boolean hasHeader, String delim, boolean fill, double fillValue, long estnnz) 
+		throws IOException, DMLRuntimeException 
 	{
-		int nrow = 0;
-		int ncol = 0;
-		
 		FileInputFormat.addInputPath(job, path);
 		TextInputFormat informat = new TextInputFormat();
 		informat.configure(job);
-
-		// count no of entities in the first non-header row
+		
+		// determine number of columns from first non-header row 
+		int ncol = computeCSVNumColumns(splits[0], informat, job, delim);
+		
+		// determine temporary chunk representation (consistent w/ output if known,
+		// dense for unknown nnz in order to not overestimate the sparsity)
+		int chunkRows = Math.max(CHUNK_SIZE / Math.max(ncol, 1), 1);
+		boolean sparse = (estnnz >= 0) && MatrixBlock.evalSparseFormatInMemory(
+				(rlen > 0) ? rlen : chunkRows, ncol, estnnz);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		MatrixBlock ret = null;
+		
+		try 
+		{
+			// read and parse all splits into row chunks
+			ArrayList<CSVReadChunksTask> tasks = new ArrayList<CSVReadChunksTask>();
+			int splitCount = 0;
+			for (InputSplit split : splits) {
+				tasks.add( new CSVReadChunksTask(split, informat, job, ncol, chunkRows, 
+					sparse, hasHeader && splitCount==0, delim, fill, fillValue) );
+				splitCount++;
+			}
+			List<Future<Object>> rt1 = pool.invokeAll(tasks);
+			for( Future<Object> task : rt1 )
+				task.get();
+			
+			// compute row offsets and allocate output matrix block
+			int nrow = 0;
+			long lnnz = 0;
+			int[] offsets = new int[tasks.size()];
+			for( int i=0; i<tasks.size(); i++ ) {
+				offsets[i] = nrow;
+				nrow += tasks.get(i).getRowCount();
+				lnnz += tasks.get(i).getPartialNnz();
+			}
+			ret = createOutputMatrixBlock(nrow, ncol, nrow, ncol, lnnz, true, true);
+			
+			// stitch row chunks into output matrix block (disjoint rows)
+			ArrayList<CSVStitchTask> tasks2 = new ArrayList<CSVStitchTask>();
+			for( int i=0; i<tasks.size(); i++ )
+				tasks2.add( new CSVStitchTask(ret, tasks.get(i).getChunks(), 
+					tasks.get(i).getChunkRowCounts(), offsets[i]) );
+			List<Future<Object>> rt2 = pool.invokeAll(tasks2);
+			for( Future<Object> task : rt2 )
+				task.get();
+			
+			ret.setNonZeros(lnnz);
+		}
+		catch (Exception e) {
+			throw new IOException("Threadpool issue, while parallel read.", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param split
+	 * @param informat
+	 * @param job
+	 * @param delim
+	 * @return
+	 * @throws IOException
+	 */
+	private static int computeCSVNumColumns(InputSplit split, TextInputFormat informat, JobConf job, String delim) 
+		throws IOException
+	{
+		int ncol = 0;
 		LongWritable key = new LongWritable();
 		Text oneLine = new Text();
 		RecordReader<LongWritable, Text> reader = informat
-				.getRecordReader(splits[0], job, Reporter.NULL);
+				.getRecordReader(split, job, Reporter.NULL);
 		try {
 			if (reader.next(key, oneLine)) {
 				String cellStr = oneLine.toString().trim();
@@ -218,6 +333,32 @@ public class ReaderTextCSVParallel extends MatrixReader
 		finally {
 			IOUtilFunctions.closeSilently(reader);
 		}
+		return ncol;
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param hasHeader
+	 * @param delim
+	 * @return
+	 * @throws IOException
+	 * @throws DMLRuntimeException 
+	 */
+	private MatrixBlock computeCSVSizeAndCreateOutputMatrixBlock(
+			InputSplit[] splits, Path path, JobConf job, boolean hasHeader,
+			String delim, long estnnz) throws IOException, DMLRuntimeException 
+	{
+		int nrow = 0;
+		int ncol = 0;
+		
+		FileInputFormat.addInputPath(job, path);
+		TextInputFormat informat = new TextInputFormat();
+		informat.configure(job);
+
+		// count no of entities in the first non-header row
+		ncol = computeCSVNumColumns(splits[0], informat, job, delim);
 
 		// count rows in parallel per split
 		try 
@@ -355,7 +496,6 @@ public class ReaderTextCSVParallel extends MatrixReader
 	{
 		private InputSplit _split = null;
 		private SplitOffsetInfos _splitoffsets = null;
-		private boolean _sparse = false;
 		private TextInputFormat _informat = null;
 		private JobConf _job = null;
 		private MatrixBlock _dest = null;
@@ -379,7 +519,6 @@ public class ReaderTextCSVParallel extends MatrixReader
 		{
 			_split = split;
 			_splitoffsets = offsets; // new SplitOffsetInfos(offsets);
-			_sparse = dest.isInSparseFormat();
 			_informat = informat;
 			_job = job;
 			_dest = dest;
@@ -411,8 +550,6 @@ public class ReaderTextCSVParallel extends MatrixReader
 			throws Exception 
 		{
 			int row = 0;
-			int col = 0;
-			double cellValue = 0;
 			long lnnz = 0;
 			
 			try 
@@ -426,74 +563,17 @@ public class ReaderTextCSVParallel extends MatrixReader
 					reader.next(key, value);
 				}
 
-				boolean noFillEmpty = false;
 				row = _splitoffsets.getOffsetPerSplit(_splitCount);
 
+				//byte-level parsing w/o intermediate strings
+				CSVByteParser parser = new CSVByteParser(_split.toString(), _delim, _fill, _fillValue, _clen);
+				
 				try {
-					if (_sparse) // SPARSE<-value
-					{
-						while (reader.next(key, value)) // foreach line
-						{
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-
-								if( cellValue != 0 ) {
-									_dest.appendValue(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
-							
-							row++;
-						}
-					} 
-					else // DENSE<-value
+					while (reader.next(key, value)) // foreach line
 					{
-						while (reader.next(key, value)) // foreach line
-						{
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-								if( cellValue != 0 ) {
-									_dest.setValueDenseUnsafe(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
-							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
-							
-							row++;
-						}
+						//parse line into dense or sparse output
+						lnnz += parser.parseLine(value.getBytes(), 0, value.getLength(), _dest, row);
+						row++;
 					}
 
 					// sanity checks (number of rows)
@@ -515,8 +595,8 @@ public class ReaderTextCSVParallel extends MatrixReader
 				_exception = ex;
 
 				// post-mortem error handling and bounds checking
-				if (row < 0 || row + 1 > _rlen || col < 0 || col + 1 > _clen) {
-					String errMsg = "CSV cell [" + (row + 1) + "," + (col + 1)+ "] " + 
+				if (row < 0 || row + 1 > _rlen) {
+					String errMsg = "CSV row [" + (row + 1) + "] " + 
 							"out of overall matrix range [1:" + _rlen+ ",1:" + _clen + "]. " + ex.getMessage();
 					throw new IOException(errMsg, _exception);
 				} 
@@ -532,4 +612,184 @@ public class ReaderTextCSVParallel extends MatrixReader
 			return null;
 		}
 	}
+
+	/**
+	 * Read task for single-pass read, which parses a split into a sequence 
+	 * of row chunks because the row offset of the split is not yet known.
+	 */
+	private static class CSVReadChunksTask implements Callable<Object> 
+	{
+		private InputSplit _split = null;
+		private TextInputFormat _informat = null;
+		private JobConf _job = null;
+		private int _clen = -1;
+		private int _chunkRows = -1;
+		private boolean _sparse = false;
+		private boolean _hasHeader = false;
+		private boolean _fill = false;
+		private double _fillValue = 0;
+		private String _delim = null;
+		
+		private ArrayList<MatrixBlock> _chunks = null;
+		private ArrayList<Integer> _chunkRowCounts = null;
+		private int _nrows = 0;
+		private long _nnz = 0;
+		
+		public CSVReadChunksTask(InputSplit split, TextInputFormat informat, JobConf job, 
+				int clen, int chunkRows, boolean sparse, boolean hasHeader, String delim, 
+				boolean fill, double fillValue) 
+		{
+			_split = split;
+			_informat = informat;
+			_job = job;
+			_clen = clen;
+			_chunkRows = chunkRows;
+			_sparse = sparse;
+			_hasHeader = hasHeader;
+			_fill = fill;
+			_fillValue = fillValue;
+			_delim = delim;
+			_chunks = new ArrayList<MatrixBlock>();
+			_chunkRowCounts = new ArrayList<Integer>();
+		}
+
+		public ArrayList<MatrixBlock> getChunks() {
+			return _chunks;
+		}
+		
+		public ArrayList<Integer> getChunkRowCounts() {
+			return _chunkRowCounts;
+		}
+		
+		public int getRowCount() {
+			return _nrows;
+		}
+		
+		public long getPartialNnz() {
+			return _nnz;
+		}
+
+		@Override
+		public Object call() 
+			throws Exception 
+		{
+			RecordReader<LongWritable, Text> reader = _informat.getRecordReader(_split, _job, Reporter.NULL);
+			LongWritable key = new LongWritable();
+			Text value = new Text();
+			
+			//byte-level parsing w/o intermediate strings
+			CSVByteParser parser = new CSVByteParser(_split.toString(), _delim, _fill, _fillValue, _clen);
+			MatrixBlock chunk = null;
+			int row = 0;
+			
+			try 
+			{
+				// skip the header line
+				if (_hasHeader) {
+					reader.next(key, value);
+				}
+				
+				while (reader.next(key, value)) // foreach line
+				{
+					//allocate new chunk on demand
+					if( chunk == null || row == _chunkRows ) {
+						if( chunk != null )
+							_chunkRowCounts.add(row);
+						chunk = new MatrixBlock(_chunkRows, _clen, _sparse);
+						if( !_sparse )
+							chunk.allocateDenseBlock();
+						_chunks.add(chunk);
+						row = 0;
+					}
+					
+					//parse line into dense or sparse chunk
+					//(nnz of sparse chunks maintained via appends)
+					long lnnz = parser.parseLine(value.getBytes(), 0, value.getLength(), chunk, row);
+					if( !_sparse )
+						chunk.setNonZeros(chunk.getNonZeros() + lnnz);
+					_nnz += lnnz;
+					row++;
+					_nrows++;
+				}
+				
+				//number of parsed rows of last (partial) chunk
+				if( chunk != null )
+					_chunkRowCounts.add(row);
+			}
+			catch (Exception ex) {
+				throw new IOException("Unable to read matrix in text CSV format "
+						+ "(split row " + (_nrows + 1) + "). " + ex.getMessage(), ex);
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * Stitch task for single-pass read, which copies the row chunks of 
+	 * a split into the output matrix block at the split's row offset.
+	 */
+	private static class CSVStitchTask implements Callable<Object> 
+	{
+		private MatrixBlock _dest = null;
+		private ArrayList<MatrixBlock> _chunks = null;
+		private ArrayList<Integer> _chunkRowCounts = null;
+		private int _offset = -1;
+		
+		public CSVStitchTask(MatrixBlock dest, ArrayList<MatrixBlock> chunks, ArrayList<Integer> chunkRowCounts, int offset) {
+			_dest = dest;
+			_chunks = chunks;
+			_chunkRowCounts = chunkRowCounts;
+			_offset = offset;
+		}
+
+		@Override
+		public Object call() 
+			throws Exception 
+		{
+			int clen = _dest.getNumColumns();
+			int rl = _offset;
+			
+			for( int i=0; i<_chunks.size(); i++ ) 
+			{
+				//copy only the parsed rows (last chunk of a split is partial)
+				MatrixBlock chunk = _chunks.get(i);
+				int len = _chunkRowCounts.get(i);
+				
+				if( len > 0 && !chunk.isEmptyBlock(false) ) 
+				{
+					if( _dest.isInSparseFormat() && chunk.isInSparseFormat() 
+						&& _dest.getSparseBlock() instanceof SparseBlockMCSR
+						&& chunk.getSparseBlock() instanceof SparseBlockMCSR ) 
+					{
+						//shallow copy of sparse rows (chunks are discarded)
+						SparseBlock a = chunk.getSparseBlock();
+						SparseBlock c = _dest.getSparseBlock();
+						for( int j=0; j<len; j++ )
+							if( !a.isEmpty(j) )
+								c.set(rl+j, a.get(j), false);
+					}
+					else if( !_dest.isInSparseFormat() && !chunk.isInSparseFormat() ) 
+					{
+						//contiguous copy of dense rows
+						System.arraycopy(chunk.getDenseBlock(), 0, 
+							_dest.getDenseBlock(), rl*clen, len*clen);
+					}
+					else {
+						//general case (mixed representations)
+						_dest.copy(rl, rl+len-1, 0, clen-1, chunk.sliceOperations(0, len-1, 0, clen-1, new MatrixBlock()), false);
+					}
+				}
+				
+				//release chunk for garbage collection
+				_chunks.set(i, null);
+				rl += len;
+			}
+			
+			return null;
+		}
+	}
 }
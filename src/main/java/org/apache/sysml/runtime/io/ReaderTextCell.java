@@ -225,6 +225,10 @@ public class ReaderTextCell extends MatrixReader
 			if ( value==null || !value.startsWith("%%") ) {
 				throw new IOException("Error while reading file in MatrixMarket format. Expecting a header line, but encountered, \"" + value +"\".");
 			}
+			if( !isGeneralBanner(value) ) {
+				throw new IOException("Error while reading file in MatrixMarket format. Header '" + value + "' is only "
+					+ "supported by parallel reads (sequential reads require real general entries).");
+			}
 			
 			// skip until end-of-comments
 			while( (value = br.readLine())!=null && value.charAt(0) == '%' ) {
@@ -282,4 +286,17 @@ public class ReaderTextCell extends MatrixReader
 			IOUtilFunctions.closeSilently(br);
 		}
 	}
+	
+	/**
+	 * Indicates if the given MatrixMarket header describes a general matrix with
+	 * explicit values, i.e., neither symmetric nor pattern entries, which are only
+	 * expanded by the parallel MatrixMarket reader.
+	 * 
+	 * @param line
+	 * @return
+	 */
+	private static boolean isGeneralBanner( String line ) {
+		String[] parts = line.trim().toLowerCase().split("\\s+");
+		return parts.length < 5 || (parts[4].equals("general") && !parts[3].equals("pattern"));
+	}
 }
@@ -19,8 +19,10 @@
 
 package org.apache.sysml.runtime.io;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -29,8 +31,10 @@ import java.util.concurrent.Future;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataOutputBuffer;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -39,10 +43,30 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
 import org.apache.sysml.runtime.matrix.mapred.MRConfigurationNames;
 import org.apache.sysml.runtime.matrix.mapred.MRJobConfiguration;
+import org.apache.sysml.runtime.util.FastBufferedDataOutputStream;
 import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.utils.Statistics;
 
+/**
+ * Parallel version of WriterBinaryBlock.java, which writes row partitions of the
+ * given matrix into separate part files. If pipelined writes are enabled, each write
+ * task further overlaps the slicing and serialization of blocks with the actual file
+ * writes: blocks are serialized into a batch of reusable buffers, which is flushed
+ * asynchronously to the sequence file while the next batch is serialized (double
+ * buffering). The pipeline is also used for single-file writes of multiple blocks.
+ * 
+ */
 public class WriterBinaryBlockParallel extends WriterBinaryBlock
 {
+	//overlap block serialization and file writes via double buffering
+	public static boolean PIPELINED_WRITE = true;
+	
+	//size of serialized blocks per batch (flush threshold)
+	private static final int PIPELINE_BATCH_SIZE = 4*1024*1024; //4MB
+	
+	//max fraction of local memory budget for all serialization buffers
+	private static final double PIPELINE_MEM_FRACTION = 0.1;
+	
 	public WriterBinaryBlockParallel( int replication )
 	{
 		super(replication);
@@ -75,7 +99,10 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 		
 		//fall back to sequential write if dop is 1 (e.g., <128MB) in order to create single file
 		if( numThreads <= 1 ) {
-			super.writeBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen, replication);
+			if( isPipelinedWrite(1, brlen, bclen) && (rlen > brlen || clen > bclen) )
+				writePipelinedSingleFile(path, job, src, rlen, brlen, bclen);
+			else
+				super.writeBinaryBlockMatrixToHDFS(path, job, src, rlen, clen, brlen, bclen, replication);
 			return;
 		}
 			
@@ -91,16 +118,20 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 		try 
 		{
 			ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+			ExecutorService flushPool = isPipelinedWrite(numThreads, brlen, bclen) ? 
+					Executors.newFixedThreadPool(numThreads) : null;
 			ArrayList<WriteFileTask> tasks = new ArrayList<WriteFileTask>();
 			int blklen = (int)Math.ceil((double)rlen / brlen / numThreads) * brlen;
 			for(int i=0; i<numThreads & i*blklen<rlen; i++) {
 				Path newPath = new Path(path, String.format("0-m-%05d",i));
-				tasks.add(new WriteFileTask(newPath, job, fs, src, i*blklen, Math.min((i+1)*blklen, rlen), brlen, bclen, _replication));
+				tasks.add(new WriteFileTask(newPath, job, fs, src, i*blklen, Math.min((i+1)*blklen, rlen), brlen, bclen, _replication, flushPool));
 			}
 
 			//wait until all tasks have been executed
 			List<Future<Object>> rt = pool.invokeAll(tasks);	
 			pool.shutdown();
+			if( flushPool != null )
+				flushPool.shutdown();
 			
 			//check for exceptions 
 			for( Future<Object> task : rt )
@@ -111,6 +142,58 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 		}
 	}
 
+	/**
+	 * Indicates if pipelined writes are enabled and the two batches per write 
+	 * task (of at least one serialized block each) fit into the memory budget.
+	 * 
+	 * @param numThreads
+	 * @param brlen
+	 * @param bclen
+	 * @return
+	 */
+	private static boolean isPipelinedWrite( int numThreads, int brlen, int bclen )
+	{
+		double blksize = MatrixBlock.estimateSizeOnDisk(brlen, bclen, (long)brlen*bclen);
+		double mem = 2d * numThreads * Math.max(PIPELINE_BATCH_SIZE, blksize);
+		return PIPELINED_WRITE 
+			&& mem < PIPELINE_MEM_FRACTION * OptimizerUtils.getLocalMemBudget();
+	}
+	
+	/**
+	 * 
+	 * @param path
+	 * @param job
+	 * @param src
+	 * @param rlen
+	 * @param brlen
+	 * @param bclen
+	 * @throws IOException
+	 */
+	private void writePipelinedSingleFile( Path path, JobConf job, MatrixBlock src, long rlen, int brlen, int bclen ) 
+		throws IOException
+	{
+		//bound check for src block
+		if( src.getNumRows() > rlen )
+			throw new IOException("Matrix block [1:"+src.getNumRows()+",1:"+src.getNumColumns()+"] " +
+		                          "out of overall matrix range [1:"+rlen+",...].");
+		
+		//serialize on the current thread, flush via single flush thread
+		ExecutorService flushPool = Executors.newFixedThreadPool(1);
+		try {
+			FileSystem fs = FileSystem.get(job);
+			new WriteFileTask(path, job, fs, src, 0, rlen, brlen, bclen, _replication, flushPool).call();
+		}
+		catch(IOException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new IOException("Failed pipelined write of binary block input.", ex);
+		}
+		finally {
+			flushPool.shutdown();
+		}
+	}
+	
 	/**
 	 * 
 	 */
@@ -125,8 +208,9 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 		private int _brlen = -1;
 		private int _bclen = -1;
 		private int _replication = 1;
+		private ExecutorService _flushPool = null;
 		
-		public WriteFileTask(Path path, JobConf job, FileSystem fs, MatrixBlock src, long rl, long ru, int brlen, int bclen, int rep)
+		public WriteFileTask(Path path, JobConf job, FileSystem fs, MatrixBlock src, long rl, long ru, int brlen, int bclen, int rep, ExecutorService flushPool)
 		{
 			_path = path;
 			_fs = fs;
@@ -137,6 +221,7 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 			_brlen = brlen;
 			_bclen = bclen;
 			_replication = rep;
+			_flushPool = flushPool;
 		}
 	
 		@Override
@@ -157,6 +242,11 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 				writer = new SequenceFile.Writer(_fs, _job, _path, MatrixIndexes.class, MatrixBlock.class);
 			}
 			
+			//initialize double buffering for pipelined writes
+			BlockBatch[] batches = (_flushPool != null) ? 
+					new BlockBatch[]{new BlockBatch(), new BlockBatch()} : null;
+			Future<Object> flush = null;
+			
 			try
 			{
 				//3) reblock and write
@@ -165,6 +255,9 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 				//initialize blocks for reuse (at most 4 different blocks required)
 				MatrixBlock[] blocks = createMatrixBlocksForReuse(_src.getNumRows(), _src.getNumColumns(),
 						_brlen, _bclen, _src.isInSparseFormat(), _src.getNonZeros());  
+				
+				int pos = 0;
+				long t0 = System.nanoTime();
 					
 				//create and write subblocks of matrix
 				for(int blockRow = (int)_rl/_brlen; blockRow < (int)Math.ceil(_ru/(double)_brlen); blockRow++)
@@ -183,20 +276,174 @@ public class WriterBinaryBlockParallel extends WriterBinaryBlock
 						_src.sliceOperations( row_offset, row_offset+maxRow-1, 
 								             col_offset, col_offset+maxCol-1, block );
 						
-						//append block to sequence file
+						//append block to sequence file or current batch
 						indexes.setIndexes(blockRow+1, blockCol+1);
-						writer.append(indexes, block);
+						if( batches == null )
+							writer.append(indexes, block);
+						else
+							batches[pos].append(indexes, block);
 							
 						//reset block for later reuse
 						block.reset();
+						
+						//asynchronous flush of full batch, and swap of batches
+						if( batches != null && batches[pos].getLength() >= PIPELINE_BATCH_SIZE ) {
+							flush = flushBatch(writer, batches[pos], flush, t0);
+							pos = 1 - pos;
+							t0 = System.nanoTime();
+						}
 					}
+				
+				//flush of last batch and wait for completion
+				if( batches != null ) {
+					flush = flushBatch(writer, batches[pos], flush, t0);
+					flush.get();
+				}
 			}
 			finally
 			{
+				//wait for pending flush before closing the writer on errors
+				if( flush != null && !flush.isDone() ) {
+					try { flush.get(); } 
+					catch(Exception ex) {} //ignore, original exception rethrown
+				}
 				IOUtilFunctions.closeSilently(writer);
 			}	
 			
 			return null;
 		}
+		
+		/**
+		 * Waits for the previous flush to complete (the batch is reused for 
+		 * serialization afterwards) and submits the flush of the given batch.
+		 * 
+		 * @param writer
+		 * @param batch
+		 * @param prev
+		 * @param t0
+		 * @return
+		 * @throws Exception
+		 */
+		private Future<Object> flushBatch(SequenceFile.Writer writer, BlockBatch batch, Future<Object> prev, long t0) 
+			throws Exception
+		{
+			long t1 = System.nanoTime();
+			if( prev != null )
+				prev.get();
+			if( DMLScript.STATISTICS ) {
+				Statistics.accPipelinedWriteSerializeTime(t1 - t0);
+				Statistics.accPipelinedWriteWaitTime(System.nanoTime() - t1);
+				Statistics.incPipelinedWriteBatches(1);
+			}
+			return _flushPool.submit(new FlushTask(writer, batch));
+		}
+	}
+	
+	/**
+	 * Task for writing a batch of serialized blocks to the sequence file
+	 * and resetting the batch for later reuse.
+	 */
+	private static class FlushTask implements Callable<Object> 
+	{
+		private SequenceFile.Writer _writer = null;
+		private BlockBatch _batch = null;
+		
+		public FlushTask(SequenceFile.Writer writer, BlockBatch batch) {
+			_writer = writer;
+			_batch = batch;
+		}
+		
+		@Override
+		public Object call() throws Exception {
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			_batch.writeTo(_writer);
+			_batch.reset();
+			if( DMLScript.STATISTICS )
+				Statistics.accPipelinedWriteFlushTime(System.nanoTime() - t0);
+			return null;
+		}
+	}
+	
+	/**
+	 * Reusable buffer of serialized key/value pairs of binary blocks, which
+	 * are appended as raw records to sequence files. The serialized format is
+	 * equivalent to Writable and custom binary block serialization.
+	 */
+	private static class BlockBatch implements SequenceFile.ValueBytes
+	{
+		private DataOutputBuffer _buff = null;
+		private FastBufferedDataOutputStream _out = null;
+		private int[] _klen = new int[64];
+		private int[] _vlen = new int[64];
+		private int _num = 0;
+		
+		//current value for raw appends
+		private int _voff = -1;
+		private int _vsize = -1;
+		
+		public BlockBatch() {
+			_buff = new DataOutputBuffer();
+			_out = new FastBufferedDataOutputStream(_buff);
+		}
+		
+		public int getLength() {
+			return _buff.getLength();
+		}
+		
+		public void append(MatrixIndexes ix, MatrixBlock block) 
+			throws IOException
+		{
+			if( _num == _klen.length ) {
+				_klen = Arrays.copyOf(_klen, 2*_num);
+				_vlen = Arrays.copyOf(_vlen, 2*_num);
+			}
+			
+			//serialize key and value, incl flush into buffer
+			int off = _buff.getLength();
+			ix.write(_out);
+			_out.flush();
+			int koff = _buff.getLength();
+			block.write(_out);
+			_out.flush();
+			_klen[_num] = koff - off;
+			_vlen[_num] = _buff.getLength() - koff;
+			_num++;
+		}
+		
+		public void writeTo(SequenceFile.Writer writer) 
+			throws IOException
+		{
+			byte[] data = _buff.getData();
+			for( int i=0, off=0; i<_num; i++ ) {
+				_voff = off + _klen[i];
+				_vsize = _vlen[i];
+				writer.appendRaw(data, off, _klen[i], this);
+				off += _klen[i] + _vlen[i];
+			}
+		}
+		
+		public void reset() {
+			_buff.reset();
+			_num = 0;
+		}
+
+		@Override
+		public void writeUncompressedBytes(DataOutputStream outStream) 
+			throws IOException 
+		{
+			outStream.write(_buff.getData(), _voff, _vsize);
+		}
+
+		@Override
+		public void writeCompressedBytes(DataOutputStream outStream)
+			throws IllegalArgumentException, IOException 
+		{
+			throw new IllegalArgumentException("Compressed raw values not supported for binary block batches.");
+		}
+
+		@Override
+		public int getSize() {
+			return _vsize;
+		}
 	}
 }
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.ColumnarFileMetadata.ChunkMeta;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.MapReduceTool;
+
+/**
+ * Single-threaded writer for the columnar binary format. The matrix is written
+ * in row groups of brlen rows, where each row group holds one independently
+ * encoded column chunk per column (see {@link ColumnarChunkCodec}).
+ *
+ */
+public class WriterColumnar extends MatrixWriter
+{
+	@Override
+	public void writeMatrixToHDFS(MatrixBlock src, String fname, long rlen, long clen, int brlen, int bclen, long nnz)
+		throws IOException, DMLRuntimeException
+	{
+		//validity check matrix dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen ) {
+			throw new IOException("Matrix dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		}
+
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = FileSystem.get(job);
+
+		//if the file already exists on HDFS, remove it.
+		MapReduceTool.deleteFileIfExistOnHDFS( fname );
+
+		//core write
+		writeColumnarMatrixToHDFS(path, fs, src, (int)rlen, (int)clen, getRowGroupSize(brlen));
+	}
+
+	@Override
+	public void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen)
+		throws IOException, DMLRuntimeException
+	{
+		//create empty block of requested dimensions (all chunks are
+		//written as constant chunks, i.e., the file size is small)
+		MatrixBlock src = new MatrixBlock((int)Math.max(rlen,1), (int)Math.max(clen,1), true);
+		writeMatrixToHDFS(src, fname, src.getNumRows(), src.getNumColumns(), brlen, bclen, 0);
+	}
+
+	/**
+	 *
+	 * @param brlen
+	 * @return
+	 */
+	protected static int getRowGroupSize(int brlen) {
+		return (brlen > 0) ? brlen : ConfigurationManager.getBlocksize();
+	}
+
+	/**
+	 *
+	 * @param path
+	 * @param fs
+	 * @param src
+	 * @param rlen
+	 * @param clen
+	 * @param grpRows
+	 * @throws IOException
+	 */
+	protected void writeColumnarMatrixToHDFS( Path path, FileSystem fs, MatrixBlock src, int rlen, int clen, int grpRows )
+		throws IOException
+	{
+		ColumnarFileMetadata meta = new ColumnarFileMetadata(
+				false, rlen, clen, grpRows, null, null, new byte[clen]);
+		meta.setNonZeros(src.getNonZeros());
+
+		FSDataOutputStream out = fs.create(path, true);
+		try
+		{
+			ColumnarFileMetadata.writeHeader(out);
+
+			//reuse buffers across chunks
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(bos);
+			double[] col = new double[grpRows];
+
+			boolean sparse = src.isInSparseFormat();
+			int[] cnt = sparse ? new int[clen+1] : null;
+			int[] ix = null;
+			double[] vals = null;
+
+			for( int g=0, rl=0; rl<rlen; g++, rl+=grpRows )
+			{
+				int n = Math.min(grpRows, rlen-rl);
+
+				if( src.isEmptyBlock(false) ) {
+					//empty matrix, all chunks constant zero
+					Arrays.fill(col, 0, n, 0);
+					for( int j=0; j<clen; j++ )
+						writeChunk(out, bos, dos, col, n, meta.getChunkMeta(g, j));
+				}
+				else if( !sparse ) {
+					//dense: strided copy of column values
+					double[] a = src.getDenseBlock();
+					for( int j=0; j<clen; j++ ) {
+						for( int i=0, aix=rl*clen+j; i<n; i++, aix+=clen )
+							col[i] = a[aix];
+						writeChunk(out, bos, dos, col, n, meta.getChunkMeta(g, j));
+					}
+				}
+				else {
+					//sparse: transpose row group into compressed columns
+					SparseBlock a = src.getSparseBlock();
+					Arrays.fill(cnt, 0);
+					for( int i=rl; i<rl+n; i++ ) {
+						if( a.isEmpty(i) ) continue;
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						for( int k=apos; k<apos+alen; k++ )
+							cnt[aix[k]+1]++;
+					}
+					for( int j=0; j<clen; j++ )
+						cnt[j+1] += cnt[j];
+					if( ix == null || ix.length < cnt[clen] ) {
+						ix = new int[cnt[clen]];
+						vals = new double[cnt[clen]];
+					}
+					int[] pos = Arrays.copyOf(cnt, clen);
+					for( int i=rl; i<rl+n; i++ ) {
+						if( a.isEmpty(i) ) continue;
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						for( int k=apos; k<apos+alen; k++ ) {
+							int p = pos[aix[k]]++;
+							ix[p] = i-rl;
+							vals[p] = avals[k];
+						}
+					}
+
+					//scatter columns and write chunks
+					Arrays.fill(col, 0, n, 0);
+					for( int j=0; j<clen; j++ ) {
+						for( int k=cnt[j]; k<cnt[j+1]; k++ )
+							col[ix[k]] = vals[k];
+						writeChunk(out, bos, dos, col, n, meta.getChunkMeta(g, j));
+						for( int k=cnt[j]; k<cnt[j+1]; k++ )
+							col[ix[k]] = 0;
+					}
+				}
+			}
+
+			meta.writeFooter(out);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(out);
+		}
+	}
+
+	/**
+	 * Encodes a single column chunk and appends it to the given output stream.
+	 *
+	 * @param out
+	 * @param bos
+	 * @param dos
+	 * @param col
+	 * @param n
+	 * @param cmeta
+	 * @throws IOException
+	 */
+	protected static void writeChunk( FSDataOutputStream out, ByteArrayOutputStream bos, DataOutputStream dos, double[] col, int n, ChunkMeta cmeta )
+		throws IOException
+	{
+		bos.reset();
+		ColumnarChunkCodec.encode(col, n, dos, cmeta);
+		dos.flush();
+		cmeta.offset = out.getPos();
+		cmeta.length = bos.size();
+		bos.writeTo(out);
+	}
+
+	/**
+	 * Encodes a single string column chunk and appends it to the given output stream.
+	 *
+	 * @param out
+	 * @param bos
+	 * @param dos
+	 * @param col
+	 * @param n
+	 * @param cmeta
+	 * @throws IOException
+	 */
+	protected static void writeChunk( FSDataOutputStream out, ByteArrayOutputStream bos, DataOutputStream dos, String[] col, int n, ChunkMeta cmeta )
+		throws IOException
+	{
+		bos.reset();
+		ColumnarChunkCodec.encode(col, n, dos, cmeta);
+		dos.flush();
+		cmeta.offset = out.getPos();
+		cmeta.length = bos.size();
+		bos.writeTo(out);
+	}
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of dense block arrays, which allows to recycle the dense 
+ * blocks of intermediates across repeated executions of the same program
+ * (e.g., JMLC scoring) in order to reduce allocation and GC overhead.
+ * 
+ * A pool is activated for the executing thread; while active, all dense
+ * block allocations of this thread are served from the pool (if an array
+ * of matching length exists) and tracked. On deactivation, all tracked 
+ * arrays that are not referenced by the given live blocks (e.g., results)
+ * are returned to the pool. Deferring the recycling to the end of an 
+ * execution guarantees that no array is reused while still referenced, 
+ * e.g., by shallow copies or in-place updates. Arrays are only reused 
+ * for requests of the exact same length. Tracked arrays are owned by the
+ * pool and hence, must not be handed to other reuse mechanisms.
+ * 
+ * NOTE: The pool itself is thread-safe and can be shared by multiple 
+ * concurrent executions, while the tracking of allocations is thread-local.
+ */
+public class DenseBlockPool 
+{
+	//thread-local tracking of allocations of active pools
+	private static final ThreadLocal<PoolContext> _context = new ThreadLocal<PoolContext>();
+	//number of active contexts (for fast path w/o thread-local access)
+	private static final AtomicInteger _numActive = new AtomicInteger(0);
+	
+	private final long _maxSize; //in bytes
+	private long _size = 0;      //in bytes
+	private long _numHits = 0;   //served allocations
+	private final HashMap<Integer, LinkedList<double[]>> _pool;
+	
+	/**
+	 * Creates a new pool with the given maximum size in bytes.
+	 * 
+	 * @param maxSize maximum size of pooled arrays in bytes
+	 */
+	public DenseBlockPool(long maxSize) {
+		_maxSize = maxSize;
+		_pool = new HashMap<Integer, LinkedList<double[]>>();
+	}
+	
+	/**
+	 * Gets the maximum size of this pool in bytes.
+	 * 
+	 * @return maximum size in bytes
+	 */
+	public long getMaxSize() {
+		return _maxSize;
+	}
+	
+	/**
+	 * Gets the current size of all pooled arrays in bytes.
+	 * 
+	 * @return current size in bytes
+	 */
+	public synchronized long getSize() {
+		return _size;
+	}
+	
+	/**
+	 * Gets the number of allocations served from this pool.
+	 * 
+	 * @return number of pool hits
+	 */
+	public synchronized long getNumHits() {
+		return _numHits;
+	}
+	
+	/**
+	 * Removes all pooled arrays.
+	 */
+	public synchronized void clear() {
+		_pool.clear();
+		_size = 0;
+	}
+	
+	/**
+	 * Probes the pool for an array of the given length.
+	 * 
+	 * @param len array length
+	 * @return pooled array, or null if not existing
+	 */
+	private synchronized double[] poll(int len) {
+		LinkedList<double[]> list = _pool.get(len);
+		if( list == null || list.isEmpty() )
+			return null;
+		double[] ret = list.removeFirst();
+		_size -= getSizeInBytes(ret);
+		_numHits++;
+		return ret;
+	}
+	
+	/**
+	 * Returns the given array to the pool if the maximum pool
+	 * size is not exceeded.
+	 * 
+	 * @param arr dense block array
+	 */
+	private synchronized void offer(double[] arr) {
+		long size = getSizeInBytes(arr);
+		if( _size + size > _maxSize )
+			return;
+		LinkedList<double[]> list = _pool.get(arr.length);
+		if( list == null ) {
+			list = new LinkedList<double[]>();
+			_pool.put(arr.length, list);
+		}
+		list.addFirst(arr);
+		_size += size;
+	}
+	
+	/**
+	 * Activates the given pool for the current thread.
+	 * 
+	 * @param pool dense block pool
+	 */
+	public static void activate(DenseBlockPool pool) {
+		if( _context.get() == null )
+			_numActive.incrementAndGet();
+		_context.set(new PoolContext(pool));
+	}
+	
+	/**
+	 * Deactivates the pool of the current thread, and returns all arrays 
+	 * allocated since activation to the pool unless referenced by one of 
+	 * the given live blocks. If the list of live blocks is null, no arrays 
+	 * are recycled (e.g., after failed executions).
+	 * 
+	 * @param live list of blocks that remain in use, or null
+	 */
+	public static void deactivate(List<MatrixBlock> live) 
+	{
+		PoolContext ctx = _context.get();
+		if( ctx == null )
+			return;
+		_context.remove();
+		_numActive.decrementAndGet();
+		
+		if( live == null )
+			return;
+		
+		//collect dense arrays of live blocks by identity
+		IdentityHashMap<double[], Boolean> used = new IdentityHashMap<double[], Boolean>();
+		for( MatrixBlock mb : live )
+			if( mb != null && mb.getDenseBlock() != null )
+				used.put(mb.getDenseBlock(), Boolean.TRUE);
+		
+		//recycle unreferenced arrays
+		for( double[] arr : ctx.allocated )
+			if( !used.containsKey(arr) )
+				ctx.pool.offer(arr);
+	}
+	
+	/**
+	 * Allocates a zero-initialized dense block array of the given length, 
+	 * served from the active pool of the current thread if available.
+	 * 
+	 * @param len array length
+	 * @return dense block array
+	 */
+	public static double[] allocateDenseBlock(int len) 
+	{
+		//fast path if no pool active
+		PoolContext ctx = (_numActive.get() > 0) ? _context.get() : null;
+		if( ctx == null )
+			return new double[len];
+		
+		//probe pool and track allocation
+		double[] ret = ctx.pool.poll(len);
+		if( ret != null )
+			Arrays.fill(ret, 0);
+		else
+			ret = new double[len];
+		ctx.allocated.add(ret);
+		
+		return ret;
+	}
+	
+	/**
+	 * Indicates if the given array was allocated from the active pool of 
+	 * the current thread, i.e., if it is owned by this pool and recycled
+	 * on deactivation.
+	 * 
+	 * @param arr dense block array
+	 * @return true if tracked by the active pool
+	 */
+	public static boolean isPoolAllocated(double[] arr) {
+		PoolContext ctx = (_numActive.get() > 0) ? _context.get() : null;
+		return ctx != null && arr != null && ctx.allocated.contains(arr);
+	}
+	
+	/**
+	 * 
+	 * @param arr
+	 * @return
+	 */
+	private static long getSizeInBytes(double[] arr) {
+		return 16 + 8L * arr.length;
+	}
+	
+	/**
+	 * Thread-local allocation context of an active pool.
+	 */
+	private static class PoolContext 
+	{
+		private final DenseBlockPool pool;
+		private final Set<double[]> allocated;
+		
+		public PoolContext(DenseBlockPool p) {
+			pool = p;
+			allocated = Collections.newSetFromMap(new IdentityHashMap<double[], Boolean>());
+		}
+	}
+}
@@ -39,7 +39,9 @@ import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.util.BulkSerializationUtils;
 import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.runtime.util.StringIntHashMap;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 /**
@@ -53,6 +55,15 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	//internal configuration
 	private static final boolean REUSE_RECODE_MAPS = true;
 	
+	//configuration of dictionary-encoded string columns, used for string columns
+	//of at least the min number of rows and at most the max ratio of distinct values 
+	public static final int DICT_MIN_ROWS = 1024;
+	public static final double DICT_MAX_DISTINCT_RATIO = 0.25;
+	
+	//flag in the value type byte of serialized dictionary-encoded columns
+	//(which keeps the serialized format of plain columns unchanged)
+	private static final int DICT_ENCODED_FLAG = 0x40;
+	
 	/** The number of rows of the FrameBlock */
 	private int _numRows = -1;
 	
@@ -66,7 +77,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	private List<Array> _coldata = null;
 	
 	/** Cache for recode maps from frame meta data, indexed by column 0-based */
-	private Map<Integer, SoftReference<HashMap<String,Long>>> _rcdMapCache = null;
+	private Map<Integer, SoftReference<StringIntHashMap>> _rcdMapCache = null;
 	
 	public FrameBlock() {
 		_numRows = 0;
@@ -74,7 +85,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_colnames = new ArrayList<String>();
 		_coldata = new ArrayList<Array>();
 		if( REUSE_RECODE_MAPS )
-			_rcdMapCache = new HashMap<Integer, SoftReference<HashMap<String,Long>>>();
+			_rcdMapCache = new HashMap<Integer, SoftReference<StringIntHashMap>>();
 	}
 	
 	public FrameBlock(FrameBlock that) {
@@ -108,7 +119,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		for( int i=0; i<data.length; i++ )
 			appendRow(data[i]);
 		if( REUSE_RECODE_MAPS )
-			_rcdMapCache = new HashMap<Integer, SoftReference<HashMap<String,Long>>>();
+			_rcdMapCache = new HashMap<Integer, SoftReference<StringIntHashMap>>();
 	}
 	
 	/**
@@ -183,6 +194,53 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_numRows = numRows;
 	}
 	
+	/**
+	 * Converts string columns into dictionary-encoded columns (int codes and a 
+	 * dictionary of distinct values) if the number of distinct values is small 
+	 * compared to the number of rows, and vice versa. Similar to examSparsity of
+	 * matrix blocks, this should be called once a frame block is fully populated
+	 * (e.g., after read) because dictionary-encoded columns are not thread-safe for
+	 * concurrent updates of disjoint row ranges, and hence all column allocations 
+	 * create plain string arrays. 
+	 */
+	public void examDictionaryEncoding() {
+		for( int j=0; j<_coldata.size(); j++ ) {
+			if( _schema.get(j) != ValueType.STRING )
+				continue;
+			Array arr = _coldata.get(j);
+			int maxDistinct = getMaxDictionarySize(arr._size);
+			if( arr instanceof StringArray && maxDistinct > 0 ) {
+				Array tmp = DictStringArray.create((StringArray)arr, maxDistinct);
+				if( tmp != null ) 
+					_coldata.set(j, tmp);
+			}
+			else if( arr instanceof DictStringArray 
+				&& ((DictStringArray)arr)._dictSize > maxDistinct ) {
+				_coldata.set(j, ((DictStringArray)arr).decode());
+			}
+		}
+	}
+	
+	/**
+	 * Indicates if the given column is stored as dictionary-encoded column.
+	 * 
+	 * @param c column index, 0-based
+	 * @return
+	 */
+	public boolean isDictionaryEncoded(int c) {
+		return (_coldata.size() > c && _coldata.get(c) instanceof DictStringArray);
+	}
+	
+	/**
+	 * 
+	 * @param nrow
+	 * @return
+	 */
+	private static int getMaxDictionarySize(int nrow) {
+		return (nrow >= DICT_MIN_ROWS) ? 
+			(int)(DICT_MAX_DISTINCT_RATIO * nrow) : 0;
+	}
+	
 	/**
 	 * Checks for matching column sizes in case of existing columns.
 	 * 		
@@ -335,7 +393,19 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * @return
 	 */
 	public Iterator<String[]> getStringRowIterator() {
-		return new StringRowIterator();
+		return new StringRowIterator(0, _numRows);
+	}
+	
+	/**
+	 * Get a row iterator over the frame where all fields are encoded
+	 * as strings independent of their value types.  
+	 * 
+	 * @param rl lower row index, inclusive, 0-based
+	 * @param ru upper row index, exclusive, 0-based
+	 * @return
+	 */
+	public Iterator<String[]> getStringRowIterator(int rl, int ru) {
+		return new StringRowIterator(rl, ru);
 	}
 	
 	/**
@@ -345,7 +415,19 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * @return
 	 */
 	public Iterator<Object[]> getObjectRowIterator() {
-		return new ObjectRowIterator();
+		return new ObjectRowIterator(0, _numRows);
+	}
+	
+	/**
+	 * Get a row iterator over the frame where all fields are encoded
+	 * as boxed objects according to their value types.  
+	 * 
+	 * @param rl lower row index, inclusive, 0-based
+	 * @param ru upper row index, exclusive, 0-based
+	 * @return
+	 */
+	public Iterator<Object[]> getObjectRowIterator(int rl, int ru) {
+		return new ObjectRowIterator(rl, ru);
 	}
 
 	///////
@@ -356,11 +438,20 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		//write header (rows, cols)
 		out.writeInt(getNumRows());
 		out.writeInt(getNumColumns());
-		//write columns (value type, data)
+		//write columns (value type, data), where plain string columns
+		//of few distinct values are written in dictionary-encoded format 
+		//(w/o modifying the in-memory representation for thread-safety)
+		int maxDistinct = getMaxDictionarySize(getNumRows());
 		for( int j=0; j<getNumColumns(); j++ ) {
-			out.writeByte(_schema.get(j).ordinal());
+			Array arr = _coldata.get(j);
+			if( arr instanceof StringArray && maxDistinct > 0 ) {
+				Array tmp = DictStringArray.create((StringArray)arr, maxDistinct);
+				arr = (tmp != null) ? tmp : arr;
+			}
+			out.writeByte(_schema.get(j).ordinal() 
+				| ((arr instanceof DictStringArray) ? DICT_ENCODED_FLAG : 0));
 			out.writeUTF(_colnames.get(j));
-			_coldata.get(j).write(out);
+			arr.write(out);
 		}
 	}
 
@@ -373,11 +464,14 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_schema.clear();
 		_coldata.clear();
 		for( int j=0; j<numCols; j++ ) {
-			ValueType vt = ValueType.values()[in.readByte()];
+			int type = in.readByte();
+			boolean dict = (type & DICT_ENCODED_FLAG) != 0;
+			ValueType vt = ValueType.values()[type & ~DICT_ENCODED_FLAG];
 			String name = in.readUTF();
 			Array arr = null;
 			switch( vt ) {
-				case STRING:  arr = new StringArray(new String[_numRows]); break;
+				case STRING:  arr = dict ? new DictStringArray(new int[_numRows]) :
+					new StringArray(new String[_numRows]); break;
 				case BOOLEAN: arr = new BooleanArray(new boolean[_numRows]); break;
 				case INT:     arr = new LongArray(new long[_numRows]); break;
 				case DOUBLE:  arr = new DoubleArray(new double[_numRows]); break;
@@ -651,32 +745,50 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * @param col
 	 * @return
 	 */
-	public HashMap<String,Long> getRecodeMap(int col) {
+	public StringIntHashMap getRecodeMap(int col) {
 		//probe cache for existing map
 		if( REUSE_RECODE_MAPS ) {
-			SoftReference<HashMap<String,Long>> tmp = _rcdMapCache.get(col);
-			HashMap<String,Long> map = (tmp!=null) ? tmp.get() : null;
+			SoftReference<StringIntHashMap> tmp = _rcdMapCache.get(col);
+			StringIntHashMap map = (tmp!=null) ? tmp.get() : null;
 			if( map != null ) return map;
 		}
 		
-		//construct recode map
-		HashMap<String,Long> map = new HashMap<String,Long>();
+		//construct recode map (token and code separated by the last prefix)
+		StringIntHashMap map = new StringIntHashMap(getNumRows());
 		Array ldata = _coldata.get(col); 
-		for( int i=0; i<getNumRows(); i++ ) {
-			Object val = ldata.get(i);
-			if( val != null ) {
-				String[] tmp = val.toString().split(Lop.DATATYPE_PREFIX);
-				map.put(tmp[0], Long.parseLong(tmp[1]));
+		if( ldata instanceof DictStringArray ) {
+			//parse distinct values once (only referenced dictionary entries)
+			DictStringArray dldata = (DictStringArray) ldata;
+			boolean[] used = dldata.getUsedCodes();
+			for( int c=1; c<=dldata._dictSize; c++ )
+				if( used[c] )
+					putRecodeMapEntry(map, dldata._dict[c-1]);
+		}
+		else {
+			for( int i=0; i<getNumRows(); i++ ) {
+				Object val = ldata.get(i);
+				if( val != null )
+					putRecodeMapEntry(map, val.toString());
 			}
 		}
 		
 		//put created map into cache
 		if( REUSE_RECODE_MAPS ) {
-			_rcdMapCache.put(col, new SoftReference<HashMap<String,Long>>(map));
+			_rcdMapCache.put(col, new SoftReference<StringIntHashMap>(map));
 		}
 		
 		return map;
 	}
+	
+	/**
+	 * 
+	 * @param map
+	 * @param val
+	 */
+	private static void putRecodeMapEntry(StringIntHashMap map, String val) {
+		int pos = val.lastIndexOf(Lop.DATATYPE_PREFIX);
+		map.put(val.substring(0, pos), Integer.parseInt(val.substring(pos+1)));
+	}
 
 	/**
 	 * 
@@ -731,15 +843,17 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	private abstract class RowIterator<T> implements Iterator<T[]> {
 		protected T[] _curRow = null;
 		protected int _curPos = -1;
+		protected int _maxPos = -1;
 		
-		protected RowIterator() {
-			_curPos = 0;
+		protected RowIterator(int rl, int ru) {
+			_curPos = rl;
+			_maxPos = ru;
 			_curRow = createRow(getNumColumns());
 		}
 		
 		@Override
 		public boolean hasNext() {
-			return (_curPos < _numRows);
+			return (_curPos < _maxPos);
 		}
 
 		@Override
@@ -754,6 +868,10 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * 
 	 */
 	private class StringRowIterator extends RowIterator<String> {
+		public StringRowIterator(int rl, int ru) {
+			super(rl, ru);
+		}
+		
 		@Override
 		protected String[] createRow(int size) {
 			return new String[size];
@@ -774,6 +892,10 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * 
 	 */
 	private class ObjectRowIterator extends RowIterator<Object> {
+		public ObjectRowIterator(int rl, int ru) {
+			super(rl, ru);
+		}
+		
 		@Override
 		protected Object[] createRow(int size) {
 			return new Object[size];
@@ -828,10 +950,14 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			_data[index] = value;
 		}
 		public void set(int rl, int ru, Array value) {
-			System.arraycopy(((StringArray)value)._data, 0, _data, rl, ru-rl+1);
+			set(rl, ru, value, 0);
 		}
 		public void set(int rl, int ru, Array value, int rlSrc) {
-			System.arraycopy(((StringArray)value)._data, rlSrc, _data, rl, ru-rl+1);
+			if( value instanceof DictStringArray ) //decode
+				for( int i=rl; i<=ru; i++ )
+					_data[i] = ((DictStringArray)value).get(rlSrc+i-rl);
+			else
+				System.arraycopy(((StringArray)value)._data, rlSrc, _data, rl, ru-rl+1);
 		}
 		public void append(String value) {
 			if( _data.length <= _size )
@@ -857,6 +983,178 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		}
 	}
 	
+	/**
+	 * Dictionary-encoded string array, which stores per row an int code into a
+	 * dictionary of distinct values, where code 0 represents null. Since set and
+	 * append might add new values to the dictionary, this array is not thread-safe
+	 * for concurrent updates (even of disjoint row ranges).
+	 */
+	private static class DictStringArray extends Array<String> {
+		private int[] _codes = null;
+		private String[] _dict = null;
+		private int _dictSize = 0;
+		private StringIntHashMap _map = null; //lazily created on updates
+		
+		public DictStringArray(int[] codes) {
+			this(codes, new String[0], 0);
+		}
+		public DictStringArray(int[] codes, String[] dict, int dictSize) {
+			_codes = codes;
+			_size = _codes.length;
+			_dict = dict;
+			_dictSize = dictSize;
+		}
+		
+		/**
+		 * Creates a dictionary-encoded copy of the given string array,
+		 * or returns null if the number of distinct values exceeds the 
+		 * given maximum.
+		 * 
+		 * @param arr
+		 * @param maxDistinct
+		 * @return
+		 */
+		public static DictStringArray create(StringArray arr, int maxDistinct) {
+			StringIntHashMap map = new StringIntHashMap();
+			String[] dict = new String[Math.min(maxDistinct, 16)];
+			int[] codes = new int[arr._size];
+			int dictSize = 0;
+			for( int i=0; i<arr._size; i++ ) {
+				String val = arr._data[i];
+				if( val == null )
+					continue;
+				int code = map.putIfAbsent(val, dictSize+1);
+				if( code > dictSize ) { //new value
+					if( dictSize >= maxDistinct )
+						return null;
+					if( dict.length <= dictSize )
+						dict = Arrays.copyOf(dict, Math.min(dict.length*2, maxDistinct));
+					dict[dictSize++] = val;
+				}
+				codes[i] = code;
+			}
+			DictStringArray ret = new DictStringArray(codes, dict, dictSize);
+			ret._map = map;
+			return ret;
+		}
+		
+		public String get(int index) {
+			int code = _codes[index];
+			return (code > 0) ? _dict[code-1] : null;
+		}
+		public void set(int index, String value) {
+			_codes[index] = getCode(value);
+		}
+		public void set(int rl, int ru, Array value) {
+			set(rl, ru, value, 0);
+		}
+		public void set(int rl, int ru, Array value, int rlSrc) {
+			if( value instanceof DictStringArray ) {
+				//translate codes once per distinct source value
+				DictStringArray src = (DictStringArray) value;
+				int[] tcodes = new int[src._dictSize+1];
+				Arrays.fill(tcodes, 1, tcodes.length, -1);
+				for( int i=rl; i<=ru; i++ ) {
+					int code = src._codes[rlSrc+i-rl];
+					if( tcodes[code] < 0 )
+						tcodes[code] = getCode(src._dict[code-1]);
+					_codes[i] = tcodes[code];
+				}
+			}
+			else {
+				for( int i=rl; i<=ru; i++ )
+					_codes[i] = getCode(((StringArray)value)._data[rlSrc+i-rl]);
+			}
+		}
+		public void append(String value) {
+			if( _codes.length <= _size )
+				_codes = Arrays.copyOf(_codes, newSize());
+			_codes[_size++] = getCode(value);
+		}
+		public void write(DataOutput out) throws IOException {
+			out.writeInt(_dictSize);
+			for( int i=0; i<_dictSize; i++ )
+				out.writeUTF(_dict[i]);
+			BulkSerializationUtils.writeIntArray(out, _codes, 0, _size);
+		}
+		public void readFields(DataInput in) throws IOException {
+			_size = _codes.length;
+			_dictSize = in.readInt();
+			_dict = new String[_dictSize];
+			for( int i=0; i<_dictSize; i++ )
+				_dict[i] = in.readUTF();
+			_map = null;
+			BulkSerializationUtils.readIntArray(in, _codes, 0, _size);
+		}
+		public Array clone() {
+			return new DictStringArray(Arrays.copyOf(_codes, _size), 
+				Arrays.copyOf(_dict, _dictSize), _dictSize);
+		}
+		public Array slice(int rl, int ru) {
+			//slice codes and compact dictionary to the referenced values
+			int[] tcodes = new int[_dictSize+1];
+			int[] codes = new int[ru-rl+1];
+			String[] dict = new String[Math.min(_dictSize, ru-rl+1)];
+			int dictSize = 0;
+			for( int i=rl; i<=ru; i++ ) {
+				int code = _codes[i];
+				if( code > 0 && tcodes[code] == 0 ) {
+					dict[dictSize++] = _dict[code-1];
+					tcodes[code] = dictSize;
+				}
+				codes[i-rl] = tcodes[code];
+			}
+			return new DictStringArray(codes, dict, dictSize);
+		}
+		
+		/**
+		 * Returns a plain string array of the decoded values.
+		 * 
+		 * @return
+		 */
+		public StringArray decode() {
+			String[] data = new String[_size];
+			for( int i=0; i<_size; i++ )
+				data[i] = get(i);
+			return new StringArray(data);
+		}
+		
+		/**
+		 * Indicates per code if it is referenced by any row, which 
+		 * excludes dictionary entries that were overwritten by updates.
+		 * 
+		 * @return
+		 */
+		public boolean[] getUsedCodes() {
+			boolean[] ret = new boolean[_dictSize+1];
+			for( int i=0; i<_size; i++ )
+				ret[_codes[i]] = true;
+			return ret;
+		}
+		
+		/**
+		 * 
+		 * @param value
+		 * @return
+		 */
+		private int getCode(String value) {
+			if( value == null )
+				return 0;
+			if( _map == null ) {
+				_map = new StringIntHashMap(_dictSize);
+				for( int i=0; i<_dictSize; i++ )
+					_map.put(_dict[i], i+1);
+			}
+			int code = _map.putIfAbsent(value, _dictSize+1);
+			if( code > _dictSize ) { //new value
+				if( _dict.length <= _dictSize )
+					_dict = Arrays.copyOf(_dict, Math.max(_dict.length*2, 4));
+				_dict[_dictSize++] = value;
+			}
+			return code;
+		}
+	}
+	
 	/**
 	 * 
 	 */
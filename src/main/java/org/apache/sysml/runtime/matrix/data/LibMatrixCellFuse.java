@@ -0,0 +1,552 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.matrix.operators.CellFuseOperator;
+
+/**
+ * Library for fused chains of cell-wise operations (see CellFuseOperator). 
+ * 
+ * Instead of materializing an intermediate per operation, the cell program is 
+ * evaluated in a single pass over the inputs in small chunks of cells. Each 
+ * operation is applied to an entire chunk before the next one, which keeps the 
+ * per-cell interpretation overhead low and all intermediates in the L1/L2 cache.
+ * Dense inputs are accessed in-place and the outermost intermediate is directly
+ * computed into the output. If the fused operation has a single sparse matrix 
+ * input and maps zero to zero, only non-zero cells are processed. 
+ * 
+ */
+public class LibMatrixCellFuse 
+{
+	private static final int CHUNK_SIZE = 1024; //cells per vectorized evaluation (8KB per intermediate)
+	private static final long PAR_NUMCELL_THRESHOLD = 64L*1024; //MIN 64K cells
+	
+	private LibMatrixCellFuse() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Executes the fused cell-wise operation over the given inputs, where 
+	 * inputs[i]==null indicates that the i-th input is the scalar scalars[i].
+	 * All matrix inputs are required to have the same dimensions.
+	 * 
+	 * @param op
+	 * @param inputs
+	 * @param scalars
+	 * @param ret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock execute(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars, MatrixBlock ret, int k) 
+		throws DMLRuntimeException
+	{
+		//check and obtain output dimensions
+		if( inputs.length < op.getNumInputs() || scalars.length < op.getNumInputs() )
+			throw new DMLRuntimeException("Invalid number of inputs for "+op+": "+inputs.length);
+		
+		MatrixBlock in = null;
+		int numMatrices = 0;
+		for( MatrixBlock mb : inputs ) 
+			if( mb != null ) {
+				if( in != null && (mb.getNumRows()!=in.getNumRows() || mb.getNumColumns()!=in.getNumColumns()) )
+					throw new DMLRuntimeException("Dimension mismatch for "+op+": "+in.getNumRows()+"x"+in.getNumColumns()
+							+" vs "+mb.getNumRows()+"x"+mb.getNumColumns());
+				in = (in == null) ? mb : in;
+				numMatrices++;
+			}
+		if( in == null )
+			throw new DMLRuntimeException("Missing matrix input for "+op+".");
+		
+		int m = in.getNumRows();
+		int n = in.getNumColumns();
+		if( ret == null )
+			ret = new MatrixBlock();
+		
+		//check for sparse-safe processing of a single sparse input
+		boolean sparseSafe = (numMatrices == 1 && in.isInSparseFormat() 
+				&& evalZeroCell(op, inputs, scalars) == 0);
+		ret.reset(m, n, sparseSafe);
+		if( sparseSafe && in.isEmptyBlock(false) )
+			return ret;
+		ret.allocateDenseOrSparseBlock();
+		
+		//core fused cell-wise computation
+		long nnz = 0;
+		if( k <= 1 || m < 2 || (long)m*n < PAR_NUMCELL_THRESHOLD ) {
+			nnz = sparseSafe ? executeSparseSafe(op, inputs, scalars, ret, 0, m) :
+				executeDense(op, inputs, scalars, ret, 0, m);
+		}
+		else {
+			try {
+				ExecutorService pool = Executors.newFixedThreadPool( k );
+				ArrayList<CellFuseTask> tasks = new ArrayList<CellFuseTask>();
+				int blklen = (int)(Math.ceil((double)m/k));
+				for( int i=0; i<k & i*blklen<m; i++ )
+					tasks.add(new CellFuseTask(op, inputs, scalars, ret, sparseSafe, i*blklen, Math.min((i+1)*blklen, m)));
+				List<Future<Long>> taskret = pool.invokeAll(tasks);
+				pool.shutdown();
+				//aggregate partial nnz and check for errors
+				for( Future<Long> task : taskret )
+					nnz += task.get();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+		
+		//post-processing (nnz maintained in parallel)
+		ret.setNonZeros(nnz);
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @param inputs
+	 * @param scalars
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static double evalZeroCell(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars) 
+		throws DMLRuntimeException
+	{
+		double[] in = new double[op.getNumInputs()];
+		for( int i=0; i<in.length; i++ )
+			in[i] = (inputs[i] != null) ? 0 : scalars[i];
+		return op.execute(in);
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @param inputs
+	 * @param scalars
+	 * @param ret
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long executeDense(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars, MatrixBlock ret, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		final int n = ret.getNumColumns();
+		final int cl = rl * n, cu = ru * n;
+		double[] c = ret.getDenseBlock();
+		
+		//prepare input references and load buffers for sparse or empty inputs
+		int numIn = op.getNumInputs();
+		double[][] iref = new double[numIn][];
+		int[] ioff = new int[numIn];
+		double[][] ibuf = new double[numIn][];
+		for( int i=0; i<numIn; i++ )
+			if( inputs[i] != null && !isDirectDenseInput(inputs[i]) )
+				ibuf[i] = new double[CHUNK_SIZE];
+		
+		//prepare stack, where the bottom entry is computed into the output
+		EvalStack stack = new EvalStack(op.getMaxStackDepth(), c);
+		
+		long lnnz = 0;
+		for( int cix=cl; cix<cu; cix+=CHUNK_SIZE ) {
+			int len = Math.min(CHUNK_SIZE, cu-cix);
+			for( int i=0; i<numIn; i++ ) {
+				if( inputs[i] == null ) 
+					continue;
+				if( ibuf[i] == null ) {
+					iref[i] = inputs[i].getDenseBlock();
+					ioff[i] = cix;
+				}
+				else {
+					loadChunk(inputs[i], cix, len, n, ibuf[i]);
+					iref[i] = ibuf[i];
+					ioff[i] = 0;
+				}
+			}
+			stack.boff[0] = cix;
+			evalChunk(op, inputs, scalars, iref, ioff, stack, len);
+			
+			//maintain nnz of output chunk
+			for( int j=cix; j<cix+len; j++ )
+				lnnz += (c[j] != 0) ? 1 : 0;
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @param inputs
+	 * @param scalars
+	 * @param ret
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long executeSparseSafe(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars, MatrixBlock ret, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		//get the single sparse matrix input
+		int pos = -1;
+		for( int i=0; i<inputs.length & pos<0; i++ )
+			pos = (inputs[i] != null) ? i : -1;
+		SparseBlock a = inputs[pos].getSparseBlock();
+		SparseBlock c = ret.getSparseBlock();
+		
+		double[][] iref = new double[op.getNumInputs()][];
+		int[] ioff = new int[op.getNumInputs()];
+		double[] tmp = new double[CHUNK_SIZE];
+		EvalStack stack = new EvalStack(op.getMaxStackDepth(), tmp);
+		
+		long lnnz = 0;
+		for( int i=rl; i<ru; i++ ) {
+			if( a.isEmpty(i) )
+				continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			c.allocate(i, alen);
+			
+			//evaluate cell program over non-zero values only
+			for( int k=apos; k<apos+alen; k+=CHUNK_SIZE ) {
+				int len = Math.min(CHUNK_SIZE, apos+alen-k);
+				iref[pos] = avals;
+				ioff[pos] = k;
+				evalChunk(op, inputs, scalars, iref, ioff, stack, len);
+				for( int j=0; j<len; j++ )
+					if( tmp[j] != 0 ) {
+						c.append(i, aix[k+j], tmp[j]);
+						lnnz++;
+					}
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Evaluates the cell program for a chunk of len cells, where the result is 
+	 * written to the bottom buffer of the given stack.
+	 * 
+	 * @param op
+	 * @param inputs
+	 * @param scalars
+	 * @param iref
+	 * @param ioff
+	 * @param s
+	 * @param len
+	 * @throws DMLRuntimeException
+	 */
+	private static void evalChunk(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars, double[][] iref, int[] ioff, EvalStack s, int len) 
+		throws DMLRuntimeException
+	{
+		int d = -1;
+		for( int t=0; t<op.getNumTokens(); t++ ) 
+		{
+			switch( op.getTokenType(t) ) 
+			{
+				case CellFuseOperator.TOKEN_INPUT: {
+					int pos = op.getTokenInput(t);
+					d++;
+					s.scalar[d] = (inputs[pos] == null);
+					s.val[d] = scalars[pos];
+					s.ref[d] = iref[pos];
+					s.off[d] = ioff[pos];
+					break;
+				}
+				case CellFuseOperator.TOKEN_UNARY: {
+					ValueFunction fn = op.getTokenFunction(t);
+					if( s.scalar[d] ) {
+						s.val[d] = fn.execute(s.val[d]);
+					}
+					else {
+						double[] a = s.ref[d], c = s.buf[d];
+						int ai = s.off[d], ci = s.boff[d];
+						for( int j=0; j<len; j++ )
+							c[ci+j] = fn.execute(a[ai+j]);
+						s.setBuffer(d);
+					}
+					break;
+				}
+				case CellFuseOperator.TOKEN_BINARY: {
+					ValueFunction fn = op.getTokenFunction(t);
+					byte code = op.getTokenCode(t);
+					if( s.scalar[d-1] && s.scalar[d] ) {
+						s.val[d-1] = fn.execute(s.val[d-1], s.val[d]);
+					}
+					else {
+						if( s.scalar[d] ) //vector-scalar
+							binaryVS(code, fn, s.ref[d-1], s.off[d-1], s.val[d], s.buf[d-1], s.boff[d-1], len);
+						else if( s.scalar[d-1] ) //scalar-vector
+							binarySV(code, fn, s.val[d-1], s.ref[d], s.off[d], s.buf[d-1], s.boff[d-1], len);
+						else //vector-vector
+							binaryVV(code, fn, s.ref[d-1], s.off[d-1], s.ref[d], s.off[d], s.buf[d-1], s.boff[d-1], len);
+						s.setBuffer(d-1);
+					}
+					d--;
+					break;
+				}
+			}
+		}
+		
+		//write final result if not yet computed into the output
+		double[] c = s.buf[0];
+		int ci = s.boff[0];
+		if( s.scalar[0] )
+			Arrays.fill(c, ci, ci+len, s.val[0]);
+		else if( s.ref[0] != c || s.off[0] != ci )
+			System.arraycopy(s.ref[0], s.off[0], c, ci, len);
+	}
+	
+	/**
+	 * 
+	 * @param code
+	 * @param fn
+	 * @param a
+	 * @param ai
+	 * @param b
+	 * @param bi
+	 * @param c
+	 * @param ci
+	 * @param len
+	 * @throws DMLRuntimeException
+	 */
+	private static void binaryVV(byte code, ValueFunction fn, double[] a, int ai, double[] b, int bi, double[] c, int ci, int len) 
+		throws DMLRuntimeException
+	{
+		switch( code ) {
+			case CellFuseOperator.CODE_PLUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] + b[bi+j];
+				break;
+			case CellFuseOperator.CODE_MINUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] - b[bi+j];
+				break;
+			case CellFuseOperator.CODE_MULT:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] * b[bi+j];
+				break;
+			case CellFuseOperator.CODE_DIV:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] / b[bi+j];
+				break;
+			default:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = fn.execute(a[ai+j], b[bi+j]);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param code
+	 * @param fn
+	 * @param a
+	 * @param ai
+	 * @param b
+	 * @param c
+	 * @param ci
+	 * @param len
+	 * @throws DMLRuntimeException
+	 */
+	private static void binaryVS(byte code, ValueFunction fn, double[] a, int ai, double b, double[] c, int ci, int len) 
+		throws DMLRuntimeException
+	{
+		switch( code ) {
+			case CellFuseOperator.CODE_PLUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] + b;
+				break;
+			case CellFuseOperator.CODE_MINUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] - b;
+				break;
+			case CellFuseOperator.CODE_MULT:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] * b;
+				break;
+			case CellFuseOperator.CODE_DIV:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a[ai+j] / b;
+				break;
+			default:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = fn.execute(a[ai+j], b);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param code
+	 * @param fn
+	 * @param a
+	 * @param b
+	 * @param bi
+	 * @param c
+	 * @param ci
+	 * @param len
+	 * @throws DMLRuntimeException
+	 */
+	private static void binarySV(byte code, ValueFunction fn, double a, double[] b, int bi, double[] c, int ci, int len) 
+		throws DMLRuntimeException
+	{
+		switch( code ) {
+			case CellFuseOperator.CODE_PLUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a + b[bi+j];
+				break;
+			case CellFuseOperator.CODE_MINUS:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a - b[bi+j];
+				break;
+			case CellFuseOperator.CODE_MULT:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a * b[bi+j];
+				break;
+			case CellFuseOperator.CODE_DIV:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = a / b[bi+j];
+				break;
+			default:
+				for( int j=0; j<len; j++ )
+					c[ci+j] = fn.execute(a, b[bi+j]);
+		}
+	}
+	
+	/**
+	 * Copies a chunk of cells of a sparse or empty input into a dense buffer.
+	 * 
+	 * @param in
+	 * @param cix
+	 * @param len
+	 * @param n
+	 * @param buf
+	 */
+	private static void loadChunk(MatrixBlock in, int cix, int len, int n, double[] buf) 
+	{
+		Arrays.fill(buf, 0, len, 0);
+		if( in.isEmptyBlock(false) || !in.isInSparseFormat() )
+			return;
+		
+		SparseBlock a = in.getSparseBlock();
+		int rl = cix / n, ru = (cix+len-1) / n;
+		for( int i=rl; i<=ru; i++ ) {
+			if( a.isEmpty(i) )
+				continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			int cl = (i==rl) ? cix - i*n : 0;
+			int cu = (i==ru) ? cix + len - i*n : n;
+			int boff = i*n - cix;
+			for( int k=apos; k<apos+alen && aix[k]<cu; k++ )
+				if( aix[k] >= cl )
+					buf[boff+aix[k]] = avals[k];
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @return
+	 */
+	private static boolean isDirectDenseInput(MatrixBlock in) {
+		return !in.isInSparseFormat() && in.getDenseBlock() != null;
+	}
+	
+	/**
+	 * Evaluation stack of vectors or scalars. Each stack position owns a chunk 
+	 * buffer for computed intermediates, while inputs are only referenced.
+	 */
+	private static class EvalStack
+	{
+		private final boolean[] scalar;
+		private final double[] val;
+		private final double[][] ref;
+		private final int[] off;
+		private final double[][] buf;
+		private final int[] boff;
+		
+		public EvalStack(int depth, double[] out) {
+			scalar = new boolean[depth];
+			val = new double[depth];
+			ref = new double[depth][];
+			off = new int[depth];
+			buf = new double[depth][];
+			boff = new int[depth];
+			buf[0] = out;
+			for( int i=1; i<depth; i++ )
+				buf[i] = new double[CHUNK_SIZE];
+		}
+		
+		public void setBuffer(int d) {
+			scalar[d] = false;
+			ref[d] = buf[d];
+			off[d] = boff[d];
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CellFuseTask implements Callable<Long> 
+	{
+		private CellFuseOperator _op = null;
+		private MatrixBlock[] _inputs = null;
+		private double[] _scalars = null;
+		private MatrixBlock _ret = null;
+		private boolean _sparseSafe = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected CellFuseTask(CellFuseOperator op, MatrixBlock[] inputs, double[] scalars, MatrixBlock ret, boolean sparseSafe, int rl, int ru) {
+			_op = op;
+			_inputs = inputs;
+			_scalars = scalars;
+			_ret = ret;
+			_sparseSafe = sparseSafe;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			return _sparseSafe ? executeSparseSafe(_op, _inputs, _scalars, _ret, _rl, _ru) :
+				executeDense(_op, _inputs, _scalars, _ret, _rl, _ru);
+		}
+	}
+}
@@ -71,6 +71,7 @@ public class LibMatrixMult
 	public static final boolean LOW_LEVEL_OPTIMIZATION = true;
 	public static final long MEM_OVERHEAD_THRESHOLD = 2L*1024*1024; //MAX 2 MB
 	private static final long PAR_MINFLOP_THRESHOLD = 2L*1024*1024; //MIN 2 MFLOP
+	private static final long PACKED_MINFLOP_THRESHOLD = 64L*1024*1024; //MIN 64 MFLOP
 	
 	private LibMatrixMult() {
 		//prevent instantiation via private constructor
@@ -1089,6 +1090,11 @@ public class LibMatrixMult
 					for( int j=0, bix=0; j<n2; j++, bix+=cd )
 						c[cix+j] = dotProduct(a, b, aix, bix, cd);
 			}
+			else if( checkPackedMatrixMultDenseDense(m1, m2, ru-rl, cu-cl) //MATRIX-MATRIX (large)
+				&& isFinite(b, n, 0, cd, cl, cu) ) 
+			{
+				matrixMultDenseDenseMMPacked(a, b, c, n, cd, rl, ru, cl, cu);
+			}
 			else                       //MATRIX-MATRIX
 			{	
 				//1) Unrolled inner loop (for better instruction-level parallelism)
@@ -1153,6 +1159,176 @@ public class LibMatrixMult
 		
 	}
 	
+	/**
+	 * Packed, cache-blocked and register-tiled dense-dense matrix multiplication
+	 * (GotoBLAS-style) for large matrix-matrix products. Row panels of a and column
+	 * panels of b are copied into contiguous, zero-padded buffers such that the
+	 * 4x4 micro kernel streams both operands sequentially from L1.
+	 * 
+	 * @param a dense lhs input
+	 * @param b dense rhs input
+	 * @param c dense output (accumulated into)
+	 * @param n number of columns in b and c
+	 * @param cd common dimension 
+	 * @param rl row lower bound (inclusive)
+	 * @param ru row upper bound (exclusive)
+	 * @param cl column lower bound (inclusive)
+	 * @param cu column upper bound (exclusive)
+	 */
+	private static void matrixMultDenseDenseMMPacked(double[] a, double[] b, double[] c, final int n, final int cd, int rl, int ru, int cl, int cu)
+	{
+		//1) Packed row/column panels (for sequential, aligned access in micro kernel)
+		//2) Blocked execution (b panel in L2/L3, a panel in L2, micro panels in L1)
+		//3) Register-tiled 4x4 micro kernel (for better instruction-level parallelism)
+		
+		final int blocksizeI = 64;   //128KB packed a panel (typical L2 size per core), 64x256
+		final int blocksizeK = 256;  //8KB micro panels of a and b (4x256, in L1)
+		final int blocksizeJ = 1024; //2MB packed b panel (typical L3 share), 256x1024
+		
+		//note: in contrast to the other kernels, the micro kernel does not skip zeros
+		//in a, which is only equivalent if the used part of b contains no NaN/Inf 
+		//(0*NaN=NaN), and hence the caller is responsible for checking finite b.
+		
+		//temporary arrays (packed a and b panels, padded to multiples of 4)
+		double[] pa = new double[ blocksizeI * blocksizeK ];
+		double[] pb = new double[ UtilFunctions.roundToNext(Math.min(blocksizeJ, cu-cl), 4) * blocksizeK ];
+		
+		//blocked execution
+		for( int bj = cl; bj < cu; bj+=blocksizeJ ) 
+			for( int bk = 0, bjmin = Math.min(cu, bj+blocksizeJ); bk < cd; bk+=blocksizeK ) 
+			{
+				int bkmin = Math.min(cd, bk+blocksizeK);
+				int bklen = bkmin-bk;
+				
+				//pack b panel into column micro panels of width 4
+				packMatrixMultRightPanel(b, pb, n, bk, bkmin, bj, bjmin);
+				
+				for( int bi = rl; bi < ru; bi+=blocksizeI ) 
+				{
+					int bimin = Math.min(ru, bi+blocksizeI);
+					
+					//pack a panel into row micro panels of height 4
+					packMatrixMultLeftPanel(a, pa, cd, bi, bimin, bk, bkmin);
+					
+					//core micro kernel over 4x4 tiles of c
+					for( int j = bj, pbix = 0; j < bjmin; j+=4, pbix+=4*bklen )
+						for( int i = bi, paix = 0; i < bimin; i+=4, paix+=4*bklen )
+							matrixMultDenseDenseMMKernel(pa, pb, c, paix, pbix, i*n+j, 
+								n, bklen, Math.min(4, bimin-i), Math.min(4, bjmin-j));
+				}
+			}
+	}
+	
+	/**
+	 * Copies the sub block [rl,ru) x [cl,cu) of a into row micro panels of 
+	 * height 4, stored in k-major order and padded with zeros.
+	 * 
+	 * @param a
+	 * @param pa
+	 * @param cd
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void packMatrixMultLeftPanel(double[] a, double[] pa, final int cd, int rl, int ru, int cl, int cu)
+	{
+		final int len = cu-cl;
+		for( int i = rl, pix = 0; i < ru; i+=4, pix+=4*len ) {
+			final int mr = Math.min(4, ru-i);
+			for( int ii = 0; ii < 4; ii++ ) {
+				if( ii < mr )
+					for( int k = 0, aix = (i+ii)*cd+cl; k < len; k++, aix++ )
+						pa[ pix+4*k+ii ] = a[ aix ];
+				else
+					for( int k = 0; k < len; k++ )
+						pa[ pix+4*k+ii ] = 0;
+			}
+		}
+	}
+	
+	/**
+	 * Copies the sub block [rl,ru) x [cl,cu) of b into column micro panels of 
+	 * width 4, stored in k-major order and padded with zeros.
+	 * 
+	 * @param b
+	 * @param pb
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 */
+	private static void packMatrixMultRightPanel(double[] b, double[] pb, final int n, int rl, int ru, int cl, int cu)
+	{
+		final int len = ru-rl;
+		for( int j = cl, pix = 0; j < cu; j+=4, pix+=4*len ) {
+			final int nr = Math.min(4, cu-j);
+			for( int k = rl, bix = rl*n+j, pixk = pix; k < ru; k++, bix+=n, pixk+=4 ) {
+				if( nr == 4 ) {
+					pb[ pixk   ] = b[ bix   ];
+					pb[ pixk+1 ] = b[ bix+1 ];
+					pb[ pixk+2 ] = b[ bix+2 ];
+					pb[ pixk+3 ] = b[ bix+3 ];
+				}
+				else {
+					for( int jj = 0; jj < 4; jj++ )
+						pb[ pixk+jj ] = (jj < nr) ? b[ bix+jj ] : 0;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Register-tiled 4x4 micro kernel, computing c[4x4] += pa[4xlen] %*% pb[lenx4] 
+	 * over packed micro panels. Partial tiles (mr, nr < 4) at the panel borders are
+	 * computed on the zero-padded panels but only the valid cells are written back.
+	 * 
+	 * @param pa
+	 * @param pb
+	 * @param c
+	 * @param paix
+	 * @param pbix
+	 * @param cix
+	 * @param n
+	 * @param len
+	 * @param mr
+	 * @param nr
+	 */
+	private static void matrixMultDenseDenseMMKernel(double[] pa, double[] pb, double[] c, int paix, int pbix, final int cix, final int n, final int len, final int mr, final int nr)
+	{
+		double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+		double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+		double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+		double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+		
+		//rank-1 updates of the 4x4 register tile
+		for( int k = 0; k < len; k++, paix+=4, pbix+=4 ) {
+			final double a0 = pa[ paix   ], a1 = pa[ paix+1 ], a2 = pa[ paix+2 ], a3 = pa[ paix+3 ];
+			final double b0 = pb[ pbix   ], b1 = pb[ pbix+1 ], b2 = pb[ pbix+2 ], b3 = pb[ pbix+3 ];
+			c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+			c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+			c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+			c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+		}
+		
+		//write back register tile
+		if( mr == 4 && nr == 4 ) {
+			int ix = cix;
+			c[ ix ] += c00; c[ ix+1 ] += c01; c[ ix+2 ] += c02; c[ ix+3 ] += c03; ix += n;
+			c[ ix ] += c10; c[ ix+1 ] += c11; c[ ix+2 ] += c12; c[ ix+3 ] += c13; ix += n;
+			c[ ix ] += c20; c[ ix+1 ] += c21; c[ ix+2 ] += c22; c[ ix+3 ] += c23; ix += n;
+			c[ ix ] += c30; c[ ix+1 ] += c31; c[ ix+2 ] += c32; c[ ix+3 ] += c33;
+		}
+		else {
+			double[] tile = new double[]{ c00, c01, c02, c03, c10, c11, c12, c13, 
+			                              c20, c21, c22, c23, c30, c31, c32, c33 };
+			for( int i = 0, ix = cix; i < mr; i++, ix += n )
+				for( int j = 0; j < nr; j++ )
+					c[ ix+j ] += tile[ 4*i+j ];
+		}
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -3980,6 +4156,43 @@ public class LibMatrixMult
 				&& 8*m1.rlen*m1.clen < 256*1024 ); //lhs fits in L2 cache
 	}
 	
+	/**
+	 * Indicates if the sub block [rl,ru) x [cl,cu) of the given dense 
+	 * array contains only finite values, i.e., no NaN or Inf.
+	 * 
+	 * @param b
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @param cl
+	 * @param cu
+	 * @return
+	 */
+	private static boolean isFinite( double[] b, final int n, int rl, int ru, int cl, int cu ) {
+		for( int i=rl, bix=rl*n; i<ru; i++, bix+=n )
+			for( int j=bix+cl; j<bix+cu; j++ )
+				if( Double.isNaN(b[j]) || Double.isInfinite(b[j]) )
+					return false;
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param rlen number of rows in task range
+	 * @param clen number of columns in task range
+	 * @return
+	 */
+	private static boolean checkPackedMatrixMultDenseDense( MatrixBlock m1, MatrixBlock m2, int rlen, int clen ) {
+		//use packed kernel if dense-dense, large workload, enough rows/cols per task to amortize 
+		//the packing of panels, and lhs almost dense (otherwise sparsity-aware skipping preferred)
+		return (LOW_LEVEL_OPTIMIZATION && !m1.sparse && !m2.sparse
+				&& rlen >= 16 && clen >= 64 && m1.clen >= 64
+				&& 2L * m1.rlen * m1.clen * m2.clen >= PACKED_MINFLOP_THRESHOLD
+				&& m1.nonZeros >= 0.5 * m1.rlen * m1.clen );
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -78,6 +78,7 @@ import org.apache.sysml.runtime.matrix.operators.QuaternaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.BulkSerializationUtils;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.FastBufferedDataInputStream;
 import org.apache.sysml.runtime.util.FastBufferedDataOutputStream;
@@ -103,6 +104,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		ULTRA_SPARSE_BLOCK, //ultra sparse representation, in-mem same as sparse
 		SPARSE_BLOCK, //sparse representation, see sparseRows 
 		DENSE_BLOCK, //dense representation, see denseBlock			
+		SPARSE_CSR_BLOCK, //sparse representation as csr arrays, see SparseBlockCSR
 	}
 	
 	//matrix meta data
@@ -174,6 +176,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		this.copy(that);
 	}
 	
+	public MatrixBlock(int rl, int cl, long nnz, SparseBlock sblock)
+	{
+		this(rl, cl, true, nnz);
+		nonZeros = nnz;
+		sparseBlock = sblock;
+	}
+	
 	public MatrixBlock(MatrixBlock that, SparseBlock.Type stype, boolean deep)
 	{
 		//sanity check sparse matrix block
@@ -334,6 +343,34 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		maxcolumn = c;
 	}
 	
+	/**
+	 * Initializes a dense matrix block by reference to the given row-major
+	 * array, i.e., without copying the input data. The array must not be
+	 * modified while in use by this matrix block. 
+	 * 
+	 * @param arr
+	 * @param r
+	 * @param c
+	 * @throws DMLRuntimeException
+	 */
+	public void initByReference(double[] arr, int r, int c) 
+		throws DMLRuntimeException 
+	{
+		//input checks
+		if( arr.length != r*c )
+			throw new DMLRuntimeException("MatrixBlockDSM.initByReference() invoked with invalid array length "+arr.length+" for dimensions ("+r+","+c+")");
+		
+		rlen = r;
+		clen = c;
+		sparse = false;
+		sparseBlock = null;
+		denseBlock = arr;
+		recomputeNonZeros();
+		
+		maxrow = r;
+		maxcolumn = c;
+	}
+	
 	/**
 	 * 
 	 * @param val
@@ -424,7 +461,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			denseBlock = LibMatrixDNN.getReuseableData(limit);
 		}
 		if(denseBlock == null || denseBlock.length < limit) {
-			denseBlock = new double[(int)limit];
+			denseBlock = DenseBlockPool.allocateDenseBlock((int)limit);
 		}
 		
 		
@@ -1918,6 +1955,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					else
 						readSparseToDense(in);
 					break;
+				case SPARSE_CSR_BLOCK:
+					nonZeros = readNnzInfo( in, false );
+					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros);
+					cleanupBlock(sparse, true); //reuse dense
+					readSparseBlockCSR(in);
+					break;
 				case DENSE_BLOCK:
 					sparse = false;
 					cleanupBlock(false, true); //reuse dense
@@ -1962,14 +2005,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			nonZeros = mbin.readDoubleArray(limit, denseBlock);			
 			((FastBufferedDataInputStream)mbin).close();
 		}
-		else //default deserialize
+		else //default deserialize (bulk)
 		{
-			for( int i=0; i<limit; i++ )
-			{
-				denseBlock[i]=in.readDouble();
-				if(denseBlock[i]!=0)
-					nonZeros++;
-			}
+			nonZeros = BulkSerializationUtils.readDoubleArray(in, denseBlock, 0, limit);
 		}
 	}
 	
@@ -1997,16 +2035,48 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			nonZeros = mbin.readSparseRows(rlen, sparseBlock);		
 			((FastBufferedDataInputStream)mbin).close();
 		}
-		else //default deserialize
+		else //default deserialize (bulk)
 		{
-			for(int r=0; r<rlen; r++) {
-				int rnnz = in.readInt(); //row nnz
-				if( rnnz > 0 ) {
-					sparseBlock.reset(r, rnnz, clen);
-					for(int j=0; j<rnnz; j++) //col index/value pairs
-						sparseBlock.append(r, in.readInt(), in.readDouble());		
-				}
-			}
+			nonZeros = BulkSerializationUtils.readSparseRows(in, rlen, clen, sparseBlock);
+		}
+	}
+	
+	/**
+	 * Reads a block in csr format (row nnz, column indexes, values), which is
+	 * either directly used as csr sparse block or scattered into a dense block.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws DMLRuntimeException 
+	 */
+	private void readSparseBlockCSR(DataInput in) 
+		throws IOException, DMLRuntimeException 
+	{
+		int nnz = (int) nonZeros;
+		
+		//read row nnz and compute row pointers
+		int[] ptr = new int[rlen+1];
+		BulkSerializationUtils.readIntArray(in, ptr, 1, rlen);
+		for( int i=0; i<rlen; i++ )
+			ptr[i+1] += ptr[i];
+		
+		//read column indexes and values
+		int[] indexes = new int[nnz];
+		double[] values = new double[nnz];
+		BulkSerializationUtils.readIntArray(in, indexes, 0, nnz);
+		BulkSerializationUtils.readDoubleArray(in, values, 0, nnz);
+		
+		if( sparse ) {
+			//use read arrays as csr sparse block w/o copy
+			sparseBlock = new SparseBlockCSR(ptr, indexes, values, nnz);
+		}
+		else {
+			//scatter into dense block
+			allocateDenseBlock(false);
+			Arrays.fill(denseBlock, 0);
+			for( int i=0, ix=0; i<rlen; i++, ix+=clen )
+				for( int j=ptr[i]; j<ptr[i+1]; j++ )
+					denseBlock[ix+indexes[j]] = values[j];
 		}
 	}
 	
@@ -2120,6 +2190,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				writeEmptyBlock(out);
 			else if( nonZeros<rlen && sparseDst ) 
 				writeSparseToUltraSparse(out); 
+			else if( sparseDst && isSerializableAsCSR() )
+				writeSparseBlockCSR(out);
 			else if( sparseDst ) 
 				writeSparseBlock(out);
 			else
@@ -2164,9 +2236,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		int limit=rlen*clen;
 		if( out instanceof MatrixBlockDataOutput ) //fast serialize
 			((MatrixBlockDataOutput)out).writeDoubleArray(limit, denseBlock);
-		else //general case (if fast serialize not supported)
-			for(int i=0; i<limit; i++)
-				out.writeDouble(denseBlock[i]);
+		else //general case (if fast serialize not supported, bulk)
+			BulkSerializationUtils.writeDoubleArray(out, denseBlock, 0, limit);
 	}
 	
 	/**
@@ -2182,30 +2253,46 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		if( out instanceof MatrixBlockDataOutput ) //fast serialize
 			((MatrixBlockDataOutput)out).writeSparseRows(rlen, sparseBlock);
-		else //general case (if fast serialize not supported)
-		{
-			int r=0;
-			for(;r<Math.min(rlen, sparseBlock.numRows()); r++)
-			{
-				if( sparseBlock.isEmpty(r) )
-					out.writeInt(0);
-				else
-				{
-					int pos = sparseBlock.pos(r);
-					int nr = sparseBlock.size(r);
-					int[] cols = sparseBlock.indexes(r);
-					double[] values=sparseBlock.values(r);
-					
-					out.writeInt(nr);
-					for(int j=pos; j<pos+nr; j++) {
-						out.writeInt(cols[j]);
-						out.writeDouble(values[j]);
-					}					
-				}	
-			}
-			for(;r<rlen; r++)
-				out.writeInt(0);
-		}
+		else //general case (if fast serialize not supported, bulk)
+			BulkSerializationUtils.writeSparseRows(out, rlen, sparseBlock);
+	}
+	
+	/**
+	 * Writes a csr sparse block as row nnz, column indexes, and values, 
+	 * where the arrays are written in bulk. The size on disk is equivalent 
+	 * to the sparse block format.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeSparseBlockCSR(DataOutput out) 
+		throws IOException 
+	{
+		out.writeByte( BlockType.SPARSE_CSR_BLOCK.ordinal() );
+		writeNnzInfo( out, false );
+		
+		//write row nnz
+		int[] rnnz = new int[rlen];
+		for( int i=0; i<rlen; i++ )
+			rnnz[i] = sparseBlock.size(i);
+		BulkSerializationUtils.writeIntArray(out, rnnz, 0, rlen);
+		
+		//write column indexes and values (contiguous in csr)
+		int nnz = (int) nonZeros;
+		BulkSerializationUtils.writeIntArray(out, sparseBlock.indexes(0), 0, nnz);
+		BulkSerializationUtils.writeDoubleArray(out, sparseBlock.values(0), 0, nnz);
+	}
+	
+	/**
+	 * Indicates if the sparse block can be written in csr format, i.e., if it
+	 * is a csr block that covers all rows and has consistent nnz.
+	 * 
+	 * @return
+	 */
+	private boolean isSerializableAsCSR() {
+		return (sparseBlock instanceof SparseBlockCSR
+			&& sparseBlock.numRows() == rlen
+			&& sparseBlock.size() == nonZeros);
 	}
 	
 	/**
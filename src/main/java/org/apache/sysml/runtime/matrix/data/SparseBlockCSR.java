@@ -103,6 +103,18 @@ public class SparseBlockCSR extends SparseBlock
 		}
 	}
 	
+	/**
+	 * Constructor for given row pointers, column indexes, and values, which
+	 * are taken over without copy (column indexes sorted per row).
+	 */
+	public SparseBlockCSR(int[] rowPtr, int[] colInd, double[] values, int nnz)
+	{
+		_ptr = rowPtr;
+		_indexes = colInd;
+		_values = values;
+		_size = nnz;
+	}
+	
 	/**
 	 * Copy constructor old sparse row representation. 
 	 */
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.operators;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.functionobjects.Divide;
+import org.apache.sysml.runtime.functionobjects.Minus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+
+/**
+ * Operator for a fused chain of cell-wise operations. The chain is given as a
+ * cell program in reverse polish notation over the inputs of the fused operation, 
+ * e.g., "i0,i1,b*,i2,b+,uexp" for exp(X*Y+z). Input tokens 'i' refer to the n-th 
+ * input (matrix or scalar), and 'u'/'b' tokens apply the unary builtin or binary 
+ * function of the given runtime opcode to the top one or two stack entries. 
+ * 
+ * The operator is composed of existing value functions, which allows us to reuse
+ * the exact semantics of the individual cell-wise operations without code generation.
+ */
+public class CellFuseOperator extends Operator 
+{
+	private static final long serialVersionUID = -2178353958214716624L;
+
+	public static final String TOKEN_DELIM = ",";
+	public static final char TOKEN_INPUT = 'i';
+	public static final char TOKEN_UNARY = 'u';
+	public static final char TOKEN_BINARY = 'b';
+	
+	//codes of basic arithmetic for specialized kernels
+	public static final byte CODE_GENERIC = 0;
+	public static final byte CODE_PLUS = 1;
+	public static final byte CODE_MINUS = 2;
+	public static final byte CODE_MULT = 3;
+	public static final byte CODE_DIV = 4;
+	
+	private final String _program;
+	private final char[] _types;
+	private final int[] _inputs;
+	private final ValueFunction[] _fns;
+	private final byte[] _codes;
+	private final int _numInputs;
+	private final int _maxDepth;
+	
+	public CellFuseOperator(String program) 
+		throws DMLRuntimeException
+	{
+		_program = program;
+		
+		String[] tokens = program.split(TOKEN_DELIM);
+		_types = new char[tokens.length];
+		_inputs = new int[tokens.length];
+		_fns = new ValueFunction[tokens.length];
+		_codes = new byte[tokens.length];
+		
+		//decode tokens and validate stack depth
+		int depth = 0, maxDepth = 0, numInputs = 0;
+		for( int i=0; i<tokens.length; i++ ) {
+			String tok = tokens[i];
+			if( tok.length() < 2 )
+				throw new DMLRuntimeException("Invalid cell program token '"+tok+"' in: "+program);
+			_types[i] = tok.charAt(0);
+			String arg = tok.substring(1);
+			switch( _types[i] ) {
+				case TOKEN_INPUT:
+					_inputs[i] = Integer.parseInt(arg);
+					numInputs = Math.max(numInputs, _inputs[i]+1);
+					maxDepth = Math.max(maxDepth, ++depth);
+					break;
+				case TOKEN_UNARY:
+					_fns[i] = Builtin.getBuiltinFnObject(arg);
+					if( _fns[i] == null || depth < 1 )
+						throw new DMLRuntimeException("Invalid unary token '"+tok+"' in: "+program);
+					break;
+				case TOKEN_BINARY:
+					_fns[i] = parseBinaryFunction(arg);
+					_codes[i] = getFunctionCode(_fns[i]);
+					if( depth < 2 )
+						throw new DMLRuntimeException("Invalid binary token '"+tok+"' in: "+program);
+					depth--;
+					break;
+				default:
+					throw new DMLRuntimeException("Invalid cell program token '"+tok+"' in: "+program);
+			}
+		}
+		if( depth != 1 )
+			throw new DMLRuntimeException("Invalid cell program with final stack depth "+depth+": "+program);
+		
+		_numInputs = numInputs;
+		_maxDepth = maxDepth;
+	}
+	
+	public String getProgram() {
+		return _program;
+	}
+	
+	public int getNumTokens() {
+		return _types.length;
+	}
+	
+	public char getTokenType(int pos) {
+		return _types[pos];
+	}
+	
+	public int getTokenInput(int pos) {
+		return _inputs[pos];
+	}
+	
+	public ValueFunction getTokenFunction(int pos) {
+		return _fns[pos];
+	}
+	
+	public byte getTokenCode(int pos) {
+		return _codes[pos];
+	}
+	
+	public int getNumInputs() {
+		return _numInputs;
+	}
+	
+	public int getMaxStackDepth() {
+		return _maxDepth;
+	}
+	
+	/**
+	 * Evaluates the cell program for a single cell.
+	 * 
+	 * @param in input values (one per input)
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public double execute(double[] in) 
+		throws DMLRuntimeException
+	{
+		double[] stack = new double[_maxDepth];
+		int d = -1;
+		for( int i=0; i<_types.length; i++ ) {
+			switch( _types[i] ) {
+				case TOKEN_INPUT:  stack[++d] = in[_inputs[i]]; break;
+				case TOKEN_UNARY:  stack[d] = _fns[i].execute(stack[d]); break;
+				case TOKEN_BINARY: stack[d-1] = _fns[i].execute(stack[d-1], stack[d]); d--; break;
+			}
+		}
+		return stack[0];
+	}
+	
+	@Override
+	public String toString() {
+		return "cellfuse("+_program+")";
+	}
+	
+	/**
+	 * 
+	 * @param opcode
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static ValueFunction parseBinaryFunction(String opcode) 
+		throws DMLRuntimeException
+	{
+		//log w/ base is a binary builtin but not a binary operator
+		if( opcode.equals("log") )
+			return Builtin.getBuiltinFnObject("log");
+		return InstructionUtils.parseBinaryOperator(opcode).fn;
+	}
+	
+	/**
+	 * 
+	 * @param fn
+	 * @return
+	 */
+	private static byte getFunctionCode(ValueFunction fn) {
+		if( fn instanceof Plus )
+			return CODE_PLUS;
+		else if( fn instanceof Minus )
+			return CODE_MINUS;
+		else if( fn instanceof Multiply )
+			return CODE_MULT;
+		else if( fn instanceof Divide )
+			return CODE_DIV;
+		return CODE_GENERIC;
+	}
+	
+	/**
+	 * Creates the cell program string from a list of tokens.
+	 * 
+	 * @param tokens
+	 * @return
+	 */
+	public static String createProgram(ArrayList<String> tokens) {
+		StringBuilder sb = new StringBuilder();
+		for( int i=0; i<tokens.size(); i++ ) {
+			if( i > 0 )
+				sb.append(TOKEN_DELIM);
+			sb.append(tokens.get(i));
+		}
+		return sb.toString();
+	}
+}
@@ -28,7 +28,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -42,12 +45,14 @@ import org.apache.wink.json4j.JSONObject;
 import com.google.common.collect.Ordering;
 
 import org.apache.sysml.lops.Lop;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.Pair;
 import org.apache.sysml.runtime.transform.MVImputeAgent.MVMethod;
 import org.apache.sysml.runtime.transform.decode.DecoderRecode;
 import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.util.StringIntHashMap;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 public class RecodeAgent extends Encoder 
@@ -61,6 +66,9 @@ public class RecodeAgent extends Encoder
 	private HashMap<Integer, HashMap<String, Long>> _rcdMaps  = new HashMap<Integer, HashMap<String, Long>>();
 	private HashMap<Integer, HashMap<String,String>> _finalMaps = null;
 	
+	// recode maps <distinctValue, code> of block encode/apply, aligned with _colList
+	private StringIntHashMap[] _rcdCodes = null;
+	
 	public RecodeAgent(JSONObject parsedSpec)
 		throws JSONException 
 	{
@@ -111,9 +119,10 @@ public class RecodeAgent extends Encoder
 	 * @param frame
 	 */
 	public void initRecodeMaps( FrameBlock frame ) {
+		_rcdCodes = new StringIntHashMap[_colList.length];
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j]; //1-based
-			_rcdMaps.put(colID, frame.getRecodeMap(colID-1));
+			_rcdCodes[j] = frame.getRecodeMap(colID-1);
 		}
 	}
 	
@@ -414,7 +423,7 @@ public class RecodeAgent extends Encoder
 			//prepare input and get code
 			int colID = _colList[i];
 			String key = UtilFunctions.unquote(words[colID-1].trim());
-			String val = lookupRCDMap(colID, key);			
+			String val = lookupRCDMap(i, colID, key);			
 			// replace unseen keys with NaN 
 			words[colID-1] = (val!=null) ? val : "NaN";
 		}
@@ -422,17 +431,39 @@ public class RecodeAgent extends Encoder
 		return words;
 	}
 	
+	@Override
+	public double[] apply(String[] in, double[] out) {
+		if( !isApplicable() )
+			return out;
+		
+		//apply recode maps (w/o string conversion), unseen keys as NaN
+		for( int j=0; j<_colList.length; j++ ) {
+			int colID = _colList[j];
+			int code = _rcdCodes[j].get(in[colID-1]);
+			out[colID-1] = (code!=StringIntHashMap.NOT_FOUND) ? code : Double.NaN;
+		}
+		return out;
+	}
+	
 	@Override
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
-		//apply recode maps column wise
+		return apply(in, out, 0, in.getNumRows());
+	}
+	
+	@Override
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int rl, int ru) {
+		if( !isApplicable() )
+			return out;
+		
+		//apply recode maps column wise (direct code to double)
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j];
-			for( int i=0; i<in.getNumRows(); i++ ) {
+			StringIntHashMap map = _rcdCodes[j];
+			for( int i=rl; i<ru; i++ ) {
 				Object okey = in.get(i, colID-1);
-				String key = (okey!=null) ? okey.toString() : null;
-				String val = lookupRCDMap(colID, key);			
-				out.quickSetValue(i, colID-1, (val!=null) ? 
-						Double.parseDouble(val) : Double.NaN);
+				int code = map.get((okey!=null) ? okey.toString() : null);
+				out.quickSetValue(i, colID-1, (code!=StringIntHashMap.NOT_FOUND) ? 
+						code : Double.NaN);
 			}
 		}
 		
@@ -441,13 +472,18 @@ public class RecodeAgent extends Encoder
 	
 	/**
 	 * 
+	 * @param pos
 	 * @param colID
 	 * @param key
 	 * @return
 	 */
-	private String lookupRCDMap(int colID, String key) {
+	private String lookupRCDMap(int pos, int colID, String key) {
 		if( _finalMaps!=null )
 			return _finalMaps.get(colID).get(key);
+		else if( _rcdCodes!=null ) { //used for block encode/apply
+			int code = _rcdCodes[pos].get(key);
+			return (code!=StringIntHashMap.NOT_FOUND) ? Integer.toString(code) : null;
+		}
 		else { //used for cp
 			Long tmp = _rcdMaps.get(colID).get(key);
 			return (tmp!=null) ? Long.toString(tmp) : null;
@@ -459,13 +495,12 @@ public class RecodeAgent extends Encoder
 		if( !isApplicable() )
 			return out;
 		
-		//build and apply recode maps
+		//build recode maps and apply codes (w/o string conversion)
 		build(in);
-		apply(in);
-		
-		//convert to double 
-		for( int j=0; j<_colList.length; j++ )
-			out[_colList[j]-1] = Double.parseDouble(in[_colList[j]-1]);		
+		for( int j=0; j<_colList.length; j++ ) {
+			int colID = _colList[j];
+			out[colID-1] = _rcdCodes[j].get(in[colID-1]);
+		}
 		return out;
 	}
 
@@ -486,16 +521,12 @@ public class RecodeAgent extends Encoder
 		if( !isApplicable() )
 			return;
 		
+		allocateRecodeMaps();
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j]; //1-based
-			//allocate column map if necessary
-			if( !_rcdMaps.containsKey(colID) ) 
-				_rcdMaps.put(colID, new HashMap<String,Long>());
 			//probe and build column map
-			HashMap<String,Long> map = _rcdMaps.get(colID);
-			String key = in[colID-1];
-			if( !map.containsKey(key) )
-				map.put(key, new Long(map.size()+1));
+			StringIntHashMap map = _rcdCodes[j];
+			map.putIfAbsent(in[colID-1], map.size()+1);
 		}
 	}
 
@@ -504,9 +535,66 @@ public class RecodeAgent extends Encoder
 		if( !isApplicable() )
 			return;		
 		
-		Iterator<String[]> iter = in.getStringRowIterator();
-		while( iter.hasNext() )
-			build( iter.next() );
+		//build recode maps column wise (w/o row materialization)
+		allocateRecodeMaps();
+		for( int j=0; j<_colList.length; j++ )
+			buildColumn(in, j);
+	}
+	
+	@Override
+	public void build(FrameBlock in, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !isApplicable() )
+			return;
+		if( k <= 1 || _colList.length <= 1 ) {
+			build(in);
+			return;
+		}
+		
+		//build recode maps of independent columns in parallel, which 
+		//yields identical codes (order of first occurrence) as build
+		allocateRecodeMaps();
+		try {
+			int lk = Math.min(k, _colList.length);
+			ExecutorService pool = Executors.newFixedThreadPool( lk );
+			ArrayList<BuildTask> tasks = new ArrayList<BuildTask>();
+			for( int j=0; j<_colList.length; j++ )
+				tasks.add(new BuildTask(this, in, j));
+			//execute tasks and check for errors
+			List<Future<Object>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : taskret )
+				task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param pos
+	 */
+	private void buildColumn(FrameBlock in, int pos) {
+		int colID = _colList[pos]; //1-based
+		StringIntHashMap map = _rcdCodes[pos];
+		for( int i=0; i<in.getNumRows(); i++ ) {
+			Object okey = in.get(i, colID-1);
+			map.putIfAbsent((okey!=null) ? okey.toString() : null, map.size()+1);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private void allocateRecodeMaps() {
+		if( _rcdCodes == null ) {
+			_rcdCodes = new StringIntHashMap[_colList.length];
+			for( int j=0; j<_colList.length; j++ )
+				_rcdCodes[j] = new StringIntHashMap();
+		}
 	}
 
 	@Override
@@ -518,23 +606,46 @@ public class RecodeAgent extends Encoder
 		
 		//allocate output rows
 		int maxDistinct = 0;
-		for( int j=0; j<_colList.length; j++ )
-			if( _rcdMaps.containsKey(_colList[j]) )
-				maxDistinct = Math.max(maxDistinct, _rcdMaps.get(_colList[j]).size());
+		if( _rcdCodes != null )
+			for( int j=0; j<_colList.length; j++ )
+				maxDistinct = Math.max(maxDistinct, _rcdCodes[j].size());
 		out.ensureAllocatedColumns(maxDistinct);
 		
 		//create compact meta data representation
-		for( int j=0; j<_colList.length; j++ ) {
-			int colID = _colList[j]; //1-based
-			int rowID = 0;
-			if( _rcdMaps.containsKey(_colList[j]) )
-				for( Entry<String, Long> e : _rcdMaps.get(colID).entrySet() ) {
-					String tmp = e.getKey() + Lop.DATATYPE_PREFIX + e.getValue().toString();
+		if( _rcdCodes != null )
+			for( int j=0; j<_colList.length; j++ ) {
+				int colID = _colList[j]; //1-based
+				int rowID = 0;
+				StringIntHashMap map = _rcdCodes[j];
+				for( String key : map.getKeys() ) {
+					String tmp = key + Lop.DATATYPE_PREFIX + map.get(key);
 					out.set(rowID++, colID-1, tmp); 
 				}
-		}
+			}
 		
 		return out;
 	}
+	
+	/**
+	 * Task for building the recode map of a single column.
+	 */
+	private static class BuildTask implements Callable<Object> 
+	{
+		private final RecodeAgent _agent;
+		private final FrameBlock _in;
+		private final int _pos;
+		
+		protected BuildTask(RecodeAgent agent, FrameBlock in, int pos) {
+			_agent = agent;
+			_in = in;
+			_pos = pos;
+		}
+		
+		@Override
+		public Object call() throws Exception {
+			_agent.buildColumn(_in, _pos);
+			return null;
+		}
+	}
 }
  
\ No newline at end of file
@@ -21,14 +21,21 @@ package org.apache.sysml.runtime.transform.encode;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.transform.DistinctValue;
@@ -45,6 +52,9 @@ public abstract class Encoder implements Serializable
 {
 	private static final long serialVersionUID = 2299156350718979064L;
 	
+	//minimum number of rows for multi-threaded apply
+	protected static final int PAR_NUMROWS_THRESHOLD = 4096;
+	
 	protected int[] _colList = null;
 	
 	protected Encoder( int[] colList ) {
@@ -148,10 +158,140 @@ public abstract class Encoder implements Serializable
 	 */
 	public abstract MatrixBlock apply(FrameBlock in, MatrixBlock out);
 	
+	/**
+	 * Encode the given input row according to existing transform meta data 
+	 * directly into the given output row (transform apply). In contrast to
+	 * the row encode, this call does not modify the meta data, which allows
+	 * the reuse of a single encoder for many rows, e.g., for online scoring.
+	 * 
+	 * @param in
+	 * @param out
+	 * @return
+	 */
+	public double[] apply(String[] in, double[] out) {
+		throw new RuntimeException("Row apply to doubles not supported by "+getClass().getSimpleName()+".");
+	}
+	
+	/**
+	 * Encode the row range [rl, ru) of the input data blockwise according to
+	 * existing transform meta data (transform apply). Encoders that support
+	 * multi-threaded apply override this method and write only the given rows
+	 * of the output, without maintaining the number of non-zeros.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int rl, int ru) {
+		throw new RuntimeException("Row range apply not supported by "+getClass().getSimpleName()+".");
+	}
+	
+	/**
+	 * Build the transform meta data for the given block input with up to k 
+	 * threads. By default, this falls back to the single-threaded build.
+	 * 
+	 * @param in
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public void build(FrameBlock in, int k) 
+		throws DMLRuntimeException 
+	{
+		build(in);
+	}
+	
+	/**
+	 * Multi-threaded block encode: build with up to k threads and apply
+	 * over disjoint row ranges of the output (transform encode).
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock encode(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		build(in, k);
+		return apply(in, out, k);
+	}
+	
+	/**
+	 * Multi-threaded block apply over disjoint row ranges of the output, 
+	 * where each task applies this encoder to its range of rows. Small 
+	 * inputs or k<=1 fall back to the single-threaded apply.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		int rlen = in.getNumRows();
+		if( k <= 1 || rlen < PAR_NUMROWS_THRESHOLD )
+			return apply(in, out);
+		
+		//allocate dense output to avoid allocation races
+		out.allocateDenseBlock();
+		
+		try {
+			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ArrayList<ApplyTask> tasks = new ArrayList<ApplyTask>();
+			int blklen = (int)(Math.ceil((double)rlen/k));
+			for( int i=0; i<k & i*blklen<rlen; i++ )
+				tasks.add(new ApplyTask(this, in, out, i*blklen, Math.min((i+1)*blklen, rlen)));
+			//execute tasks and check for errors
+			List<Future<Object>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : taskret )
+				task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//maintain nnz of shared output
+		out.recomputeNonZeros();
+		
+		return out;
+	}
+	
 	
 	//OLD API: kept for a transition phase only
 	//TODO stage 2: refactor data and meta data IO into minimal set of ultility functions
 	abstract public void mapOutputTransformationMetadata(OutputCollector<IntWritable, DistinctValue> out, int taskID, TfUtils agents) throws IOException;
 	abstract public void mergeAndOutputTransformationMetadata(Iterator<DistinctValue> values, String outputDir, int colID, FileSystem fs, TfUtils agents) throws IOException;
 	abstract public void loadTxMtd(JobConf job, FileSystem fs, Path txMtdDir, TfUtils agents) throws IOException;
+	
+	/**
+	 * Task for applying an encoder to a row range of the input.
+	 */
+	private static class ApplyTask implements Callable<Object> 
+	{
+		private final Encoder _encoder;
+		private final FrameBlock _in;
+		private final MatrixBlock _out;
+		private final int _rl;
+		private final int _ru;
+		
+		protected ApplyTask(Encoder encoder, FrameBlock in, MatrixBlock out, int rl, int ru) {
+			_encoder = encoder;
+			_in = in;
+			_out = out;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() throws Exception {
+			_encoder.apply(_in, _out, _rl, _ru);
+			return null;
+		}
+	}
 }
@@ -29,6 +29,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.transform.DistinctValue;
@@ -82,6 +83,14 @@ public class EncoderComposite extends Encoder
 			encoder.build(in);
 	}
 
+	@Override
+	public void build(FrameBlock in, int k) 
+		throws DMLRuntimeException 
+	{
+		for( Encoder encoder : _encoders )
+			encoder.build(in, k);
+	}
+
 	@Override
 	public FrameBlock getMetaData(FrameBlock out) {
 		for( Encoder encoder : _encoders )
@@ -96,12 +105,26 @@ public class EncoderComposite extends Encoder
 		return in;
 	}
 	
+	@Override
+	public double[] apply(String[] in, double[] out) {
+		for( Encoder encoder : _encoders )
+			encoder.apply(in, out);
+		return out;
+	}
+	
 	@Override 
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
 		for( Encoder encoder : _encoders )
 			encoder.apply(in, out);
 		return out;
 	}
+	
+	@Override 
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int rl, int ru) {
+		for( Encoder encoder : _encoders )
+			encoder.apply(in, out, rl, ru);
+		return out;
+	}
 
 	@Override
 	public void mapOutputTransformationMetadata(OutputCollector<IntWritable, DistinctValue> out, int taskID, TfUtils agents) throws IOException {
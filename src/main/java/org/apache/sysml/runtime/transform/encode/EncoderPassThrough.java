@@ -59,6 +59,11 @@ public class EncoderPassThrough extends Encoder
 		return out;
 	}
 
+	@Override
+	public double[] apply(String[] in, double[] out) {
+		return encode(in, out);
+	}
+
 	@Override
 	public MatrixBlock encode(FrameBlock in, MatrixBlock out) {
 		return apply(in, out);
@@ -86,10 +91,15 @@ public class EncoderPassThrough extends Encoder
 	
 	@Override 
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
+		return apply(in, out, 0, in.getNumRows());
+	}
+	
+	@Override 
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int rl, int ru) {
 		for( int j=0; j<_colList.length; j++ ) {
 			int col = _colList[j];
 			ValueType vt = in.getSchema().get(col);
-			for( int i=0; i<in.getNumRows(); i++ ) {
+			for( int i=rl; i<ru; i++ ) {
 				Object val = in.get(i, col);
 				out.quickSetValue(i, col,
 					UtilFunctions.objectToDouble(vt, val));
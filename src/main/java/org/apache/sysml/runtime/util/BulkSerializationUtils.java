@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Utilities for the bulk serialization and deserialization of entire double and int
+ * arrays (e.g., dense blocks, CSR arrays) in the big-endian format of DataOutput and
+ * DataInput. Instead of value-by-value encoding, arrays are converted in chunks via
+ * DoubleBuffer/IntBuffer views of a thread-local direct byte buffer, which allows the
+ * JVM to use bulk copies with byte swapping, and are then passed as byte arrays to the
+ * underlying output or input. Hence, these utilities apply to all types of data
+ * outputs and inputs (e.g., sequence files, java/kryo serialization, buffer pool).
+ *
+ */
+public class BulkSerializationUtils
+{
+	//size of thread-local staging buffers (multiple of 8 and 12)
+	public static final int STAGING_SIZE = 96 * 1024;
+
+	private static ThreadLocal<StagingBuffer> _staging = new ThreadLocal<StagingBuffer>() {
+		@Override
+		protected StagingBuffer initialValue() {
+			return new StagingBuffer(STAGING_SIZE);
+		}
+	};
+
+	/**
+	 * Writes len values of the given double array, starting at off, to the data output.
+	 *
+	 * @param out
+	 * @param varr
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	public static void writeDoubleArray(DataOutput out, double[] varr, int off, int len)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 8;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			doublesToBytes(sbuff, varr, off+i, sbuff.barr, 0, lblen);
+			out.write(sbuff.barr, 0, lblen*8);
+		}
+	}
+
+	/**
+	 * Writes len values of the given int array, starting at off, to the data output.
+	 *
+	 * @param out
+	 * @param varr
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	public static void writeIntArray(DataOutput out, int[] varr, int off, int len)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 4;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			sbuff.ibuff.clear();
+			sbuff.ibuff.put(varr, off+i, lblen);
+			sbuff.bbuff.clear();
+			sbuff.bbuff.get(sbuff.barr, 0, lblen*4);
+			out.write(sbuff.barr, 0, lblen*4);
+		}
+	}
+
+	/**
+	 * Writes the rows of the given sparse block in the sparse block format,
+	 * i.e., per row the number of non-zeros and the column index / value pairs.
+	 *
+	 * @param out
+	 * @param rlen
+	 * @param rows
+	 * @throws IOException
+	 */
+	public static void writeSparseRows(DataOutput out, int rlen, SparseBlock rows)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		ByteBuffer bbuff = sbuff.bbuff;
+		bbuff.clear();
+
+		int lrlen = Math.min(rows.numRows(), rlen);
+		for( int i=0; i<rlen; i++ ) {
+			int alen = (i<lrlen) ? rows.size(i) : 0;
+			if( bbuff.remaining() < 4 )
+				flushStaging(out, sbuff);
+			bbuff.putInt(alen);
+			if( alen > 0 ) {
+				int apos = rows.pos(i);
+				int[] aix = rows.indexes(i);
+				double[] avals = rows.values(i);
+				for( int j=apos; j<apos+alen; j++ ) {
+					if( bbuff.remaining() < 12 )
+						flushStaging(out, sbuff);
+					bbuff.putInt(aix[j]);
+					bbuff.putDouble(avals[j]);
+				}
+			}
+		}
+		flushStaging(out, sbuff);
+	}
+
+	/**
+	 * Reads len values from the data input into the given double array,
+	 * starting at off, and returns the number of non-zeros.
+	 *
+	 * @param in
+	 * @param varr
+	 * @param off
+	 * @param len
+	 * @return
+	 * @throws IOException
+	 */
+	public static long readDoubleArray(DataInput in, double[] varr, int off, int len)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 8;
+		long nnz = 0;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			in.readFully(sbuff.barr, 0, lblen*8);
+			nnz += bytesToDoubles(sbuff, sbuff.barr, 0, varr, off+i, lblen);
+		}
+		return nnz;
+	}
+
+	/**
+	 * Reads len values from the data input into the given int array, starting at off.
+	 *
+	 * @param in
+	 * @param varr
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	public static void readIntArray(DataInput in, int[] varr, int off, int len)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 4;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			in.readFully(sbuff.barr, 0, lblen*4);
+			sbuff.bbuff.clear();
+			sbuff.bbuff.put(sbuff.barr, 0, lblen*4);
+			sbuff.ibuff.clear();
+			sbuff.ibuff.get(varr, off+i, lblen);
+		}
+	}
+
+	/**
+	 * Reads rlen rows in the sparse block format from the data input into the
+	 * given sparse block and returns the number of non-zeros.
+	 *
+	 * @param in
+	 * @param rlen
+	 * @param clen
+	 * @param rows
+	 * @return
+	 * @throws IOException
+	 */
+	public static long readSparseRows(DataInput in, int rlen, int clen, SparseBlock rows)
+		throws IOException
+	{
+		StagingBuffer sbuff = _staging.get();
+		ByteBuffer bbuff = sbuff.bbuff;
+		int blen = STAGING_SIZE / 12;
+		long nnz = 0;
+
+		for( int i=0; i<rlen; i++ ) {
+			int lnnz = in.readInt();
+			if( lnnz > 0 ) {
+				rows.reset(i, lnnz, clen);
+				for( int j=0; j<lnnz; j+=Math.min(lnnz-j, blen) ) {
+					int lblen = Math.min(lnnz-j, blen);
+					in.readFully(sbuff.barr, 0, lblen*12);
+					bbuff.clear();
+					bbuff.put(sbuff.barr, 0, lblen*12);
+					bbuff.flip();
+					for( int k=0; k<lblen; k++ )
+						rows.append(i, bbuff.getInt(), bbuff.getDouble());
+				}
+				nnz += lnnz;
+			}
+		}
+
+		return nnz;
+	}
+
+	/**
+	 * Converts len doubles of the source array into their big-endian byte
+	 * representation in the destination array.
+	 *
+	 * @param src
+	 * @param soff
+	 * @param dst
+	 * @param doff
+	 * @param len
+	 */
+	public static void doublesToBytes(double[] src, int soff, byte[] dst, int doff, int len) {
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 8;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			doublesToBytes(sbuff, src, soff+i, dst, doff+i*8, lblen);
+		}
+	}
+
+	/**
+	 * Converts len doubles in big-endian byte representation of the source array
+	 * into the destination array and returns the number of non-zeros.
+	 *
+	 * @param src
+	 * @param soff
+	 * @param dst
+	 * @param doff
+	 * @param len
+	 * @return
+	 */
+	public static long bytesToDoubles(byte[] src, int soff, double[] dst, int doff, int len) {
+		StagingBuffer sbuff = _staging.get();
+		int blen = STAGING_SIZE / 8;
+		long nnz = 0;
+		for( int i=0; i<len; i+=Math.min(len-i, blen) ) {
+			int lblen = Math.min(len-i, blen);
+			nnz += bytesToDoubles(sbuff, src, soff+i*8, dst, doff+i, lblen);
+		}
+		return nnz;
+	}
+
+	/**
+	 *
+	 * @param sbuff
+	 * @param src
+	 * @param soff
+	 * @param dst
+	 * @param doff
+	 * @param len
+	 */
+	private static void doublesToBytes(StagingBuffer sbuff, double[] src, int soff, byte[] dst, int doff, int len) {
+		sbuff.dbuff.clear();
+		sbuff.dbuff.put(src, soff, len);
+		sbuff.bbuff.clear();
+		sbuff.bbuff.get(dst, doff, len*8);
+	}
+
+	/**
+	 *
+	 * @param sbuff
+	 * @param src
+	 * @param soff
+	 * @param dst
+	 * @param doff
+	 * @param len
+	 * @return
+	 */
+	private static long bytesToDoubles(StagingBuffer sbuff, byte[] src, int soff, double[] dst, int doff, int len) {
+		sbuff.bbuff.clear();
+		sbuff.bbuff.put(src, soff, len*8);
+		sbuff.dbuff.clear();
+		sbuff.dbuff.get(dst, doff, len);
+
+		//nnz maintenance
+		long nnz = 0;
+		for( int i=doff; i<doff+len; i++ )
+			nnz += (dst[i]!=0) ? 1 : 0;
+		return nnz;
+	}
+
+	/**
+	 *
+	 * @param out
+	 * @param sbuff
+	 * @throws IOException
+	 */
+	private static void flushStaging(DataOutput out, StagingBuffer sbuff)
+		throws IOException
+	{
+		ByteBuffer bbuff = sbuff.bbuff;
+		int len = bbuff.position();
+		bbuff.flip();
+		bbuff.get(sbuff.barr, 0, len);
+		out.write(sbuff.barr, 0, len);
+		bbuff.clear();
+	}
+
+	/**
+	 * Direct byte buffer in big-endian byte order with double and int views,
+	 * as well as a byte array for the exchange with data outputs and inputs.
+	 */
+	private static class StagingBuffer
+	{
+		private final ByteBuffer bbuff;
+		private final DoubleBuffer dbuff;
+		private final IntBuffer ibuff;
+		private final byte[] barr;
+
+		public StagingBuffer(int size) {
+			bbuff = ByteBuffer.allocateDirect(size).order(ByteOrder.BIG_ENDIAN);
+			dbuff = bbuff.asDoubleBuffer();
+			ibuff = bbuff.asIntBuffer();
+			barr = new byte[size];
+		}
+	}
+}
@@ -417,23 +417,64 @@ public class DataConverter
 		double[] ret = new double[rows*cols]; //0-initialized 
 		
 		if( mb.getNonZeros() > 0 )
+			copyToDoubleVector(mb, ret);
+		
+		return ret;
+	}
+	
+	/**
+	 * Copies the given matrix block into the given (e.g., preallocated) 
+	 * double array in row-major order, without allocating intermediates.
+	 * 
+	 * @param mb matrix block
+	 * @param ret output array of at least rows*cols cells
+	 * @return output array
+	 * @throws DMLRuntimeException 
+	 */
+	public static double[] convertToDoubleVector( MatrixBlock mb, double[] ret ) 
+		throws DMLRuntimeException
+	{
+		int rows = mb.getNumRows();
+		int cols = mb.getNumColumns();
+		if( ret.length < (long)rows*cols )
+			throw new DMLRuntimeException("Output array of length "+ret.length
+				+" too small for matrix of size "+rows+"x"+cols+".");
+		
+		Arrays.fill(ret, 0, rows*cols, 0);
+		if( mb.getNonZeros() > 0 )
+			copyToDoubleVector(mb, ret);
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param ret
+	 */
+	private static void copyToDoubleVector( MatrixBlock mb, double[] ret )
+	{
+		int rows = mb.getNumRows();
+		int cols = mb.getNumColumns();
+		
+		if( mb.isInSparseFormat() )
 		{
-			if( mb.isInSparseFormat() )
-			{
-				Iterator<IJV> iter = mb.getSparseBlockIterator();
-				while( iter.hasNext() ) {
-					IJV cell = iter.next();
-					ret[cell.getI()*cols+cell.getJ()] = cell.getV();
-				}
-			}
-			else
-			{
-				//memcopy row major representation if at least 1 non-zero
-				System.arraycopy(mb.getDenseBlock(), 0, ret, 0, rows*cols);
+			SparseBlock sblock = mb.getSparseBlock();
+			for( int i=0; i<rows; i++ ) {
+				if( sblock.isEmpty(i) ) continue;
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				int[] aix = sblock.indexes(i);
+				double[] avals = sblock.values(i);
+				for( int k=apos; k<apos+alen; k++ )
+					ret[i*cols+aix[k]] = avals[k];
 			}
 		}
-		
-		return ret;
+		else
+		{
+			//memcopy row major representation if at least 1 non-zero
+			System.arraycopy(mb.getDenseBlock(), 0, ret, 0, rows*cols);
+		}
 	}
 	
 	/**
@@ -187,15 +187,8 @@ public class FastBufferedDataInputStream extends FilterInputStream implements Da
 			int maxNB = (int)Math.min(_bufflen, ((long)len-i)*8);
 			readFully(_buff, 0, maxNB);
 			
-			for( int j=0, ix=i; j<maxNB; j+=8, ix++ ) 
-			{
-				//core deserialization
-				long tmp = baToLong(_buff, j);
-				varr[ix] = Double.longBitsToDouble( tmp );
-				
-				//nnz maintenance
-				nnz += (varr[ix]!=0) ? 1 : 0; 
-			}
+			//bulk deserialization and nnz maintenance
+			nnz += BulkSerializationUtils.bytesToDoubles(_buff, 0, varr, i, maxNB/8);
 		}
 		
 		return nnz;
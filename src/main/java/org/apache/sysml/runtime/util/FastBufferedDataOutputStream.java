@@ -221,14 +221,10 @@ public class FastBufferedDataOutputStream extends FilterOutputStream implements
 		int blen = _bufflen/8;
 		for( int i=0; i<len; i+=Math.min(len-i, blen) )
 		{
-			//write values of current block
+			//write values of current block (bulk conversion)
 			int lblen = Math.min(len-i, blen);
-			for( int j=0; j<lblen; j++ )
-			{
-				long tmp = Double.doubleToRawLongBits(varr[i+j]);
-				longToBa(tmp, _buff, _count);
-				_count += 8;
-			}	
+			BulkSerializationUtils.doublesToBytes(varr, i, _buff, 0, lblen);
+			_count = lblen*8;
 			
 			//flush buffer for current block
 			flushBuffer(); //based on count
@@ -173,6 +173,31 @@ public class LocalFileUtils
 		}
 	}
 
+	/**
+	 * 
+	 * @param filePathAndName
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] readByteArrayFromLocal( String filePathAndName )
+		throws IOException
+	{	
+		//byte array read via java.nio file channel (symmetric to write)
+		FileChannel channel = null;
+		try {
+			Path path = Paths.get(filePathAndName);
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			ByteBuffer buff = ByteBuffer.allocate((int)channel.size());
+			while( buff.hasRemaining() && channel.read(buff) >= 0 );
+			if( buff.hasRemaining() )
+				throw new IOException("Failed to read "+filePathAndName+": unexpected end of file.");
+			return buff.array();
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+
 	/**
 	 * 
 	 * @param filePathAndName
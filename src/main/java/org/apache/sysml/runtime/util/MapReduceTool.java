@@ -489,8 +489,8 @@ public class MapReduceTool
 			}
 			mtd.put(DataExpression.READROWPARAM, mc.getRows());
 			mtd.put(DataExpression.READCOLPARAM, mc.getCols());
-			// only output rows_in_block and cols_in_block for matrix binary format
-			if (outinfo == OutputInfo.BinaryBlockOutputInfo && dt.isMatrix() ) {
+			// only output rows_in_block and cols_in_block for matrix binary and columnar format
+			if ((outinfo == OutputInfo.BinaryBlockOutputInfo || outinfo == OutputInfo.ColumnarOutputInfo) && dt.isMatrix() ) {
 				mtd.put(DataExpression.ROWBLOCKCOUNTPARAM, mc.getRowsPerBlock());
 				mtd.put(DataExpression.COLUMNBLOCKCOUNTPARAM, mc.getColsPerBlock());
 			}
@@ -504,6 +504,8 @@ public class MapReduceTool
 				mtd.put(DataExpression.FORMAT_TYPE, "binary");
 			} else if (outinfo == OutputInfo.CSVOutputInfo) {
 				mtd.put(DataExpression.FORMAT_TYPE, "csv");
+			} else if (outinfo == OutputInfo.ColumnarOutputInfo) {
+				mtd.put(DataExpression.FORMAT_TYPE, DataExpression.FORMAT_TYPE_VALUE_COLUMNAR);
 			} else {
 				mtd.put(DataExpression.FORMAT_TYPE, "specialized");
 			}
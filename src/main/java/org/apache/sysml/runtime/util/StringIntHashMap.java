@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.io.Serializable;
+
+/**
+ * This native string - int hashmap is specifically designed for recode
+ * maps (distinct string tokens to integer codes) of transform encode/apply.
+ * In contrast to a default hashmap, we use open addressing with linear probing
+ * over parallel arrays of keys, cached hash codes, and primitive values, which
+ * avoids entry objects and boxed values, and compares keys only on equal hashes.
+ *
+ * Note: null keys are supported but kept outside the hash table, and get returns
+ * -1 for non-existing keys, which requires non-negative values (e.g., codes).
+ *
+ */
+public class StringIntHashMap implements Serializable
+{
+	private static final long serialVersionUID = -3547286302536542125L;
+
+	public static final int NOT_FOUND = -1;
+
+	private static final int INIT_CAPACITY = 16;
+	private static final int RESIZE_FACTOR = 2;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private String[] _keys = null;
+	private int[] _hashes = null;
+	private int[] _values = null;
+	private int _size = -1;
+
+	//special handling of null keys
+	private boolean _hasNull = false;
+	private int _nullValue = NOT_FOUND;
+
+	public StringIntHashMap() {
+		this(INIT_CAPACITY);
+	}
+
+	public StringIntHashMap(int expectedSize) {
+		int capacity = INIT_CAPACITY;
+		while( capacity < Integer.MAX_VALUE/RESIZE_FACTOR && capacity*LOAD_FACTOR <= expectedSize )
+			capacity *= RESIZE_FACTOR;
+		allocate(capacity);
+	}
+
+	public int size() {
+		return _size + (_hasNull ? 1 : 0);
+	}
+
+	/**
+	 * Returns the value of the given key or NOT_FOUND (-1) if the
+	 * key does not exist.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public int get(String key) {
+		if( key == null )
+			return _nullValue;
+		int ix = indexOf(key, hash(key));
+		return (ix >= 0) ? _values[ix] : NOT_FOUND;
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @return
+	 */
+	public boolean containsKey(String key) {
+		return (key == null) ? _hasNull :
+			indexOf(key, hash(key)) >= 0;
+	}
+
+	/**
+	 * Sets the value of the given key, independent of any existing value.
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public void put(String key, int value) {
+		if( key == null ) {
+			_hasNull = true;
+			_nullValue = value;
+			return;
+		}
+		int hash = hash(key);
+		int ix = indexOf(key, hash);
+		if( ix >= 0 )
+			_values[ix] = value;
+		else
+			insert(key, hash, value);
+	}
+
+	/**
+	 * Adds the given key with the given value if the key does not exist yet,
+	 * and returns the value associated with the key after this call. This
+	 * allows probing and building recode maps with a single lookup.
+	 *
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	public int putIfAbsent(String key, int value) {
+		if( key == null ) {
+			if( !_hasNull ) {
+				_hasNull = true;
+				_nullValue = value;
+			}
+			return _nullValue;
+		}
+		int hash = hash(key);
+		int ix = indexOf(key, hash);
+		if( ix >= 0 )
+			return _values[ix];
+		insert(key, hash, value);
+		return value;
+	}
+
+	/**
+	 * Returns all existing keys, including a potential null key,
+	 * in arbitrary order.
+	 *
+	 * @return
+	 */
+	public String[] getKeys() {
+		String[] ret = new String[size()];
+		int pos = 0;
+		for( int i=0; i<_keys.length; i++ )
+			if( _keys[i] != null )
+				ret[pos++] = _keys[i];
+		if( _hasNull )
+			ret[pos++] = null;
+		return ret;
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @param hash
+	 * @return
+	 */
+	private int indexOf(String key, int hash) {
+		int mask = _keys.length-1;
+		for( int ix = hash & mask; _keys[ix]!=null; ix = (ix+1) & mask ) {
+			if( _hashes[ix]==hash && (_keys[ix]==key || _keys[ix].equals(key)) )
+				return ix;
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @param hash
+	 * @param value
+	 */
+	private void insert(String key, int hash, int value) {
+		//resize if necessary (before insert to guarantee free slots)
+		if( _size+1 >= LOAD_FACTOR*_keys.length )
+			resize();
+
+		//probe for free slot and add new entry
+		int mask = _keys.length-1;
+		int ix = hash & mask;
+		while( _keys[ix] != null )
+			ix = (ix+1) & mask;
+		_keys[ix] = key;
+		_hashes[ix] = hash;
+		_values[ix] = value;
+		_size++;
+	}
+
+	/**
+	 *
+	 */
+	private void resize() {
+		//check for integer overflow on resize
+		if( _keys.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+			return;
+
+		//resize data arrays and rehash existing entries
+		//(w/o recomputing the hash codes of keys)
+		String[] oldkeys = _keys;
+		int[] oldhashes = _hashes;
+		int[] oldvalues = _values;
+		allocate(_keys.length*RESIZE_FACTOR);
+		int mask = _keys.length-1;
+		for( int i=0; i<oldkeys.length; i++ ) {
+			if( oldkeys[i] != null ) {
+				int ix = oldhashes[i] & mask;
+				while( _keys[ix] != null )
+					ix = (ix+1) & mask;
+				_keys[ix] = oldkeys[i];
+				_hashes[ix] = oldhashes[i];
+				_values[ix] = oldvalues[i];
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param capacity
+	 */
+	private void allocate(int capacity) {
+		_keys = new String[capacity];
+		_hashes = new int[capacity];
+		_values = new int[capacity];
+		if( _size < 0 )
+			_size = 0;
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @return
+	 */
+	private static int hash(String key) {
+		//spread the cached string hash code over all bits, in order
+		//to reduce collisions and clustering of linear probing
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -33,6 +33,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.instructions.Instruction;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
@@ -92,6 +94,8 @@ public class Statistics
 	private static long parforOptCount = 0; //count
 	private static long parforInitTime = 0; //in milli sec
 	private static long parforMergeTime = 0; //in milli sec
+	private static AtomicLong parforTaskSteals = new AtomicLong(0); //count
+	private static AtomicLong parforTaskWaitTime = new AtomicLong(0); //in nano sec
 	
 	//heavy hitter counts and times 
 	private static HashMap<String,Long> _cpInstTime   =  new HashMap<String, Long>();
@@ -105,6 +109,12 @@ public class Statistics
 	private static AtomicLong denseBlockAllocationTime = new AtomicLong(0);
 	private static AtomicLong sparseBlockAllocationTime = new AtomicLong(0);
 	
+	//pipelined binary block writes (serialize, wait, flush)
+	private static AtomicLong pipeWriteBatches = new AtomicLong(0); //count
+	private static AtomicLong pipeWriteSerializeTime = new AtomicLong(0); //in nano sec
+	private static AtomicLong pipeWriteWaitTime = new AtomicLong(0); //in nano sec
+	private static AtomicLong pipeWriteFlushTime = new AtomicLong(0); //in nano sec
+	
 	public static void incrementAllocationTime(long allocationTime, boolean isSparse) {
 		if(isSparse)
 			sparseBlockAllocationTime.addAndGet(allocationTime);
@@ -290,6 +300,16 @@ public class Statistics
 	public static synchronized void incrementParForMergeTime( long time ) {
 		parforMergeTime += time;
 	}
+	
+	public static void incrementParForTaskSteals( long steals ) {
+		//note: not synchronized due to use of atomics
+		parforTaskSteals.addAndGet(steals);
+	}
+	
+	public static void incrementParForTaskWaitTime( long time ) {
+		//note: not synchronized due to use of atomics
+		parforTaskWaitTime.addAndGet(time);
+	}
 
 	public static void startCompileTimer() {
 		if( DMLScript.STATISTICS )
@@ -340,6 +360,8 @@ public class Statistics
 		parforOptTime = 0;
 		parforInitTime = 0;
 		parforMergeTime = 0;
+		parforTaskSteals.set(0);
+		parforTaskWaitTime.set(0);
 		
 		lTotalLix.set(0);
 		lTotalLixUIP.set(0);
@@ -352,6 +374,11 @@ public class Statistics
 		
 		denseBlockAllocationTime.set(0);
 		sparseBlockAllocationTime.set(0);
+		
+		pipeWriteBatches.set(0);
+		pipeWriteSerializeTime.set(0);
+		pipeWriteWaitTime.set(0);
+		pipeWriteFlushTime.set(0);
 	}
 	
 	/**
@@ -401,6 +428,22 @@ public class Statistics
 		sparkCollectCount.addAndGet(c);
 	}
 
+	public static void incPipelinedWriteBatches(long c) {
+		pipeWriteBatches.addAndGet(c);
+	}
+	
+	public static void accPipelinedWriteSerializeTime(long t) {
+		pipeWriteSerializeTime.addAndGet(t);
+	}
+	
+	public static void accPipelinedWriteWaitTime(long t) {
+		pipeWriteWaitTime.addAndGet(t);
+	}
+	
+	public static void accPipelinedWriteFlushTime(long t) {
+		pipeWriteFlushTime.addAndGet(t);
+	}
+	
 	public static void accSparkBroadCastTime(long t) {
 		sparkBroadcast.addAndGet(t);
 	}
@@ -570,6 +613,14 @@ public class Statistics
 	public static long getParforMergeTime(){
 		return parforMergeTime;
 	}
+	
+	public static long getParforTaskSteals(){
+		return parforTaskSteals.get();
+	}
+	
+	public static long getParforTaskWaitTime(){
+		return parforTaskWaitTime.get();
+	}
 
 	/**
 	 * Prints statistics.
@@ -601,8 +652,20 @@ public class Statistics
 		if( DMLScript.STATISTICS ) 
 		{
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
+			if( LazyWriteBuffer.getPolicy() == RPolicy.SLRU )
+				sb.append("Cache WB hits (prob, prot):\t" + CacheStatistics.displaySegmentHits() + ".\n");
+			if( CacheStatistics.getPrefetches() > 0 )
+				sb.append("Cache prefetch (iss, hit, wst):\t" + CacheStatistics.displayPrefetches() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			if( CacheStatistics.getCompressTime() > 0 )
+				sb.append("Cache compress (blks, ratio, c/d):\t" + CacheStatistics.displayCompression() + " sec.\n");
+			if( pipeWriteBatches.get() > 0 ) {
+				sb.append("Pipelined write batches:\t" + pipeWriteBatches.get() + ".\n");
+				sb.append("Pipelined write (ser,wait,fl):\t" + String.format("%.3f/%.3f/%.3f sec.\n", 
+						((double)pipeWriteSerializeTime.get())*1e-9, ((double)pipeWriteWaitTime.get())*1e-9,
+						((double)pipeWriteFlushTime.get())*1e-9));
+			}
 			if(DMLScript.REUSE_NONZEROED_OUTPUT) {
 				sb.append("Allocation time (Dense/Sparse):\t" + String.format("%.3f", denseBlockAllocationTime.doubleValue()/1000000000) 
 						+ "/" + String.format("%.3f", sparseBlockAllocationTime.doubleValue()/1000000000)  + " sec.\n");
@@ -633,6 +696,10 @@ public class Statistics
 				sb.append("ParFor result merge time:\t" + String.format("%.3f", ((double)getParforMergeTime())/1000) + " sec.\n");	
 				sb.append("ParFor total update in-place:\t" + lTotalUIPVar + "/" + lTotalLixUIP + "/" + lTotalLix + "\n");
 			}
+			if( getParforTaskSteals()>0 || getParforTaskWaitTime()>0 ) {
+				sb.append("ParFor task steals/wait:\t" + getParforTaskSteals() + "/" 
+						+ String.format("%.3f", ((double)getParforTaskWaitTime())/1000000000) + " sec.\n");
+			}
 			sb.append("Total JIT compile time:\t\t" + ((double)getJITCompileTime())/1000 + " sec.\n");
 			sb.append("Total JVM GC count:\t\t" + getJVMgcCount() + ".\n");
 			sb.append("Total JVM GC time:\t\t" + ((double)getJVMgcTime())/1000 + " sec.\n");
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the packed dense-dense matrix multiplication kernel against a
+ * reference product that skips zeros in the left-hand side (as the existing
+ * kernels do), including right-hand sides with NaN and infinite values.
+ *
+ */
+public class MatrixMultPackedKernelTest extends AutomatedTestBase
+{
+	private final static int rows = 1017;
+	private final static int cols1 = 403;
+	private final static int cols2 = 389;
+	private final static double sparsity = 0.9;
+	private final static double eps = 1e-9;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testPackedMatrixMultFinite() {
+		runPackedMatrixMultTest(false, 1);
+	}
+
+	@Test
+	public void testPackedMatrixMultNaN() {
+		runPackedMatrixMultTest(true, 1);
+	}
+
+	@Test
+	public void testPackedMatrixMultFiniteMultiThreaded() {
+		runPackedMatrixMultTest(false, 3);
+	}
+
+	@Test
+	public void testPackedMatrixMultNaNMultiThreaded() {
+		runPackedMatrixMultTest(true, 3);
+	}
+
+	/**
+	 *
+	 * @param nan
+	 * @param k
+	 */
+	private void runPackedMatrixMultTest( boolean nan, int k )
+	{
+		try
+		{
+			//generate dense inputs w/ zeros in lhs, NaN/Inf in rhs
+			double[][] A = getRandomMatrix(rows, cols1, -1, 1, sparsity, 7);
+			double[][] B = getRandomMatrix(cols1, cols2, -1, 1, 1.0, 3);
+			if( nan ) {
+				for( int i=0; i<cols1; i+=13 ) {
+					B[i][i % cols2] = Double.NaN;
+					B[i][(i+1) % cols2] = Double.POSITIVE_INFINITY;
+				}
+			}
+			MatrixBlock m1 = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock m2 = DataConverter.convertToMatrixBlock(B);
+			Assert.assertFalse(m1.isInSparseFormat() || m2.isInSparseFormat());
+
+			//core matrix multiplication
+			MatrixBlock ret = new MatrixBlock(rows, cols2, false);
+			if( k > 1 )
+				LibMatrixMult.matrixMult(m1, m2, ret, k);
+			else
+				LibMatrixMult.matrixMult(m1, m2, ret);
+
+			//compare with zero-skipping reference
+			double[][] C = DataConverter.convertToDoubleMatrix(ret);
+			double[][] R = matrixMultReference(A, B);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols2; j++ ) {
+					if( Double.isNaN(R[i][j]) )
+						Assert.assertTrue("Expected NaN for cell ("+i+","+j+")", Double.isNaN(C[i][j]));
+					else if( Double.isInfinite(R[i][j]) )
+						Assert.assertEquals("Wrong value for cell ("+i+","+j+")", R[i][j], C[i][j], 0);
+					else
+						Assert.assertEquals("Wrong value for cell ("+i+","+j+")", R[i][j], C[i][j], eps);
+				}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param A
+	 * @param B
+	 * @return
+	 */
+	private static double[][] matrixMultReference( double[][] A, double[][] B ) {
+		double[][] C = new double[A.length][B[0].length];
+		for( int i=0; i<A.length; i++ )
+			for( int k=0; k<B.length; k++ )
+				if( A[i][k] != 0 )
+					for( int j=0; j<B[0].length; j++ )
+						C[i][j] += A[i][k] * B[k][j];
+		return C;
+	}
+}
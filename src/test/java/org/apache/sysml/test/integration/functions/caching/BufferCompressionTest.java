@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LZBlockCodec;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the block codec and compressed byte buffers 
+ * of the write buffer, which checks round trips of raw byte arrays and 
+ * serialized sparse matrix blocks.
+ * 
+ */
+public class BufferCompressionTest extends AutomatedTestBase 
+{
+	private final static int rows = 2345;
+	private final static int cols = 1000;
+	private final static double sparsity = 0.05;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCodecRandomBytes() {
+		runCodecTest(false);
+	}
+	
+	@Test
+	public void testCodecRedundantBytes() {
+		runCodecTest(true);
+	}
+	
+	@Test
+	public void testBufferSparseRandValues() {
+		runBufferCompressionTest(false);
+	}
+	
+	@Test
+	public void testBufferSparseIntValues() {
+		runBufferCompressionTest(true);
+	}
+	
+	/**
+	 * 
+	 * @param redundant
+	 */
+	private void runCodecTest( boolean redundant )
+	{
+		Random rand = new Random(7);
+		for( int n : new int[]{0, 1, 11, 12, 13, 100, 4096, 65536+17, 1000000} ) 
+		{
+			//create input byte array
+			byte[] src = new byte[n];
+			for( int i=0; i<n; i++ )
+				src[i] = (redundant && i>8 && rand.nextInt(10)>1) ? 
+					src[i-1-rand.nextInt(8)] : (byte)rand.nextInt();
+			
+			//compress and decompress
+			byte[] cdata = new byte[n + n/255 + 16];
+			int clen = LZBlockCodec.compress(src, n, cdata);
+			byte[] ret = new byte[n];
+			int len = LZBlockCodec.decompress(cdata, clen, ret);
+			
+			Assert.assertEquals(n, len);
+			Assert.assertTrue(Arrays.equals(src, ret));
+			
+			//compress w/ insufficient output size
+			if( n > 100 && !redundant )
+				Assert.assertEquals(-1, LZBlockCodec.compress(src, n, new byte[n/2]));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param intValues
+	 */
+	private void runBufferCompressionTest( boolean intValues )
+	{
+		try
+		{
+			//create sparse input block
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, 0, 10, "uniform", 7);
+			if( intValues ) {
+				double[][] A = DataConverter.convertToDoubleMatrix(mb);
+				for( int i=0; i<rows; i++ )
+					for( int j=0; j<cols; j++ )
+						A[i][j] = Math.ceil(A[i][j]);
+				mb = DataConverter.convertToMatrixBlock(A);
+			}
+			Assert.assertTrue(mb.isInSparseFormat());
+			
+			//serialize into compressed buffer and deserialize
+			long size = mb.getExactSerializedSize();
+			ByteBuffer bbuff = new ByteBuffer(size, true);
+			bbuff.serializeBlock(mb);
+			MatrixBlock ret = (MatrixBlock) bbuff.deserializeBlock();
+			
+			//check compression decision and result
+			Assert.assertEquals(intValues, bbuff.isCompressed());
+			Assert.assertTrue(bbuff.getSize() <= size);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb), 
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the asynchronous prefetch of evicted matrices,
+ * which checks that a prefetched block is served by the subsequent acquire 
+ * without synchronous restore, and that the prefetch itself neither counts
+ * as write buffer hit nor promotes the entry in the segmented LRU buffer.
+ * 
+ */
+public class CachePrefetchTest extends AutomatedTestBase 
+{
+	private final static int rows = 1000;
+	private final static int cols = 100;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testAcquireWithPrefetch() {
+		runCachePrefetchTest(true);
+	}
+	
+	@Test
+	public void testAcquireWithoutPrefetch() {
+		runCachePrefetchTest(false);
+	}
+	
+	@Test
+	public void testCancelPrefetchRequest() 
+	{
+		try
+		{
+			CacheableData.initCaching();
+			LazyWriteBuffer.init(RPolicy.SLRU, LazyWriteBuffer.getWriteBufferSize());
+			
+			//evict block and request prefetch, which is canceled on failed submit
+			EvictableMatrixObject mo = new EvictableMatrixObject();
+			mo.acquireModify(MatrixBlock.randOperations(rows, cols, 1.0, 0, 1, "uniform", 7));
+			mo.release();
+			mo.dropCache();
+			Assert.assertTrue(mo.requestPrefetch());
+			Assert.assertFalse(mo.requestPrefetch());
+			mo.cancelPrefetch();
+			Assert.assertTrue(mo.requestPrefetch());
+			mo.clearData();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param prefetch
+	 */
+	private void runCachePrefetchTest( boolean prefetch )
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			DMLScript.STATISTICS = true;
+			CacheableData.initCaching();
+			LazyWriteBuffer.init(RPolicy.SLRU, LazyWriteBuffer.getWriteBufferSize());
+			CacheStatistics.reset();
+			
+			//create matrix object and evict block into write buffer
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 1.0, 0, 1, "uniform", 7);
+			double sum = mb.sum();
+			EvictableMatrixObject mo = new EvictableMatrixObject();
+			mo.acquireModify(mb);
+			mo.release();
+			mb = null;
+			mo.dropCache();
+			
+			//prefetch (synchronously, as done by the background thread)
+			if( prefetch ) {
+				Assert.assertTrue(mo.requestPrefetch());
+				Assert.assertFalse(mo.requestPrefetch());
+				mo.prefetchBlobIntoCache();
+				Assert.assertEquals(1, CacheStatistics.getPrefetches());
+				Assert.assertEquals(0, CacheStatistics.getFSBuffHits());
+				Assert.assertEquals(0, CacheStatistics.getFSBuffProbationHits());
+			}
+			
+			//acquire read w/ or w/o synchronous restore
+			long memHits = CacheStatistics.getMemHits();
+			MatrixBlock ret = mo.acquireRead();
+			Assert.assertEquals(sum, ret.sum(), 1e-10);
+			mo.release();
+			Assert.assertEquals(prefetch ? 0 : 1, CacheStatistics.getFSBuffHits());
+			Assert.assertEquals(prefetch ? 0 : 1, CacheStatistics.getFSBuffProbationHits());
+			Assert.assertEquals(prefetch ? memHits+1 : memHits, CacheStatistics.getMemHits());
+			Assert.assertEquals(prefetch ? 1 : 0, CacheStatistics.getPrefetchHits());
+			
+			mo.clearData();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DMLScript.STATISTICS = oldStats;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	/**
+	 * Matrix object that allows to drop the soft reference cache in order 
+	 * to simulate the garbage collection of evicted blocks.
+	 */
+	private static class EvictableMatrixObject extends MatrixObject
+	{
+		private static final long serialVersionUID = 4380452167357151612L;
+
+		public EvictableMatrixObject() {
+			super(ValueType.DOUBLE, null, new MatrixFormatMetaData(
+				new MatrixCharacteristics(rows, cols, 1000, 1000), 
+				OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		}
+		
+		public void dropCache() {
+			clearCache();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the segmented LRU policy of the write buffer,
+ * which checks the promotion of entries from the probationary into the 
+ * protected segment, the demotion of least recently used protected entries,
+ * and the eviction order (probationary before protected entries). Evicted 
+ * entries are observed via their spilled files on the local file system.
+ * 
+ */
+public class LazyWriteBufferSLRUTest extends AutomatedTestBase 
+{
+	private final static String TEST_DIR = TEST_DATA_DIR + "functions/caching/" 
+		+ LazyWriteBufferSLRUTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 100;
+	private final static int cols = 100;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testSLRUPromotionEvictionOrder() 
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			LocalFileUtils.deleteFileIfExists(TEST_DIR);
+			new File(TEST_DIR).mkdirs();
+			DMLScript.STATISTICS = true;
+			CacheStatistics.reset();
+			
+			//buffer of 5.5 blocks, i.e., protected segment of 4.4 blocks
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 1.0, 0, 1, "uniform", 7);
+			long size = mb.getExactSerializedSize();
+			LazyWriteBuffer.init(RPolicy.SLRU, (long)(5.5 * size));
+			
+			//fill probationary segment: [A,B,C,D,E]
+			for( String name : new String[]{"A","B","C","D","E"} )
+				LazyWriteBuffer.writeBlock(fname(name), mb);
+			checkEvicted(new String[]{});
+			
+			//promote A,B and re-read A: [C,D,E], protected [B,A]
+			readBlock("A"); readBlock("B"); readBlock("A");
+			Assert.assertEquals(2, CacheStatistics.getFSBuffProbationHits());
+			Assert.assertEquals(1, CacheStatistics.getFSBuffProtectedHits());
+			
+			//new entries evict probationary entries first: [E,F,G], protected [B,A]
+			LazyWriteBuffer.writeBlock(fname("F"), mb);
+			LazyWriteBuffer.writeBlock(fname("G"), mb);
+			checkEvicted(new String[]{"C","D"});
+			
+			//promote E,F,G, which demotes the least recently used 
+			//protected entry B: [B], protected [A,E,F,G]
+			readBlock("E"); readBlock("F"); readBlock("G");
+			Assert.assertEquals(5, CacheStatistics.getFSBuffProbationHits());
+			LazyWriteBuffer.writeBlock(fname("H"), mb);
+			checkEvicted(new String[]{"C","D","B"});
+			
+			//protected entries only evicted if probationary segment 
+			//is empty: [I] (double size), protected [E,F,G]
+			MatrixBlock mb2 = MatrixBlock.randOperations(rows, 2*cols, 1.0, 0, 1, "uniform", 3);
+			LazyWriteBuffer.writeBlock(fname("I"), mb2);
+			checkEvicted(new String[]{"C","D","B","H","A"});
+			
+			//check protected hit and correct data of evicted entries
+			readBlock("E");
+			Assert.assertEquals(2, CacheStatistics.getFSBuffProtectedHits());
+			MatrixBlock ret = (MatrixBlock) LazyWriteBuffer.readBlock(fname("A"), true);
+			Assert.assertEquals(mb.sum(), ret.sum(), 1e-10);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DMLScript.STATISTICS = oldStats;
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.init();
+			LocalFileUtils.deleteFileIfExists(TEST_DIR);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @throws Exception
+	 */
+	private static void readBlock(String name) 
+		throws Exception
+	{
+		long hits = CacheStatistics.getFSBuffHits();
+		LazyWriteBuffer.readBlock(fname(name), true);
+		Assert.assertEquals("Buffer miss for "+name, hits+1, CacheStatistics.getFSBuffHits());
+	}
+	
+	/**
+	 * 
+	 * @param names
+	 */
+	private static void checkEvicted(String[] names) {
+		Assert.assertEquals(names.length, new File(TEST_DIR).list().length);
+		for( String name : names )
+			Assert.assertTrue("Entry "+name+" not evicted", new File(fname(name)).exists());
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @return
+	 */
+	private static String fname(String name) {
+		return TEST_DIR + name + ".dat";
+	}
+}
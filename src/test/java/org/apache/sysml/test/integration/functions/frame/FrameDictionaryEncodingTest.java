@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.frame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.util.StringIntHashMap;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the automatic dictionary encoding of string columns with few distinct
+ * values, and the equivalence of dictionary-encoded and plain columns for
+ * serialization, slicing, left indexing, append, copy, and recode maps.
+ *
+ */
+public class FrameDictionaryEncodingTest extends AutomatedTestBase
+{
+	private final static int rows = 3217;
+	private final static int cols = 2;
+
+	private enum OpType {
+		SERIALIZE,
+		SLICE,
+		LEFT_INDEX,
+		RBIND,
+		COPY,
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSerializeFewDistinct() {
+		runFrameDictionaryTest(7, OpType.SERIALIZE);
+	}
+
+	@Test
+	public void testSerializeManyDistinct() {
+		runFrameDictionaryTest(rows, OpType.SERIALIZE);
+	}
+
+	@Test
+	public void testSliceFewDistinct() {
+		runFrameDictionaryTest(7, OpType.SLICE);
+	}
+
+	@Test
+	public void testLeftIndexFewDistinct() {
+		runFrameDictionaryTest(7, OpType.LEFT_INDEX);
+	}
+
+	@Test
+	public void testRbindFewDistinct() {
+		runFrameDictionaryTest(7, OpType.RBIND);
+	}
+
+	@Test
+	public void testCopyFewDistinct() {
+		runFrameDictionaryTest(7, OpType.COPY);
+	}
+
+	@Test
+	public void testRecodeMapDictionary() {
+		try
+		{
+			//create meta data frame w/ few distinct, overwritten entry
+			FrameBlock M = new FrameBlock(1, ValueType.STRING);
+			M.ensureAllocatedColumns(rows);
+			for( int i=0; i<rows; i++ )
+				M.set(i, 0, (i<10) ? "t" + i + Lop.DATATYPE_PREFIX + (i+1) : null);
+			M.examDictionaryEncoding();
+			Assert.assertTrue(M.isDictionaryEncoded(0));
+			M.set(9, 0, null);
+
+			//check recode map of referenced entries
+			StringIntHashMap map = M.getRecodeMap(0);
+			Assert.assertEquals(9, map.size());
+			for( int i=0; i<9; i++ )
+				Assert.assertEquals(i+1, map.get("t" + i));
+			Assert.assertFalse(map.containsKey("t9"));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param ndistinct
+	 * @param type
+	 */
+	private void runFrameDictionaryTest(int ndistinct, OpType type)
+	{
+		try
+		{
+			//create plain input frame w/ nulls
+			String[][] A = new String[rows][cols];
+			FrameBlock frame = new FrameBlock(cols, ValueType.STRING);
+			frame.ensureAllocatedColumns(rows);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ ) {
+					A[i][j] = (i % 11 == j) ? null : "v" + ((i+j) % ndistinct);
+					frame.set(i, j, A[i][j]);
+				}
+			Assert.assertFalse(frame.isDictionaryEncoded(0));
+
+			//automatic encoding based on the number of distinct values
+			boolean dict = (ndistinct <= FrameBlock.DICT_MAX_DISTINCT_RATIO * rows);
+			if( type != OpType.SERIALIZE ) {
+				frame.examDictionaryEncoding();
+				Assert.assertEquals(dict, frame.isDictionaryEncoded(0));
+			}
+
+			//core operations on dictionary-encoded columns
+			switch( type ) {
+				case SERIALIZE: {
+					ByteArrayOutputStream bos = new ByteArrayOutputStream();
+					frame.write(new DataOutputStream(bos));
+					frame = new FrameBlock();
+					frame.readFields(new DataInputStream(
+						new ByteArrayInputStream(bos.toByteArray())));
+					Assert.assertEquals(dict, frame.isDictionaryEncoded(0));
+					break;
+				}
+				case SLICE: {
+					frame = frame.sliceOperations(7, rows-1, 0, cols-1, new FrameBlock());
+					checkFrameContent(frame, A, 7);
+					return;
+				}
+				case LEFT_INDEX: {
+					FrameBlock rhs = new FrameBlock(cols, ValueType.STRING);
+					rhs.ensureAllocatedColumns(10);
+					for( int i=0; i<10; i++ )
+						for( int j=0; j<cols; j++ )
+							rhs.set(i, j, A[i+5][j] = "new" + i);
+					frame = frame.leftIndexingOperations(rhs, 5, 14, 0, cols-1, new FrameBlock());
+					break;
+				}
+				case RBIND: {
+					frame = frame.appendOperations(frame, new FrameBlock(), false);
+					Assert.assertEquals(2*rows, frame.getNumRows());
+					checkFrameContent(frame.sliceOperations(0, rows-1, 0, cols-1, null), A, 0);
+					checkFrameContent(frame.sliceOperations(rows, 2*rows-1, 0, cols-1, null), A, 0);
+					return;
+				}
+				case COPY: {
+					FrameBlock tmp = new FrameBlock(cols, ValueType.STRING);
+					tmp.copy(frame);
+					Assert.assertFalse(tmp.isDictionaryEncoded(0));
+					frame = tmp;
+					break;
+				}
+			}
+
+			//check correct values
+			checkFrameContent(frame, A, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param frame
+	 * @param A
+	 * @param rl
+	 */
+	private static void checkFrameContent(FrameBlock frame, String[][] A, int rl) {
+		for( int i=0; i<frame.getNumRows(); i++ )
+			for( int j=0; j<cols; j++ )
+				Assert.assertEquals("Wrong value for cell ("+i+","+j+")",
+					A[rl+i][j], frame.get(i, j));
+	}
+}
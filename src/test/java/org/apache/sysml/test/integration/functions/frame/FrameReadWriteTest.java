@@ -23,6 +23,9 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.instructions.cp.AppendCPInstruction.AppendType;
@@ -89,18 +92,51 @@ public class FrameReadWriteTest extends AutomatedTestBase
 	public void testFrameMixedMixedRBind()  { //note: ncol(A)=ncol(B)
 		runFrameCopyTest(schemaMixed, schemaMixed, AppendType.RBIND);
 	}
+	
+	@Test
+	public void testFrameStringsStringsCBindSequential()  {
+		runFrameCopyTest(schemaStrings, schemaStrings, AppendType.CBIND, false);
+	}
+	
+	@Test
+	public void testFrameMixedMixedCBindSequential()  {
+		runFrameCopyTest(schemaMixed, schemaMixed, AppendType.CBIND, false);
+	}
+	
+	@Test
+	public void testFrameMixedMixedRBindSequential()  { //note: ncol(A)=ncol(B)
+		runFrameCopyTest(schemaMixed, schemaMixed, AppendType.RBIND, false);
+	}
 
+	/**
+	 * 
+	 * @param schema1
+	 * @param schema2
+	 * @param atype
+	 */
+	private void runFrameCopyTest( ValueType[] schema1, ValueType[] schema2, AppendType atype) {
+		runFrameCopyTest(schema1, schema2, atype, true);
+	}
 	
 	/**
 	 * 
-	 * @param sparseM1
-	 * @param sparseM2
-	 * @param instType
+	 * @param schema1
+	 * @param schema2
+	 * @param atype
+	 * @param parallel
 	 */
-	private void runFrameCopyTest( ValueType[] schema1, ValueType[] schema2, AppendType atype)
+	private void runFrameCopyTest( ValueType[] schema1, ValueType[] schema2, AppendType atype, boolean parallel)
 	{
 		try
 		{
+			//configure sequential/parallel frame readers and writers
+			CompilerConfig cconf = new CompilerConfig();
+			cconf.set(ConfigType.PARALLEL_CP_READ_TEXTFORMATS, parallel);
+			cconf.set(ConfigType.PARALLEL_CP_WRITE_TEXTFORMATS, parallel);
+			cconf.set(ConfigType.PARALLEL_CP_READ_BINARYFORMATS, parallel);
+			cconf.set(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS, parallel);
+			ConfigurationManager.setLocalConfig(cconf);
+			
 			//data generation
 			double[][] A = getRandomMatrix(rows, schema1.length, -10, 10, 0.9, 2373); 
 			double[][] B = getRandomMatrix(rows, schema2.length, -10, 10, 0.9, 129); 
@@ -129,6 +165,9 @@ public class FrameReadWriteTest extends AutomatedTestBase
 			ex.printStackTrace();
 			throw new RuntimeException(ex);
 		}
+		finally {
+			ConfigurationManager.clearLocalConfigs();
+		}
 	}
 	
 	void initFrameData(FrameBlock frame, double[][] data, List<ValueType> lschema)
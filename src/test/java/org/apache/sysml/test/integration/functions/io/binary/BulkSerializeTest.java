@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.controlprogram.caching.CacheDataInput;
+import org.apache.sysml.runtime.controlprogram.caching.CacheDataOutput;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock.BlockType;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.FastBufferedDataInputStream;
+import org.apache.sysml.runtime.util.FastBufferedDataOutputStream;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the bulk serialization of matrix blocks for the different types of
+ * data outputs and inputs (generic, fast buffered, java serialization, and
+ * buffer pool), including the csr format for csr sparse blocks.
+ *
+ */
+public class BulkSerializeTest extends AutomatedTestBase
+{
+	private final static int rows = 1234;
+	private final static int cols1 = 1071;
+	private final static int cols2 = 4;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double sparsity3 = 0.3;
+
+	private enum StreamType {
+		GENERIC,
+		FAST_BUFFERED,
+		JAVA_SERIALIZATION,
+		CACHE,
+	}
+
+	@Override
+	public void setUp() {
+		//do nothing
+	}
+
+	@Test
+	public void testDenseGeneric() {
+		runBulkSerializeTest(StreamType.GENERIC, cols1, sparsity1, false);
+	}
+
+	@Test
+	public void testSparseGeneric() {
+		runBulkSerializeTest(StreamType.GENERIC, cols1, sparsity2, false);
+	}
+
+	@Test
+	public void testSparseCSRGeneric() {
+		runBulkSerializeTest(StreamType.GENERIC, cols1, sparsity2, true);
+	}
+
+	@Test
+	public void testSparseCSRToDenseGeneric() {
+		runBulkSerializeTest(StreamType.GENERIC, cols2, sparsity3, true);
+	}
+
+	@Test
+	public void testDenseFastBuffered() {
+		runBulkSerializeTest(StreamType.FAST_BUFFERED, cols1, sparsity1, false);
+	}
+
+	@Test
+	public void testSparseCSRFastBuffered() {
+		runBulkSerializeTest(StreamType.FAST_BUFFERED, cols1, sparsity2, true);
+	}
+
+	@Test
+	public void testDenseJavaSerialization() {
+		runBulkSerializeTest(StreamType.JAVA_SERIALIZATION, cols1, sparsity1, false);
+	}
+
+	@Test
+	public void testSparseCSRJavaSerialization() {
+		runBulkSerializeTest(StreamType.JAVA_SERIALIZATION, cols1, sparsity2, true);
+	}
+
+	@Test
+	public void testDenseCache() {
+		runBulkSerializeTest(StreamType.CACHE, cols1, sparsity1, false);
+	}
+
+	@Test
+	public void testSparseCSRCache() {
+		runBulkSerializeTest(StreamType.CACHE, cols1, sparsity2, true);
+	}
+
+	@Test
+	public void testSparseCSRToDenseCache() {
+		runBulkSerializeTest(StreamType.CACHE, cols2, sparsity3, true);
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param cols
+	 * @param sparsity
+	 * @param csr
+	 */
+	private void runBulkSerializeTest(StreamType type, int cols, double sparsity, boolean csr)
+	{
+		try
+		{
+			//create input matrix block (optionally w/ csr sparse block)
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			if( csr ) {
+				//construct sparse block independent of the sparsity
+				MatrixBlock tmp = new MatrixBlock(rows, cols, true);
+				for( int i=0; i<rows; i++ )
+					for( int j=0; j<cols; j++ )
+						tmp.appendValue(i, j, A[i][j]);
+				mbA = new MatrixBlock(rows, cols, tmp.getNonZeros(),
+					new SparseBlockCSR(tmp.getSparseBlock()));
+			}
+
+			//serialize and deserialize
+			MatrixBlock mbB = roundtrip(type, mbA);
+
+			//compare nnz and values
+			Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+			Assert.assertEquals(sparsity==sparsity2, mbB.isInSparseFormat());
+			if( csr && mbB.isInSparseFormat() )
+				Assert.assertTrue(mbB.getSparseBlock() instanceof SparseBlockCSR);
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param mb
+	 * @return
+	 * @throws Exception
+	 */
+	private static MatrixBlock roundtrip(StreamType type, MatrixBlock mb)
+		throws Exception
+	{
+		MatrixBlock ret = new MatrixBlock();
+
+		switch( type ) {
+			case GENERIC: {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				DataOutputStream dos = new DataOutputStream(bos);
+				mb.write(dos);
+				dos.close();
+				Assert.assertEquals(mb.getExactSizeOnDisk(), bos.size());
+				if( mb.getSparseBlock() instanceof SparseBlockCSR ) //check csr format
+					Assert.assertEquals(BlockType.SPARSE_CSR_BLOCK.ordinal(), bos.toByteArray()[8]);
+				ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+				break;
+			}
+			case FAST_BUFFERED: {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				FastBufferedDataOutputStream fos = new FastBufferedDataOutputStream(bos);
+				mb.write(fos);
+				fos.close();
+				Assert.assertEquals(mb.getExactSizeOnDisk(), bos.size());
+				FastBufferedDataInputStream fis = new FastBufferedDataInputStream(
+					new ByteArrayInputStream(bos.toByteArray()));
+				ret.readFields(fis);
+				fis.close();
+				break;
+			}
+			case JAVA_SERIALIZATION: {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				ObjectOutputStream oos = new ObjectOutputStream(bos);
+				oos.writeObject(mb);
+				oos.close();
+				ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+				ret = (MatrixBlock) ois.readObject();
+				ois.close();
+				break;
+			}
+			case CACHE: {
+				byte[] buff = new byte[(int)mb.getExactSizeOnDisk()];
+				mb.write(new CacheDataOutput(buff));
+				ret.readFields(new CacheDataInput(buff));
+				break;
+			}
+		}
+
+		return ret;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.binary;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.io.MappedSequenceFileReader;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.io.ReaderBinaryBlock;
+import org.apache.sysml.runtime.io.ReaderBinaryBlockParallel;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the memory-mapped read of local binary block files (sequential and
+ * parallel) against the sequence file reader and the original data, for
+ * dense, sparse, and ultra-sparse blocks as well as multiple column blocks.
+ *
+ */
+public class MappedBinaryReadTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "MappedBinaryReadTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + MappedBinaryReadTest.class.getSimpleName() + "/";
+
+	//small blocks to obtain many records and sync markers
+	private final static int rows = 1234;
+	private final static int cols1 = 345;
+	private final static int cols2 = 7;
+	private final static int blen = 100;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testMappedReadDense() {
+		runMappedBinaryReadTest(cols1, 0.9, false);
+	}
+
+	@Test
+	public void testMappedReadSparse() {
+		runMappedBinaryReadTest(cols1, 0.05, false);
+	}
+
+	@Test
+	public void testMappedReadUltraSparse() {
+		runMappedBinaryReadTest(cols1, 0.0001, false);
+	}
+
+	@Test
+	public void testMappedReadDenseSingleColBlock() {
+		runMappedBinaryReadTest(cols2, 0.9, false);
+	}
+
+	@Test
+	public void testMappedReadDenseParallel() {
+		runMappedBinaryReadTest(cols1, 0.9, true);
+	}
+
+	@Test
+	public void testMappedReadSparseParallel() {
+		runMappedBinaryReadTest(cols1, 0.05, true);
+	}
+
+	@Test
+	public void testMappedReadUltraSparseParallel() {
+		runMappedBinaryReadTest(cols1, 0.0001, true);
+	}
+
+	/**
+	 *
+	 * @param cols
+	 * @param sparsity
+	 * @param parallel
+	 */
+	private void runMappedBinaryReadTest(int cols, double sparsity, boolean parallel)
+	{
+		boolean oldFlag = ReaderBinaryBlock.MMAP_LOCAL_READ;
+
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//write random matrix as binary block
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, blen, blen, mbA.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.BinaryBlockOutputInfo, mc);
+
+			//check that all files are read via memory-mapping
+			FileSystem fs = FileSystem.get(ConfigurationManager.getCachedJobConf());
+			for( Path lpath : MatrixReader.getSequenceFilePaths(fs, new Path(input("A"))) )
+				Assert.assertTrue(MappedSequenceFileReader.isMappable(fs, lpath));
+
+			//read via memory-mapped and sequence file reader
+			ReaderBinaryBlock.MMAP_LOCAL_READ = true;
+			MatrixBlock mbB = createReader(parallel)
+				.readMatrixFromHDFS(input("A"), rows, cols, blen, blen, mbA.getNonZeros());
+			ReaderBinaryBlock.MMAP_LOCAL_READ = false;
+			MatrixBlock mbC = createReader(parallel)
+				.readMatrixFromHDFS(input("A"), rows, cols, blen, blen, mbA.getNonZeros());
+
+			//compare dimensions, nnz, and values
+			Assert.assertEquals(rows, mbB.getNumRows());
+			Assert.assertEquals(cols, mbB.getNumColumns());
+			Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+			Assert.assertEquals(mbC.isInSparseFormat(), mbB.isInSparseFormat());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC),
+				DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ReaderBinaryBlock.MMAP_LOCAL_READ = oldFlag;
+		}
+	}
+
+	/**
+	 *
+	 * @param parallel
+	 * @return
+	 */
+	private static ReaderBinaryBlock createReader(boolean parallel) {
+		return parallel ? new ReaderBinaryBlockParallel(false) : new ReaderBinaryBlock(false);
+	}
+}
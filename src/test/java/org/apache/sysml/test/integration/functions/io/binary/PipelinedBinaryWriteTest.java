@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.io.ReaderBinaryBlock;
+import org.apache.sysml.runtime.io.WriterBinaryBlockParallel;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the pipelined (double-buffered) binary block write against the
+ * direct write and the original data, for dense, sparse, and ultra-sparse
+ * matrices with multiple batches of serialized blocks.
+ *
+ */
+public class PipelinedBinaryWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "PipelinedBinaryWriteTest";
+	private final static String TEST_DIR = "functions/io/binary/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + PipelinedBinaryWriteTest.class.getSimpleName() + "/";
+
+	//dense size larger than multiple serialization batches
+	private final static int rows = 3456;
+	private final static int cols = 567;
+	private final static int blen = 200;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testPipelinedWriteDense() {
+		runPipelinedBinaryWriteTest(0.9);
+	}
+
+	@Test
+	public void testPipelinedWriteSparse() {
+		runPipelinedBinaryWriteTest(0.05);
+	}
+
+	@Test
+	public void testPipelinedWriteUltraSparse() {
+		runPipelinedBinaryWriteTest(0.0001);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 */
+	private void runPipelinedBinaryWriteTest(double sparsity)
+	{
+		boolean oldFlag = WriterBinaryBlockParallel.PIPELINED_WRITE;
+
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//create random matrix
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+
+			//write with and without pipelining
+			WriterBinaryBlockParallel.PIPELINED_WRITE = true;
+			new WriterBinaryBlockParallel(1).writeMatrixToHDFS(mbA, input("A1"), rows, cols, blen, blen, mbA.getNonZeros());
+			WriterBinaryBlockParallel.PIPELINED_WRITE = false;
+			new WriterBinaryBlockParallel(1).writeMatrixToHDFS(mbA, input("A2"), rows, cols, blen, blen, mbA.getNonZeros());
+
+			//read both outputs
+			MatrixBlock mbB = new ReaderBinaryBlock(false)
+				.readMatrixFromHDFS(input("A1"), rows, cols, blen, blen, mbA.getNonZeros());
+			MatrixBlock mbC = new ReaderBinaryBlock(false)
+				.readMatrixFromHDFS(input("A2"), rows, cols, blen, blen, mbA.getNonZeros());
+
+			//compare dimensions, nnz, and values
+			Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+			Assert.assertEquals(mbC.getNonZeros(), mbB.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC),
+				DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			WriterBinaryBlockParallel.PIPELINED_WRITE = oldFlag;
+		}
+	}
+}
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.columnar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.io.ColumnarFileMetadata;
+import org.apache.sysml.runtime.io.FrameReaderColumnar;
+import org.apache.sysml.runtime.io.FrameWriterColumnar;
+import org.apache.sysml.runtime.io.ReaderColumnar;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.runtime.util.UtilFunctions;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the columnar binary format for matrices and frames, i.e., full round
+ * trips, index range reads that only access the required column chunks, reads
+ * of constant chunks from their min/max statistics, and right indexing on
+ * columnar inputs in DML scripts.
+ *
+ */
+public class ColumnarReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "ColumnarIndexingTest";
+	private final static String TEST_DIR = "functions/io/columnar/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ColumnarReadWriteTest.class.getSimpleName() + "/";
+
+	//rows larger than a single row group
+	private final static int rows = 2345;
+	private final static int cols = 23;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.02;
+
+	//index range spanning multiple row groups
+	private final static int rl = 900;
+	private final static int ru = 2100;
+	private final static int cl = 3;
+	private final static int cu = 11;
+
+	private final static ValueType[] schemaMixed = new ValueType[]{ValueType.STRING, ValueType.DOUBLE, ValueType.INT, ValueType.BOOLEAN};
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "B", "C" }) );
+	}
+
+	@Test
+	public void testColumnarDenseRoundtrip() {
+		runColumnarReadWriteTest(sparsity1, false);
+	}
+
+	@Test
+	public void testColumnarSparseRoundtrip() {
+		runColumnarReadWriteTest(sparsity2, false);
+	}
+
+	@Test
+	public void testColumnarEmptyRoundtrip() {
+		runColumnarReadWriteTest(0, false);
+	}
+
+	@Test
+	public void testColumnarDenseIndexRange() {
+		runColumnarReadWriteTest(sparsity1, true);
+	}
+
+	@Test
+	public void testColumnarSparseIndexRange() {
+		runColumnarReadWriteTest(sparsity2, true);
+	}
+
+	@Test
+	public void testColumnarConstantRoundtrip() {
+		runColumnarConstantChunkTest(false);
+	}
+
+	@Test
+	public void testColumnarConstantIndexRange() {
+		runColumnarConstantChunkTest(true);
+	}
+
+	@Test
+	public void testColumnarFrameRoundtrip() {
+		runColumnarFrameReadWriteTest(false);
+	}
+
+	@Test
+	public void testColumnarFrameIndexRange() {
+		runColumnarFrameReadWriteTest(true);
+	}
+
+	@Test
+	public void testColumnarDenseIndexingDML() {
+		runColumnarIndexingTest(sparsity1);
+	}
+
+	@Test
+	public void testColumnarSparseIndexingDML() {
+		runColumnarIndexingTest(sparsity2);
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 * @param range
+	 */
+	private void runColumnarReadWriteTest(double sparsity, boolean range)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//write random matrix as columnar
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000, mbA.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.ColumnarOutputInfo, mc, -1, null);
+
+			//read full matrix or index range (0-based, inclusive)
+			IndexRange ix = range ? new IndexRange(rl, ru, cl, cu) : null;
+			MatrixBlock mbB = new ReaderColumnar().readMatrixFromHDFS(input("A"), ix);
+			MatrixBlock mbC = range ? mbA.sliceOperations(rl, ru, cl, cu, new MatrixBlock()) : mbA;
+
+			//compare dimensions, nnz, and values
+			Assert.assertEquals(mbC.getNumRows(), mbB.getNumRows());
+			Assert.assertEquals(mbC.getNumColumns(), mbB.getNumColumns());
+			Assert.assertEquals(mbC.getNonZeros(), mbB.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC),
+				DataConverter.convertToDoubleMatrix(mbB), mbC.getNumRows(), mbC.getNumColumns(), 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param range
+	 */
+	private void runColumnarConstantChunkTest(boolean range)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//create matrix with constant columns, a constant first row group, and NaNs
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity1, 3);
+			for( int i=0; i<rows; i++ ) {
+				A[i][3] = 7;
+				A[i][5] = (i < 1000) ? -3 : A[i][5];
+				A[i][7] = (i % 2 == 0) ? Double.NaN : 2;
+				A[i][9] = (i == 1500) ? Double.NaN : 1;
+			}
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000, mbA.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.ColumnarOutputInfo, mc, -1, null);
+
+			//check chunk statistics (NaNs disable constant chunks)
+			Path path = new Path(input("A"));
+			FileSystem fs = FileSystem.get(ConfigurationManager.getCachedJobConf());
+			FSDataInputStream in = fs.open(path);
+			ColumnarFileMetadata meta = null;
+			try {
+				meta = ColumnarFileMetadata.readFooter(fs, path, in);
+			}
+			finally {
+				in.close();
+			}
+			for( int g=0; g<meta.getNumRowGroups(); g++ ) {
+				Assert.assertTrue(meta.getChunkMeta(g, 3).isConstant());
+				Assert.assertEquals(7, meta.getChunkMeta(g, 3).min, 0);
+				Assert.assertFalse(meta.getChunkMeta(g, 7).isConstant());
+				Assert.assertEquals(g != 1, meta.getChunkMeta(g, 9).isConstant());
+			}
+			Assert.assertTrue(meta.getChunkMeta(0, 5).isConstant());
+
+			//read full matrix or index range (0-based, inclusive)
+			IndexRange ix = range ? new IndexRange(rl, ru, cl, cu) : null;
+			MatrixBlock mbB = new ReaderColumnar().readMatrixFromHDFS(input("A"), ix);
+			MatrixBlock mbC = range ? mbA.sliceOperations(rl, ru, cl, cu, new MatrixBlock()) : mbA;
+
+			//compare dimensions and values (incl NaNs)
+			Assert.assertEquals(mbC.getNumRows(), mbB.getNumRows());
+			Assert.assertEquals(mbC.getNumColumns(), mbB.getNumColumns());
+			for( int i=0; i<mbC.getNumRows(); i++ )
+				for( int j=0; j<mbC.getNumColumns(); j++ )
+					Assert.assertEquals("Wrong value at ("+i+","+j+").",
+						mbC.quickGetValue(i, j), mbB.quickGetValue(i, j), 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param range
+	 */
+	private void runColumnarFrameReadWriteTest(boolean range)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//create and write mixed-schema frame as columnar
+			List<ValueType> lschema = Arrays.asList(schemaMixed);
+			double[][] A = getRandomMatrix(rows, lschema.size(), -10, 10, 0.9, 2373);
+			FrameBlock frame1 = new FrameBlock(lschema);
+			Object[] row1 = new Object[lschema.size()];
+			for( int i=0; i<rows; i++ ) {
+				for( int j=0; j<lschema.size(); j++ )
+					row1[j] = UtilFunctions.doubleToObject(lschema.get(j), A[i][j]);
+				frame1.appendRow(row1);
+			}
+			new FrameWriterColumnar().writeFrameToHDFS(frame1, input("F"), rows, lschema.size());
+
+			//read full frame or index range (0-based, inclusive)
+			int rl2 = range ? rl : 0, ru2 = range ? ru : rows-1;
+			int cl2 = range ? 1 : 0, cu2 = range ? 2 : lschema.size()-1;
+			IndexRange ix = range ? new IndexRange(rl2, ru2, cl2, cu2) : null;
+			FrameBlock frame2 = new FrameReaderColumnar().readFrameFromHDFS(input("F"), null, null, ix);
+
+			//compare schema, dimensions, and values
+			Assert.assertEquals(ru2-rl2+1, frame2.getNumRows());
+			Assert.assertEquals(cu2-cl2+1, frame2.getNumColumns());
+			for( int j=cl2; j<=cu2; j++ ) {
+				Assert.assertEquals(lschema.get(j), frame2.getSchema().get(j-cl2));
+				Assert.assertEquals(frame1.getColumnNames().get(j), frame2.getColumnNames().get(j-cl2));
+			}
+			for( int i=rl2; i<=ru2; i++ )
+				for( int j=cl2; j<=cu2; j++ )
+					Assert.assertEquals("Wrong value at ("+i+","+j+").",
+						frame1.get(i, j), frame2.get(i-rl2, j-cl2));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param sparsity
+	 */
+	private void runColumnarIndexingTest(double sparsity)
+	{
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("A"), Integer.toString(rl+1), Integer.toString(ru+1),
+					Integer.toString(cl+1), Integer.toString(cu+1), output("B"), output("C") };
+
+			//write random matrix as columnar with meta data file
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000, mbA.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.ColumnarOutputInfo, mc, -1, null);
+			MapReduceTool.writeMetaDataFile(input("A.mtd"), ValueType.DOUBLE, mc, OutputInfo.ColumnarOutputInfo);
+
+			//run testcase
+			runTest(true, false, null, -1);
+
+			//compare indexing result with slice of input
+			MatrixBlock mbC = mbA.sliceOperations(rl, ru, cl, cu, new MatrixBlock());
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("B");
+			double[][] B = TestUtils.convertHashMapToDoubleArray(dmlfile, ru-rl+1, cu-cl+1);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC), B, ru-rl+1, cu-cl+1, 0);
+
+			//compare columnar write of the input
+			MatrixBlock mbD = new ReaderColumnar().readMatrixFromHDFS(output("C"), null);
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbD), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
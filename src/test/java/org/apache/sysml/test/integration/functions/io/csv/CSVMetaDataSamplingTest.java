@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.csv;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.FileFormatTypes;
+import org.apache.sysml.hops.LiteralOp;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.recompile.Recompiler;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.parser.DataExpression;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.io.CSVMetaDataEstimator;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests the sample-based estimation of csv matrix characteristics w/o meta data,
+ * its use for memory estimates and execution types of csv reads with unknown size,
+ * and the in-memory reblock of such reads in hybrid execution mode.
+ *
+ */
+public class CSVMetaDataSamplingTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "CSVMetaDataSamplingTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + CSVMetaDataSamplingTest.class.getSimpleName() + "/";
+
+	private final static int rows = 5432;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+
+	//relative tolerance of estimates
+	private final static double tol = 0.1;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testEstimateDense() {
+		runCSVMetaDataSamplingTest(false, false);
+	}
+
+	@Test
+	public void testEstimateSparse() {
+		runCSVMetaDataSamplingTest(true, false);
+	}
+
+	@Test
+	public void testEstimateDenseHeader() {
+		runCSVMetaDataSamplingTest(false, true);
+	}
+
+	@Test
+	public void testEstimateSparseHeader() {
+		runCSVMetaDataSamplingTest(true, true);
+	}
+
+	@Test
+	public void testReadHopMemEstimate() {
+		runCSVReadHopTest(false);
+	}
+
+	@Test
+	public void testReadHopMemEstimateHeader() {
+		runCSVReadHopTest(true);
+	}
+
+	@Test
+	public void testReblockSampleReuse() {
+		runCSVReblockSampleReuseTest(false);
+	}
+
+	@Test
+	public void testReblockSampleReuseHeader() {
+		runCSVReblockSampleReuseTest(true);
+	}
+
+	@Test
+	public void testReadDMLHybrid() {
+		runCSVReadDMLTest(false);
+	}
+
+	@Test
+	public void testReadDMLHybridHeader() {
+		runCSVReadDMLTest(true);
+	}
+
+	/**
+	 *
+	 * @param sparse
+	 * @param header
+	 */
+	private void runCSVMetaDataSamplingTest(boolean sparse, boolean header)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			MatrixBlock mbA = writeInputCSV(sparse, header);
+
+			//estimate and compare characteristics
+			MatrixCharacteristics mc = CSVMetaDataEstimator
+				.estimateMatrixCharacteristics(input("A"), header, ",");
+			Assert.assertNotNull(mc);
+			Assert.assertEquals(cols, mc.getCols());
+			Assert.assertEquals(rows, mc.getRows(), tol*rows);
+			Assert.assertEquals(mbA.getNonZeros(), mc.getNonZeros(), tol*mbA.getNonZeros());
+
+			//non-existing file
+			Assert.assertNull(CSVMetaDataEstimator
+				.estimateMatrixCharacteristics(input("B"), header, ","));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 *
+	 * @param header
+	 */
+	private void runCSVReadHopTest(boolean header)
+	{
+		boolean oldFlag = OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING;
+		RUNTIME_PLATFORM oldPlatform = DMLScript.rtplatform;
+
+		try
+		{
+			DMLScript.rtplatform = RUNTIME_PLATFORM.HYBRID;
+			OptimizerUtils.resetDefaultSize();
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			MatrixBlock mbA = writeInputCSV(false, header);
+			double memExact = OptimizerUtils.estimateSizeExactSparsity(rows, cols, mbA.getNonZeros());
+
+			//memory estimates of csv reads with unknown size w/ and w/o sampling
+			OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING = true;
+			DataOp read1 = createCSVRead(input("A"), header);
+			read1.computeMemEstimate(new MemoTable());
+			read1.constructLops();
+			OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING = false;
+			DataOp read2 = createCSVRead(input("A"), header);
+			read2.computeMemEstimate(new MemoTable());
+			read2.constructLops();
+
+			//sample-based estimates close to exact, but dims remain unknown
+			Assert.assertFalse(read1.dimsKnown());
+			Assert.assertEquals(memExact, read1.getOutputMemEstimate(), tol*memExact);
+			Assert.assertEquals(OptimizerUtils.DEFAULT_SIZE, read2.getOutputMemEstimate(), 0);
+
+			//CP read based on estimates, but marked for recompile w/ exact stats
+			Assert.assertEquals(ExecType.CP, read1.getExecType());
+			Assert.assertTrue(read1.requiresRecompile());
+			Assert.assertNotEquals(ExecType.CP, read2.getExecType());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OptimizerUtils.ALLOW_CSV_METADATA_SAMPLING = oldFlag;
+			DMLScript.rtplatform = oldPlatform;
+		}
+	}
+
+	/**
+	 *
+	 * @param header
+	 */
+	private void runCSVReblockSampleReuseTest(boolean header)
+	{
+		RUNTIME_PLATFORM oldPlatform = DMLScript.rtplatform;
+
+		try
+		{
+			DMLScript.rtplatform = RUNTIME_PLATFORM.HYBRID;
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			writeInputCSV(false, header);
+
+			//csv input w/o meta data as created by createvar
+			MatrixCharacteristics mc = new MatrixCharacteristics(-1, -1, -1, -1, -1);
+			MatrixObject mo = new MatrixObject(ValueType.DOUBLE, input("A"),
+				new MatrixFormatMetaData(mc, OutputInfo.CSVOutputInfo, InputInfo.CSVInputInfo));
+			mo.setFileFormatProperties(new CSVFileFormatProperties(header, ",", false));
+			ExecutionContext ec = ExecutionContextFactory.createContext();
+			ec.setVariable("A", mo);
+
+			//in-memory reblock decision based on estimates, sampled only once
+			Assert.assertTrue(Recompiler.checkCPReblock(ec, "A"));
+			MatrixCharacteristics mcEst = mo.getSampledCharacteristics();
+			Assert.assertNotNull(mcEst);
+			Assert.assertEquals(cols, mcEst.getCols());
+			Assert.assertTrue(Recompiler.checkCPReblock(ec, "A"));
+			Assert.assertSame(mcEst, mo.getSampledCharacteristics());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DMLScript.rtplatform = oldPlatform;
+		}
+	}
+
+	/**
+	 *
+	 * @param header
+	 */
+	private void runCSVReadDMLTest(boolean header)
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.HYBRID;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("A"), output("R"), String.valueOf(header).toUpperCase() };
+
+			//write csv input w/o meta data
+			MatrixBlock mbA = writeInputCSV(false, header);
+			double[][] A = DataConverter.convertToDoubleMatrix(mbA);
+
+			//run test and compare output (in-memory reblock)
+			runTest(true, false, null, -1);
+			Assert.assertEquals("Unexpected number of executed MR jobs.", 0, Statistics.getNoOfExecutedMRJobs());
+
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			double[][] R = TestUtils.convertHashMapToDoubleArray(dmlfile, rows, cols);
+			for( int j=0; j<cols; j++ ) {
+				double colSum = 0;
+				for( int i=0; i<rows; i++ )
+					colSum += A[i][j];
+				for( int i=0; i<rows; i++ )
+					Assert.assertEquals(A[i][j]*2 + colSum, R[i][j], 1e-10);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			rtplatform = oldPlatform;
+		}
+	}
+
+	/**
+	 *
+	 * @param sparse
+	 * @param header
+	 * @return
+	 * @throws Exception
+	 */
+	private MatrixBlock writeInputCSV(boolean sparse, boolean header)
+		throws Exception
+	{
+		double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1, mbA.getNonZeros());
+		CSVFileFormatProperties props = new CSVFileFormatProperties(header, ",", false);
+		DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.CSVOutputInfo, mc, -1, props);
+		return mbA;
+	}
+
+	/**
+	 *
+	 * @param fname
+	 * @param header
+	 * @return
+	 */
+	private static DataOp createCSVRead(String fname, boolean header)
+	{
+		HashMap<String, Hop> params = new HashMap<String, Hop>();
+		params.put(DataExpression.IO_FILENAME, new LiteralOp(fname));
+		params.put(DataExpression.DELIM_HAS_HEADER_ROW, new LiteralOp(header));
+		params.put(DataExpression.DELIM_DELIMITER, new LiteralOp(","));
+		DataOp read = new DataOp("A", DataType.MATRIX, ValueType.DOUBLE, DataOpTypes.PERSISTENTREAD, params);
+		read.setFileName(fname);
+		read.setInputFormatType(FileFormatTypes.CSV);
+		return read;
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.io.csv;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.io.CSVByteParser;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.io.ReaderTextCSV;
+import org.apache.sysml.runtime.io.ReaderTextCSVParallel;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the byte-level CSV parsing of the sequential and parallel 
+ * CSV readers against the expected values, including parsing of 
+ * special number formats, empty cells, and custom delimiters.
+ * 
+ */
+public class ReadCSVByteParserTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "ReadCSVByteParserTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ReadCSVByteParserTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 1234;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	
+	private final static String[] TOKENS = new String[] {
+		"0", "-0", "+1", "1.", ".5", "-.5", "007", "3.14159", "1e3", "1E-3", "-2.5e+10", 
+		"123456789012345", "1234567890123456789", "0.1234567890123456789", "1e22", "1e23", 
+		"4.9e-324", "1.7976931348623157E308", "1e-400", "NaN", "-Infinity", "2d", "0x1p3" };
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+	
+	@Test
+	public void testParseDoubleSpecialTokens() {
+		for( String token : TOKENS )
+			checkParseDouble(token);
+	}
+	
+	@Test
+	public void testParseDoubleRandomTokens() {
+		Random rand = new Random(7);
+		for( int i=0; i<100000; i++ ) {
+			double val = (rand.nextDouble()-0.5) * Math.pow(10, rand.nextInt(40)-20);
+			checkParseDouble(Double.toString(val));
+			checkParseDouble(String.format("%.6f", val));
+			checkParseDouble(String.valueOf(rand.nextInt()));
+		}
+	}
+	
+	@Test
+	public void testReadCSVDenseSequential() {
+		runReadCSVTest(false, false);
+	}
+	
+	@Test
+	public void testReadCSVSparseSequential() {
+		runReadCSVTest(true, false);
+	}
+	
+	@Test
+	public void testReadCSVDenseParallel() {
+		runReadCSVTest(false, true);
+	}
+	
+	@Test
+	public void testReadCSVSparseParallel() {
+		runReadCSVTest(true, true);
+	}
+	
+	@Test
+	public void testReadCSVFillSequential() {
+		runReadCSVFillTest(false);
+	}
+	
+	@Test
+	public void testReadCSVFillParallel() {
+		runReadCSVFillTest(true);
+	}
+	
+	/**
+	 * 
+	 * @param token
+	 */
+	private void checkParseDouble(String token) {
+		byte[] buf = token.getBytes();
+		double expected = Double.parseDouble(token);
+		double actual = CSVByteParser.parseDouble(buf, 0, buf.length);
+		Assert.assertEquals("Wrong parsed value for '"+token+"'", 
+			Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param parallel
+	 */
+	private void runReadCSVTest(boolean sparse, boolean parallel)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//write random matrix as csv
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1, mbA.getNonZeros());
+			CSVFileFormatProperties props = new CSVFileFormatProperties(false, ",", false);
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.CSVOutputInfo, mc, -1, props);
+			
+			//read csv via byte-level parsing and compare
+			MatrixBlock mbB = createReader(props, parallel)
+				.readMatrixFromHDFS(input("A"), rows, cols, -1, -1, mbA.getNonZeros());
+			Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param parallel
+	 */
+	private void runReadCSVFillTest(boolean parallel)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//write csv w/ header, whitespace, empty cells, and multi-char delimiter
+			String fname = input("B");
+			new File(fname).getParentFile().mkdirs();
+			FileWriter fw = new FileWriter(fname);
+			fw.write("c1||c2||c3\n");
+			fw.write(" 1.5|| -2 ||3e2 \r\n");
+			fw.write("||7||\n");
+			fw.write("\t0 ||  || NaN\n");
+			fw.close();
+			
+			//read csv with fill value and compare
+			CSVFileFormatProperties props = new CSVFileFormatProperties(true, "||", true, 9, "");
+			MatrixBlock mbB = createReader(props, parallel)
+				.readMatrixFromHDFS(fname, 3, 3, -1, -1, -1);
+			double[][] B = DataConverter.convertToDoubleMatrix(mbB);
+			double[][] expected = new double[][]{{1.5,-2,300},{9,7,9},{0,9,Double.NaN}};
+			for( int i=0; i<3; i++ )
+				for( int j=0; j<3; j++ )
+					Assert.assertEquals(expected[i][j], B[i][j], 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param props
+	 * @param parallel
+	 * @return
+	 */
+	private static MatrixReader createReader(CSVFileFormatProperties props, boolean parallel) {
+		return parallel ? new ReaderTextCSVParallel(props) : new ReaderTextCSV(props);
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.io.ReaderTextCSV;
+import org.apache.sysml.runtime.io.ReaderTextCSVParallel;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the single-pass parallel CSV read (parsing splits into row chunks 
+ * and stitching them afterwards) against the two-pass parallel CSV read
+ * and the original data, for known and unknown dimensions.
+ * 
+ */
+public class ReadCSVSinglePassTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "ReadCSVSinglePassTest";
+	private final static String TEST_DIR = "functions/io/csv/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ReadCSVSinglePassTest.class.getSimpleName() + "/";
+	
+	//rows larger than a single row chunk
+	private final static int rows = 5432;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+	
+	@Test
+	public void testReadCSVDenseKnownDims() {
+		runReadCSVSinglePassTest(false, true, false);
+	}
+	
+	@Test
+	public void testReadCSVSparseKnownDims() {
+		runReadCSVSinglePassTest(true, true, false);
+	}
+	
+	@Test
+	public void testReadCSVDenseUnknownDims() {
+		runReadCSVSinglePassTest(false, false, false);
+	}
+	
+	@Test
+	public void testReadCSVSparseUnknownDims() {
+		runReadCSVSinglePassTest(true, false, false);
+	}
+	
+	@Test
+	public void testReadCSVDenseHeaderUnknownDims() {
+		runReadCSVSinglePassTest(false, false, true);
+	}
+	
+	@Test
+	public void testReadCSVSparseHeaderUnknownDims() {
+		runReadCSVSinglePassTest(true, false, true);
+	}
+	
+	@Test
+	public void testReadCSVMultiSplitDenseKnownDims() {
+		runReadCSVMultiSplitTest(false, true);
+	}
+	
+	@Test
+	public void testReadCSVMultiSplitSparseKnownDims() {
+		runReadCSVMultiSplitTest(true, true);
+	}
+	
+	@Test
+	public void testReadCSVMultiSplitDenseUnknownDims() {
+		runReadCSVMultiSplitTest(false, false);
+	}
+	
+	@Test
+	public void testReadCSVMultiSplitSparseUnknownDims() {
+		runReadCSVMultiSplitTest(true, false);
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param knownDims
+	 * @param header
+	 */
+	private void runReadCSVSinglePassTest(boolean sparse, boolean knownDims, boolean header)
+	{
+		boolean oldFlag = ReaderTextCSVParallel.SINGLE_PASS_READ;
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//write random matrix as csv
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1, mbA.getNonZeros());
+			CSVFileFormatProperties props = new CSVFileFormatProperties(header, ",", false);
+			DataConverter.writeMatrixToHDFS(mbA, input("A"), OutputInfo.CSVOutputInfo, mc, -1, props);
+			
+			long rlen = knownDims ? rows : -1;
+			long clen = knownDims ? cols : -1;
+			long nnz = knownDims ? mbA.getNonZeros() : -1;
+			
+			//read csv via single-pass and two-pass parallel read
+			ReaderTextCSVParallel.SINGLE_PASS_READ = true;
+			MatrixBlock mbB = new ReaderTextCSVParallel(props)
+				.readMatrixFromHDFS(input("A"), rlen, clen, -1, -1, nnz);
+			ReaderTextCSVParallel.SINGLE_PASS_READ = false;
+			MatrixBlock mbC = new ReaderTextCSVParallel(props)
+				.readMatrixFromHDFS(input("A"), rlen, clen, -1, -1, nnz);
+			
+			//compare dimensions, nnz, and values
+			Assert.assertEquals(rows, mbB.getNumRows());
+			Assert.assertEquals(cols, mbB.getNumColumns());
+			Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+			Assert.assertEquals(mbC.getNonZeros(), mbB.getNonZeros());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mbC), 
+				DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ReaderTextCSVParallel.SINGLE_PASS_READ = oldFlag;
+		}
+	}
+	
+	/**
+	 * Reads a directory of csv part files (i.e., multiple splits) whose row 
+	 * counts are no multiples of the chunk size, and compares the result
+	 * cell by cell with the sequential csv reader.
+	 * 
+	 * @param sparse
+	 * @param knownDims
+	 */
+	private void runReadCSVMultiSplitTest(boolean sparse, boolean knownDims)
+	{
+		boolean oldFlag = ReaderTextCSVParallel.SINGLE_PASS_READ;
+		
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+			
+			//write random matrix as csv part files of different sizes
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			CSVFileFormatProperties props = new CSVFileFormatProperties(false, ",", false);
+			int[] parts = new int[]{0, 1000, 3500, rows};
+			MapReduceTool.deleteFileIfExistOnHDFS(input("B"));
+			for( int i=0; i<parts.length-1; i++ ) {
+				MatrixBlock tmp = mbA.sliceOperations(parts[i], parts[i+1]-1, 0, cols-1, new MatrixBlock());
+				MatrixCharacteristics mc = new MatrixCharacteristics(tmp.getNumRows(), cols, -1, -1, tmp.getNonZeros());
+				DataConverter.writeMatrixToHDFS(tmp, input("B")+"/part-0000"+i, OutputInfo.CSVOutputInfo, mc, -1, props);
+			}
+			
+			long rlen = knownDims ? rows : -1;
+			long clen = knownDims ? cols : -1;
+			long nnz = knownDims ? mbA.getNonZeros() : -1;
+			
+			//read csv via single-pass parallel and sequential read
+			ReaderTextCSVParallel.SINGLE_PASS_READ = true;
+			MatrixBlock mbB = new ReaderTextCSVParallel(props)
+				.readMatrixFromHDFS(input("B"), rlen, clen, -1, -1, nnz);
+			MatrixBlock mbC = new ReaderTextCSV(props)
+				.readMatrixFromHDFS(input("B"), rlen, clen, -1, -1, nnz);
+			
+			//compare dimensions, nnz, and values
+			Assert.assertEquals(rows, mbB.getNumRows());
+			Assert.assertEquals(cols, mbB.getNumColumns());
+			Assert.assertEquals(mbC.getNonZeros(), mbB.getNonZeros());
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					Assert.assertEquals("Wrong value for cell ("+i+","+j+")", 
+						mbC.quickGetValue(i, j), mbB.quickGetValue(i, j), 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ReaderTextCSVParallel.SINGLE_PASS_READ = oldFlag;
+		}
+	}
+}
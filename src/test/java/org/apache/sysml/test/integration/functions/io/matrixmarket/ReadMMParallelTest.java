@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.io.matrixmarket;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.io.MatrixReaderFactory;
+import org.apache.sysml.runtime.io.ReaderMatrixMarketParallel;
+import org.apache.sysml.runtime.io.ReaderTextCell;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the dedicated parallel MatrixMarket reader for the different fields
+ * and symmetry types, with multiple splits and comments, against the original
+ * data, including the direct construction of CSR sparse blocks.
+ *
+ */
+public class ReadMMParallelTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "ReadMMParallelTest";
+	private final static String TEST_DIR = "functions/io/matrixmarket/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ReadMMParallelTest.class.getSimpleName() + "/";
+
+	private final static int rows = 1234;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static int numThreads = 7;
+
+	private enum MMType {
+		REAL_GENERAL,
+		INTEGER_GENERAL,
+		PATTERN_GENERAL,
+		REAL_SYMMETRIC,
+		PATTERN_SYMMETRIC,
+		REAL_SKEW_SYMMETRIC,
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testReadRealGeneralDense() {
+		runReadMMParallelTest(MMType.REAL_GENERAL, sparsity1);
+	}
+
+	@Test
+	public void testReadRealGeneralSparse() {
+		runReadMMParallelTest(MMType.REAL_GENERAL, sparsity2);
+	}
+
+	@Test
+	public void testReadIntegerGeneralSparse() {
+		runReadMMParallelTest(MMType.INTEGER_GENERAL, sparsity2);
+	}
+
+	@Test
+	public void testReadPatternGeneralSparse() {
+		runReadMMParallelTest(MMType.PATTERN_GENERAL, sparsity2);
+	}
+
+	@Test
+	public void testReadRealSymmetricDense() {
+		runReadMMParallelTest(MMType.REAL_SYMMETRIC, sparsity1);
+	}
+
+	@Test
+	public void testReadRealSymmetricSparse() {
+		runReadMMParallelTest(MMType.REAL_SYMMETRIC, sparsity2);
+	}
+
+	@Test
+	public void testReadPatternSymmetricSparse() {
+		runReadMMParallelTest(MMType.PATTERN_SYMMETRIC, sparsity2);
+	}
+
+	@Test
+	public void testReadRealSkewSymmetricSparse() {
+		runReadMMParallelTest(MMType.REAL_SKEW_SYMMETRIC, sparsity2);
+	}
+
+	@Test
+	public void testReadRealSymmetricSparseDML() {
+		runReadMMParallelDMLTest(MMType.REAL_SYMMETRIC, sparsity2);
+	}
+
+	@Test
+	public void testReadPatternGeneralSparseDML() {
+		runReadMMParallelDMLTest(MMType.PATTERN_GENERAL, sparsity2);
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param sparsity
+	 */
+	private void runReadMMParallelTest(MMType type, double sparsity)
+	{
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//write matrix market file with expected data
+			double[][] A = createMatrix(type, sparsity);
+			writeMMFile(input("A.mtx"), type, A);
+
+			//read via parallel matrix market reader
+			MatrixBlock mb = new ReaderMatrixMarketParallel(numThreads)
+				.readMatrixFromHDFS(input("A.mtx"), rows, rows, 1000, 1000, -1);
+
+			//compare dimensions, nnz, representation, and values
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			Assert.assertEquals(rows, mb.getNumRows());
+			Assert.assertEquals(rows, mb.getNumColumns());
+			Assert.assertEquals(mbA.getNonZeros(), mb.getNonZeros());
+			if( mb.isInSparseFormat() )
+				Assert.assertTrue(mb.getSparseBlock() instanceof SparseBlockCSR);
+			Assert.assertEquals(sparsity==sparsity2, mb.isInSparseFormat());
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), rows, rows, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@Test
+	public void testReadMMSequentialRealGeneral() {
+		runReadMMSequentialTest(MMType.REAL_GENERAL);
+	}
+
+	@Test
+	public void testReadMMSequentialRealSymmetric() {
+		runReadMMSequentialTest(MMType.REAL_SYMMETRIC);
+	}
+
+	/**
+	 * Reads via the reader obtained w/o parallel text reads, which only
+	 * supports general MatrixMarket files with explicit values.
+	 *
+	 * @param type
+	 */
+	private void runReadMMSequentialTest(MMType type)
+	{
+		CompilerConfig oldConf = ConfigurationManager.getCompilerConfig();
+
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(TEST_NAME));
+
+			//write matrix market file with expected data
+			double[][] A = createMatrix(type, sparsity2);
+			writeMMFile(input("A.mtx"), type, A);
+
+			//obtain reader w/o parallel text reads
+			CompilerConfig conf = oldConf.clone();
+			conf.set(ConfigType.PARALLEL_CP_READ_TEXTFORMATS, false);
+			ConfigurationManager.setLocalConfig(conf);
+			MatrixReader reader = MatrixReaderFactory.createMatrixReader(InputInfo.MatrixMarketInputInfo);
+			Assert.assertTrue(reader instanceof ReaderTextCell);
+
+			//read and compare values or expect error for symmetric files
+			try {
+				MatrixBlock mb = reader.readMatrixFromHDFS(input("A.mtx"), rows, rows, 1000, 1000, -1);
+				Assert.assertEquals(MMType.REAL_GENERAL, type);
+				TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), rows, rows, 0);
+			}
+			catch(IOException ex) {
+				Assert.assertNotEquals(MMType.REAL_GENERAL, type);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(oldConf);
+		}
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param sparsity
+	 */
+	private void runReadMMParallelDMLTest(MMType type, double sparsity)
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.HYBRID;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-args", input("A.mtx"), output("R") };
+
+			//write matrix market file (w/o meta data)
+			double[][] A = createMatrix(type, sparsity);
+			writeMMFile(input("A.mtx"), type, A);
+
+			//run testcase and compare output
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			double[][] R = TestUtils.convertHashMapToDoubleArray(dmlfile, rows, rows);
+			TestUtils.compareMatrices(A, R, rows, rows, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			rtplatform = oldPlatform;
+		}
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param sparsity
+	 * @return
+	 */
+	private double[][] createMatrix(MMType type, double sparsity)
+	{
+		boolean integer = (type == MMType.INTEGER_GENERAL);
+		double[][] A = getRandomMatrix(rows, rows, integer ? -10 : -1, integer ? 10 : 1, sparsity, 7);
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<rows; j++ ) {
+				if( integer )
+					A[i][j] = Math.round(A[i][j]);
+				else if( type == MMType.PATTERN_GENERAL || type == MMType.PATTERN_SYMMETRIC )
+					A[i][j] = (A[i][j] != 0) ? 1 : 0;
+				if( type == MMType.REAL_SKEW_SYMMETRIC && i == j )
+					A[i][j] = 0;
+			}
+
+		//mirror lower triangle for symmetric types
+		if( type == MMType.REAL_SYMMETRIC || type == MMType.PATTERN_SYMMETRIC
+			|| type == MMType.REAL_SKEW_SYMMETRIC ) {
+			double sign = (type == MMType.REAL_SKEW_SYMMETRIC) ? -1 : 1;
+			for( int i=0; i<rows; i++ )
+				for( int j=i+1; j<rows; j++ )
+					A[i][j] = sign * A[j][i];
+		}
+
+		return A;
+	}
+
+	/**
+	 * Writes the given matrix with header, comments, and only the lower
+	 * triangle for symmetric types.
+	 *
+	 * @param fname
+	 * @param type
+	 * @param A
+	 * @throws IOException
+	 */
+	private static void writeMMFile(String fname, MMType type, double[][] A)
+		throws IOException
+	{
+		String[] parts = type.name().toLowerCase().split("_", 2);
+		String field = parts[0];
+		String symmetry = parts[1].replace('_', '-');
+		boolean symmetric = !symmetry.equals("general");
+		boolean pattern = field.equals("pattern");
+
+		//collect entries
+		StringBuilder sb = new StringBuilder();
+		long entries = 0;
+		for( int i=0; i<A.length; i++ )
+			for( int j=0; j<(symmetric ? i+1 : A[i].length); j++ )
+				if( A[i][j] != 0 ) {
+					sb.append((i+1) + " " + (j+1));
+					if( !pattern )
+						sb.append(" " + (field.equals("integer") ? String.valueOf((long)A[i][j]) : String.valueOf(A[i][j])));
+					sb.append("\n");
+					entries++;
+				}
+
+		File f = new File(fname);
+		f.getParentFile().mkdirs();
+		BufferedWriter bw = new BufferedWriter(new FileWriter(f));
+		try {
+			bw.write("%%MatrixMarket matrix coordinate " + field + " " + symmetry + "\n");
+			bw.write("% generated test matrix\n%\n");
+			bw.write(A.length + " " + A[0].length + " " + entries + "\n");
+			bw.write(sb.toString());
+		}
+		finally {
+			bw.close();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedTransformEncoder;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.transform.DataTransform;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the row-at-a-time encoding via prepared transform encoders
+ * against the block transformapply over the same rows, including
+ * pass-through columns and tokens without entries in the recode maps.
+ *
+ */
+public class FrameEncodeRowTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "FrameEncodeRowTest";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + FrameEncodeRowTest.class.getSimpleName() + "/";
+
+	private final static String SPEC = "{\"ids\": true, \"recode\": [ 1, 3 ] }";
+
+	private final static int rows = 345;
+	private final static int cols = 3;
+	private final static int ndistinct = 17;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testEncodeRowReusedOutput() {
+		runEncodeRowTest(true);
+	}
+
+	@Test
+	public void testEncodeRowGivenOutput() {
+		runEncodeRowTest(false);
+	}
+
+	/**
+	 *
+	 * @param reuse
+	 */
+	private void runEncodeRowTest(boolean reuse)
+	{
+		Connection conn = new Connection();
+
+		try
+		{
+			//create input rows (incl unseen tokens) and meta data
+			String[][] X = new String[rows][];
+			for( int i=0; i<rows; i++ )
+				X[i] = new String[]{ "a" + (i % (ndistinct+1)), String.valueOf(i*0.5), "b" + (i % 3) };
+			String[][] M = new String[ndistinct][cols];
+			for( int i=0; i<ndistinct; i++ ) {
+				M[i][0] = "a" + i + Lop.DATATYPE_PREFIX + (ndistinct-i);
+				M[i][2] = (i < 3) ? "b" + i + Lop.DATATYPE_PREFIX + (i+1) : null;
+			}
+
+			//prepare encoder and encode rows
+			PreparedTransformEncoder encoder = conn.prepareTransformEncoder(SPEC, M);
+			Assert.assertEquals(cols, encoder.getNumColumns());
+			double[][] R = new double[rows][];
+			for( int i=0; i<rows; i++ )
+				R[i] = reuse ? encoder.encode(X[i]).clone() :
+					encoder.encode(X[i], new double[cols]);
+
+			//compare with block transformapply
+			HashMap<String,String> params = new HashMap<String,String>();
+			params.put("spec", SPEC);
+			FrameBlock fX = DataConverter.convertToFrameBlock(X);
+			MatrixBlock mbY = DataTransform.cpDataTransform(params, fX,
+				DataConverter.convertToFrameBlock(M));
+			for( int i=0; i<rows; i++ ) {
+				boolean unseen = (i % (ndistinct+1) == ndistinct);
+				Assert.assertEquals(unseen, Double.isNaN(R[i][0]));
+				for( int j=0; j<cols; j++ )
+					Assert.assertEquals(mbY.quickGetValue(i, j), R[i][j], 0);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			conn.close();
+		}
+	}
+}
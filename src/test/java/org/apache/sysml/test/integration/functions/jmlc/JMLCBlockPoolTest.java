@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.ResultVariables;
+import org.apache.sysml.runtime.matrix.data.DenseBlockPool;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+
+/**
+ * Tests JMLC scoring with inputs bound by reference, caller-provided 
+ * output buffers, and dense blocks recycled across executions.
+ * 
+ */
+public class JMLCBlockPoolTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "block-pool";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + JMLCBlockPoolTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 37;
+	private final static int cols = 29;
+	private final static int classes = 5;
+	private final static int nRuns = 20;
+	private final static int numThreads = 4;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "Y" }) ); 
+	}
+	
+	@Test
+	public void testJMLCNoBlockPoolDense() throws IOException {
+		runJMLCBlockPoolTest(false, false, false);
+	}
+	
+	@Test
+	public void testJMLCBlockPoolDense() throws IOException {
+		runJMLCBlockPoolTest(false, true, false);
+	}
+	
+	@Test
+	public void testJMLCBlockPoolSparse() throws IOException {
+		runJMLCBlockPoolTest(true, true, false);
+	}
+	
+	@Test
+	public void testJMLCBlockPoolDenseMultiThreaded() throws IOException {
+		runJMLCBlockPoolTest(false, true, true);
+	}
+	
+	@Test
+	public void testJMLCBlockPoolSparseMultiThreaded() throws IOException {
+		runJMLCBlockPoolTest(true, true, true);
+	}
+	
+	@Test
+	public void testBlockPoolOwnership() 
+	{
+		DenseBlockPool bpool = new DenseBlockPool(1024*1024);
+		
+		//allocate two blocks from active pool, keep the second one live
+		DenseBlockPool.activate(bpool);
+		MatrixBlock mb1 = new MatrixBlock(rows, cols, false);
+		mb1.allocateDenseBlock();
+		MatrixBlock mb2 = new MatrixBlock(rows, cols, false);
+		mb2.allocateDenseBlock();
+		Assert.assertTrue(DenseBlockPool.isPoolAllocated(mb1.getDenseBlock()));
+		Assert.assertTrue(DenseBlockPool.isPoolAllocated(mb2.getDenseBlock()));
+		DenseBlockPool.deactivate(Arrays.asList(mb2));
+		Assert.assertFalse(DenseBlockPool.isPoolAllocated(mb1.getDenseBlock()));
+		Assert.assertEquals(0, bpool.getNumHits());
+		
+		//reallocate, only the recycled array is reused exactly once
+		DenseBlockPool.activate(bpool);
+		MatrixBlock mb3 = new MatrixBlock(rows, cols, false);
+		mb3.allocateDenseBlock();
+		MatrixBlock mb4 = new MatrixBlock(rows, cols, false);
+		mb4.allocateDenseBlock();
+		DenseBlockPool.deactivate(null);
+		Assert.assertSame(mb1.getDenseBlock(), mb3.getDenseBlock());
+		Assert.assertNotSame(mb2.getDenseBlock(), mb4.getDenseBlock());
+		Assert.assertNotSame(mb3.getDenseBlock(), mb4.getDenseBlock());
+		Assert.assertEquals(1, bpool.getNumHits());
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param blockPool
+	 * @param multiThreaded
+	 * @throws IOException
+	 */
+	private void runJMLCBlockPoolTest( boolean sparse, boolean blockPool, boolean multiThreaded ) 
+		throws IOException
+	{
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		
+		Connection conn = new Connection();
+		ExecutorService pool = null;
+		
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, 
+				new String[]{"X","W"}, new String[]{"Y"}, false);
+			if( blockPool )
+				pstmt.setBlockPoolSize(64*1024*1024);
+			
+			//bind reused model by reference
+			double[] W = toRowMajor(getRandomMatrix(cols, classes, -1, 1, 1.0, 7));
+			pstmt.setMatrix("W", W, cols, classes, true);
+			
+			//create scoring tasks
+			ArrayList<ScoringTask> tasks = new ArrayList<ScoringTask>();
+			for( int i=0; i<nRuns; i++ ) {
+				double[] X = toRowMajor(getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, i));
+				tasks.add(new ScoringTask(pstmt, X));
+			}
+			
+			//execute tasks sequentially or concurrently
+			ArrayList<double[]> ret = new ArrayList<double[]>();
+			if( multiThreaded ) {
+				pool = Executors.newFixedThreadPool(numThreads);
+				for( Future<double[]> f : pool.invokeAll(tasks) )
+					ret.add(f.get());
+			}
+			else {
+				for( ScoringTask task : tasks )
+					ret.add(task.call());
+			}
+			
+			//compare results with expected results
+			for( int i=0; i<nRuns; i++ ) {
+				double[] Y = computeExpectedResult(tasks.get(i)._X, W);
+				Assert.assertArrayEquals(Y, ret.get(i), eps);
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( pool != null )
+				pool.shutdown();
+			conn.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @return
+	 */
+	private static double[] toRowMajor(double[][] X) {
+		double[] ret = new double[X.length*X[0].length];
+		for( int i=0; i<X.length; i++ )
+			System.arraycopy(X[i], 0, ret, i*X[0].length, X[0].length);
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param W
+	 * @return
+	 */
+	private static double[] computeExpectedResult(double[] X, double[] W)
+	{
+		double[] Y = new double[rows*classes];
+		for( int i=0; i<rows; i++ ) {
+			double rowSum = 0;
+			for( int j=0; j<classes; j++ ) {
+				double h = 0;
+				for( int k=0; k<cols; k++ )
+					h += X[i*cols+k] * W[k*classes+j];
+				Y[i*classes+j] = 1 / (1 + Math.exp(-h));
+				rowSum += Y[i*classes+j];
+			}
+			for( int j=0; j<classes; j++ )
+				Y[i*classes+j] /= rowSum;
+		}
+		return Y;
+	}
+	
+	/**
+	 * Scoring task that binds its input by reference and obtains
+	 * the result via a preallocated output buffer.
+	 */
+	private static class ScoringTask implements Callable<double[]>
+	{
+		private final PreparedScript _pstmt;
+		private final double[] _X;
+		private final double[] _Y;
+		
+		public ScoringTask(PreparedScript pstmt, double[] X) {
+			_pstmt = pstmt;
+			_X = X;
+			_Y = new double[rows*classes];
+		}
+		
+		@Override
+		public double[] call() throws Exception {
+			_pstmt.setMatrix("X", _X, rows, cols, false);
+			ResultVariables rs = _pstmt.executeScript();
+			return rs.getMatrix("Y", _Y);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.ResultVariables;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the JMLC plan cache and the concurrent execution of a single 
+ * prepared script, shared across scoring threads.
+ * 
+ */
+public class JMLCPlanCacheTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "plan-cache";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + JMLCPlanCacheTest.class.getSimpleName() + "/";
+	
+	private final static int rows1 = 17;
+	private final static int rows2 = 43;
+	private final static int cols = 23;
+	private final static int nRuns = 20;
+	private final static int numThreads = 4;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "Y" }) ); 
+	}
+	
+	@Test
+	public void testJMLCNoPlanCacheDense() throws IOException {
+		runJMLCPlanCacheTest(false, false, false);
+	}
+	
+	@Test
+	public void testJMLCPlanCacheDense() throws IOException {
+		runJMLCPlanCacheTest(false, true, false);
+	}
+	
+	@Test
+	public void testJMLCPlanCacheSparse() throws IOException {
+		runJMLCPlanCacheTest(true, true, false);
+	}
+	
+	@Test
+	public void testJMLCNoPlanCacheDenseMultiThreaded() throws IOException {
+		runJMLCPlanCacheTest(false, false, true);
+	}
+	
+	@Test
+	public void testJMLCPlanCacheDenseMultiThreaded() throws IOException {
+		runJMLCPlanCacheTest(false, true, true);
+	}
+	
+	@Test
+	public void testJMLCPlanCacheSparseMultiThreaded() throws IOException {
+		runJMLCPlanCacheTest(true, true, true);
+	}
+	
+	/**
+	 * 
+	 * @param sparse
+	 * @param planCache
+	 * @param multiThreaded
+	 * @throws IOException
+	 */
+	private void runJMLCPlanCacheTest( boolean sparse, boolean planCache, boolean multiThreaded ) 
+		throws IOException
+	{
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+		
+		Connection conn = new Connection();
+		ExecutorService pool = null;
+		
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");	
+			final PreparedScript pstmt = conn.prepareScript(script, 
+				new String[]{"X","W","b"}, new String[]{"Y"}, false);
+			if( planCache )
+				pstmt.setPlanCacheSize(8);
+			
+			//create scoring tasks with two different input shapes
+			ArrayList<ScoringTask> tasks = new ArrayList<ScoringTask>();
+			for( int i=0; i<nRuns; i++ ) {
+				int rows = (i%2==0) ? rows1 : rows2;
+				int wcols = (i%2==0) ? 1 : 3;
+				double[][] X = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, i);
+				double[][] W = getRandomMatrix(cols, wcols, -1, 1, 1.0, i+nRuns);
+				tasks.add(new ScoringTask(pstmt, X, W, i));
+			}
+			
+			//execute tasks sequentially or concurrently
+			ArrayList<double[][]> ret = new ArrayList<double[][]>();
+			if( multiThreaded ) {
+				pool = Executors.newFixedThreadPool(numThreads);
+				for( Future<double[][]> f : pool.invokeAll(tasks) )
+					ret.add(f.get());
+			}
+			else {
+				for( ScoringTask task : tasks )
+					ret.add(task.call());
+			}
+			
+			//compare results with expected results
+			for( int i=0; i<nRuns; i++ ) {
+				ScoringTask task = tasks.get(i);
+				double[][] Y = computeExpectedResult(task._X, task._W, task._b);
+				TestUtils.compareMatrices(Y, ret.get(i), Y.length, 1, eps);
+			}
+			
+			//check cached plans, one per input shape
+			Assert.assertEquals(planCache ? 2 : 0, pstmt.getPlanCacheNumEntries());
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( pool != null )
+				pool.shutdown();
+			conn.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param W
+	 * @param b
+	 * @return
+	 */
+	private static double[][] computeExpectedResult(double[][] X, double[][] W, double b)
+	{
+		double[][] Y = new double[X.length][1];
+		for( int i=0; i<X.length; i++ ) {
+			double rowSum = 0;
+			for( int j=0; j<W[0].length; j++ ) {
+				double p = b;
+				for( int k=0; k<W.length; k++ )
+					p += X[i][k] * W[k][j];
+				rowSum += p;
+			}
+			Y[i][0] = (W[0].length > 1) ? rowSum : rowSum * 2;
+		}
+		return Y;
+	}
+	
+	/**
+	 * Scoring task that binds its own inputs to the shared prepared script.
+	 */
+	private static class ScoringTask implements Callable<double[][]>
+	{
+		private final PreparedScript _pstmt;
+		private final double[][] _X;
+		private final double[][] _W;
+		private final double _b;
+		
+		public ScoringTask(PreparedScript pstmt, double[][] X, double[][] W, double b) {
+			_pstmt = pstmt;
+			_X = X;
+			_W = W;
+			_b = b;
+		}
+		
+		@Override
+		public double[][] call() throws Exception {
+			_pstmt.setMatrix("X", _X);
+			_pstmt.setMatrix("W", _W);
+			_pstmt.setScalar("b", _b);
+			CompilerConfig cconf = ConfigurationManager.getCompilerConfig();
+			ResultVariables rs = _pstmt.executeScript();
+			
+			//check restored configuration of calling thread
+			Assert.assertSame(cconf, ConfigurationManager.getCompilerConfig());
+			return rs.getMatrix("Y");
+		}
+	}
+}
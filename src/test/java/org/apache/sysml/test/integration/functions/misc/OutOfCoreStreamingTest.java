@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests the out-of-core (CP_FILE) execution of cell-wise, aggregate, and matrix-vector
+ * operations, which is forced via a very small memory budget, against the in-memory
+ * execution of the same script.
+ *
+ */
+public class OutOfCoreStreamingTest extends AutomatedTestBase
+{
+	private static final String TEST_NAME = "OutOfCoreStreamingTest";
+	private static final String TEST_DIR = "functions/misc/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + OutOfCoreStreamingTest.class.getSimpleName() + "/";
+
+	//multiple row and column blocks incl partial blocks
+	private static final int rows = 1734;
+	private static final int cols = 1123;
+	private static final double sparsity1 = 0.7;
+	private static final double sparsity2 = 0.05;
+	private static final double eps = Math.pow(10, -8);
+
+	@Override
+	public void setUp()
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R1", "R2", "R3", "R4" }) );
+	}
+
+	@Test
+	public void testOutOfCoreStreamingDense() {
+		runOutOfCoreStreamingTest(false);
+	}
+
+	@Test
+	public void testOutOfCoreStreamingSparse() {
+		runOutOfCoreStreamingTest(true);
+	}
+
+	/**
+	 *
+	 * @param sparse
+	 */
+	private void runOutOfCoreStreamingTest( boolean sparse )
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		boolean oldFlagOOC = CompilerConfig.FLAG_OUTOFCORE_CP;
+		boolean oldFlagFusion = OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION;
+		long oldmem = InfrastructureAnalyzer.getLocalMaxMemory();
+
+		try
+		{
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			programArgs = new String[]{"-stats", "-args", input("X"), input("v"), input("w"),
+				output("R1"), output("R2"), output("R3"), output("R4") };
+
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION = false;
+
+			//write binary block matrix and in-memory vectors
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mbX = DataConverter.convertToMatrixBlock(X);
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000, mbX.getNonZeros());
+			DataConverter.writeMatrixToHDFS(mbX, input("X"), OutputInfo.BinaryBlockOutputInfo, mc);
+			MapReduceTool.writeMetaDataFile(input("X.mtd"), ValueType.DOUBLE, mc, OutputInfo.BinaryBlockOutputInfo);
+			writeInputMatrixWithMTD("v", getRandomMatrix(rows, 1, -1, 1, 1.0, 3), true);
+			writeInputMatrixWithMTD("w", getRandomMatrix(1, cols, -1, 1, 1.0, 5), true);
+
+			//run in-memory operations
+			CompilerConfig.FLAG_OUTOFCORE_CP = false;
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double>[] ret1 = readOutputs();
+			Assert.assertFalse(Statistics.getCPHeavyHitterOpCodes()
+				.contains(Instruction.CP_FILE_INST_PREFIX+"ba+*"));
+
+			//run out-of-core operations (forced via small memory budget)
+			CompilerConfig.FLAG_OUTOFCORE_CP = true;
+			InfrastructureAnalyzer.setLocalMaxMemory(1024*1024);
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double>[] ret2 = readOutputs();
+
+			//check for streamed cell-wise, aggregate, and matrix mult operations
+			String[] opcodes = new String[]{"abs", "exp", "*", "uark+", "uacmin", "ba+*"};
+			for( String opcode : opcodes )
+				Assert.assertTrue("Missing out-of-core operation: "+opcode, Statistics
+					.getCPHeavyHitterOpCodes().contains(Instruction.CP_FILE_INST_PREFIX+opcode));
+
+			//compare matrices
+			for( int i=0; i<ret1.length; i++ )
+				TestUtils.compareMatrices(ret1[i], ret2[i], eps, "In-memory", "Out-of-core");
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally
+		{
+			rtplatform = oldPlatform;
+			CompilerConfig.FLAG_OUTOFCORE_CP = oldFlagOOC;
+			OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION = oldFlagFusion;
+			InfrastructureAnalyzer.setLocalMaxMemory(oldmem);
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private HashMap<CellIndex, Double>[] readOutputs() {
+		return new HashMap[] { readDMLMatrixFromHDFS("R1"), readDMLMatrixFromHDFS("R2"),
+			readDMLMatrixFromHDFS("R3"), readDMLMatrixFromHDFS("R4") };
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.lops.FusedCell;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests for the fusion of cell-wise operation chains into a single
+ * fused operator (multiple inputs, scalars, and sparse-safe chains).
+ * 
+ */
+public class RewriteFuseCellwiseTest extends AutomatedTestBase 
+{	
+	private static final String TEST_NAME1 = "RewriteFuseCellwise1"; //(X*2-Y)/3+abs(X-Y)*0.5
+	private static final String TEST_NAME2 = "RewriteFuseCellwise2"; //sigmoid(X*Y+1)
+	private static final String TEST_NAME3 = "RewriteFuseCellwise3"; //sqrt(abs(X)*4)+round(X)^2
+	
+	private static final String TEST_DIR = "functions/misc/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + RewriteFuseCellwiseTest.class.getSimpleName() + "/";
+	
+	private static final int rows = 1234;
+	private static final int cols = 567;
+	private static final double sparsity1 = 0.7;
+	private static final double sparsity2 = 0.1;
+	private static final double eps = Math.pow(10, -10);
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }) );
+		addTestConfiguration( TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R" }) );
+		addTestConfiguration( TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testFuseCellwiseBinaryDenseNoRewrite()  {
+		testRewriteFuseCellwise( TEST_NAME1, false, false );
+	}
+	
+	@Test
+	public void testFuseCellwiseBinaryDense()  {
+		testRewriteFuseCellwise( TEST_NAME1, false, true );
+	}
+	
+	@Test
+	public void testFuseCellwiseBinarySparse()  {
+		testRewriteFuseCellwise( TEST_NAME1, true, true );
+	}
+	
+	@Test
+	public void testFuseCellwiseSigmoidDense()  {
+		testRewriteFuseCellwise( TEST_NAME2, false, true );
+	}
+	
+	@Test
+	public void testFuseCellwiseSigmoidSparse()  {
+		testRewriteFuseCellwise( TEST_NAME2, true, true );
+	}
+	
+	@Test
+	public void testFuseCellwiseUnaryDense()  {
+		testRewriteFuseCellwise( TEST_NAME3, false, true );
+	}
+	
+	@Test
+	public void testFuseCellwiseUnarySparse()  {
+		testRewriteFuseCellwise( TEST_NAME3, true, true );
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparse
+	 * @param rewrites
+	 */
+	private void testRewriteFuseCellwise( String testname, boolean sparse, boolean rewrites )
+	{	
+		boolean oldFlag = OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION;
+		
+		try
+		{
+			TestConfiguration config = getTestConfiguration(testname);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			programArgs = new String[]{ "-stats","-args", 
+				input("X"), input("Y"), output("R") };
+			
+			fullRScriptName = HOME + testname + ".R";
+			rCmd = getRCmd(inputDir(), expectedDir());			
+
+			OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION = rewrites;
+
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, true);
+			double[][] Y = getRandomMatrix(rows, cols, -1, 1, sparsity, 3);
+			writeInputMatrixWithMTD("Y", Y, true);
+			
+			runTest(true, false, null, -1); 
+			runRScript(true); 
+			
+			//compare matrices 
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			HashMap<CellIndex, Double> rfile  = readRMatrixFromFS("R");
+			TestUtils.compareMatrices(dmlfile, rfile, eps, "Stat-DML", "Stat-R");
+			
+			//check for fused operator
+			Assert.assertEquals("Unexpected fused operator", rewrites, 
+				Statistics.getCPHeavyHitterOpCodes().contains(FusedCell.OPCODE));
+		}
+		finally
+		{
+			OptimizerUtils.ALLOW_CELLWISE_OPERATOR_FUSION = oldFlag;
+		}
+	}	
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.parfor.ResultMergeLocalMemory;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the local in-memory result merge over disjoint row and column 
+ * partitions of the output, with and without compare (i.e., zero or
+ * non-zero initial output), for dense and sparse results. The script-level
+ * tests compare against equivalent sequential for loops, while the 
+ * component tests directly invoke the multi-threaded merge, which is
+ * independent of the configured default of serial or parallel merge.
+ *
+ */
+public class ParForLocalResultMergeTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/parfor/";
+	private final static String TEST_NAME1 = "parfor_resultmerge_local1"; //row-wise
+	private final static String TEST_NAME2 = "parfor_resultmerge_local2"; //column-wise
+	private final static String TEST_CLASS_DIR = TEST_DIR + ParForLocalResultMergeTest.class.getSimpleName() + "/";
+
+	private final static double eps = 0;
+
+	private final static int rows1 = 1507;
+	private final static int cols1 = 73;
+	private final static int rows2 = 3;
+	private final static int cols2 = 1211;
+
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static int numWorkers = 4;
+
+	@Override
+	public void setUp()
+	{
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R", "S" }) );
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "R", "S" }) );
+	}
+
+	@Test
+	public void testResultMergeRowwiseDense() {
+		runParForResultMergeTest(TEST_NAME1, false, false);
+	}
+
+	@Test
+	public void testResultMergeRowwiseSparse() {
+		runParForResultMergeTest(TEST_NAME1, true, false);
+	}
+
+	@Test
+	public void testResultMergeRowwiseDenseCompare() {
+		runParForResultMergeTest(TEST_NAME1, false, true);
+	}
+
+	@Test
+	public void testResultMergeRowwiseSparseCompare() {
+		runParForResultMergeTest(TEST_NAME1, true, true);
+	}
+
+	@Test
+	public void testResultMergeColwiseDense() {
+		runParForResultMergeTest(TEST_NAME2, false, false);
+	}
+
+	@Test
+	public void testResultMergeColwiseSparseCompare() {
+		runParForResultMergeTest(TEST_NAME2, true, true);
+	}
+
+	@Test
+	public void testParallelMergeRowwiseDense() {
+		runParallelResultMergeTest(TEST_NAME1, false, false);
+	}
+
+	@Test
+	public void testParallelMergeRowwiseSparseCompare() {
+		runParallelResultMergeTest(TEST_NAME1, true, true);
+	}
+
+	@Test
+	public void testParallelMergeColwiseSparse() {
+		runParallelResultMergeTest(TEST_NAME2, true, false);
+	}
+
+	@Test
+	public void testParallelMergeColwiseDenseCompare() {
+		runParallelResultMergeTest(TEST_NAME2, false, true);
+	}
+
+	/**
+	 *
+	 * @param test
+	 * @param sparse
+	 * @param compare
+	 */
+	private void runParForResultMergeTest( String test, boolean sparse, boolean compare )
+	{
+		String TEST_NAME = test;
+		int rows = TEST_NAME.equals(TEST_NAME1) ? rows1 : rows2;
+		int cols = TEST_NAME.equals(TEST_NAME1) ? cols1 : cols2;
+
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+
+		String HOME = SCRIPT_DIR + TEST_DIR;
+		fullDMLScriptName = HOME + TEST_NAME + ".dml";
+		programArgs = new String[]{"-args", String.valueOf(rows), String.valueOf(cols),
+			String.valueOf(sparse ? sparsity2 : sparsity1), String.valueOf(compare ? 7 : 0),
+			output("R"), output("S") };
+
+		//run tests
+		runTest(true, false, null, -1);
+
+		//compare parfor and for results
+		HashMap<CellIndex, Double> dmlfile1 = readDMLMatrixFromHDFS("R");
+		HashMap<CellIndex, Double> dmlfile2 = readDMLMatrixFromHDFS("S");
+		TestUtils.compareMatrices(dmlfile1, dmlfile2, eps, "R", "S");
+	}
+
+	/**
+	 *
+	 * @param test
+	 * @param sparse
+	 * @param compare
+	 */
+	private void runParallelResultMergeTest( String test, boolean sparse, boolean compare )
+	{
+		int rows = test.equals(TEST_NAME1) ? rows1 : rows2;
+		int cols = test.equals(TEST_NAME1) ? cols1 : cols2;
+		boolean rowwise = test.equals(TEST_NAME1);
+
+		try
+		{
+			loadTestConfiguration(getTestConfiguration(test));
+			CacheableData.initCaching();
+
+			//create initial output and disjoint partial results of all workers
+			double init = compare ? 7 : 0;
+			double[][] R = getRandomMatrix(rows, cols, -1, 1, sparse ? sparsity2 : sparsity1, 3);
+			double[][] E = new double[rows][cols];
+			MatrixObject[] in = new MatrixObject[numWorkers];
+			for( int k=0; k<numWorkers; k++ ) {
+				double[][] P = new double[rows][cols];
+				for( int i=0; i<rows; i++ )
+					for( int j=0; j<cols; j++ ) {
+						boolean owned = ((rowwise ? i : j) % numWorkers == k);
+						P[i][j] = owned ? R[i][j] : init;
+						if( owned )
+							E[i][j] = R[i][j];
+					}
+				in[k] = createMatrixObject("in"+k, P);
+			}
+			double[][] O = getRandomMatrix(rows, cols, init, init, 1.0, 7);
+			MatrixObject out = createMatrixObject("R", O);
+
+			//multi-threaded merge of all partial results
+			ResultMergeLocalMemory rm = new ResultMergeLocalMemory(out, in, output("R"));
+			MatrixObject ret = rm.executeParallelMerge(numWorkers);
+			MatrixBlock mb = ret.acquireRead();
+			TestUtils.compareMatrices(E, DataConverter.convertToDoubleMatrix(mb), rows, cols, eps);
+			Assert.assertEquals(DataConverter.convertToMatrixBlock(E).getNonZeros(), mb.getNonZeros());
+			ret.release();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.cleanupCacheDir();
+		}
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param data
+	 * @return
+	 * @throws Exception
+	 */
+	private static MatrixObject createMatrixObject( String name, double[][] data )
+		throws Exception
+	{
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(data);
+		mb.examSparsity();
+		MatrixCharacteristics mc = new MatrixCharacteristics(data.length, data[0].length, 
+			OptimizerUtils.DEFAULT_BLOCKSIZE, OptimizerUtils.DEFAULT_BLOCKSIZE, mb.getNonZeros());
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, null, new MatrixFormatMetaData(
+			mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		mo.setVarName(name);
+		mo.acquireModify(mb);
+		mo.release();
+		return mo;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueue;
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueueStealing;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the lock-free work-stealing task queue, which
+ * checks that all tasks are consumed exactly once by concurrent readers,
+ * for both, tasks created before and during the reads.
+ * 
+ */
+public class ParForStealingTaskQueueTest extends AutomatedTestBase 
+{
+	private final static int numTasks = 100000;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testStealingQueueSingleReader() {
+		runStealingTaskQueueTest(1, false);
+	}
+	
+	@Test
+	public void testStealingQueueMultiReaderPrefilled() {
+		runStealingTaskQueueTest(8, false);
+	}
+	
+	@Test
+	public void testStealingQueueMultiReaderStreaming() {
+		runStealingTaskQueueTest(8, true);
+	}
+	
+	@Test
+	public void testStealingQueueMoreReadersThanStripes() {
+		runStealingTaskQueueTest(13, true);
+	}
+	
+	/**
+	 * 
+	 * @param par
+	 * @param streaming
+	 */
+	private void runStealingTaskQueueTest( int par, boolean streaming )
+	{
+		try
+		{
+			final LocalTaskQueueStealing<Long> queue = new LocalTaskQueueStealing<Long>(Math.min(par, 8));
+			final AtomicLong count = new AtomicLong(0);
+			final AtomicLong sum = new AtomicLong(0);
+			
+			//create tasks before reads if required
+			if( !streaming )
+				enqueueTasks(queue);
+			
+			//start concurrent readers
+			Thread[] threads = new Thread[par];
+			for( int i=0; i<par; i++ ) {
+				threads[i] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							Object t = null;
+							while( (t=queue.dequeueTask()) != LocalTaskQueue.NO_MORE_TASKS ) {
+								count.incrementAndGet();
+								sum.addAndGet((Long)t);
+							}
+						}
+						catch(InterruptedException ex) {
+							throw new RuntimeException(ex);
+						}
+					}
+				});
+				threads[i].start();
+			}
+			
+			//create tasks during reads if required
+			if( streaming )
+				enqueueTasks(queue);
+			
+			for( Thread thread : threads )
+				thread.join();
+			
+			//check that all tasks consumed exactly once
+			Assert.assertEquals(numTasks, count.get());
+			Assert.assertEquals(((long)numTasks)*(numTasks+1)/2, sum.get());
+			Assert.assertEquals(0, queue.size());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param queue
+	 * @throws InterruptedException
+	 */
+	private void enqueueTasks( LocalTaskQueue<Long> queue ) 
+		throws InterruptedException
+	{
+		for( long i=1; i<=numTasks; i++ )
+			queue.enqueueTask(i);
+		queue.closeInput();
+	}
+}
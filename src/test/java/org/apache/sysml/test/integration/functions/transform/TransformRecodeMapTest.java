@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.transform;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.transform.encode.EncoderFactory;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the single- and multi-threaded block encode (build and apply) and 
+ * apply of recoded columns with many distinct tokens and null values, as well 
+ * as the consistency of codes after a round trip over the frame meta data.
+ *
+ */
+public class TransformRecodeMapTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "TransformRecodeMapTest";
+	private final static String TEST_DIR = "functions/transform/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + TransformRecodeMapTest.class.getSimpleName() + "/";
+
+	private final static String SPEC = "{\"ids\": true, \"recode\": [ 1, 3 ] }";
+
+	private final static int rows = 7654;
+	private final static int cols = 3;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testRecodeFewDistinct() {
+		runTransformRecodeMapTest(7, 1);
+	}
+
+	@Test
+	public void testRecodeManyDistinct() {
+		runTransformRecodeMapTest(rows/2, 1);
+	}
+
+	@Test
+	public void testRecodeFewDistinctMT() {
+		runTransformRecodeMapTest(7, 3);
+	}
+
+	@Test
+	public void testRecodeManyDistinctMT() {
+		runTransformRecodeMapTest(rows/2, 3);
+	}
+
+	/**
+	 *
+	 * @param ndistinct
+	 * @param k
+	 */
+	private void runTransformRecodeMapTest(int ndistinct, int k)
+	{
+		try
+		{
+			//create input frame with nulls in recoded column 3
+			FrameBlock F = new FrameBlock(cols, ValueType.STRING);
+			F.ensureAllocatedColumns(rows);
+			for( int i=0; i<rows; i++ ) {
+				F.set(i, 0, "t" + (i % ndistinct));
+				F.set(i, 1, String.valueOf(i));
+				F.set(i, 2, (i % 10 == 0) ? null : "s" + (i % 3));
+			}
+
+			//encode (build and apply) and obtain meta data
+			Encoder encoder = EncoderFactory.createEncoder(SPEC, cols, null);
+			MatrixBlock X = encoder.encode(F, new MatrixBlock(rows, cols, false), k);
+			FrameBlock M = encoder.getMetaData(new FrameBlock(cols, ValueType.STRING));
+
+			//check dense codes of first-occurrence order
+			HashMap<String,Integer> expected = new HashMap<String,Integer>();
+			for( int i=0; i<rows; i++ ) {
+				String key = F.get(i, 0).toString();
+				if( !expected.containsKey(key) )
+					expected.put(key, expected.size()+1);
+				Assert.assertEquals(expected.get(key).intValue(), X.quickGetValue(i, 0), 0);
+				Assert.assertEquals(i, X.quickGetValue(i, 1), 0);
+			}
+			Assert.assertEquals(ndistinct, expected.size());
+			long nnz = X.getNonZeros();
+			X.recomputeNonZeros();
+			Assert.assertEquals(X.getNonZeros(), nnz);
+
+			//apply with meta data to modified input and compare codes
+			F.set(rows-1, 0, "unseen");
+			Encoder encoder2 = EncoderFactory.createEncoder(SPEC, cols, M);
+			MatrixBlock Y = encoder2.apply(F, new MatrixBlock(rows, cols, false), k);
+			//(null values are encoded but not representable in the meta data)
+			for( int i=0; i<rows-1; i++ )
+				for( int j=0; j<cols; j++ ) {
+					if( F.get(i, j) == null )
+						Assert.assertFalse(Double.isNaN(X.quickGetValue(i, j)));
+					else
+						Assert.assertEquals(X.quickGetValue(i, j), Y.quickGetValue(i, j), 0);
+				}
+			Assert.assertTrue(Double.isNaN(Y.quickGetValue(rows-1, 0)));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -41,6 +41,7 @@ import org.junit.runners.Suite;
 	
 	MapMultChainTest.class,
 	MapMultLimitTest.class,
+	MatrixMultPackedKernelTest.class,
 	MatrixMultiplicationTest.class,
 	MatrixVectorTest.class,
 	OuterProductTest.class,
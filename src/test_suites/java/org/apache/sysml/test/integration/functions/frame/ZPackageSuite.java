@@ -30,6 +30,7 @@ import org.junit.runners.Suite;
 	FrameCastingTest.class,
 	FrameConverterTest.class,
 	FrameCopyTest.class,
+	FrameDictionaryEncodingTest.class,
 	FrameGetSetTest.class,
 	FrameIndexingTest.class,
 	FrameReadWriteTest.class,
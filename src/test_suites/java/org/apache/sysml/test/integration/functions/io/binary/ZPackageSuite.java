@@ -26,6 +26,9 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	BulkSerializeTest.class,
+	MappedBinaryReadTest.class,
+	PipelinedBinaryWriteTest.class,
 	SerializeTest.class
 })
 
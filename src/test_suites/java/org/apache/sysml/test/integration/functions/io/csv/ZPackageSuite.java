@@ -26,8 +26,11 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	CSVMetaDataSamplingTest.class,
 	CSVParametersTest.class,
 	FormatChangeTest.class,
+	ReadCSVByteParserTest.class,
+	ReadCSVSinglePassTest.class,
 	ReadCSVTest.class,
 	WriteCSVTest.class
 })
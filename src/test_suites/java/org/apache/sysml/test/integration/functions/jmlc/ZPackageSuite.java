@@ -28,12 +28,15 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	FrameCastingTest.class,
 	FrameDecodeTest.class,
+	FrameEncodeRowTest.class,
 	FrameEncodeTest.class,
 	FrameIndexingAppendTest.class,
 	FrameLeftIndexingTest.class,
 	FrameReadMetaTest.class,
 	FrameTransformTest.class,
+	JMLCBlockPoolTest.class,
 	JMLCInputOutputTest.class,
+	JMLCPlanCacheTest.class,
 	ReuseModelVariablesTest.class,
 	SystemTMulticlassSVMScoreTest.class
 })
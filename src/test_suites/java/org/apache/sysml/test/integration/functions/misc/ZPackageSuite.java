@@ -42,10 +42,12 @@ import org.junit.runners.Suite;
 	NegativeLoopIncrementsTest.class,
 	NrowNcolStringTest.class,
 	NrowNcolUnknownCSVReadTest.class,
+	OutOfCoreStreamingTest.class,
 	OuterTableExpandTest.class,
 	PrintExpressionTest.class,
 	PrintMatrixTest.class,
 	ReadAfterWriteTest.class,
+	RewriteFuseCellwiseTest.class,
 	RewriteFusedRandTest.class,
 	RewriteSimplifyRowColSumMVMultTest.class,
 	RewriteSlicedMatrixMultTest.class,
@@ -32,6 +32,7 @@ import org.junit.runners.Suite;
 	ParForDataPartitionLeftIndexingTest.class,
 	ParForDependencyAnalysisTest.class,
 	ParForFunctionSerializationTest.class,
+	ParForLocalResultMergeTest.class,
 	ParForMultipleDataPartitioningTest.class,
 	ParForNaNResultMergeTest.class,
 	ParForReplaceThreadIDRecompileTest.class,
@@ -39,6 +40,7 @@ import org.junit.runners.Suite;
 	
 	ParForParallelRemoteResultMergeTest.class,
 	ParForSerialRemoteResultMergeTest.class,
+	ParForStealingTaskQueueTest.class,
 	ParForRepeatedOptimizationTest.class,
 	ParForRulebasedOptimizerTest.class
 })
@@ -31,6 +31,7 @@ import org.junit.runners.Suite;
 	TransformAndApplyTest.class,
 	TransformEncodeDecodeTest.class,
 	TransformReadMetaTest.class,
+	TransformRecodeMapTest.class,
 	TransformTest.class,
 })
 